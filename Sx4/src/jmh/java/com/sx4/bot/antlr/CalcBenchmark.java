@@ -0,0 +1,48 @@
+package com.sx4.bot.antlr;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalcBenchmark {
+
+    @Param({"1 + 1", "a = 5; b = a ** 2; sqrt(b) + max(a, 3) * (b - 1) / 4", "(((1 + 2) * 3 - ~4) << 2) ^ abs(10 - 20) | round(pi * 100)"})
+    public String expression;
+
+    private CalcParser.ParseContext tree;
+    private CalcProgram program;
+
+    private CalcParser.ParseContext parse(String expression) {
+        return new CalcParser(new CommonTokenStream(new CalcLexer(CharStreams.fromString(expression)))).parse();
+    }
+
+    @Setup
+    public void setup() {
+        this.tree = this.parse(this.expression);
+        this.program = CalcCompiler.compile(this.tree, 2048, 128);
+    }
+
+    @Benchmark
+    public CalcParser.ParseContext parse() {
+        return this.parse(this.expression);
+    }
+
+    @Benchmark
+    public CalcProgram compile() {
+        return CalcCompiler.compile(this.tree, 2048, 128);
+    }
+
+    @Benchmark
+    public double evaluate() {
+        return this.program.evaluate();
+    }
+
+}
@@ -0,0 +1,278 @@
+package com.sx4.bot.antlr;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class CalcCompiler extends CalcBaseVisitor<Void> {
+
+    private final int maxInstructions;
+    private final int maxDepth;
+
+    private int[] code = new int[16];
+    private int size = 0;
+
+    private double[] constants = new double[8];
+    private int constantCount = 0;
+
+    private final Map<String, Integer> variables = new HashMap<>();
+
+    private int stack = 0, maxStack = 0, depth = 0;
+
+    private CalcCompiler(int maxInstructions, int maxDepth) {
+        this.maxInstructions = maxInstructions;
+        this.maxDepth = maxDepth;
+    }
+
+    private void emit(int opcode) {
+        if (this.size == this.maxInstructions) {
+            throw new IllegalArgumentException("That expression is too long");
+        }
+
+        if (this.size == this.code.length) {
+            this.code = Arrays.copyOf(this.code, this.code.length * 2);
+        }
+
+        this.code[this.size++] = opcode;
+
+        switch (opcode) {
+            case CalcProgram.CONST:
+            case CalcProgram.LOAD:
+                this.stack++;
+                this.maxStack = Math.max(this.maxStack, this.stack);
+                break;
+            case CalcProgram.STORE:
+            case CalcProgram.NOT:
+            case CalcProgram.SQRT:
+            case CalcProgram.ROUND:
+            case CalcProgram.CEIL:
+            case CalcProgram.FLOOR:
+            case CalcProgram.ABS:
+                break;
+            default:
+                // Binary operators and pop take one value off the stack
+                this.stack--;
+        }
+    }
+
+    private void emit(int opcode, int operand) {
+        this.emit(opcode);
+
+        if (this.size == this.code.length) {
+            this.code = Arrays.copyOf(this.code, this.code.length * 2);
+        }
+
+        this.code[this.size++] = operand;
+    }
+
+    private void emitConstant(double value) {
+        if (this.constantCount == this.constants.length) {
+            this.constants = Arrays.copyOf(this.constants, this.constants.length * 2);
+        }
+
+        this.constants[this.constantCount] = value;
+        this.emit(CalcProgram.CONST, this.constantCount++);
+    }
+
+    private Void binary(CalcParser.ExprContext left, CalcParser.ExprContext right, int opcode) {
+        this.visit(left);
+        this.visit(right);
+        this.emit(opcode);
+
+        return null;
+    }
+
+    private Void unary(CalcParser.ExprContext expr, int opcode) {
+        this.nested(expr);
+        this.emit(opcode);
+
+        return null;
+    }
+
+    // Only brackets, functions and unary operators nest, chains of binary operators are bounded by the instruction limit
+    private void nested(CalcParser.ExprContext expr) {
+        if (++this.depth > this.maxDepth) {
+            throw new IllegalArgumentException("That expression is nested too deeply");
+        }
+
+        this.visit(expr);
+        this.depth--;
+    }
+
+    @Override
+    public Void visitParse(CalcParser.ParseContext ctx) {
+        boolean value = false;
+        for (CalcParser.StatContext stat : ctx.stat()) {
+            if (stat instanceof CalcParser.BlankContext) {
+                continue;
+            }
+
+            // Only the value of the last statement is returned
+            if (value) {
+                this.emit(CalcProgram.POP);
+            }
+
+            this.visit(stat);
+            value = true;
+        }
+
+        if (!value) {
+            throw new IllegalArgumentException("That expression has nothing to evaluate");
+        }
+
+        return null;
+    }
+
+    @Override
+    public Void visitReturn(CalcParser.ReturnContext ctx) {
+        return this.visit(ctx.expr());
+    }
+
+    @Override
+    public Void visitAssign(CalcParser.AssignContext ctx) {
+        this.visit(ctx.expr());
+        this.emit(CalcProgram.STORE, this.variables.computeIfAbsent(ctx.VAR().getText(), key -> this.variables.size()));
+
+        return null;
+    }
+
+    @Override
+    public Void visitVar(CalcParser.VarContext ctx) {
+        Integer slot = this.variables.get(ctx.VAR().getText());
+        if (slot == null) {
+            // Unassigned variables are 0
+            this.emitConstant(0D);
+        } else {
+            this.emit(CalcProgram.LOAD, slot);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Void visitDouble(CalcParser.DoubleContext ctx) {
+        this.emitConstant(Double.parseDouble(ctx.DOUBLE().getText()));
+
+        return null;
+    }
+
+    @Override
+    public Void visitPi(CalcParser.PiContext ctx) {
+        this.emitConstant(Math.PI);
+
+        return null;
+    }
+
+    @Override
+    public Void visitParens(CalcParser.ParensContext ctx) {
+        this.nested(ctx.expr());
+
+        return null;
+    }
+
+    @Override
+    public Void visitPow(CalcParser.PowContext ctx) {
+        return this.binary(ctx.expr(0), ctx.expr(1), CalcProgram.POW);
+    }
+
+    @Override
+    public Void visitDiv(CalcParser.DivContext ctx) {
+        return this.binary(ctx.expr(0), ctx.expr(1), CalcProgram.DIV);
+    }
+
+    @Override
+    public Void visitMul(CalcParser.MulContext ctx) {
+        return this.binary(ctx.expr(0), ctx.expr(1), CalcProgram.MUL);
+    }
+
+    @Override
+    public Void visitAdd(CalcParser.AddContext ctx) {
+        return this.binary(ctx.expr(0), ctx.expr(1), CalcProgram.ADD);
+    }
+
+    @Override
+    public Void visitSub(CalcParser.SubContext ctx) {
+        return this.binary(ctx.expr(0), ctx.expr(1), CalcProgram.SUB);
+    }
+
+    @Override
+    public Void visitOr(CalcParser.OrContext ctx) {
+        return this.binary(ctx.expr(0), ctx.expr(1), CalcProgram.OR);
+    }
+
+    @Override
+    public Void visitAnd(CalcParser.AndContext ctx) {
+        return this.binary(ctx.expr(0), ctx.expr(1), CalcProgram.AND);
+    }
+
+    @Override
+    public Void visitXor(CalcParser.XorContext ctx) {
+        return this.binary(ctx.expr(0), ctx.expr(1), CalcProgram.XOR);
+    }
+
+    @Override
+    public Void visitShiftLeft(CalcParser.ShiftLeftContext ctx) {
+        return this.binary(ctx.expr(0), ctx.expr(1), CalcProgram.SHIFT_LEFT);
+    }
+
+    @Override
+    public Void visitShiftRight(CalcParser.ShiftRightContext ctx) {
+        return this.binary(ctx.expr(0), ctx.expr(1), CalcProgram.SHIFT_RIGHT);
+    }
+
+    @Override
+    public Void visitMin(CalcParser.MinContext ctx) {
+        this.nested(ctx.expr(0));
+        this.nested(ctx.expr(1));
+        this.emit(CalcProgram.MIN);
+
+        return null;
+    }
+
+    @Override
+    public Void visitMax(CalcParser.MaxContext ctx) {
+        this.nested(ctx.expr(0));
+        this.nested(ctx.expr(1));
+        this.emit(CalcProgram.MAX);
+
+        return null;
+    }
+
+    @Override
+    public Void visitNot(CalcParser.NotContext ctx) {
+        return this.unary(ctx.expr(), CalcProgram.NOT);
+    }
+
+    @Override
+    public Void visitSqrt(CalcParser.SqrtContext ctx) {
+        return this.unary(ctx.expr(), CalcProgram.SQRT);
+    }
+
+    @Override
+    public Void visitRound(CalcParser.RoundContext ctx) {
+        return this.unary(ctx.expr(), CalcProgram.ROUND);
+    }
+
+    @Override
+    public Void visitCeil(CalcParser.CeilContext ctx) {
+        return this.unary(ctx.expr(), CalcProgram.CEIL);
+    }
+
+    @Override
+    public Void visitFloor(CalcParser.FloorContext ctx) {
+        return this.unary(ctx.expr(), CalcProgram.FLOOR);
+    }
+
+    @Override
+    public Void visitAbs(CalcParser.AbsContext ctx) {
+        return this.unary(ctx.expr(), CalcProgram.ABS);
+    }
+
+    public static CalcProgram compile(CalcParser.ParseContext tree, int maxInstructions, int maxDepth) {
+        CalcCompiler compiler = new CalcCompiler(maxInstructions, maxDepth);
+        compiler.visit(tree);
+
+        return new CalcProgram(Arrays.copyOf(compiler.code, compiler.size), Arrays.copyOf(compiler.constants, compiler.constantCount), compiler.variables.size(), compiler.maxStack);
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.sx4.bot.antlr;
+
+import org.antlr.v4.runtime.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class CalcEngine {
+
+    // Fails on the first lexer or parser error rather than printing it and recovering
+    private static final BaseErrorListener ERROR_LISTENER = new BaseErrorListener() {
+        @Override
+        public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String message, RecognitionException exception) {
+            throw new IllegalArgumentException("That expression is not valid");
+        }
+    };
+
+    private final int maxInstructions;
+    private final int maxDepth;
+
+    // Programs only read variables they assign themselves, so the same expression always has the same result
+    private final Map<String, Double> results;
+
+    public CalcEngine(int maxInstructions, int maxDepth, int cacheSize) {
+        this.maxInstructions = maxInstructions;
+        this.maxDepth = maxDepth;
+
+        this.results = new LinkedHashMap<>(16, 0.75F, true) {
+            protected boolean removeEldestEntry(Map.Entry<String, Double> eldest) {
+                return this.size() > cacheSize;
+            }
+        };
+    }
+
+    public CalcProgram compile(String expression) {
+        // The parser recurses for every bracket and unary operator, so deep nesting is rejected before it gets that far
+        int depth = 0, unary = 0;
+        for (int i = 0; i < expression.length(); i++) {
+            char character = expression.charAt(i);
+            if (character == '(') {
+                depth++;
+            } else if (character == ')') {
+                depth--;
+            } else if (character == '~') {
+                unary++;
+            } else if (!Character.isWhitespace(character)) {
+                // A run of unary operators ends at its operand
+                unary = 0;
+            }
+
+            if (depth + unary > this.maxDepth) {
+                throw new IllegalArgumentException("That expression is nested too deeply");
+            }
+        }
+
+        CalcLexer lexer = new CalcLexer(CharStreams.fromString(expression));
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(CalcEngine.ERROR_LISTENER);
+
+        CalcParser parser = new CalcParser(new CommonTokenStream(lexer));
+        parser.removeErrorListeners();
+        parser.addErrorListener(CalcEngine.ERROR_LISTENER);
+
+        try {
+            return CalcCompiler.compile(parser.parse(), this.maxInstructions, this.maxDepth);
+        } catch (StackOverflowError e) {
+            // Anything the scan above doesn't catch shouldn't escape as an error
+            throw new IllegalArgumentException("That expression is nested too deeply");
+        }
+    }
+
+    public double evaluate(String expression) {
+        synchronized (this.results) {
+            Double result = this.results.get(expression);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        double result = this.compile(expression).evaluate();
+
+        synchronized (this.results) {
+            this.results.put(expression, result);
+        }
+
+        return result;
+    }
+
+}
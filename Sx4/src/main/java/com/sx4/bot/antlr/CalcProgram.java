@@ -0,0 +1,126 @@
+package com.sx4.bot.antlr;
+
+public class CalcProgram {
+
+    // CONST, LOAD and STORE are followed by an operand in the next slot of the code
+    public static final int CONST = 0;
+    public static final int LOAD = 1;
+    public static final int STORE = 2;
+    public static final int POP = 3;
+    public static final int ADD = 4;
+    public static final int SUB = 5;
+    public static final int MUL = 6;
+    public static final int DIV = 7;
+    public static final int POW = 8;
+    public static final int AND = 9;
+    public static final int OR = 10;
+    public static final int XOR = 11;
+    public static final int NOT = 12;
+    public static final int SHIFT_LEFT = 13;
+    public static final int SHIFT_RIGHT = 14;
+    public static final int SQRT = 15;
+    public static final int ROUND = 16;
+    public static final int CEIL = 17;
+    public static final int FLOOR = 18;
+    public static final int ABS = 19;
+    public static final int MIN = 20;
+    public static final int MAX = 21;
+
+    private final int[] code;
+    private final double[] constants;
+    private final int variables;
+    private final int maxStack;
+
+    public CalcProgram(int[] code, double[] constants, int variables, int maxStack) {
+        this.code = code;
+        this.constants = constants;
+        this.variables = variables;
+        this.maxStack = maxStack;
+    }
+
+    public int getInstructions() {
+        return this.code.length;
+    }
+
+    public double evaluate() {
+        double[] stack = new double[this.maxStack], variables = new double[this.variables];
+        int top = -1;
+
+        int[] code = this.code;
+        for (int i = 0; i < code.length; i++) {
+            switch (code[i]) {
+                case CalcProgram.CONST:
+                    stack[++top] = this.constants[code[++i]];
+                    break;
+                case CalcProgram.LOAD:
+                    stack[++top] = variables[code[++i]];
+                    break;
+                case CalcProgram.STORE:
+                    variables[code[++i]] = stack[top];
+                    break;
+                case CalcProgram.POP:
+                    top--;
+                    break;
+                case CalcProgram.ADD:
+                    stack[top - 1] = stack[top - 1] + stack[top--];
+                    break;
+                case CalcProgram.SUB:
+                    stack[top - 1] = stack[top - 1] - stack[top--];
+                    break;
+                case CalcProgram.MUL:
+                    stack[top - 1] = stack[top - 1] * stack[top--];
+                    break;
+                case CalcProgram.DIV:
+                    stack[top - 1] = stack[top - 1] / stack[top--];
+                    break;
+                case CalcProgram.POW:
+                    stack[top - 1] = Math.pow(stack[top - 1], stack[top--]);
+                    break;
+                case CalcProgram.AND:
+                    stack[top - 1] = (long) stack[top - 1] & (long) stack[top--];
+                    break;
+                case CalcProgram.OR:
+                    stack[top - 1] = (long) stack[top - 1] | (long) stack[top--];
+                    break;
+                case CalcProgram.XOR:
+                    stack[top - 1] = (long) stack[top - 1] ^ (long) stack[top--];
+                    break;
+                case CalcProgram.SHIFT_LEFT:
+                    stack[top - 1] = (long) stack[top - 1] << (long) stack[top--];
+                    break;
+                case CalcProgram.SHIFT_RIGHT:
+                    stack[top - 1] = (long) stack[top - 1] >> (long) stack[top--];
+                    break;
+                case CalcProgram.MIN:
+                    stack[top - 1] = Math.min(stack[top - 1], stack[top--]);
+                    break;
+                case CalcProgram.MAX:
+                    stack[top - 1] = Math.max(stack[top - 1], stack[top--]);
+                    break;
+                case CalcProgram.NOT:
+                    stack[top] = ~(long) stack[top];
+                    break;
+                case CalcProgram.SQRT:
+                    stack[top] = Math.sqrt(stack[top]);
+                    break;
+                case CalcProgram.ROUND:
+                    stack[top] = Math.round(stack[top]);
+                    break;
+                case CalcProgram.CEIL:
+                    stack[top] = Math.ceil(stack[top]);
+                    break;
+                case CalcProgram.FLOOR:
+                    stack[top] = Math.floor(stack[top]);
+                    break;
+                case CalcProgram.ABS:
+                    stack[top] = Math.abs(stack[top]);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown opcode " + code[i]);
+            }
+        }
+
+        return stack[top];
+    }
+
+}
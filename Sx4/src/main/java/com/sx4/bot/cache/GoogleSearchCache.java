@@ -8,17 +8,13 @@ import org.bson.Document;
 
 import javax.ws.rs.ForbiddenException;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class GoogleSearchCache {
 
-	private final Map<Boolean, Map<String, List<GoogleSearchResult>>> cache = new HashMap<>();
-	private final Map<Boolean, Map<String, List<GoogleSearchResult>>> imageCache = new HashMap<>();
-
 	private final Sx4 bot;
 
 	public GoogleSearchCache(Sx4 bot) {
@@ -58,50 +54,30 @@ public class GoogleSearchCache {
 	public CompletableFuture<List<GoogleSearchResult>> retrieveResultsByQuery(String query, boolean imageSearch, boolean includeNSFW) {
 		CompletableFuture<List<GoogleSearchResult>> future = new CompletableFuture<>();
 
-		Map<Boolean, Map<String, List<GoogleSearchResult>>> cache = imageSearch ? this.imageCache : this.cache;
-		Map<String, List<GoogleSearchResult>> actualCache = cache.get(includeNSFW);
-
-		if (actualCache != null && actualCache.containsKey(query)) {
-			future.complete(actualCache.get(query));
-		} else {
-			Request request = new Request.Builder()
-				.url("https://www.googleapis.com/customsearch/v1?key=" + this.bot.getConfig().getGoogle() + "&cx=014023765838117903829:mm334tqd3kg" + (imageSearch ? "&searchType=image" : "") + "&safe=" + (includeNSFW ? "off" : "active") + "&q=" + query)
-				.build();
-
-			this.bot.getHttpClient().newCall(request).enqueue((HttpCallback) response -> {
-				Document json = Document.parse(response.body().string());
-				if (json.containsKey("error")) {
-					Document error = json.get("error", Document.class);
-
-					int code = error.getInteger("code");
-					if (code == 429) {
-						future.completeExceptionally(new ForbiddenException("Daily quota reached (100)"));
-					} else {
-						future.completeExceptionally(new HttpException(error.get("message", "Unknown error occurred with status " + code)));
-					}
-
-					return;
+		// Results are kept by the response cache, the daily quota makes them worth holding on to
+		Request request = new Request.Builder()
+			.url("https://www.googleapis.com/customsearch/v1?key=" + this.bot.getConfig().getGoogle() + "&cx=014023765838117903829:mm334tqd3kg" + (imageSearch ? "&searchType=image" : "") + "&safe=" + (includeNSFW ? "off" : "active") + "&q=" + query)
+			.tag(ResponseCache.Policy.class, ResponseCache.ttl(1, TimeUnit.DAYS))
+			.build();
+
+		this.bot.getResponseCache().enqueue(this.bot.getHttpClient().newCall(request), (HttpCallback) response -> {
+			Document json = Document.parse(response.body().string());
+			if (json.containsKey("error")) {
+				Document error = json.get("error", Document.class);
+
+				int code = error.getInteger("code");
+				if (code == 429) {
+					future.completeExceptionally(new ForbiddenException("Daily quota reached (100)"));
+				} else {
+					future.completeExceptionally(new HttpException(error.get("message", "Unknown error occurred with status " + code)));
 				}
 
-				List<Document> items = json.getList("items", Document.class, Collections.emptyList());
-				List<GoogleSearchResult> results = items.stream().map(GoogleSearchResult::new).collect(Collectors.toList());
-
-				cache.compute(includeNSFW, (key, value) -> {
-					if (value == null) {
-						Map<String, List<GoogleSearchResult>> newCache = new HashMap<>();
-						newCache.put(query, results);
-
-						return newCache;
-					} else {
-						value.put(query, results);
+				return;
+			}
 
-						return value;
-					}
-				});
-
-				future.complete(results);
-			});
-		}
+			List<Document> items = json.getList("items", Document.class, Collections.emptyList());
+			future.complete(items.stream().map(GoogleSearchResult::new).collect(Collectors.toList()));
+		});
 
 		return future;
 	}
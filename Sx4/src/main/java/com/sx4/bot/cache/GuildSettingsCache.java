@@ -0,0 +1,157 @@
+package com.sx4.bot.cache;
+
+import com.mongodb.MongoClientSettings;
+import com.sx4.bot.database.mongo.MongoDatabase;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DocumentCodec;
+import org.bson.conversions.Bson;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class GuildSettingsCache {
+
+	public static final int MAX_CACHED_GUILDS = 100_000;
+	public static final long DEFAULT_EXPIRY = TimeUnit.MINUTES.toMillis(10);
+
+	private static final Codec<Document> CODEC = new DocumentCodec();
+
+	private static class GuildSettings {
+
+		private final Map<String, RawBsonDocument> documents = new HashMap<>();
+		private final Map<String, Long> expiries = new HashMap<>();
+
+		public RawBsonDocument get(String key, long now) {
+			Long expiresAt = this.expiries.get(key);
+			if (expiresAt == null || expiresAt <= now) {
+				return null;
+			}
+
+			return this.documents.get(key);
+		}
+
+		public void put(String key, RawBsonDocument document, long expiresAt) {
+			this.documents.put(key, document);
+			this.expiries.put(key, expiresAt);
+		}
+
+	}
+
+	private final Map<Long, GuildSettings> cache;
+
+	private final int maxSize;
+	private final long expiry;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public GuildSettingsCache(int maxSize, long expiry) {
+		this.maxSize = maxSize;
+		this.expiry = expiry;
+
+		this.cache = new LinkedHashMap<>(16, 0.75F, true) {
+			protected boolean removeEldestEntry(Map.Entry<Long, GuildSettings> eldest) {
+				return this.size() > GuildSettingsCache.this.maxSize;
+			}
+		};
+	}
+
+	public GuildSettingsCache() {
+		this(GuildSettingsCache.MAX_CACHED_GUILDS, GuildSettingsCache.DEFAULT_EXPIRY);
+	}
+
+	public Document get(long guildId, Bson projection, Supplier<Document> loader) {
+		return this.get(guildId, null, projection, loader);
+	}
+
+	public Document get(long guildId, Bson filter, Bson projection, Supplier<Document> loader) {
+		String key = GuildSettingsCache.getKey(filter, projection);
+
+		GuildSettings settings;
+		synchronized (this.cache) {
+			settings = this.cache.get(guildId);
+			if (settings == null) {
+				settings = new GuildSettings();
+				this.cache.put(guildId, settings);
+			} else {
+				RawBsonDocument cached = settings.get(key, System.currentTimeMillis());
+				if (cached != null) {
+					this.hits.incrementAndGet();
+
+					return cached.isEmpty() ? MongoDatabase.EMPTY_DOCUMENT : cached.decode(GuildSettingsCache.CODEC);
+				}
+			}
+		}
+
+		this.misses.incrementAndGet();
+
+		Document data = loader.get();
+		RawBsonDocument raw = new RawBsonDocument(data == null ? MongoDatabase.EMPTY_DOCUMENT : data, GuildSettingsCache.CODEC);
+
+		synchronized (this.cache) {
+			// The entry is dropped on invalidation, if that happened while loading the data may be stale
+			if (this.cache.get(guildId) == settings) {
+				settings.put(key, raw, System.currentTimeMillis() + this.expiry);
+			}
+		}
+
+		return data == null ? MongoDatabase.EMPTY_DOCUMENT : data;
+	}
+
+	public void put(long guildId, Bson projection, Document data) {
+		RawBsonDocument raw = new RawBsonDocument(data == null ? MongoDatabase.EMPTY_DOCUMENT : data, GuildSettingsCache.CODEC);
+
+		synchronized (this.cache) {
+			GuildSettings settings = this.cache.get(guildId);
+			if (settings == null) {
+				settings = new GuildSettings();
+				this.cache.put(guildId, settings);
+			}
+
+			settings.put(GuildSettingsCache.getKey(null, projection), raw, System.currentTimeMillis() + this.expiry);
+		}
+	}
+
+	public void invalidate(long guildId) {
+		synchronized (this.cache) {
+			this.cache.remove(guildId);
+		}
+	}
+
+	public void invalidateAll() {
+		synchronized (this.cache) {
+			this.cache.clear();
+		}
+	}
+
+	public int size() {
+		synchronized (this.cache) {
+			return this.cache.size();
+		}
+	}
+
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+	private static String getKey(Bson bson) {
+		return bson == null ? "" : bson.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry()).toJson();
+	}
+
+	// The filter is part of the key as the same projection can match or not match depending on it
+	private static String getKey(Bson filter, Bson projection) {
+		return filter == null ? GuildSettingsCache.getKey(projection) : GuildSettingsCache.getKey(filter) + GuildSettingsCache.getKey(projection);
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.sx4.bot.cache;
+
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.sx4.bot.core.Sx4;
+import com.sx4.bot.database.mongo.model.Operators;
+import com.sx4.bot.entities.management.GuildLoggers;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class LoggerCache {
+
+	public static final int MAX_CACHED_GUILDS = 50_000;
+	public static final long DEFAULT_EXPIRY = TimeUnit.MINUTES.toMillis(10);
+
+	private final Map<Long, CompletableFuture<GuildLoggers>> loggers;
+
+	private final Sx4 bot;
+
+	public LoggerCache(Sx4 bot) {
+		this.loggers = new LinkedHashMap<>(16, 0.75F, true) {
+			protected boolean removeEldestEntry(Map.Entry<Long, CompletableFuture<GuildLoggers>> eldest) {
+				return this.size() > LoggerCache.MAX_CACHED_GUILDS;
+			}
+		};
+
+		this.bot = bot;
+	}
+
+	private List<Bson> getPipeline(long guildId) {
+		List<Bson> guildPipeline = List.of(
+			Aggregates.match(Filters.eq("_id", guildId)),
+			Aggregates.project(Projections.computed("premiumEndAt", Operators.ifNull("$premium.endAt", 0L)))
+		);
+
+		return List.of(
+			Aggregates.match(Filters.and(Filters.eq("guildId", guildId), Filters.exists("enabled", false))),
+			Aggregates.group(null, Accumulators.push("loggers", Operators.ROOT)),
+			Aggregates.unionWith("guilds", guildPipeline),
+			Aggregates.group(null, Accumulators.max("premiumEndAt", "$premiumEndAt"), Accumulators.max("loggers", "$loggers"))
+		);
+	}
+
+	public CompletableFuture<GuildLoggers> retrieveLoggers(long guildId) {
+		synchronized (this.loggers) {
+			CompletableFuture<GuildLoggers> future = this.loggers.get(guildId);
+			if (future != null && !future.isCompletedExceptionally() && (!future.isDone() || !future.join().isExpired())) {
+				return future;
+			}
+
+			future = this.bot.getMongo().aggregateLoggers(this.getPipeline(guildId)).thenApply(documents -> {
+				Document data = documents.isEmpty() ? null : documents.get(0);
+
+				List<Document> loggers = data == null ? Collections.emptyList() : data.getList("loggers", Document.class, Collections.emptyList());
+				long premiumEndAt = data == null ? 0L : data.get("premiumEndAt", 0L);
+
+				return new GuildLoggers(loggers, premiumEndAt, System.currentTimeMillis() + LoggerCache.DEFAULT_EXPIRY);
+			});
+
+			this.loggers.put(guildId, future);
+
+			return future;
+		}
+	}
+
+	public void invalidate(long guildId) {
+		synchronized (this.loggers) {
+			this.loggers.remove(guildId);
+		}
+	}
+
+	public void invalidateAll() {
+		synchronized (this.loggers) {
+			this.loggers.clear();
+		}
+	}
+
+}
@@ -1,52 +1,219 @@
 package com.sx4.bot.cache;
 
 import com.sx4.bot.entities.cache.GuildMessage;
-import gnu.trove.impl.sync.TSynchronizedLongObjectMap;
+import gnu.trove.map.TLongIntMap;
 import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongIntHashMap;
 import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.GenericEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.events.message.MessageUpdateEvent;
 import net.dv8tion.jda.api.hooks.EventListener;
 
-import java.util.Objects;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class MessageCache implements EventListener {
 
 	public static final int MAX_CACHED_MESSAGES = 750_000;
+	public static final int MAX_CACHED_GUILD_MESSAGES = 50_000;
+	public static final int DEFAULT_STRIPES = 16;
 
-	private static final int _MAX_CACHED_MESSAGES = MAX_CACHED_MESSAGES / 2;
+	private static final byte PINNED = 1;
+	private static final byte REFERENCED = 1 << 1;
 
-	private TLongObjectMap<GuildMessage> createCache() {
-		return new TSynchronizedLongObjectMap<>(new TLongObjectHashMap<>(_MAX_CACHED_MESSAGES), new Object());
-	}
+	/*
+	 * Each stripe stores its messages column-wise in fixed arrays, so an entry costs a few primitives
+	 * and a UTF-8 byte array rather than a message object and a String. Eviction uses a CLOCK hand over
+	 * the slots and every guild keeps an intrusive list of its slots in insertion order for the per guild cap.
+	 */
+	private static class Stripe {
+
+		private final int capacity;
+		private final int maxGuildSize;
+
+		private final TLongIntMap index;
+		private final TLongObjectMap<int[]> guilds;
+
+		private final long[] ids;
+		private final long[] guildIds;
+		private final long[] authorIds;
+		private final JDA[] jdas;
+		private final byte[][] contents;
+		private final byte[] flags;
 
-	public TLongObjectMap<GuildMessage> messageCache = this.createCache();
-	public TLongObjectMap<GuildMessage> overloadCache = this.createCache();
+		private final int[] guildPrevious;
+		private final int[] guildNext;
 
-	public synchronized void putMessage(GuildMessage message) {
-		Objects.requireNonNull(message);
+		private int size = 0;
+		private int hand = 0;
 
-		if (this.overloadCache.size() + 1 > _MAX_CACHED_MESSAGES) {
-			TLongObjectMap<GuildMessage> temp = this.messageCache;
+		public Stripe(int capacity, int maxGuildSize) {
+			this.capacity = capacity;
+			this.maxGuildSize = maxGuildSize;
 
-			this.messageCache = this.overloadCache;
-			this.overloadCache = temp;
+			this.index = new TLongIntHashMap(capacity, 0.5F, -1L, -1);
+			this.guilds = new TLongObjectHashMap<>();
 
-			this.overloadCache.clear();
+			this.ids = new long[capacity];
+			this.guildIds = new long[capacity];
+			this.authorIds = new long[capacity];
+			this.jdas = new JDA[capacity];
+			this.contents = new byte[capacity][];
+			this.flags = new byte[capacity];
+
+			this.guildPrevious = new int[capacity];
+			this.guildNext = new int[capacity];
 		}
 
-		if (this.messageCache.containsKey(message.getId())) {
-			this.messageCache.put(message.getId(), message);
-		} else if (this.overloadCache.containsKey(message.getId())) {
-			this.overloadCache.put(message.getId(), message);
+		public synchronized void put(JDA jda, long id, long guildId, long authorId, boolean pinned, byte[] content) {
+			int slot = this.index.get(id);
+			if (slot != -1) {
+				this.contents[slot] = content;
+				this.flags[slot] = (byte) (REFERENCED | (pinned ? PINNED : 0));
+
+				return;
+			}
+
+			int[] guild = this.guilds.get(guildId);
+			if (guild != null && guild[2] >= this.maxGuildSize) {
+				slot = guild[0];
+				this.remove(slot);
+			} else {
+				slot = this.nextSlot();
+			}
+
+			this.ids[slot] = id;
+			this.guildIds[slot] = guildId;
+			this.authorIds[slot] = authorId;
+			this.jdas[slot] = jda;
+			this.contents[slot] = content;
+			this.flags[slot] = pinned ? PINNED : 0;
+
+			this.link(slot);
+			this.index.put(id, slot);
 		}
 
-		if (this.messageCache.size() + 1 > _MAX_CACHED_MESSAGES) {
-			this.overloadCache.put(message.getId(), message);
-		} else {
-			this.messageCache.put(message.getId(), message);
+		public synchronized GuildMessage get(long id) {
+			int slot = this.index.get(id);
+			if (slot == -1) {
+				return null;
+			}
+
+			this.flags[slot] |= REFERENCED;
+
+			return new GuildMessage(this.jdas[slot], this.ids[slot], this.authorIds[slot], (this.flags[slot] & PINNED) != 0, new String(this.contents[slot], StandardCharsets.UTF_8));
+		}
+
+		public synchronized int size() {
+			return this.index.size();
+		}
+
+		private int nextSlot() {
+			if (this.size < this.capacity) {
+				return this.size++;
+			}
+
+			while (true) {
+				int slot = this.hand;
+				this.hand = (this.hand + 1) % this.capacity;
+
+				if ((this.flags[slot] & REFERENCED) != 0) {
+					this.flags[slot] &= ~REFERENCED;
+					continue;
+				}
+
+				this.remove(slot);
+
+				return slot;
+			}
+		}
+
+		private void remove(int slot) {
+			this.index.remove(this.ids[slot]);
+			this.unlink(slot);
+
+			this.jdas[slot] = null;
+			this.contents[slot] = null;
+		}
+
+		private void link(int slot) {
+			long guildId = this.guildIds[slot];
+
+			int[] guild = this.guilds.get(guildId);
+			if (guild == null) {
+				this.guilds.put(guildId, new int[] {slot, slot, 1});
+
+				this.guildPrevious[slot] = -1;
+			} else {
+				this.guildNext[guild[1]] = slot;
+				this.guildPrevious[slot] = guild[1];
+
+				guild[1] = slot;
+				guild[2]++;
+			}
+
+			this.guildNext[slot] = -1;
 		}
+
+		private void unlink(int slot) {
+			long guildId = this.guildIds[slot];
+
+			int[] guild = this.guilds.get(guildId);
+			if (guild == null) {
+				return;
+			}
+
+			int previous = this.guildPrevious[slot], next = this.guildNext[slot];
+			if (previous == -1) {
+				guild[0] = next;
+			} else {
+				this.guildNext[previous] = next;
+			}
+
+			if (next == -1) {
+				guild[1] = previous;
+			} else {
+				this.guildPrevious[next] = previous;
+			}
+
+			if (--guild[2] == 0) {
+				this.guilds.remove(guildId);
+			}
+		}
+
+	}
+
+	private final Stripe[] stripes;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public MessageCache(int maxSize, int maxGuildSize, int stripes) {
+		this.stripes = new Stripe[stripes];
+
+		int capacity = Math.max(1, maxSize / stripes), guildCapacity = Math.max(1, (maxGuildSize + stripes - 1) / stripes);
+		for (int i = 0; i < stripes; i++) {
+			this.stripes[i] = new Stripe(capacity, guildCapacity);
+		}
+	}
+
+	public MessageCache() {
+		this(MessageCache.MAX_CACHED_MESSAGES, MessageCache.MAX_CACHED_GUILD_MESSAGES, MessageCache.DEFAULT_STRIPES);
+	}
+
+	private Stripe getStripe(long id) {
+		// Snowflake low bits are mostly the increment, so spread the whole id before picking a stripe
+		long hash = id * 0x9E3779B97F4A7C15L;
+		return this.stripes[(int) ((hash >>> 32) * this.stripes.length >>> 32)];
+	}
+
+	public void putMessage(Message message) {
+		long guildId = message.isFromGuild() ? message.getGuild().getIdLong() : 0L;
+
+		this.getStripe(message.getIdLong()).put(message.getJDA(), message.getIdLong(), guildId, message.getAuthor().getIdLong(), message.isPinned(), message.getContentRaw().getBytes(StandardCharsets.UTF_8));
 	}
 
 	public GuildMessage getMessageById(String id) {
@@ -54,20 +221,39 @@ public class MessageCache implements EventListener {
 	}
 
 	public GuildMessage getMessageById(long id) {
-		GuildMessage message = this.messageCache.get(id);
+		GuildMessage message = this.getStripe(id).get(id);
 		if (message == null) {
-			message = this.overloadCache.get(id);
+			this.misses.incrementAndGet();
+		} else {
+			this.hits.incrementAndGet();
 		}
 
 		return message;
 	}
 
+	public int size() {
+		int size = 0;
+		for (Stripe stripe : this.stripes) {
+			size += stripe.size();
+		}
+
+		return size;
+	}
+
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	public long getMisses() {
+		return this.misses.get();
+	}
+
 	@Override
 	public void onEvent(GenericEvent event) {
 		if (event instanceof MessageReceivedEvent) {
-			this.putMessage(GuildMessage.fromMessage(((MessageReceivedEvent) event).getMessage()));
+			this.putMessage(((MessageReceivedEvent) event).getMessage());
 		} else if (event instanceof MessageUpdateEvent) {
-			this.putMessage(GuildMessage.fromMessage(((MessageUpdateEvent) event).getMessage()));
+			this.putMessage(((MessageUpdateEvent) event).getMessage());
 		}
 	}
 
@@ -0,0 +1,104 @@
+package com.sx4.bot.cache;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.sx4.bot.core.Sx4;
+import com.sx4.bot.entities.settings.PermissionContext;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PermissionContextCache {
+
+	private static class Entry {
+
+		private final PermissionContext context;
+		private final long expiresAt;
+
+		public Entry(PermissionContext context, long expiresAt) {
+			this.context = context;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+	private final Map<Long, Entry> cache;
+
+	// Bumped on every invalidation so a context compiled from data read before it isn't stored
+	private final AtomicLong generation = new AtomicLong(0L);
+
+	private final AtomicLong hits = new AtomicLong(0L);
+	private final AtomicLong misses = new AtomicLong(0L);
+
+	private final Sx4 bot;
+
+	private final int maxSize;
+	private final long expiry;
+
+	public PermissionContextCache(Sx4 bot) {
+		this.bot = bot;
+		this.maxSize = bot.getConfig().getPermissionCacheSize();
+		this.expiry = TimeUnit.SECONDS.toMillis(bot.getConfig().getPermissionCacheExpiry());
+
+		this.cache = new LinkedHashMap<>(16, 0.75F, true) {
+			protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+				return this.size() > PermissionContextCache.this.maxSize;
+			}
+		};
+	}
+
+	public PermissionContext get(long guildId) {
+		synchronized (this.cache) {
+			Entry entry = this.cache.get(guildId);
+			if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+				this.hits.incrementAndGet();
+				return entry.context;
+			}
+		}
+
+		this.misses.incrementAndGet();
+
+		long generation = this.generation.get();
+
+		List<Document> fakePermissions = this.bot.getMongo().getGuildById(guildId, Projections.include("fakePermissions.holders")).getEmbedded(List.of("fakePermissions", "holders"), Collections.emptyList());
+		List<Document> blacklists = this.bot.getMongo().getBlacklists(Filters.eq("guildId", guildId), Projections.include("channelId", "holders")).into(new ArrayList<>());
+
+		PermissionContext context = new PermissionContext(guildId, fakePermissions, blacklists);
+
+		synchronized (this.cache) {
+			if (this.generation.get() == generation) {
+				this.cache.put(guildId, new Entry(context, System.currentTimeMillis() + this.expiry));
+			}
+		}
+
+		return context;
+	}
+
+	public void invalidate(long guildId) {
+		synchronized (this.cache) {
+			this.generation.incrementAndGet();
+			this.cache.remove(guildId);
+		}
+	}
+
+	public int size() {
+		synchronized (this.cache) {
+			return this.cache.size();
+		}
+	}
+
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+}
@@ -0,0 +1,204 @@
+package com.sx4.bot.cache;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.sx4.bot.database.mongo.MongoDatabase;
+import net.dv8tion.jda.api.entities.Message;
+import org.bson.conversions.Bson;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PrefixCache {
+
+	public static final Bson PROJECTION = Projections.include("prefixes");
+
+	private static final String[] EMPTY = new String[0];
+
+	private static class Prefixes {
+
+		private final String[] prefixes;
+		private final long expiresAt;
+
+		public Prefixes(String[] prefixes, long expiresAt) {
+			this.prefixes = prefixes;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+	private final Map<Long, Prefixes> guilds;
+	private final Map<Long, Prefixes> users;
+
+	// First character of every prefix in use, anything starting with something else can't be a command
+	private final Set<Character> characters = ConcurrentHashMap.newKeySet();
+	private volatile boolean loaded = false;
+
+	private final AtomicLong screened = new AtomicLong(0L);
+	private final AtomicLong hits = new AtomicLong(0L);
+	private final AtomicLong misses = new AtomicLong(0L);
+
+	private final MongoDatabase mongo;
+	private final List<String> defaultPrefixes;
+
+	private final int maxSize;
+	private final long expiry;
+
+	public PrefixCache(MongoDatabase mongo, List<String> defaultPrefixes, int maxSize, long expiry) {
+		this.mongo = mongo;
+		this.defaultPrefixes = defaultPrefixes;
+		this.maxSize = maxSize;
+		this.expiry = TimeUnit.SECONDS.toMillis(expiry);
+
+		this.guilds = this.createMap();
+		this.users = this.createMap();
+
+		this.registerPrefixes(defaultPrefixes);
+
+		// Mentions can always be used as a prefix
+		this.characters.add('<');
+	}
+
+	private Map<Long, Prefixes> createMap() {
+		return new LinkedHashMap<>(16, 0.75F, true) {
+			protected boolean removeEldestEntry(Map.Entry<Long, Prefixes> eldest) {
+				return this.size() > PrefixCache.this.maxSize;
+			}
+		};
+	}
+
+	public void registerPrefixes(Collection<String> prefixes) {
+		for (String prefix : prefixes) {
+			String stripped = prefix.strip();
+			if (stripped.isEmpty()) {
+				continue;
+			}
+
+			// Added in both cases in case prefixes are matched case insensitively
+			char character = stripped.charAt(0);
+			this.characters.add(Character.toLowerCase(character));
+			this.characters.add(Character.toUpperCase(character));
+		}
+	}
+
+	public int ensurePrefixes() {
+		Set<String> prefixes = new HashSet<>();
+		this.mongo.getGuilds().distinct("prefixes", Filters.exists("prefixes"), String.class).into(prefixes);
+		this.mongo.getUsers().distinct("prefixes", Filters.exists("prefixes"), String.class).into(prefixes);
+
+		this.registerPrefixes(prefixes);
+		this.loaded = true;
+
+		return prefixes.size();
+	}
+
+	public boolean isPossibleCommand(Message message) {
+		// Until every prefix in use is known nothing can be ruled out
+		if (!this.loaded) {
+			return true;
+		}
+
+		String content = message.getContentRaw();
+		for (int i = 0; i < content.length(); i++) {
+			char character = content.charAt(i);
+			if (Character.isWhitespace(character)) {
+				continue;
+			}
+
+			if (this.characters.contains(character)) {
+				return true;
+			}
+
+			break;
+		}
+
+		this.screened.incrementAndGet();
+
+		return false;
+	}
+
+	private String[] get(Map<Long, Prefixes> map, long id, boolean guild) {
+		long now = System.currentTimeMillis();
+
+		synchronized (map) {
+			Prefixes prefixes = map.get(id);
+			if (prefixes != null && prefixes.expiresAt > now) {
+				this.hits.incrementAndGet();
+				return prefixes.prefixes;
+			}
+		}
+
+		this.misses.incrementAndGet();
+
+		List<String> data = (guild ? this.mongo.getGuildById(id, PrefixCache.PROJECTION) : this.mongo.getUserById(id, PrefixCache.PROJECTION)).getList("prefixes", String.class, Collections.emptyList());
+
+		return this.put(map, id, data);
+	}
+
+	private String[] put(Map<Long, Prefixes> map, long id, List<String> data) {
+		String[] prefixes = data == null || data.isEmpty() ? PrefixCache.EMPTY : data.toArray(String[]::new);
+		if (prefixes.length != 0) {
+			this.registerPrefixes(data);
+		}
+
+		synchronized (map) {
+			map.put(id, new Prefixes(prefixes, System.currentTimeMillis() + this.expiry));
+		}
+
+		return prefixes;
+	}
+
+	public List<String> getGuildPrefixes(long guildId) {
+		return Arrays.asList(this.get(this.guilds, guildId, true));
+	}
+
+	public List<String> getUserPrefixes(long userId) {
+		return Arrays.asList(this.get(this.users, userId, false));
+	}
+
+	public List<String> getPrefixes(Message message) {
+		String[] userPrefixes = this.get(this.users, message.getAuthor().getIdLong(), false);
+		if (userPrefixes.length != 0) {
+			return Arrays.asList(userPrefixes);
+		}
+
+		String[] guildPrefixes = message.isFromGuild() ? this.get(this.guilds, message.getGuild().getIdLong(), true) : PrefixCache.EMPTY;
+
+		return guildPrefixes.length == 0 ? this.defaultPrefixes : Arrays.asList(guildPrefixes);
+	}
+
+	public void putGuild(long guildId, List<String> prefixes) {
+		this.put(this.guilds, guildId, prefixes);
+	}
+
+	public void putUser(long userId, List<String> prefixes) {
+		this.put(this.users, userId, prefixes);
+	}
+
+	public void invalidateGuild(long guildId) {
+		synchronized (this.guilds) {
+			this.guilds.remove(guildId);
+		}
+	}
+
+	public void invalidateUser(long userId) {
+		synchronized (this.users) {
+			this.users.remove(userId);
+		}
+	}
+
+	public long getScreened() {
+		return this.screened.get();
+	}
+
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+}
@@ -0,0 +1,404 @@
+package com.sx4.bot.cache;
+
+import com.sx4.bot.config.Config;
+import com.sx4.bot.core.Sx4;
+import com.sx4.bot.entities.image.ImageResult;
+import com.sx4.bot.exceptions.image.ImageRenderException;
+import com.sx4.bot.exceptions.image.ImageSizeException;
+import com.sx4.bot.utility.ExceptionUtility;
+import net.dv8tion.jda.api.entities.Message;
+import okhttp3.*;
+import okio.Buffer;
+import okio.BufferedSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RenderCache {
+
+	private static class Entry {
+
+		private final String format;
+		private final long size;
+		private final long createdAt;
+
+		// Only held for the memory tier, disk entries are mapped in when read
+		private final byte[] bytes;
+
+		public Entry(String format, long size, long createdAt, byte[] bytes) {
+			this.format = format;
+			this.size = size;
+			this.createdAt = createdAt;
+			this.bytes = bytes;
+		}
+
+	}
+
+	private final Map<String, Entry> memory = new LinkedHashMap<>(16, 0.75F, true);
+	private final Map<String, Entry> disk = new LinkedHashMap<>(16, 0.75F, true);
+	private final Map<String, CompletableFuture<ImageResult>> pending = new HashMap<>();
+
+	private long memoryBytes = 0L, diskBytes = 0L;
+
+	private final AtomicLong memoryHits = new AtomicLong(0L);
+	private final AtomicLong diskHits = new AtomicLong(0L);
+	private final AtomicLong coalesced = new AtomicLong(0L);
+	private final AtomicLong misses = new AtomicLong(0L);
+
+	// Disk reads and writes are kept off the http and command threads
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	private final Path directory;
+	private final long maxMemory, maxDisk, expiry;
+
+	private final OkHttpClient client;
+
+	public RenderCache(Sx4 bot) {
+		Config config = bot.getConfig();
+
+		this.client = bot.getHttpClient();
+		this.directory = Paths.get(config.getRenderCacheDirectory());
+		this.maxMemory = config.getRenderCacheMemorySize();
+		this.maxDisk = config.getRenderCacheDiskSize();
+		this.expiry = TimeUnit.SECONDS.toMillis(config.getRenderCacheExpiry());
+
+		this.executor.execute(() -> ExceptionUtility.safeRun(this::loadDisk));
+	}
+
+	public long getMemoryHits() {
+		return this.memoryHits.get();
+	}
+
+	public long getDiskHits() {
+		return this.diskHits.get();
+	}
+
+	public long getCoalesced() {
+		return this.coalesced.get();
+	}
+
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+	public double getHitRate() {
+		long hits = this.memoryHits.get() + this.diskHits.get() + this.coalesced.get(), total = hits + this.misses.get();
+
+		return total == 0 ? 0D : hits / (double) total;
+	}
+
+	public long getMemoryBytes() {
+		synchronized (this.memory) {
+			return this.memoryBytes;
+		}
+	}
+
+	public long getDiskBytes() {
+		synchronized (this.disk) {
+			return this.diskBytes;
+		}
+	}
+
+	public CompletableFuture<ImageResult> retrieve(Request request) {
+		String key = RenderCache.getKey(request);
+		long now = System.currentTimeMillis();
+
+		synchronized (this.memory) {
+			Entry entry = this.memory.get(key);
+			if (entry != null) {
+				if (now - entry.createdAt < this.expiry) {
+					this.memoryHits.incrementAndGet();
+					return CompletableFuture.completedFuture(new ImageResult(entry.bytes, entry.format));
+				}
+
+				this.memory.remove(key);
+				this.memoryBytes -= entry.size;
+			}
+		}
+
+		CompletableFuture<ImageResult> future;
+		synchronized (this.pending) {
+			// Identical renders which are already in flight share the same upstream call
+			CompletableFuture<ImageResult> existing = this.pending.get(key);
+			if (existing != null) {
+				this.coalesced.incrementAndGet();
+				return existing;
+			}
+
+			future = new CompletableFuture<>();
+			this.pending.put(key, future);
+		}
+
+		CompletableFuture.supplyAsync(() -> this.readDisk(key, now), this.executor).thenCompose(entry -> {
+			if (entry != null) {
+				this.diskHits.incrementAndGet();
+
+				ImageResult result = new ImageResult(entry.bytes, entry.format);
+				this.putMemory(key, result, entry.createdAt);
+
+				return CompletableFuture.completedFuture(result);
+			}
+
+			this.misses.incrementAndGet();
+
+			return this.request(request).thenApply(render -> {
+				long time = System.currentTimeMillis();
+
+				this.putMemory(key, render, time);
+				this.executor.execute(() -> ExceptionUtility.safeRun(() -> this.writeDisk(key, render, time)));
+
+				return render;
+			});
+		}).whenComplete((result, exception) -> {
+			synchronized (this.pending) {
+				this.pending.remove(key);
+			}
+
+			if (exception != null) {
+				future.completeExceptionally(exception);
+			} else {
+				future.complete(result);
+			}
+		});
+
+		return future;
+	}
+
+	private CompletableFuture<ImageResult> request(Request request) {
+		CompletableFuture<ImageResult> future = new CompletableFuture<>();
+		this.client.newCall(request).enqueue(new Callback() {
+			public void onFailure(Call call, IOException e) {
+				future.completeExceptionally(e);
+			}
+
+			public void onResponse(Call call, Response response) {
+				try (response) {
+					if (response.code() == 200) {
+						// Renders which could never be uploaded are dropped before the body is read
+						long length = response.body().contentLength();
+						if (length > Message.MAX_FILE_SIZE) {
+							future.completeExceptionally(new ImageSizeException(length));
+							return;
+						}
+
+						// Chunked renders have no length so the body is only buffered up to the limit
+						BufferedSource source = response.body().source();
+						if (source.request(Message.MAX_FILE_SIZE + 1)) {
+							future.completeExceptionally(new ImageSizeException(source.getBuffer().size()));
+							return;
+						}
+
+						String contentType = response.header("Content-Type");
+						future.complete(new ImageResult(source.readByteArray(), contentType == null || !contentType.contains("/") ? "png" : contentType.split("/")[1]));
+					} else {
+						// Failed renders are never cached
+						future.completeExceptionally(new ImageRenderException(response.code(), response.body().string()));
+					}
+				} catch (IOException e) {
+					future.completeExceptionally(e);
+				}
+			}
+		});
+
+		return future;
+	}
+
+	private void putMemory(String key, ImageResult result, long createdAt) {
+		byte[] bytes = result.getBytes();
+		if (bytes.length > this.maxMemory) {
+			return;
+		}
+
+		synchronized (this.memory) {
+			Entry previous = this.memory.put(key, new Entry(result.getFormat(), bytes.length, createdAt, bytes));
+			if (previous != null) {
+				this.memoryBytes -= previous.size;
+			}
+
+			this.memoryBytes += bytes.length;
+
+			Iterator<Entry> iterator = this.memory.values().iterator();
+			while (this.memoryBytes > this.maxMemory && iterator.hasNext()) {
+				this.memoryBytes -= iterator.next().size;
+				iterator.remove();
+			}
+		}
+	}
+
+	private Path getPath(String key, String format) {
+		return this.directory.resolve(key + "." + format);
+	}
+
+	private Entry readDisk(String key, long now) {
+		Entry entry;
+		synchronized (this.disk) {
+			entry = this.disk.get(key);
+			if (entry == null) {
+				return null;
+			}
+
+			if (now - entry.createdAt >= this.expiry) {
+				this.removeDisk(key, entry);
+				return null;
+			}
+		}
+
+		try (FileChannel channel = FileChannel.open(this.getPath(key, entry.format), StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+
+			return new Entry(entry.format, entry.size, entry.createdAt, bytes);
+		} catch (IOException e) {
+			synchronized (this.disk) {
+				this.removeDisk(key, entry);
+			}
+
+			return null;
+		}
+	}
+
+	private void writeDisk(String key, ImageResult result, long createdAt) {
+		byte[] bytes = result.getBytes();
+		if (bytes.length > this.maxDisk) {
+			return;
+		}
+
+		try {
+			Path path = this.getPath(key, result.getFormat()), temporary = this.directory.resolve(key + ".tmp");
+
+			Files.write(temporary, bytes);
+			Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		synchronized (this.disk) {
+			Entry previous = this.disk.put(key, new Entry(result.getFormat(), bytes.length, createdAt, null));
+			if (previous != null) {
+				this.diskBytes -= previous.size;
+			}
+
+			this.diskBytes += bytes.length;
+
+			this.evictDisk();
+		}
+	}
+
+	private void removeDisk(String key, Entry entry) {
+		if (this.disk.remove(key, entry)) {
+			this.diskBytes -= entry.size;
+		}
+
+		this.getPath(key, entry.format).toFile().delete();
+	}
+
+	private void evictDisk() {
+		Iterator<Map.Entry<String, Entry>> iterator = this.disk.entrySet().iterator();
+		while (this.diskBytes > this.maxDisk && iterator.hasNext()) {
+			Map.Entry<String, Entry> eldest = iterator.next();
+			iterator.remove();
+
+			this.diskBytes -= eldest.getValue().size;
+			this.getPath(eldest.getKey(), eldest.getValue().format).toFile().delete();
+		}
+	}
+
+	private void loadDisk() {
+		File directory = this.directory.toFile();
+		if (!directory.exists() && !directory.mkdirs()) {
+			return;
+		}
+
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+
+		// Oldest first so the least recently written renders are evicted first
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+
+		synchronized (this.disk) {
+			for (File file : files) {
+				String name = file.getName();
+
+				int index = name.lastIndexOf('.');
+				if (index == -1 || name.endsWith(".tmp")) {
+					file.delete();
+					continue;
+				}
+
+				this.disk.put(name.substring(0, index), new Entry(name.substring(index + 1), file.length(), file.lastModified(), null));
+				this.diskBytes += file.length();
+			}
+
+			this.evictDisk();
+		}
+	}
+
+	private static String getKey(Request request) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+
+		HttpUrl url = request.url();
+
+		RenderCache.update(digest, request.method());
+		RenderCache.update(digest, url.encodedPath());
+
+		// Queries are sorted so the same render is hit regardless of the order they were added in
+		for (String name : new TreeSet<>(url.queryParameterNames())) {
+			RenderCache.update(digest, name);
+			for (String value : url.queryParameterValues(name)) {
+				RenderCache.update(digest, value);
+			}
+		}
+
+		String version = request.tag(String.class);
+		if (version != null) {
+			RenderCache.update(digest, version);
+		}
+
+		RequestBody body = request.body();
+		if (body != null) {
+			try (Buffer buffer = new Buffer()) {
+				body.writeTo(buffer);
+				digest.update(buffer.readByteArray());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		return String.format("%064x", new BigInteger(1, digest.digest()));
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8));
+
+		// Separates each part so adjacent values can't be shifted into each other
+		digest.update((byte) 0);
+	}
+
+}
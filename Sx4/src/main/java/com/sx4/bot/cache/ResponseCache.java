@@ -0,0 +1,571 @@
+package com.sx4.bot.cache;
+
+import com.sx4.bot.config.Config;
+import com.sx4.bot.utility.ExceptionUtility;
+import okhttp3.*;
+import okio.Buffer;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ResponseCache implements Interceptor {
+
+	// Only requests tagged with a policy are cached, everything else goes straight through
+	public static class Policy {
+
+		private final long ttl;
+
+		public Policy(long ttl) {
+			this.ttl = ttl;
+		}
+
+		public long getTTL() {
+			return this.ttl;
+		}
+
+	}
+
+	public static Policy ttl(long duration, TimeUnit unit) {
+		return new Policy(unit.toMillis(duration));
+	}
+
+	private static class Entry {
+
+		private final int code;
+		private final String message;
+		private final String contentType;
+		private final byte[] bytes;
+		private final long expiresAt;
+
+		public Entry(int code, String message, String contentType, byte[] bytes, long expiresAt) {
+			this.code = code;
+			this.message = message;
+			this.contentType = contentType;
+			this.bytes = bytes;
+			this.expiresAt = expiresAt;
+		}
+
+		public long getWeight() {
+			return this.bytes.length + 128L;
+		}
+
+		public Response toResponse(Request request) {
+			return new Response.Builder()
+				.request(request)
+				.protocol(Protocol.HTTP_1_1)
+				.code(this.code)
+				.message(this.message)
+				.header("Content-Type", this.contentType)
+				.body(ResponseBody.create(this.contentType.isEmpty() ? null : MediaType.parse(this.contentType), this.bytes))
+				.build();
+		}
+
+	}
+
+	private static class DiskEntry {
+
+		private final long size;
+		private final long expiresAt;
+
+		public DiskEntry(long size, long expiresAt) {
+			this.size = size;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+	/*
+	 * Count-min sketch of 4 bit counters used to estimate how often a key has been requested, every
+	 * counter is halved once enough increments have happened so old popularity fades out.
+	 */
+	private static class FrequencySketch {
+
+		private static final int[] SEEDS = {0x97CB3127, 0xB5C8A4C1, 0x3C6EF372, 0x9E3779B9};
+
+		private final long[] table;
+		private final int mask;
+		private final int sampleSize;
+
+		private int additions = 0;
+
+		public FrequencySketch(int width) {
+			int size = Integer.highestOneBit(Math.max(width, 64) - 1) << 1;
+
+			this.table = new long[size];
+			this.mask = size - 1;
+			this.sampleSize = size * 10;
+		}
+
+		private int getIndex(int hash, int row) {
+			int index = (hash ^ FrequencySketch.SEEDS[row]) * 0x9E3779B9;
+			return (index ^ (index >>> 16)) & this.mask;
+		}
+
+		public int getFrequency(int hash) {
+			int frequency = Integer.MAX_VALUE;
+			for (int row = 0; row < 4; row++) {
+				int offset = ((hash >>> (row << 2)) & 15) << 2;
+				frequency = Math.min(frequency, (int) ((this.table[this.getIndex(hash, row)] >>> offset) & 15L));
+			}
+
+			return frequency;
+		}
+
+		public void increment(int hash) {
+			boolean added = false;
+			for (int row = 0; row < 4; row++) {
+				int index = this.getIndex(hash, row), offset = ((hash >>> (row << 2)) & 15) << 2;
+				if (((this.table[index] >>> offset) & 15L) != 15L) {
+					this.table[index] += 1L << offset;
+					added = true;
+				}
+			}
+
+			if (added && ++this.additions == this.sampleSize) {
+				for (int i = 0; i < this.table.length; i++) {
+					this.table[i] = (this.table[i] >>> 1) & 0x7777777777777777L;
+				}
+
+				this.additions /= 2;
+			}
+		}
+
+	}
+
+	/*
+	 * W-TinyLFU: new entries go into a small LRU window, anything pushed out of the window only gets
+	 * into the main LRU if it has been requested more often than the entry it would evict.
+	 */
+	private final Map<String, Entry> window = new LinkedHashMap<>(16, 0.75F, true);
+	private final Map<String, Entry> main = new LinkedHashMap<>(16, 0.75F, true);
+	private final FrequencySketch sketch;
+
+	private long windowBytes = 0L, mainBytes = 0L;
+
+	private final Map<String, DiskEntry> disk = new LinkedHashMap<>(16, 0.75F, true);
+	private long diskBytes = 0L;
+
+	// Calls waiting on an identical call which is already in flight, keyed by the request
+	private final Map<String, List<Call>> pending = new HashMap<>();
+	private final Map<Call, Callback> callbacks = new HashMap<>();
+
+	private final AtomicLong memoryHits = new AtomicLong(0L);
+	private final AtomicLong diskHits = new AtomicLong(0L);
+	private final AtomicLong coalesced = new AtomicLong(0L);
+	private final AtomicLong misses = new AtomicLong(0L);
+	private final AtomicLong evictions = new AtomicLong(0L);
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	private final long maxWindow, maxMain, maxEntry, maxDisk;
+	private final Path directory;
+
+	public ResponseCache(Config config) {
+		long maxMemory = config.getResponseCacheMemorySize();
+
+		this.maxWindow = Math.max(maxMemory / 100, 1);
+		this.maxMain = maxMemory - this.maxWindow;
+		this.maxEntry = maxMemory / 16;
+		this.sketch = new FrequencySketch((int) Math.min(maxMemory / 1024, 1 << 20));
+
+		String directory = config.getResponseCacheDirectory();
+		this.directory = directory == null || directory.isBlank() ? null : Paths.get(directory);
+		this.maxDisk = config.getResponseCacheDiskSize();
+
+		if (this.directory != null) {
+			this.executor.execute(() -> ExceptionUtility.safeRun(this::loadDisk));
+		}
+	}
+
+	public long getMemoryHits() {
+		return this.memoryHits.get();
+	}
+
+	public long getDiskHits() {
+		return this.diskHits.get();
+	}
+
+	public long getCoalesced() {
+		return this.coalesced.get();
+	}
+
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+	public long getEvictions() {
+		return this.evictions.get();
+	}
+
+	public double getHitRate() {
+		long hits = this.memoryHits.get() + this.diskHits.get(), total = hits + this.misses.get();
+
+		return total == 0 ? 0D : hits / (double) total;
+	}
+
+	public synchronized long getMemoryBytes() {
+		return this.windowBytes + this.mainBytes;
+	}
+
+	public long getDiskBytes() {
+		synchronized (this.disk) {
+			return this.diskBytes;
+		}
+	}
+
+	public Response intercept(Chain chain) throws IOException {
+		Request request = chain.request();
+
+		Policy policy = request.tag(Policy.class);
+		if (policy == null) {
+			return chain.proceed(request);
+		}
+
+		String key = ResponseCache.getKey(request);
+		long now = System.currentTimeMillis();
+
+		Entry entry = this.getMemory(key, now);
+		if (entry != null) {
+			this.memoryHits.incrementAndGet();
+			return entry.toResponse(request);
+		}
+
+		entry = this.readDisk(key, now);
+		if (entry != null) {
+			this.diskHits.incrementAndGet();
+			this.putMemory(key, entry);
+
+			return entry.toResponse(request);
+		}
+
+		this.misses.incrementAndGet();
+
+		Response response = chain.proceed(request);
+		if (response.code() != 200) {
+			return response;
+		}
+
+		// Peeking leaves the body untouched when the response is too large to keep
+		byte[] bytes = response.peekBody(this.maxEntry + 1).bytes();
+		if (bytes.length > this.maxEntry) {
+			return response;
+		}
+
+		response.close();
+
+		String contentType = response.header("Content-Type");
+		Entry result = new Entry(response.code(), response.message(), contentType == null ? "" : contentType, bytes, System.currentTimeMillis() + policy.getTTL());
+
+		this.putMemory(key, result);
+		if (this.directory != null) {
+			this.executor.execute(() -> ExceptionUtility.safeRun(() -> this.writeDisk(key, result)));
+		}
+
+		return result.toResponse(request);
+	}
+
+	/*
+	 * Single flight for cached requests, identical calls made while one is in flight are only enqueued once it
+	 * completes so they're served from memory. This is done here rather than in the interceptor so waiting never
+	 * holds a dispatcher thread of the shared client.
+	 */
+	public void enqueue(Call call, Callback callback) {
+		Request request = call.request();
+		if (request.tag(Policy.class) == null) {
+			call.enqueue(callback);
+			return;
+		}
+
+		String key = ResponseCache.getKey(request);
+		synchronized (this.pending) {
+			List<Call> waiting = this.pending.get(key);
+			if (waiting != null) {
+				waiting.add(call);
+				this.callbacks.put(call, callback);
+
+				this.coalesced.incrementAndGet();
+
+				return;
+			}
+
+			this.pending.put(key, new ArrayList<>());
+		}
+
+		call.enqueue(new Callback() {
+			public void onFailure(Call call, IOException e) {
+				ResponseCache.this.release(key);
+				callback.onFailure(call, e);
+			}
+
+			public void onResponse(Call call, Response response) throws IOException {
+				ResponseCache.this.release(key);
+				callback.onResponse(call, response);
+			}
+		});
+	}
+
+	private void release(String key) {
+		Map<Call, Callback> waiting = new LinkedHashMap<>();
+		synchronized (this.pending) {
+			for (Call call : this.pending.remove(key)) {
+				waiting.put(call, this.callbacks.remove(call));
+			}
+		}
+
+		// The response has already been through the interceptor so these are memory hits when it was cacheable
+		waiting.forEach(Call::enqueue);
+	}
+
+	private synchronized Entry getMemory(String key, long now) {
+		this.sketch.increment(key.hashCode());
+
+		Entry entry = this.window.get(key);
+		if (entry != null) {
+			if (entry.expiresAt > now) {
+				return entry;
+			}
+
+			this.window.remove(key);
+			this.windowBytes -= entry.getWeight();
+		}
+
+		entry = this.main.get(key);
+		if (entry != null) {
+			if (entry.expiresAt > now) {
+				return entry;
+			}
+
+			this.main.remove(key);
+			this.mainBytes -= entry.getWeight();
+		}
+
+		return null;
+	}
+
+	private synchronized void putMemory(String key, Entry entry) {
+		Entry previous = this.window.remove(key);
+		if (previous != null) {
+			this.windowBytes -= previous.getWeight();
+		}
+
+		previous = this.main.remove(key);
+		if (previous != null) {
+			this.mainBytes -= previous.getWeight();
+		}
+
+		this.window.put(key, entry);
+		this.windowBytes += entry.getWeight();
+
+		Iterator<Map.Entry<String, Entry>> iterator = this.window.entrySet().iterator();
+		while (this.windowBytes > this.maxWindow && iterator.hasNext()) {
+			Map.Entry<String, Entry> candidate = iterator.next();
+			iterator.remove();
+
+			this.windowBytes -= candidate.getValue().getWeight();
+			this.admit(candidate.getKey(), candidate.getValue());
+		}
+	}
+
+	private void admit(String key, Entry candidate) {
+		long weight = candidate.getWeight();
+		if (weight > this.maxMain) {
+			this.evictions.incrementAndGet();
+			return;
+		}
+
+		Iterator<Map.Entry<String, Entry>> iterator = this.main.entrySet().iterator();
+		if (this.mainBytes + weight > this.maxMain && iterator.hasNext()) {
+			Map.Entry<String, Entry> victim = iterator.next();
+			if (this.sketch.getFrequency(key.hashCode()) <= this.sketch.getFrequency(victim.getKey().hashCode())) {
+				this.evictions.incrementAndGet();
+				return;
+			}
+		}
+
+		while (this.mainBytes + weight > this.maxMain && iterator.hasNext()) {
+			this.mainBytes -= iterator.next().getValue().getWeight();
+			iterator.remove();
+
+			this.evictions.incrementAndGet();
+		}
+
+		this.main.put(key, candidate);
+		this.mainBytes += weight;
+	}
+
+	private Path getPath(String key) {
+		return this.directory.resolve(key + ".response");
+	}
+
+	private Entry readDisk(String key, long now) {
+		if (this.directory == null) {
+			return null;
+		}
+
+		synchronized (this.disk) {
+			DiskEntry entry = this.disk.get(key);
+			if (entry == null) {
+				return null;
+			}
+
+			if (entry.expiresAt <= now) {
+				this.removeDisk(key, entry);
+				return null;
+			}
+		}
+
+		try (DataInputStream stream = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.getPath(key))))) {
+			long expiresAt = stream.readLong();
+			int code = stream.readInt();
+			String message = stream.readUTF(), contentType = stream.readUTF();
+
+			byte[] bytes = new byte[stream.readInt()];
+			stream.readFully(bytes);
+
+			return new Entry(code, message, contentType, bytes, expiresAt);
+		} catch (IOException e) {
+			synchronized (this.disk) {
+				DiskEntry entry = this.disk.get(key);
+				if (entry != null) {
+					this.removeDisk(key, entry);
+				}
+			}
+
+			return null;
+		}
+	}
+
+	private void writeDisk(String key, Entry entry) {
+		Path path = this.getPath(key), temporary = this.directory.resolve(key + ".tmp");
+
+		try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+			stream.writeLong(entry.expiresAt);
+			stream.writeInt(entry.code);
+			stream.writeUTF(entry.message);
+			stream.writeUTF(entry.contentType);
+			stream.writeInt(entry.bytes.length);
+			stream.write(entry.bytes);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		try {
+			Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		synchronized (this.disk) {
+			long size = path.toFile().length();
+
+			DiskEntry previous = this.disk.put(key, new DiskEntry(size, entry.expiresAt));
+			if (previous != null) {
+				this.diskBytes -= previous.size;
+			}
+
+			this.diskBytes += size;
+
+			this.evictDisk();
+		}
+	}
+
+	private void removeDisk(String key, DiskEntry entry) {
+		if (this.disk.remove(key, entry)) {
+			this.diskBytes -= entry.size;
+		}
+
+		this.getPath(key).toFile().delete();
+	}
+
+	private void evictDisk() {
+		Iterator<Map.Entry<String, DiskEntry>> iterator = this.disk.entrySet().iterator();
+		while (this.diskBytes > this.maxDisk && iterator.hasNext()) {
+			Map.Entry<String, DiskEntry> eldest = iterator.next();
+			iterator.remove();
+
+			this.diskBytes -= eldest.getValue().size;
+			this.getPath(eldest.getKey()).toFile().delete();
+		}
+	}
+
+	private void loadDisk() {
+		File directory = this.directory.toFile();
+		if (!directory.exists() && !directory.mkdirs()) {
+			return;
+		}
+
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+
+		long now = System.currentTimeMillis();
+		synchronized (this.disk) {
+			for (File file : files) {
+				String name = file.getName();
+				if (!name.endsWith(".response")) {
+					file.delete();
+					continue;
+				}
+
+				long expiresAt;
+				try (DataInputStream stream = new DataInputStream(new FileInputStream(file))) {
+					expiresAt = stream.readLong();
+				} catch (IOException e) {
+					expiresAt = 0L;
+				}
+
+				if (expiresAt <= now) {
+					file.delete();
+					continue;
+				}
+
+				this.disk.put(name.substring(0, name.length() - ".response".length()), new DiskEntry(file.length(), expiresAt));
+				this.diskBytes += file.length();
+			}
+
+			this.evictDisk();
+		}
+	}
+
+	private static String getKey(Request request) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+
+		digest.update(request.method().getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(request.url().toString().getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+
+		RequestBody body = request.body();
+		if (body != null) {
+			try (Buffer buffer = new Buffer()) {
+				body.writeTo(buffer);
+				digest.update(buffer.readByteArray());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		return String.format("%064x", new BigInteger(1, digest.digest()));
+	}
+
+}
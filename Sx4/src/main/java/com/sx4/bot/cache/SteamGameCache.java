@@ -2,43 +2,241 @@ package com.sx4.bot.cache;
 
 import com.sx4.bot.core.Sx4;
 import com.sx4.bot.http.HttpCallback;
+import com.sx4.bot.utility.ExceptionUtility;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import okhttp3.Request;
 import org.bson.Document;
 
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 public class SteamGameCache {
 
+	private static final int EXACT = 0;
+	private static final int PREFIX = 1;
+	private static final int WORD = 2;
+	private static final int CONTAINS = 3;
+
+	/*
+	 * Names are stored once in a packed char array, sorted by name, alongside a lowercased copy. Every
+	 * trigram of a lowercased name maps to an ascending posting list of the games containing it, so a
+	 * query only has to verify the games in the intersection of its trigrams' postings.
+	 */
+	private static class GameIndex {
+
+		private final int[] appIds;
+		private final int[] offsets;
+		private final char[] names;
+		private final char[] lowerNames;
+
+		private final TLongObjectMap<int[]> trigrams;
+
+		public GameIndex(int[] appIds, int[] offsets, char[] names) {
+			this.appIds = appIds;
+			this.offsets = offsets;
+			this.names = names;
+
+			this.lowerNames = new char[names.length];
+			for (int i = 0; i < names.length; i++) {
+				this.lowerNames[i] = Character.toLowerCase(names[i]);
+			}
+
+			TLongObjectMap<TIntArrayList> postings = new TLongObjectHashMap<>();
+			for (int game = 0; game < appIds.length; game++) {
+				for (int i = offsets[game], end = offsets[game + 1] - 2; i < end; i++) {
+					long trigram = SteamGameCache.getTrigram(this.lowerNames, i);
+
+					TIntArrayList posting = postings.get(trigram);
+					if (posting == null) {
+						posting = new TIntArrayList(4);
+						postings.put(trigram, posting);
+					}
+
+					// Games are added in order so a repeated trigram in the same name is always the last entry
+					if (posting.isEmpty() || posting.get(posting.size() - 1) != game) {
+						posting.add(game);
+					}
+				}
+			}
+
+			this.trigrams = new TLongObjectHashMap<>(postings.size());
+			postings.forEachEntry((trigram, posting) -> {
+				this.trigrams.put(trigram, posting.toArray());
+				return true;
+			});
+		}
+
+		public int size() {
+			return this.appIds.length;
+		}
+
+		public String getName(int game) {
+			return new String(this.names, this.offsets[game], this.offsets[game + 1] - this.offsets[game]);
+		}
+
+		public Document getGame(int game) {
+			return new Document("appid", this.appIds[game]).append("name", this.getName(game));
+		}
+
+		public boolean isEqual(int[] appIds, int[] offsets, char[] names) {
+			return Arrays.equals(this.appIds, appIds) && Arrays.equals(this.offsets, offsets) && Arrays.equals(this.names, names);
+		}
+
+		private int getRank(int game, char[] query) {
+			int start = this.offsets[game], length = this.offsets[game + 1] - start;
+
+			int match = SteamGameCache.indexOf(this.lowerNames, start, length, query, 0);
+			if (match == -1) {
+				return -1;
+			}
+
+			if (match == start) {
+				return length == query.length ? SteamGameCache.EXACT : SteamGameCache.PREFIX;
+			}
+
+			// A match at the start of any word ranks above one in the middle of a word
+			for (int i = match; i != -1; i = SteamGameCache.indexOf(this.lowerNames, start, length, query, i - start + 1)) {
+				if (!Character.isLetterOrDigit(this.lowerNames[i - 1])) {
+					return SteamGameCache.WORD;
+				}
+			}
+
+			return SteamGameCache.CONTAINS;
+		}
+
+		private int[] getCandidates(char[] query) {
+			if (query.length < 3) {
+				return null;
+			}
+
+			int[][] postings = new int[query.length - 2][];
+			for (int i = 0; i < postings.length; i++) {
+				int[] posting = this.trigrams.get(SteamGameCache.getTrigram(query, i));
+				if (posting == null) {
+					return new int[0];
+				}
+
+				postings[i] = posting;
+			}
+
+			// Intersect starting from the rarest trigram so the candidate set only shrinks
+			Arrays.sort(postings, Comparator.comparingInt(posting -> posting.length));
+
+			int[] candidates = postings[0];
+			for (int i = 1; i < postings.length && candidates.length != 0; i++) {
+				candidates = SteamGameCache.intersect(candidates, postings[i]);
+			}
+
+			return candidates;
+		}
+
+		public List<Document> search(String name) {
+			char[] query = new char[name.length()];
+			for (int i = 0; i < query.length; i++) {
+				query[i] = Character.toLowerCase(name.charAt(i));
+			}
+
+			int[] candidates = this.getCandidates(query);
+			int count = candidates == null ? this.appIds.length : candidates.length;
+
+			// Packs the rank above the game so sorting orders by rank and then by name, short queries scan every game so the buffer grows with the matches
+			long[] matches = new long[Math.min(count, 16)];
+			int size = 0;
+			for (int i = 0; i < count; i++) {
+				int game = candidates == null ? i : candidates[i];
+
+				int rank = this.getRank(game, query);
+				if (rank != -1) {
+					if (size == matches.length) {
+						matches = Arrays.copyOf(matches, Math.min(count, size * 2));
+					}
+
+					matches[size++] = ((long) rank << 32) | game;
+				}
+			}
+
+			Arrays.sort(matches, 0, size);
+
+			List<Document> games = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				games.add(this.getGame((int) matches[i]));
+			}
+
+			return games;
+		}
+
+	}
+
 	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
 
-	private List<Document> games;
+	private volatile GameIndex index;
 	private ScheduledFuture<?> future;
 
 	private final Sx4 bot;
 
 	public SteamGameCache(Sx4 bot) {
 		this.bot = bot;
-		this.games = Collections.emptyList();
+		this.index = new GameIndex(new int[0], new int[1], new char[0]);
 
 		this.initiateCache();
 	}
 
-	public List<Document> getGames() {
-		return this.games;
+	public boolean isEmpty() {
+		return this.index.size() == 0;
+	}
+
+	public int getGameCount() {
+		return this.index.size();
+	}
+
+	public Document getGame(int index) {
+		return this.index.getGame(index);
 	}
 
 	public List<Document> getGames(String name) {
-		return this.games.stream()
-			.filter(game -> game.getString("name").toLowerCase().contains(name.toLowerCase()))
-			.sorted(Comparator.comparing(game -> game.getString("name")))
-			.collect(Collectors.toList());
+		if (name.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		return this.index.search(name);
+	}
+
+	private void update(List<Document> apps) {
+		List<Document> games = new ArrayList<>(apps.size());
+		for (Document app : apps) {
+			String name = app.getString("name");
+			if (name != null && !name.isBlank()) {
+				games.add(app);
+			}
+		}
+
+		games.sort(Comparator.comparing((Document game) -> game.getString("name")).thenComparingInt(game -> game.getInteger("appid")));
+
+		int[] appIds = new int[games.size()], offsets = new int[games.size() + 1];
+
+		StringBuilder names = new StringBuilder();
+		for (int i = 0; i < appIds.length; i++) {
+			Document game = games.get(i);
+
+			appIds[i] = game.getInteger("appid");
+			names.append(game.getString("name"));
+			offsets[i + 1] = names.length();
+		}
+
+		char[] packed = new char[names.length()];
+		names.getChars(0, packed.length, packed, 0);
+
+		// The app list rarely changes between refreshes so the index is only rebuilt when it has
+		if (this.index.isEqual(appIds, offsets, packed)) {
+			return;
+		}
+
+		this.index = new GameIndex(appIds, offsets, packed);
 	}
 
 	public void initiateCache() {
@@ -50,7 +248,8 @@ public class SteamGameCache {
 			this.bot.getHttpClient().newCall(request).enqueue((HttpCallback) response -> {
 				Document json = Document.parse(response.body().string());
 
-				this.games = json.getEmbedded(List.of("applist", "apps"), Collections.emptyList());
+				List<Document> apps = json.getEmbedded(List.of("applist", "apps"), Collections.emptyList());
+				this.executor.execute(() -> ExceptionUtility.safeRun(() -> this.update(apps)));
 			});
 		}, 0, 15, TimeUnit.MINUTES);
 	}
@@ -63,4 +262,47 @@ public class SteamGameCache {
 		this.initiateCache();
 	}
 
+	private static long getTrigram(char[] characters, int index) {
+		return ((long) characters[index] << 32) | ((long) characters[index + 1] << 16) | characters[index + 2];
+	}
+
+	private static boolean regionMatches(char[] characters, int offset, char[] query) {
+		for (int i = 0; i < query.length; i++) {
+			if (characters[offset + i] != query[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static int indexOf(char[] characters, int start, int length, char[] query, int from) {
+		for (int i = start + from, end = start + length - query.length; i <= end; i++) {
+			if (SteamGameCache.regionMatches(characters, i, query)) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	private static int[] intersect(int[] first, int[] second) {
+		int[] result = new int[Math.min(first.length, second.length)];
+
+		int size = 0;
+		for (int i = 0, j = 0; i < first.length && j < second.length;) {
+			if (first[i] < second[j]) {
+				i++;
+			} else if (first[i] > second[j]) {
+				j++;
+			} else {
+				result[size++] = first[i];
+				i++;
+				j++;
+			}
+		}
+
+		return Arrays.copyOf(result, size);
+	}
+
 }
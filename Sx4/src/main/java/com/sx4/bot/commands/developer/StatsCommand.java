@@ -2,20 +2,29 @@ package com.sx4.bot.commands.developer;
 
 import com.jockie.bot.core.JockieUtils;
 import com.sun.management.OperatingSystemMXBean;
+import com.sx4.bot.cache.GuildSettingsCache;
+import com.sx4.bot.cache.RenderCache;
+import com.sx4.bot.cache.ResponseCache;
 import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
+import com.sx4.bot.core.Sx4EventManager;
 import com.sx4.bot.entities.utility.TimeFormatter;
+import com.sx4.bot.handlers.LoggerHandler;
+import com.sx4.bot.managers.CommandLogManager;
 import com.sx4.bot.utility.NumberUtility;
 import com.sx4.bot.utility.TimeUtility;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.JDAInfo;
 import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.hooks.EventListener;
 import org.bson.Document;
 
 import java.lang.management.ManagementFactory;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Map;
 
 public class StatsCommand extends Sx4Command {
 
@@ -63,6 +72,29 @@ public class StatsCommand extends Sx4Command {
 		embed.addField("Servers", String.format("%,d", event.getShardManager().getGuildCache().size()), true);
 		embed.addField("Users", String.format("%,d", event.getShardManager().getUserCache().size()), true);
 
+		GuildSettingsCache guildCache = event.getMongo().getGuildCache();
+		long guildRequests = guildCache.getHits() + guildCache.getMisses();
+		embed.addField("Guild Cache", String.format("Hit Rate: %.1f%%\nGuilds: %,d", guildRequests == 0 ? 0D : guildCache.getHits() * 100D / guildRequests, guildCache.size()), true);
+
+		RenderCache renderCache = event.getBot().getRenderCache();
+		embed.addField("Render Cache", String.format("Hit Rate: %.1f%%\nMemory: %s\nDisk: %s", renderCache.getHitRate() * 100, NumberUtility.getBytesReadable(renderCache.getMemoryBytes()), NumberUtility.getBytesReadable(renderCache.getDiskBytes())), true);
+
+		ResponseCache responseCache = event.getBot().getResponseCache();
+		embed.addField("Response Cache", String.format("Hit Rate: %.1f%%\nCoalesced: %,d\nMemory: %s\nDisk: %s", responseCache.getHitRate() * 100, responseCache.getCoalesced(), NumberUtility.getBytesReadable(responseCache.getMemoryBytes()), NumberUtility.getBytesReadable(responseCache.getDiskBytes())), true);
+
+		CommandLogManager commandLogManager = event.getBot().getCommandLogManager();
+		embed.addField("Command Logs", String.format("Buffered: %,d\nDropped: %,d\nFlush Latency: %.1fms", commandLogManager.getBufferSize(), commandLogManager.getDropped(), commandLogManager.getAverageFlushLatency()), true);
+
+		LoggerHandler loggerHandler = event.getBot().getLoggerHandler();
+		embed.addField("Logger Queue", String.format("Queued: %,d\nDropped: %,d", loggerHandler.getQueuedLogs(), loggerHandler.getDroppedLogs()), true);
+
+		Sx4EventManager eventManager = event.getBot().getEventManager();
+		Map.Entry<EventListener, Sx4EventManager.HandlerStats> slowest = eventManager.getHandlerStats().entrySet().stream()
+			.max(Comparator.comparingDouble(entry -> entry.getValue().getAverageMillis()))
+			.orElse(null);
+
+		embed.addField("Events", String.format("Queued: %,d\nDropped: %,d\nSlowest: %s", eventManager.getQueuedEvents(), eventManager.getDroppedEvents(), slowest == null ? "None" : String.format("%s (%.2fms)", slowest.getKey().getClass().getSimpleName(), slowest.getValue().getAverageMillis())), true);
+
 		event.reply(embed.build()).queue();
 	}
 
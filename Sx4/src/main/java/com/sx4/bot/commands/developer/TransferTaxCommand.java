@@ -26,7 +26,7 @@ public class TransferTaxCommand extends Sx4Command {
 		event.getMongo().withTransaction(session -> {
 			FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().returnDocument(ReturnDocument.BEFORE).projection(Projections.include("economy.balance"));
 
-			Document data = event.getMongo().getUsers().findOneAndUpdate(session, Filters.eq("_id", event.getSelfUser().getIdLong()), Updates.set("economy.balance", 0L), options);
+			Document data = event.getMongo().findAndUpdateUser(session, Filters.eq("_id", event.getSelfUser().getIdLong()), Updates.set("economy.balance", 0L), options);
 			if (data == null) {
 				event.replyFailure("There is no tax to give").queue();
 				session.abortTransaction();
@@ -40,7 +40,7 @@ public class TransferTaxCommand extends Sx4Command {
 				return null;
 			}
 
-			event.getMongo().getUsers().updateOne(session, Filters.eq("_id", member.getIdLong()), Updates.inc("economy.balance", tax), new UpdateOptions().upsert(true));
+			event.getMongo().updateUser(session, Filters.eq("_id", member.getIdLong()), Updates.inc("economy.balance", tax), new UpdateOptions().upsert(true));
 
 			return tax;
 		}).whenComplete((tax, exception) -> {
@@ -149,12 +149,12 @@ public class AuctionCommand extends Sx4Command {
 			if (item instanceof Tool) {
 				FindOneAndDeleteOptions options = new FindOneAndDeleteOptions().projection(Projections.include("item", "amount", "resets"));
 
-				data = event.getMongo().getItems().findOneAndDelete(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.type", item.getType().getId())), options);
+				data = event.getMongo().findAndDeleteItem(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.type", item.getType().getId())), options);
 			} else {
 				FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().returnDocument(ReturnDocument.BEFORE).projection(Projections.include("item", "amount"));
 				List<Bson> update = List.of(Operators.set("amount", Operators.let(new Document("amount", Operators.ifNull("$amount", 0L)), Operators.cond(Operators.lt("$$amount", amount), "$$amount", Operators.subtract("$$amount", amount)))));
 
-				data = event.getMongo().getItems().findOneAndUpdate(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", item.getId())), update, options);
+				data = event.getMongo().findAndUpdateItem(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", item.getId())), update, options);
 			}
 
 			long actualAmount = data == null ? 0L : data.getLong("amount");
@@ -284,21 +284,21 @@ public class AuctionCommand extends Sx4Command {
 
 					event.getMongo().getAuction().deleteOne(session, Filters.eq("_id", auction.getId()));
 
-					UpdateResult result = event.getMongo().getUsers().updateOne(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(price)));
+					UpdateResult result = event.getMongo().updateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(price)));
 					if (result.getModifiedCount() == 0) {
 						event.replyFormat("You do not have **$%,d** %s", price, event.getConfig().getFailureEmote()).queue();
 						session.abortTransaction();
 						return;
 					}
 
-					event.getMongo().getUsers().updateOne(session, Filters.eq("_id", auction.getOwnerId()), Updates.inc("economy.balance", price), new UpdateOptions().upsert(true));
+					event.getMongo().updateUser(session, Filters.eq("_id", auction.getOwnerId()), Updates.inc("economy.balance", price), new UpdateOptions().upsert(true));
 
 					List<Bson> update = List.of(
 						Operators.set("item", auctionItem.toData()),
 						Operators.set("amount", Operators.add(Operators.ifNull("$amount", 0L), amount))
 					);
 
-					event.getMongo().getItems().updateOne(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", auctionItem.getId())), update, new UpdateOptions().upsert(true));
+					event.getMongo().updateItem(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", auctionItem.getId())), update, new UpdateOptions().upsert(true));
 				}).whenComplete((updated, databaseException) -> {
 					if (ExceptionUtility.sendExceptionally(event, databaseException) || !updated) {
 						return;
@@ -410,7 +410,7 @@ public class AuctionCommand extends Sx4Command {
 						Operators.set("amount", Operators.add(Operators.ifNull("$amount", 0L), amount))
 					);
 
-					event.getMongo().getItems().updateOne(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", auctionItem.getId())), update, new UpdateOptions().upsert(true));
+					event.getMongo().updateItem(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", auctionItem.getId())), update, new UpdateOptions().upsert(true));
 				}).whenComplete((updated, databaseException) -> {
 					if (ExceptionUtility.sendExceptionally(event, databaseException) || !updated) {
 						return;
@@ -78,14 +78,14 @@ public class ChopCommand extends Sx4Command {
 			);
 
 			if (axe.getDurability() == 1) {
-				event.getMongo().getItems().deleteOne(session, itemFilter);
+				event.getMongo().deleteItem(session, itemFilter);
 			} else {
 				List<Bson> update = List.of(
 					EconomyUtility.getResetsUpdate(usableAmount, ChopCommand.COOLDOWN),
 					Operators.set("item.durability", Operators.subtract("$item.durability", 1))
 				);
 
-				event.getMongo().getItems().updateOne(session, itemFilter, update);
+				event.getMongo().updateItem(session, itemFilter, update);
 			}
 
 			for (ItemStack<?> stack : materialStacks) {
@@ -101,7 +101,7 @@ public class ChopCommand extends Sx4Command {
 					Filters.eq("item.id", item.getId())
 				);
 
-				event.getMongo().getItems().updateOne(session, materialFilter, update, new UpdateOptions().upsert(true));
+				event.getMongo().updateItem(session, materialFilter, update, new UpdateOptions().upsert(true));
 			}
 		}).whenComplete((updated, exception) -> {
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
@@ -86,7 +86,7 @@ public class CrateCommand extends Sx4Command {
 		Crate crate = stack.getItem();
 
 		event.getMongo().withTransaction(session -> {
-			UpdateResult result = event.getMongo().getUsers().updateOne(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(price)));
+			UpdateResult result = event.getMongo().updateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(price)));
 			if (result.getModifiedCount() == 0) {
 				event.replyFormat("You do not have **$%,d** %s", price, event.getConfig().getFailureEmote()).queue();
 				session.abortTransaction();
@@ -103,7 +103,7 @@ public class CrateCommand extends Sx4Command {
 				Operators.set("amount", Operators.add(Operators.ifNull("$amount", 0L), amount))
 			);
 
-			event.getMongo().getItems().updateOne(session, filter, update, new UpdateOptions().upsert(true));
+			event.getMongo().updateItem(session, filter, update, new UpdateOptions().upsert(true));
 		}).whenComplete((updated, exception) -> {
 			if (ExceptionUtility.sendExceptionally(event, exception) || !updated) {
 				return;
@@ -121,7 +121,7 @@ public class CrateCommand extends Sx4Command {
 		event.getMongo().withTransaction(session -> {
 			List<Bson> removeUpdate = List.of(Operators.set("amount", Operators.let(new Document("amount", Operators.ifNull("$amount", 0L)), Operators.cond(Operators.lt("$$amount", 1), "$$amount", Operators.subtract("$$amount",1 )))));
 
-			UpdateResult result = event.getMongo().getItems().updateOne(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", crate.getId())), removeUpdate);
+			UpdateResult result = event.getMongo().updateItem(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", crate.getId())), removeUpdate);
 			if (result.getModifiedCount() == 0) {
 				event.replyFailure("You do not have a " + crate.getName()).queue();
 				session.abortTransaction();
@@ -151,7 +151,7 @@ public class CrateCommand extends Sx4Command {
 					Operators.set("amount", Operators.add(Operators.ifNull("$amount", 0L), amount))
 				);
 
-				event.getMongo().getItems().updateOne(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", item.getId())), addUpdate, new UpdateOptions().upsert(true));
+				event.getMongo().updateItem(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", item.getId())), addUpdate, new UpdateOptions().upsert(true));
 
 				itemContent.add("• " + amount + " " + item.getName());
 				totalCount += amount;
@@ -44,7 +44,7 @@ public class EnvelopeCommand extends Sx4Command {
 	public void create(Sx4CommandEvent event, @Argument(value="amount") AmountArgument amount) {
 		event.getMongo().withTransaction(session -> {
 			FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().returnDocument(ReturnDocument.BEFORE).projection(Projections.include("economy.balance"));
-			Document data = event.getMongo().getUsers().findOneAndUpdate(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(amount)), options);
+			Document data = event.getMongo().findAndUpdateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(amount)), options);
 			if (data == null) {
 				event.replyFailure("You do not have any money").queue();
 				session.abortTransaction();
@@ -78,7 +78,7 @@ public class EnvelopeCommand extends Sx4Command {
 					Filters.eq("item.id", envelope.getId())
 				);
 
-				event.getMongo().getItems().updateOne(session, filter, update, new UpdateOptions().upsert(true));
+				event.getMongo().updateItem(session, filter, update, new UpdateOptions().upsert(true));
 			}
 
 			return effectiveAmount;
@@ -114,7 +114,7 @@ public class EnvelopeCommand extends Sx4Command {
 					session.abortTransaction();
 					return amount;
 				} else {
-					event.getMongo().getItems().deleteMany(session, filter);
+					event.getMongo().deleteManyItems(session, filter);
 				}
 			} else {
 				ItemStack<Envelope> stack = option.getValue();
@@ -126,7 +126,7 @@ public class EnvelopeCommand extends Sx4Command {
 
 				List<Bson> update = List.of(Operators.set("amount", Operators.let(new Document("amount", Operators.ifNull("$amount", 0L)), Operators.cond(Operators.lte(stack.getAmount(), "$$amount"), Operators.subtract("$$amount", stack.getAmount()), "$$amount"))));
 
-				UpdateResult result = event.getMongo().getItems().updateOne(session, filter, update);
+				UpdateResult result = event.getMongo().updateItem(session, filter, update);
 				if (result.getModifiedCount() == 0) {
 					event.replyFailure("You do not have `" + stack.getAmount() + " " + stack.getItem().getName() + "`").queue();
 					session.abortTransaction();
@@ -136,7 +136,7 @@ public class EnvelopeCommand extends Sx4Command {
 				amount = stack.getTotalPrice();
 			}
 
-			event.getMongo().getUsers().updateOne(session, Filters.eq("_id", event.getAuthor().getIdLong()), Updates.inc("economy.balance", amount));
+			event.getMongo().updateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), Updates.inc("economy.balance", amount));
 
 			return amount;
 		}).whenComplete((amount, exception) -> {
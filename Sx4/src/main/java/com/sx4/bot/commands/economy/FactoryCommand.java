@@ -108,14 +108,14 @@ public class FactoryCommand extends Sx4Command {
 							continue Factories;
 						}
 
-						event.getMongo().getItems().updateOne(session, Filters.and(userFilter, Filters.eq("item.id", id)), Updates.inc("amount", -amount * cost.getAmount()));
+						event.getMongo().updateItem(session, Filters.and(userFilter, Filters.eq("item.id", id)), Updates.inc("amount", -amount * cost.getAmount()));
 
 						List<Bson> update = List.of(
 							Operators.set("item", factory.toData()),
 							Operators.set("amount", Operators.add(Operators.ifNull("$amount", 0L), amount))
 						);
 
-						event.getMongo().getItems().updateOne(session, Filters.and(userFilter, Filters.eq("item.id", factory.getId())), update, new UpdateOptions().upsert(true));
+						event.getMongo().updateItem(session, Filters.and(userFilter, Filters.eq("item.id", factory.getId())), update, new UpdateOptions().upsert(true));
 
 						boughtFactories.add(new ItemStack<>(factory, amount));
 					}
@@ -185,7 +185,7 @@ public class FactoryCommand extends Sx4Command {
 				money += gained;
 				content.add(String.format("• %,d %s: $%,d", amount, factory.getName(), gained));
 
-				event.getMongo().getItems().updateOne(Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", factory.getId())), List.of(EconomyUtility.getResetsUpdate(amount, FactoryCommand.COOLDOWN)));
+				event.getMongo().updateItem(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", factory.getId())), List.of(EconomyUtility.getResetsUpdate(amount, FactoryCommand.COOLDOWN)));
 			}
 
 			if (lowestReset == Long.MAX_VALUE) {
@@ -200,7 +200,7 @@ public class FactoryCommand extends Sx4Command {
 				return null;
 			}
 
-			event.getMongo().getUsers().updateOne(session, Filters.eq("_id", event.getAuthor().getIdLong()), Updates.inc("economy.balance", money), new UpdateOptions().upsert(true));
+			event.getMongo().updateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), Updates.inc("economy.balance", money), new UpdateOptions().upsert(true));
 
 			EmbedBuilder embed = new EmbedBuilder()
 				.setAuthor(event.getAuthor().getName(), null, event.getAuthor().getEffectiveAvatarUrl())
@@ -80,17 +80,17 @@ public class FishCommand extends Sx4Command {
 			);
 
 			if (rod.getDurability() == 1) {
-				event.getMongo().getItems().deleteOne(session, itemFilter);
+				event.getMongo().deleteItem(session, itemFilter);
 			} else {
 				List<Bson> update = List.of(
 					EconomyUtility.getResetsUpdate(usableAmount, FishCommand.COOLDOWN),
 					Operators.set("item.durability", Operators.subtract("$item.durability", 1))
 				);
 
-				 event.getMongo().getItems().updateOne(session, itemFilter, update);
+				 event.getMongo().updateItem(session, itemFilter, update);
 			}
 
-			event.getMongo().getUsers().updateOne(session, Filters.eq("_id", event.getAuthor().getIdLong()), Updates.inc("economy.balance", yield), new UpdateOptions().upsert(true));
+			event.getMongo().updateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), Updates.inc("economy.balance", yield), new UpdateOptions().upsert(true));
 		}).whenComplete((updated, exception) -> {
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
@@ -108,7 +108,7 @@ public class FishingRodCommand extends Sx4Command {
 
 			FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().returnDocument(ReturnDocument.BEFORE).projection(Projections.include("economy.balance")).upsert(true);
 
-			Document data = event.getMongo().getUsers().findOneAndUpdate(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(rod.getPrice())), options);
+			Document data = event.getMongo().findAndUpdateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(rod.getPrice())), options);
 			if (data == null || data.getEmbedded(List.of("economy", "balance"), 0L) < rod.getPrice()) {
 				event.replyFailure("You cannot afford a **" + rod.getName() + "**").queue();
 				session.abortTransaction();
@@ -165,7 +165,7 @@ public class FishingRodCommand extends Sx4Command {
 
 				List<Bson> update = List.of(Operators.set("amount", Operators.let(new Document("amount", Operators.ifNull("$amount", 0L)), Operators.cond(Operators.lte(stack.getAmount(), "$$amount"), Operators.subtract("$$amount", stack.getAmount()), "$$amount"))));
 
-				UpdateResult result = event.getMongo().getItems().updateOne(session, itemFilter, update);
+				UpdateResult result = event.getMongo().updateItem(session, itemFilter, update);
 				if (result.getModifiedCount() == 0) {
 					event.replyFailure("You do not have `" + stack.getAmount() + " " + item.getName() + "`").queue();
 					session.abortTransaction();
@@ -177,7 +177,7 @@ public class FishingRodCommand extends Sx4Command {
 				.append("amount", 1L)
 				.append("item", rod.toData());
 
-			event.getMongo().getItems().insertOne(session, insertData);
+			event.getMongo().insertItem(session, insertData);
 		}).whenComplete((updated, exception) -> {
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
@@ -270,6 +270,7 @@ public class FishingRodCommand extends Sx4Command {
 
 		event.reply("It will cost you `" + itemCount + " " + item.getName() + "` to repair your fishing rod by **" + durability + "** durability, are you sure you want to repair it?").setActionRow(buttons).submit().thenCompose(message -> {
 			return new Waiter<>(event.getBot(), ButtonClickEvent.class)
+				.setMessageId(message.getIdLong())
 				.setPredicate(e -> ButtonUtility.handleButtonConfirmation(e, message, event.getAuthor()))
 				.setCancelPredicate(e -> ButtonUtility.handleButtonCancellation(e, message, event.getAuthor()))
 				.onFailure(e -> ButtonUtility.handleButtonFailure(e, message))
@@ -349,7 +350,7 @@ public class FishingRodCommand extends Sx4Command {
 				price += Math.round(0.015D * defaultRod.getPrice() * currentUpgrades++ + 0.025D * defaultRod.getPrice());
 			}
 
-			UpdateResult result = event.getMongo().getUsers().updateOne(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(price)));
+			UpdateResult result = event.getMongo().updateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(price)));
 			if (result.getModifiedCount() == 0) {
 				event.replyFormat("You do not have **$%,d** %s", price, event.getConfig().getFailureEmote()).queue();
 				session.abortTransaction();
@@ -372,7 +373,7 @@ public class FishingRodCommand extends Sx4Command {
 				update.add(Operators.set("item.maxDurability", Operators.add("$item.maxDurability", increase)));
 			}
 
-			event.getMongo().getItems().updateOne(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", rod.getId())), update);
+			event.getMongo().updateItem(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", rod.getId())), update);
 
 			return String.format("You just upgraded %s %d time%s for your `%s` for **$%,d**", upgrade.getName().toLowerCase(), upgrades, (upgrades == 1 ? "" : "s"), rod.getName(), price);
 		}).whenComplete((message, exception) -> {
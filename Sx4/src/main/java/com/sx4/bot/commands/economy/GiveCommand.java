@@ -39,7 +39,7 @@ public class GiveCommand extends Sx4Command {
 		event.getMongo().withTransaction(session -> {
 			FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().projection(Projections.include("economy.balance")).returnDocument(ReturnDocument.BEFORE);
 
-			Document authorData = event.getMongo().getUsers().findOneAndUpdate(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(amount)), options);
+			Document authorData = event.getMongo().findAndUpdateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(amount)), options);
 			if (authorData == null) {
 				event.replyFailure("You do not have any money").queue();
 				session.abortTransaction();
@@ -64,11 +64,11 @@ public class GiveCommand extends Sx4Command {
 
 			Document userData;
 			if (tax) {
-				userData = event.getMongo().getUsers().findOneAndUpdate(session, Filters.eq("_id", event.getSelfUser().getIdLong()), Updates.inc("economy.balance", amountGiven), options);
+				userData = event.getMongo().findAndUpdateUser(session, Filters.eq("_id", event.getSelfUser().getIdLong()), Updates.inc("economy.balance", amountGiven), options);
 			} else {
-				userData = event.getMongo().getUsers().findOneAndUpdate(session, Filters.eq("_id", user.getIdLong()), Updates.inc("economy.balance", amountGiven), options.upsert(true));
+				userData = event.getMongo().findAndUpdateUser(session, Filters.eq("_id", user.getIdLong()), Updates.inc("economy.balance", amountGiven), options.upsert(true));
 
-				event.getMongo().getUsers().updateOne(session, Filters.eq("_id", event.getSelfUser().getIdLong()), Updates.inc("economy.balance", taxAmount));
+				event.getMongo().updateUser(session, Filters.eq("_id", event.getSelfUser().getIdLong()), Updates.inc("economy.balance", taxAmount));
 			}
 
 			long userBalance = userData == null ? 0L : userData.getEmbedded(List.of("economy", "balance"), 0L);
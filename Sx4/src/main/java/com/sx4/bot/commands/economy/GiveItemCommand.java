@@ -63,7 +63,7 @@ public class GiveItemCommand extends Sx4Command {
 		long tax = (long) Math.ceil(price * 0.05D);
 
 		event.getMongo().withTransaction(session -> {
-			UpdateResult balanceResult = event.getMongo().getUsers().updateOne(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(tax)));
+			UpdateResult balanceResult = event.getMongo().updateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(tax)));
 			if (balanceResult.getModifiedCount() == 0) {
 				event.replyFormat("You do not have enough to pay the tax for this item (**$%,d**) %s", tax, event.getConfig().getFailureEmote()).queue();
 				session.abortTransaction();
@@ -79,7 +79,7 @@ public class GiveItemCommand extends Sx4Command {
 
 			List<Bson> authorUpdate = List.of(Operators.set("amount", Operators.let(new Document("amount", Operators.ifNull("$amount", 0L)), Operators.cond(Operators.lt(Operators.subtract("$$amount", Operators.sum(Operators.map(Operators.filter(Operators.ifNull("$resets", Collections.EMPTY_LIST), Operators.gt("$$this.time", Operators.nowEpochSecond())), "$$this.amount"))), amount), "$$amount", Operators.subtract("$$amount", amount)))));
 
-			Document authorData = event.getMongo().getItems().findOneAndUpdate(session, authorFilter, authorUpdate, options);
+			Document authorData = event.getMongo().findAndUpdateItem(session, authorFilter, authorUpdate, options);
 
 			long authorAmount = authorData == null ? 0L : authorData.get("amount", 0L);
 			if (authorAmount < amount) {
@@ -107,9 +107,9 @@ public class GiveItemCommand extends Sx4Command {
 				Operators.set("amount", Operators.add(Operators.ifNull("$amount", 0L), stack.getAmount()))
 			);
 
-			Document userData = event.getMongo().getItems().findOneAndUpdate(session, userFilter, userUpdate, options.upsert(true));
+			Document userData = event.getMongo().findAndUpdateItem(session, userFilter, userUpdate, options.upsert(true));
 
-			event.getMongo().getUsers().updateOne(session, Filters.eq("_id", event.getSelfUser().getIdLong()), Updates.inc("economy.balance", tax));
+			event.getMongo().updateUser(session, Filters.eq("_id", event.getSelfUser().getIdLong()), Updates.inc("economy.balance", tax));
 
 			EmbedBuilder embed = new EmbedBuilder()
 				.setColor(event.getMember().getColor())
@@ -3,16 +3,17 @@ package com.sx4.bot.commands.economy;
 import com.jockie.bot.core.argument.Argument;
 import com.jockie.bot.core.command.Command;
 import com.jockie.bot.core.option.Option;
-import com.mongodb.client.model.*;
 import com.sx4.bot.annotations.command.BotPermissions;
 import com.sx4.bot.annotations.command.CommandId;
 import com.sx4.bot.annotations.command.Examples;
 import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
-import com.sx4.bot.database.mongo.model.Operators;
 import com.sx4.bot.entities.economy.item.Item;
+import com.sx4.bot.entities.economy.leaderboard.Leaderboard;
+import com.sx4.bot.entities.economy.leaderboard.LeaderboardType;
 import com.sx4.bot.http.HttpCallback;
+import com.sx4.bot.managers.LeaderboardManager;
 import com.sx4.bot.paged.PagedResult;
 import com.sx4.bot.utility.ExceptionUtility;
 import com.sx4.bot.utility.NumberUtility;
@@ -23,7 +24,6 @@ import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.utils.MarkdownSanitizer;
 import okhttp3.Request;
 import org.bson.Document;
-import org.bson.conversions.Bson;
 
 import java.time.Month;
 import java.time.OffsetDateTime;
@@ -33,7 +33,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 public class LeaderboardCommand extends Sx4Command {
 
@@ -50,18 +52,8 @@ public class LeaderboardCommand extends Sx4Command {
 		event.replyHelp().queue();
 	}
 
-	@Command(value="balance", aliases={"bank", "money"}, description="View the leaderboard for the balance of users")
-	@CommandId(369)
-	@Examples({"leaderboard balance", "leaderboard balance --server"})
-	@BotPermissions(permissions={Permission.MESSAGE_EMBED_LINKS})
-	public void balance(Sx4CommandEvent event, @Option(value="server", aliases={"guild"}, description="View the leaderboard with a server filter") boolean guild) {
-		List<Bson> pipeline = List.of(
-			Aggregates.project(Projections.computed("balance", "$economy.balance")),
-			Aggregates.match(Filters.and(Filters.exists("balance"), Filters.ne("balance", 0))),
-			Aggregates.sort(Sorts.descending("balance"))
-		);
-
-		event.getMongo().aggregateUsers(pipeline).whenCompleteAsync((documents, exception) -> {
+	private void sendLeaderboard(Sx4CommandEvent event, CompletableFuture<Leaderboard> future, String title, Function<Long, String> format) {
+		future.whenComplete((leaderboard, exception) -> {
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
 			}
@@ -70,19 +62,15 @@ public class LeaderboardCommand extends Sx4Command {
 			AtomicInteger userIndex = new AtomicInteger(-1);
 
 			int i = 0;
-			for (Document data : documents) {
-				User user = event.getShardManager().getUserById(data.getLong("_id"));
+			for (Map.Entry<Long, Long> entry : leaderboard.getEntries()) {
+				User user = event.getShardManager().getUserById(entry.getKey());
 				if (user == null) {
 					continue;
 				}
 
-				if (!event.getGuild().isMember(user) && guild) {
-					continue;
-				}
-
 				i++;
 
-				users.add(Map.entry(user, data.getLong("balance")));
+				users.add(Map.entry(user, entry.getValue()));
 
 				if (user.getIdLong() == event.getAuthor().getIdLong()) {
 					userIndex.set(i);
@@ -100,10 +88,10 @@ public class LeaderboardCommand extends Sx4Command {
 					int rank = userIndex.get();
 
 					EmbedBuilder embed = new EmbedBuilder()
-						.setTitle("Balance Leaderboard")
+						.setTitle(title)
 						.setFooter(event.getAuthor().getName() + "'s Rank: " + (rank == -1 ? "N/A" : NumberUtility.getSuffixed(rank)) + " | Page " + page.getPage() + "/" + page.getMaxPage(), event.getAuthor().getEffectiveAvatarUrl());
 
-					page.forEach((entry, index) -> embed.appendDescription(String.format("%d. `%s` - $%,d\n", index + 1, MarkdownSanitizer.escape(entry.getKey().getAsTag()), entry.getValue())));
+					page.forEach((entry, index) -> embed.appendDescription(String.format("%d. `%s` - %s\n", index + 1, MarkdownSanitizer.escape(entry.getKey().getAsTag()), format.apply(entry.getValue()))));
 
 					return new MessageBuilder().setEmbeds(embed.build());
 				});
@@ -112,73 +100,26 @@ public class LeaderboardCommand extends Sx4Command {
 		});
 	}
 
+	private CompletableFuture<Leaderboard> getLeaderboard(Sx4CommandEvent event, LeaderboardType type, int itemId, boolean guild) {
+		LeaderboardManager manager = event.getBot().getLeaderboardManager();
+
+		return guild ? manager.getLeaderboard(event.getGuild(), type, itemId) : manager.getLeaderboard(type, itemId);
+	}
+
+	@Command(value="balance", aliases={"bank", "money"}, description="View the leaderboard for the balance of users")
+	@CommandId(369)
+	@Examples({"leaderboard balance", "leaderboard balance --server"})
+	@BotPermissions(permissions={Permission.MESSAGE_EMBED_LINKS})
+	public void balance(Sx4CommandEvent event, @Option(value="server", aliases={"guild"}, description="View the leaderboard with a server filter") boolean guild) {
+		this.sendLeaderboard(event, this.getLeaderboard(event, LeaderboardType.BALANCE, LeaderboardManager.ALL_ITEMS, guild), "Balance Leaderboard", balance -> String.format("$%,d", balance));
+	}
+
 	@Command(value="networth", description="View the leaderboard for the networth of users")
 	@CommandId(370)
 	@Examples({"leaderboard networth", "leaderboard networth --server"})
 	@BotPermissions(permissions={Permission.MESSAGE_EMBED_LINKS})
 	public void networth(Sx4CommandEvent event, @Option(value="server", aliases={"guild"}, description="View the leaderboard with a server filter") boolean guild) {
-		List<Bson> userPipeline = List.of(
-			Aggregates.project(Projections.computed("total", "$economy.balance")),
-			Aggregates.match(Filters.and(Filters.exists("total"), Filters.ne("total", 0)))
-		);
-
-		List<Bson> pipeline = List.of(
-			Aggregates.project(Projections.fields(Projections.computed("_id", "$userId"), Projections.computed("total", Operators.cond(Operators.exists("$item.durability"), Operators.toLong(Operators.multiply(Operators.divide("$item.price", "$item.maxDurability"), "$item.durability")), Operators.multiply("$item.price", "$amount"))))),
-			Aggregates.match(Filters.ne("amount", 0)),
-			Aggregates.unionWith("users", userPipeline),
-			Aggregates.group("$_id", Accumulators.sum("total", "$total")),
-			Aggregates.sort(Sorts.descending("total"))
-		);
-
-		event.getMongo().aggregateItems(pipeline).whenCompleteAsync((documents, exception) -> {
-			if (ExceptionUtility.sendExceptionally(event, exception)) {
-				return;
-			}
-
-			List<Map.Entry<User, Long>> users = new ArrayList<>();
-			AtomicInteger userIndex = new AtomicInteger(-1);
-
-			int i = 0;
-			for (Document data : documents) {
-				User user = event.getShardManager().getUserById(data.getLong("_id"));
-				if (user == null) {
-					continue;
-				}
-
-				if (!event.getGuild().isMember(user) && guild) {
-					continue;
-				}
-
-				i++;
-
-				users.add(Map.entry(user, data.getLong("total")));
-
-				if (user.getIdLong() == event.getAuthor().getIdLong()) {
-					userIndex.set(i);
-				}
-			}
-
-			if (users.isEmpty()) {
-				event.replyFailure("There are no users which fit into this leaderboard").queue();
-				return;
-			}
-
-			PagedResult<Map.Entry<User, Long>> paged = new PagedResult<>(event.getBot(), users)
-				.setPerPage(10)
-				.setCustomFunction(page -> {
-					int rank = userIndex.get();
-
-					EmbedBuilder embed = new EmbedBuilder()
-						.setTitle("Networth Leaderboard")
-						.setFooter(event.getAuthor().getName() + "'s Rank: " + (rank == -1 ? "N/A" : NumberUtility.getSuffixed(rank)) + " | Page " + page.getPage() + "/" + page.getMaxPage(), event.getAuthor().getEffectiveAvatarUrl());
-
-					page.forEach((entry, index) -> embed.appendDescription(String.format("%d. `%s` - $%,d\n", index + 1, MarkdownSanitizer.escape(entry.getKey().getAsTag()), entry.getValue())));
-
-					return new MessageBuilder().setEmbeds(embed.build());
-				});
-
-			paged.execute(event);
-		});
+		this.sendLeaderboard(event, this.getLeaderboard(event, LeaderboardType.NETWORTH, LeaderboardManager.ALL_ITEMS, guild), "Networth Leaderboard", networth -> String.format("$%,d", networth));
 	}
 
 	@Command(value="winnings", description="View the leaderboard for the winnings of users")
@@ -186,61 +127,7 @@ public class LeaderboardCommand extends Sx4Command {
 	@Examples({"leaderboard winnings", "leaderboard winnings --server"})
 	@BotPermissions(permissions={Permission.MESSAGE_EMBED_LINKS})
 	public void winnings(Sx4CommandEvent event, @Option(value="server", aliases={"guild"}, description="View the leaderboard with a server filter") boolean guild) {
-		List<Bson> pipeline = List.of(
-			Aggregates.project(Projections.computed("winnings", "$economy.winnings")),
-			Aggregates.match(Filters.and(Filters.exists("winnings"), Filters.ne("winnings", 0))),
-			Aggregates.sort(Sorts.descending("winnings"))
-		);
-
-		event.getMongo().aggregateUsers(pipeline).whenCompleteAsync((documents, exception) -> {
-			if (ExceptionUtility.sendExceptionally(event, exception)) {
-				return;
-			}
-
-			List<Map.Entry<User, Long>> users = new ArrayList<>();
-			AtomicInteger userIndex = new AtomicInteger(-1);
-
-			int i = 0;
-			for (Document data : documents) {
-				User user = event.getShardManager().getUserById(data.getLong("_id"));
-				if (user == null) {
-					continue;
-				}
-
-				if (!event.getGuild().isMember(user) && guild) {
-					continue;
-				}
-
-				i++;
-
-				users.add(Map.entry(user, data.getLong("winnings")));
-
-				if (user.getIdLong() == event.getAuthor().getIdLong()) {
-					userIndex.set(i);
-				}
-			}
-
-			if (users.isEmpty()) {
-				event.replyFailure("There are no users which fit into this leaderboard").queue();
-				return;
-			}
-
-			PagedResult<Map.Entry<User, Long>> paged = new PagedResult<>(event.getBot(), users)
-				.setPerPage(10)
-				.setCustomFunction(page -> {
-					int rank = userIndex.get();
-
-					EmbedBuilder embed = new EmbedBuilder()
-						.setTitle("Winnings Leaderboard")
-						.setFooter(event.getAuthor().getName() + "'s Rank: " + (rank == -1 ? "N/A" : NumberUtility.getSuffixed(rank)) + " | Page " + page.getPage() + "/" + page.getMaxPage(), event.getAuthor().getEffectiveAvatarUrl());
-
-					page.forEach((entry, index) -> embed.appendDescription(String.format("%d. `%s` - $%,d\n", index + 1, MarkdownSanitizer.escape(entry.getKey().getAsTag()), entry.getValue())));
-
-					return new MessageBuilder().setEmbeds(embed.build());
-				});
-
-			paged.execute(event);
-		});
+		this.sendLeaderboard(event, this.getLeaderboard(event, LeaderboardType.WINNINGS, LeaderboardManager.ALL_ITEMS, guild), "Winnings Leaderboard", winnings -> String.format("$%,d", winnings));
 	}
 
 	@Command(value="items", description="View the leaderboard for a specific items count of users")
@@ -248,67 +135,9 @@ public class LeaderboardCommand extends Sx4Command {
 	@Examples({"leaderboard items", "leaderboard items Shoe", "leaderboard items Diamond --server"})
 	@BotPermissions(permissions={Permission.MESSAGE_EMBED_LINKS})
 	public void items(Sx4CommandEvent event, @Argument(value="item", endless=true, nullDefault=true) Item item, @Option(value="server", aliases={"guild"}, description="View the leaderboard with a server filter") boolean guild) {
-		Bson filter = Filters.ne("amount", 0);
-		if (item != null) {
-			filter = Filters.and(filter, Filters.eq("item.id", item.getId()));
-		}
-
-		List<Bson> pipeline = List.of(
-			Aggregates.project(Projections.include("amount", "userId", "item.id")),
-			Aggregates.match(filter),
-			Aggregates.group("$userId", Accumulators.sum("amount", "$amount")),
-			Aggregates.sort(Sorts.descending("amount"))
-		);
-
-		event.getMongo().aggregateItems(pipeline).whenCompleteAsync((documents, exception) -> {
-			if (ExceptionUtility.sendExceptionally(event, exception)) {
-				return;
-			}
-
-			List<Map.Entry<User, Long>> users = new ArrayList<>();
-			AtomicInteger userIndex = new AtomicInteger(-1);
-
-			int i = 0;
-			for (Document data : documents) {
-				User user = event.getShardManager().getUserById(data.getLong("_id"));
-				if (user == null) {
-					continue;
-				}
-
-				if (!event.getGuild().isMember(user) && guild) {
-					continue;
-				}
-
-				i++;
-
-				users.add(Map.entry(user, data.getLong("amount")));
-
-				if (user.getIdLong() == event.getAuthor().getIdLong()) {
-					userIndex.set(i);
-				}
-			}
-
-			if (users.isEmpty()) {
-				event.replyFailure("There are no users which fit into this leaderboard").queue();
-				return;
-			}
-
-			PagedResult<Map.Entry<User, Long>> paged = new PagedResult<>(event.getBot(), users)
-				.setPerPage(10)
-				.setCustomFunction(page -> {
-					int rank = userIndex.get();
-
-					EmbedBuilder embed = new EmbedBuilder()
-						.setTitle((item == null ? "All Items" : item.getName()) + " Leaderboard")
-						.setFooter(event.getAuthor().getName() + "'s Rank: " + (rank == -1 ? "N/A" : NumberUtility.getSuffixed(rank)) + " | Page " + page.getPage() + "/" + page.getMaxPage(), event.getAuthor().getEffectiveAvatarUrl());
-
-					page.forEach((entry, index) -> embed.appendDescription(String.format("%d. `%s` - %,d %s\n", index + 1, MarkdownSanitizer.escape(entry.getKey().getAsTag()), entry.getValue(), item == null ? "Item" + (entry.getValue() == 1 ? "" : "s") : item.getName())));
+		int itemId = item == null ? LeaderboardManager.ALL_ITEMS : item.getId();
 
-					return new MessageBuilder().setEmbeds(embed.build());
-				});
-
-			paged.execute(event);
-		});
+		this.sendLeaderboard(event, this.getLeaderboard(event, LeaderboardType.ITEMS, itemId, guild), (item == null ? "All Items" : item.getName()) + " Leaderboard", amount -> String.format("%,d %s", amount, item == null ? "Item" + (amount == 1 ? "" : "s") : item.getName()));
 	}
 
 	@Command(value="streak", description="View the leaderboard for the streaks of users")
@@ -316,61 +145,7 @@ public class LeaderboardCommand extends Sx4Command {
 	@Examples({"leaderboard streak", "leaderboard streak --server"})
 	@BotPermissions(permissions={Permission.MESSAGE_EMBED_LINKS})
 	public void streak(Sx4CommandEvent event, @Option(value="server", aliases={"guild"}, description="View the leaderboard with a server filter") boolean guild) {
-		List<Bson> pipeline = List.of(
-			Aggregates.project(Projections.computed("streak", "$economy.streak")),
-			Aggregates.match(Filters.and(Filters.exists("streak"), Filters.ne("streak", 0))),
-			Aggregates.sort(Sorts.descending("streak"))
-		);
-
-		event.getMongo().aggregateUsers(pipeline).whenCompleteAsync((documents, exception) -> {
-			if (ExceptionUtility.sendExceptionally(event, exception)) {
-				return;
-			}
-
-			List<Map.Entry<User, Integer>> users = new ArrayList<>();
-			AtomicInteger userIndex = new AtomicInteger(-1);
-
-			int i = 0;
-			for (Document data : documents) {
-				User user = event.getShardManager().getUserById(data.getLong("_id"));
-				if (user == null) {
-					continue;
-				}
-
-				if (!event.getGuild().isMember(user) && guild) {
-					continue;
-				}
-
-				i++;
-
-				users.add(Map.entry(user, data.getInteger("streak")));
-
-				if (user.getIdLong() == event.getAuthor().getIdLong()) {
-					userIndex.set(i);
-				}
-			}
-
-			if (users.isEmpty()) {
-				event.replyFailure("There are no users which fit into this leaderboard").queue();
-				return;
-			}
-
-			PagedResult<Map.Entry<User, Integer>> paged = new PagedResult<>(event.getBot(), users)
-				.setPerPage(10)
-				.setCustomFunction(page -> {
-					int rank = userIndex.get();
-
-					EmbedBuilder embed = new EmbedBuilder()
-						.setTitle("Streak Leaderboard")
-						.setFooter(event.getAuthor().getName() + "'s Rank: " + (rank == -1 ? "N/A" : NumberUtility.getSuffixed(rank)) + " | Page " + page.getPage() + "/" + page.getMaxPage(), event.getAuthor().getEffectiveAvatarUrl());
-
-					page.forEach((entry, index) -> embed.appendDescription(String.format("%d. `%s` - %,d day streak\n", index + 1, MarkdownSanitizer.escape(entry.getKey().getAsTag()), entry.getValue())));
-
-					return new MessageBuilder().setEmbeds(embed.build());
-				});
-
-			paged.execute(event);
-		});
+		this.sendLeaderboard(event, this.getLeaderboard(event, LeaderboardType.STREAK, LeaderboardManager.ALL_ITEMS, guild), "Streak Leaderboard", streak -> String.format("%,d day streak", streak));
 	}
 
 	@Command(value="votes", description="View the leaderboard for the votes of users")
@@ -81,14 +81,14 @@ public class MineCommand extends Sx4Command {
 			);
 
 			if (pickaxe.getDurability() == 1) {
-				event.getMongo().getItems().deleteOne(session, itemFilter);
+				event.getMongo().deleteItem(session, itemFilter);
 			} else {
 				List<Bson> update = List.of(
 					EconomyUtility.getResetsUpdate(usableAmount, MineCommand.COOLDOWN),
 					Operators.set("item.durability", Operators.subtract("$item.durability", 1))
 				);
 
-				event.getMongo().getItems().updateOne(session, itemFilter, update);
+				event.getMongo().updateItem(session, itemFilter, update);
 			}
 
 			for (ItemStack<?> stack : materialStacks) {
@@ -104,10 +104,10 @@ public class MineCommand extends Sx4Command {
 					Filters.eq("item.id", item.getId())
 				);
 
-				event.getMongo().getItems().updateOne(session, materialFilter, update, new UpdateOptions().upsert(true));
+				event.getMongo().updateItem(session, materialFilter, update, new UpdateOptions().upsert(true));
 			}
 
-			event.getMongo().getUsers().updateOne(session, Filters.eq("_id", event.getAuthor().getIdLong()), Updates.inc("economy.balance", yield), new UpdateOptions().upsert(true));
+			event.getMongo().updateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), Updates.inc("economy.balance", yield), new UpdateOptions().upsert(true));
 		}).whenComplete((updated, exception) -> {
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
@@ -82,7 +82,7 @@ public class MinerCommand extends Sx4Command {
 		Miner miner = stack.getItem();
 
 		event.getMongo().withTransaction(session -> {
-			UpdateResult result = event.getMongo().getUsers().updateOne(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(price)));
+			UpdateResult result = event.getMongo().updateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(price)));
 			if (result.getModifiedCount() == 0) {
 				event.replyFormat("You do not have **$%,d** %s", price, event.getConfig().getFailureEmote()).queue();
 				session.abortTransaction();
@@ -99,7 +99,7 @@ public class MinerCommand extends Sx4Command {
 				Operators.set("amount", Operators.add(Operators.ifNull("$amount", 0L), amount))
 			);
 
-			event.getMongo().getItems().updateOne(session, filter, update, new UpdateOptions().upsert(true));
+			event.getMongo().updateItem(session, filter, update, new UpdateOptions().upsert(true));
 		}).whenComplete((updated, exception) -> {
 			if (ExceptionUtility.sendExceptionally(event, exception) || !updated) {
 				return;
@@ -166,7 +166,7 @@ public class MinerCommand extends Sx4Command {
 					materials.compute(material, (key, value) -> value == null ? materialAmount : value + materialAmount);
 				}
 
-				event.getMongo().getItems().updateOne(Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", miner.getId())), List.of(EconomyUtility.getResetsUpdate(amount, MinerCommand.COOLDOWN)));
+				event.getMongo().updateItem(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", miner.getId())), List.of(EconomyUtility.getResetsUpdate(amount, MinerCommand.COOLDOWN)));
 			}
 
 			if (lowestReset == Long.MAX_VALUE) {
@@ -204,7 +204,7 @@ public class MinerCommand extends Sx4Command {
 			}
 
 			if (!bulkData.isEmpty()) {
-				event.getMongo().getItems().bulkWrite(session, bulkData);
+				event.getMongo().bulkWriteItems(session, bulkData);
 			}
 
 			EmbedBuilder embed = new EmbedBuilder()
@@ -109,7 +109,7 @@ public class PickaxeCommand extends Sx4Command {
 
 			FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().returnDocument(ReturnDocument.BEFORE).projection(Projections.include("economy.balance")).upsert(true);
 
-			Document data = event.getMongo().getUsers().findOneAndUpdate(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(pickaxe.getPrice())), options);
+			Document data = event.getMongo().findAndUpdateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(pickaxe.getPrice())), options);
 			if (data == null || data.getEmbedded(List.of("economy", "balance"), 0L) < pickaxe.getPrice()) {
 				event.replyFailure("You cannot afford a **" + pickaxe.getName() + "**").queue();
 				session.abortTransaction();
@@ -166,7 +166,7 @@ public class PickaxeCommand extends Sx4Command {
 
 				List<Bson> update = List.of(Operators.set("amount", Operators.let(new Document("amount", Operators.ifNull("$amount", 0L)), Operators.cond(Operators.lte(stack.getAmount(), "$$amount"), Operators.subtract("$$amount", stack.getAmount()), "$$amount"))));
 
-				UpdateResult result = event.getMongo().getItems().updateOne(session, itemFilter, update);
+				UpdateResult result = event.getMongo().updateItem(session, itemFilter, update);
 				if (result.getModifiedCount() == 0) {
 					event.replyFailure("You do not have `" + stack.getAmount() + " " + item.getName() + "`").queue();
 					session.abortTransaction();
@@ -178,7 +178,7 @@ public class PickaxeCommand extends Sx4Command {
 				.append("amount", 1L)
 				.append("item", pickaxe.toData());
 
-			event.getMongo().getItems().insertOne(session, insertData);
+			event.getMongo().insertItem(session, insertData);
 		}).whenComplete((updated, exception) -> {
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
@@ -272,6 +272,7 @@ public class PickaxeCommand extends Sx4Command {
 
 		event.reply("It will cost you `" + itemCount + " " + item.getName() + "` to repair your pickaxe by **" + durability + "** durability, are you sure you want to repair it?").setActionRow(buttons).submit().thenCompose(message -> {
 			return new Waiter<>(event.getBot(), ButtonClickEvent.class)
+				.setMessageId(message.getIdLong())
 				.setPredicate(e -> ButtonUtility.handleButtonConfirmation(e, message, event.getAuthor()))
 				.setCancelPredicate(e -> ButtonUtility.handleButtonCancellation(e, message, event.getAuthor()))
 				.onFailure(e -> ButtonUtility.handleButtonFailure(e, message))
@@ -351,7 +352,7 @@ public class PickaxeCommand extends Sx4Command {
 				price += Math.round(0.015D * defaultPickaxe.getPrice() * currentUpgrades++ + 0.025D * defaultPickaxe.getPrice());
 			}
 
-			UpdateResult result = event.getMongo().getUsers().updateOne(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(price)));
+			UpdateResult result = event.getMongo().updateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(price)));
 			if (result.getModifiedCount() == 0) {
 				event.replyFormat("You do not have **$%,d** %s", price, event.getConfig().getFailureEmote()).queue();
 				session.abortTransaction();
@@ -378,7 +379,7 @@ public class PickaxeCommand extends Sx4Command {
 				update.add(Operators.set("item.multiplier", Operators.add("$item.multiplier", increase)));
 			}
 
-			event.getMongo().getItems().updateOne(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", pickaxe.getId())), update);
+			event.getMongo().updateItem(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", pickaxe.getId())), update);
 
 			return String.format("You just upgraded %s %d time%s for your `%s` for **$%,d**", upgrade.getName().toLowerCase(), upgrades, (upgrades == 1 ? "" : "s"), pickaxe.getName(), price);
 		}).whenComplete((message, exception) -> {
@@ -40,7 +40,7 @@ public class ShopCommand extends Sx4Command {
 		Item item = itemStack.getItem();
 		long amount = itemStack.getAmount(), price = (long) Math.ceil(itemStack.getTotalPrice() * 1.2D);
 		event.getMongo().withTransaction(session -> {
-			UpdateResult balanceResult = event.getMongo().getUsers().updateOne(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(price)));
+			UpdateResult balanceResult = event.getMongo().updateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), List.of(EconomyUtility.decreaseBalanceUpdate(price)));
 			if (balanceResult.getModifiedCount() == 0) {
 				event.replyFormat("You do not have **$%,d** %s", price, event.getConfig().getFailureEmote()).queue();
 				session.abortTransaction();
@@ -49,7 +49,7 @@ public class ShopCommand extends Sx4Command {
 
 			List<Bson> update = List.of(Operators.set("amount", Operators.let(new Document("amount", Operators.ifNull("$amount", 0L)), Operators.cond(Operators.lt("$$amount", amount), "$$amount", Operators.subtract("$$amount", amount)))));
 
-			UpdateResult itemResult = event.getMongo().getItems().updateOne(session, Filters.and(Filters.eq("userId", event.getSelfUser().getIdLong()), Filters.eq("item.id", item.getId())), update);
+			UpdateResult itemResult = event.getMongo().updateItem(session, Filters.and(Filters.eq("userId", event.getSelfUser().getIdLong()), Filters.eq("item.id", item.getId())), update);
 			if (itemResult.getModifiedCount() == 0) {
 				event.replyFormat("I do not have `%,d %s` %s", amount, item.getName(), event.getConfig().getFailureEmote()).queue();
 				session.abortTransaction();
@@ -61,7 +61,7 @@ public class ShopCommand extends Sx4Command {
 				Operators.set("amount", Operators.add(Operators.ifNull("$amount", 0L), amount))
 			);
 
-			event.getMongo().getItems().updateOne(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", item.getId())), itemUpdate, new UpdateOptions().upsert(true));
+			event.getMongo().updateItem(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", item.getId())), itemUpdate, new UpdateOptions().upsert(true));
 		}).whenComplete((updated, exception) -> {
 			if (ExceptionUtility.sendExceptionally(event, exception) || !updated) {
 				return;
@@ -86,7 +86,7 @@ public class ShopCommand extends Sx4Command {
 			List<Bson> update = List.of(Operators.set("amount", Operators.let(new Document("amount", Operators.ifNull("$amount", 0L)), Operators.cond(Operators.lt(Operators.subtract("$$amount", Operators.sum(Operators.map(Operators.filter(Operators.ifNull("$resets", Collections.EMPTY_LIST), Operators.gt("$$this.time", Operators.nowEpochSecond())), "$$this.amount"))), amount), "$$amount", Operators.subtract("$$amount", amount)))));
 			FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().returnDocument(ReturnDocument.BEFORE).projection(Projections.include("amount", "resets"));
 
-			Document data = event.getMongo().getItems().findOneAndUpdate(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", item.getId())), update, options);
+			Document data = event.getMongo().findAndUpdateItem(session, Filters.and(Filters.eq("userId", event.getAuthor().getIdLong()), Filters.eq("item.id", item.getId())), update, options);
 
 			long authorAmount = data == null ? 0L : data.get("amount", 0L);
 			if (authorAmount < amount) {
@@ -109,8 +109,8 @@ public class ShopCommand extends Sx4Command {
 				Operators.set("amount", Operators.add(Operators.ifNull("$amount", 0L), amount))
 			);
 
-			event.getMongo().getItems().updateOne(session, Filters.and(Filters.eq("userId", event.getSelfUser().getIdLong()), Filters.eq("item.id", item.getId())), itemUpdate, new UpdateOptions().upsert(true));
-			event.getMongo().getUsers().updateOne(session, Filters.eq("_id", event.getAuthor().getIdLong()), Updates.inc("economy.balance", price), new UpdateOptions().upsert(true));
+			event.getMongo().updateItem(session, Filters.and(Filters.eq("userId", event.getSelfUser().getIdLong()), Filters.eq("item.id", item.getId())), itemUpdate, new UpdateOptions().upsert(true));
+			event.getMongo().updateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), Updates.inc("economy.balance", price), new UpdateOptions().upsert(true));
 		}).whenComplete((updated, exception) -> {
 			if (ExceptionUtility.sendExceptionally(event, exception) || !updated) {
 				return;
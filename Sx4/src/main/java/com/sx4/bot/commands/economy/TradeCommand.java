@@ -159,6 +159,7 @@ public class TradeCommand extends Sx4Command {
 			return event.reply(message.build()).submit();
 		}).thenCompose(message -> {
 			return new Waiter<>(event.getBot(), ButtonClickEvent.class)
+				.setMessageId(message.getIdLong())
 				.setPredicate(e -> ButtonUtility.handleButtonConfirmation(e, message, user))
 				.setCancelPredicate(e -> ButtonUtility.handleButtonCancellation(e, message, user))
 				.onFailure(e -> ButtonUtility.handleButtonFailure(e, message))
@@ -251,7 +252,7 @@ public class TradeCommand extends Sx4Command {
 				if (userMoney - authorMoney != 0) {
 					List<Bson> authorUpdate = List.of(Operators.set("economy.balance", Operators.let(new Document("balance", Operators.ifNull("$economy.balance", 0L)), Operators.let(new Document("newBalance", Operators.add("$$balance", authorMoney - userMoney)), Operators.cond(Operators.lt("$$newBalance", 0L), "$$balance", "$$newBalance")))));
 
-					UpdateResult authorResult = event.getMongo().getUsers().updateOne(session, Filters.eq("_id", event.getAuthor().getIdLong()), authorUpdate);
+					UpdateResult authorResult = event.getMongo().updateUser(session, Filters.eq("_id", event.getAuthor().getIdLong()), authorUpdate);
 					if (authorResult.getModifiedCount() == 0) {
 						e.replyFormat("%s does not have **$%,d** %s", event.getAuthor().getAsTag(), userMoney - authorMoney, event.getConfig().getFailureEmote()).queue();
 						session.abortTransaction();
@@ -260,7 +261,7 @@ public class TradeCommand extends Sx4Command {
 
 					List<Bson> userUpdate = List.of(Operators.set("economy.balance", Operators.let(new Document("balance", Operators.ifNull("$economy.balance", 0L)), Operators.let(new Document("newBalance", Operators.add("$$balance", userMoney - authorMoney)), Operators.cond(Operators.lt("$$newBalance", 0L), "$$balance", "$$newBalance")))));
 
-					UpdateResult userResult = event.getMongo().getUsers().updateOne(session, Filters.eq("_id", user.getIdLong()), userUpdate);
+					UpdateResult userResult = event.getMongo().updateUser(session, Filters.eq("_id", user.getIdLong()), userUpdate);
 					if (userResult.getModifiedCount() == 0) {
 						e.replyFormat("%s does not have **$%,d** %s", event.getAuthor().getAsTag(), authorMoney - userMoney, event.getConfig().getFailureEmote()).queue();
 						session.abortTransaction();
@@ -282,12 +283,12 @@ public class TradeCommand extends Sx4Command {
 						Operators.set("amount", Operators.add(Operators.ifNull("$amount", 0L), amount))
 					);
 
-					event.getMongo().getItems().updateOne(session, Filters.and(Filters.eq("userId", author ? event.getAuthor().getIdLong() : user.getIdLong()), Filters.eq("item.id", item.getId())), addUpdate, new UpdateOptions().upsert(true));
+					event.getMongo().updateItem(session, Filters.and(Filters.eq("userId", author ? event.getAuthor().getIdLong() : user.getIdLong()), Filters.eq("item.id", item.getId())), addUpdate, new UpdateOptions().upsert(true));
 
 					List<Bson> removeUpdate = List.of(Operators.set("amount", Operators.let(new Document("amount", Operators.ifNull("$amount", 0L)), Operators.cond(Operators.lt(Operators.subtract("$$amount", Operators.sum(Operators.map(Operators.filter(Operators.ifNull("$resets", Collections.EMPTY_LIST), Operators.gt("$$this.time", Operators.nowEpochSecond())), "$$this.amount"))), amount), "$$amount", Operators.subtract("$$amount", amount)))));
 					FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().projection(Projections.include("amount", "resets")).returnDocument(ReturnDocument.BEFORE);
 
-					Document data = event.getMongo().getItems().findOneAndUpdate(session, Filters.and(Filters.eq("userId", author ? user.getIdLong() : event.getAuthor().getIdLong()), Filters.eq("item.id", item.getId())), removeUpdate, options);
+					Document data = event.getMongo().findAndUpdateItem(session, Filters.and(Filters.eq("userId", author ? user.getIdLong() : event.getAuthor().getIdLong()), Filters.eq("item.id", item.getId())), removeUpdate, options);
 					long userAmount = data == null ? 0L : data.get("amount", 0L);
 					if (userAmount < amount) {
 						e.reply((author ? user.getAsTag() : event.getAuthor().getAsTag()) + " does not have `" + amount + " " + item.getName() + "` " + event.getConfig().getFailureEmote()).queue();
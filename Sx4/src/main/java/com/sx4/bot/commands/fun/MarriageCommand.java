@@ -103,6 +103,7 @@ public class MarriageCommand extends Sx4Command {
 			.submit()
 			.thenCompose(message -> {
 				return new Waiter<>(event.getBot(), ButtonClickEvent.class)
+					.setMessageId(message.getIdLong())
 					.setPredicate(e -> ButtonUtility.handleButtonConfirmation(e, message, member.getUser()))
 					.setCancelPredicate(e -> ButtonUtility.handleButtonCancellation(e, message, member.getUser()))
 					.onFailure(e -> ButtonUtility.handleButtonFailure(e, message))
@@ -195,6 +196,7 @@ public class MarriageCommand extends Sx4Command {
 			event.reply(author.getName() + ", are you sure you want to divorce everyone you are currently married to?").setActionRow(buttons).submit()
 				.thenCompose(message -> {
 					return new Waiter<>(event.getBot(), ButtonClickEvent.class)
+						.setMessageId(message.getIdLong())
 						.setPredicate(e -> ButtonUtility.handleButtonConfirmation(e, message, event.getAuthor()))
 						.setCancelPredicate(e -> ButtonUtility.handleButtonCancellation(e, message, event.getAuthor()))
 						.onFailure(e -> ButtonUtility.handleButtonFailure(e, message))
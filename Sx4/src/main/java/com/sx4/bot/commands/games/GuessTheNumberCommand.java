@@ -63,6 +63,7 @@ public class GuessTheNumberCommand extends Sx4Command {
 			.submit()
 			.thenCompose(message -> {
 				return new Waiter<>(event.getBot(), ButtonClickEvent.class)
+					.setMessageId(message.getIdLong())
 					.setPredicate(e -> ButtonUtility.handleButtonConfirmation(e, message, opponent))
 					.setCancelPredicate(e -> ButtonUtility.handleButtonCancellation(e, message, opponent))
 					.onFailure(e -> ButtonUtility.handleButtonFailure(e, message))
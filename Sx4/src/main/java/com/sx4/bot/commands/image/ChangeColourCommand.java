@@ -7,7 +7,6 @@ import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
 import com.sx4.bot.entities.image.ImageRequest;
-import com.sx4.bot.http.HttpCallback;
 import com.sx4.bot.utility.ImageUtility;
 import net.dv8tion.jda.api.Permission;
 import okhttp3.Request;
@@ -30,7 +29,7 @@ public class ChangeColourCommand extends Sx4Command {
 			.addQuery("colour", colour)
 			.build(event.getConfig().getImageWebserver());
 
-		event.getHttpClient().newCall(request).enqueue((HttpCallback) response -> ImageUtility.getImageMessage(event, response).queue());
+		ImageUtility.sendImageMessage(event, request);
 	}
 
 }
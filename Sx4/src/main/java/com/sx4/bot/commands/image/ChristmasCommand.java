@@ -6,7 +6,6 @@ import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
 import com.sx4.bot.entities.image.ImageRequest;
-import com.sx4.bot.http.HttpCallback;
 import com.sx4.bot.utility.ImageUtility;
 import net.dv8tion.jda.api.Permission;
 import okhttp3.Request;
@@ -28,7 +27,7 @@ public class ChristmasCommand extends Sx4Command {
 			.addQuery("image", imageUrl)
 			.build(event.getConfig().getImageWebserver());
 
-		event.getHttpClient().newCall(request).enqueue((HttpCallback) response -> ImageUtility.getImageMessage(event, response).queue());
+		ImageUtility.sendImageMessage(event, request);
 	}
 
 }
@@ -5,18 +5,13 @@ import com.sx4.bot.annotations.argument.ImageUrl;
 import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
-import com.sx4.bot.entities.image.ImageRequest;
-import com.sx4.bot.http.HttpCallback;
 import com.sx4.bot.paged.PagedResult;
 import com.sx4.bot.utility.ColourUtility;
 import com.sx4.bot.utility.ImageUtility;
 import com.sx4.bot.utility.NumberUtility;
 import net.dv8tion.jda.api.Permission;
-import okhttp3.Request;
 import org.bson.Document;
 
-import java.util.List;
-
 public class ColourCoverageCommand extends Sx4Command {
 
 	public ColourCoverageCommand() {
@@ -30,19 +25,7 @@ public class ColourCoverageCommand extends Sx4Command {
 	}
 
 	public void onCommand(Sx4CommandEvent event, @Argument(value="image url", endless=true, acceptEmpty=true) @ImageUrl String imageUrl) {
-		Request request = new ImageRequest(event.getConfig().getImageWebserverUrl("common-colour"))
-			.addQuery("image", imageUrl)
-			.build(event.getConfig().getImageWebserver());
-
-		event.getHttpClient().newCall(request).enqueue((HttpCallback) response -> {
-			if (!response.isSuccessful()) {
-				ImageUtility.getErrorMessage(event.getTextChannel(), response.code(), response.body().string()).queue();
-				return;
-			}
-
-			Document data = Document.parse(response.body().string());
-
-			List<Document> colours = data.getList("colours", Document.class);
+		ImageUtility.getColours(event, imageUrl, colours -> {
 			long totalPixels = colours.stream().mapToInt(colour -> colour.getInteger("pixels")).sum();
 
 			PagedResult<Document> paged = new PagedResult<>(event.getBot(), colours)
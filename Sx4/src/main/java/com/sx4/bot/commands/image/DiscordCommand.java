@@ -9,7 +9,6 @@ import com.sx4.bot.core.Sx4CommandEvent;
 import com.sx4.bot.entities.argument.MessageArgument;
 import com.sx4.bot.entities.argument.Or;
 import com.sx4.bot.entities.image.ImageRequest;
-import com.sx4.bot.http.HttpCallback;
 import com.sx4.bot.utility.ImageUtility;
 import com.sx4.bot.utility.SearchUtility;
 import net.dv8tion.jda.api.Permission;
@@ -106,7 +105,7 @@ public class DiscordCommand extends Sx4Command {
 				.addAllFields(this.getMentions(event.getShardManager(), event.getGuild(), text))
 				.build(event.getConfig().getImageWebserver());
 
-			event.getHttpClient().newCall(request).enqueue((HttpCallback) response -> ImageUtility.getImageMessage(event, response).queue());
+			ImageUtility.sendImageMessage(event, request);
 		});
 	}
 
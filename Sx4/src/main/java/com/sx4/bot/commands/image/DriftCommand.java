@@ -6,7 +6,6 @@ import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
 import com.sx4.bot.entities.image.ImageRequest;
-import com.sx4.bot.http.HttpCallback;
 import com.sx4.bot.utility.ImageUtility;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Member;
@@ -32,7 +31,7 @@ public class DriftCommand extends Sx4Command {
 			request.addQuery("right_text", rightText);
 		}
 
-		event.getHttpClient().newCall(request.build(event.getConfig().getImageWebserver())).enqueue((HttpCallback) response -> ImageUtility.getImageMessage(event, response).queue());
+		ImageUtility.sendImageMessage(event, request.build(event.getConfig().getImageWebserver()));
 	}
 
 }
@@ -5,11 +5,10 @@ import com.sx4.bot.annotations.argument.ImageUrl;
 import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
+import com.sx4.bot.entities.image.ImageFilters;
 import com.sx4.bot.entities.image.ImageRequest;
-import com.sx4.bot.http.HttpCallback;
 import com.sx4.bot.utility.ImageUtility;
 import net.dv8tion.jda.api.Permission;
-import okhttp3.Request;
 
 public class EmbossCommand extends Sx4Command {
 
@@ -24,11 +23,11 @@ public class EmbossCommand extends Sx4Command {
 	}
 
 	public void onCommand(Sx4CommandEvent event, @Argument(value="image url", endless=true, acceptEmpty=true) @ImageUrl String imageUrl) {
-		Request request = new ImageRequest(event.getConfig().getImageWebserverUrl("emboss"))
-			.addQuery("image", imageUrl)
-			.build(event.getConfig().getImageWebserver());
-
-		event.getHttpClient().newCall(request).enqueue((HttpCallback) response -> ImageUtility.getImageMessage(event, response).queue());
+		ImageUtility.sendImage(event, imageUrl, ImageFilters.emboss(), () -> {
+			return new ImageRequest(event.getConfig().getImageWebserverUrl("emboss"))
+				.addQuery("image", imageUrl)
+				.build(event.getConfig().getImageWebserver());
+		});
 	}
 
 }
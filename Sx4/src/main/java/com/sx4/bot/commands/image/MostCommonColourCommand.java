@@ -5,13 +5,10 @@ import com.sx4.bot.annotations.argument.ImageUrl;
 import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
-import com.sx4.bot.entities.image.ImageRequest;
-import com.sx4.bot.http.HttpCallback;
 import com.sx4.bot.utility.ColourUtility;
 import com.sx4.bot.utility.ImageUtility;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.Permission;
-import okhttp3.Request;
 import org.bson.Document;
 
 public class MostCommonColourCommand extends Sx4Command {
@@ -28,18 +25,13 @@ public class MostCommonColourCommand extends Sx4Command {
 	}
 
 	public void onCommand(Sx4CommandEvent event, @Argument(value="image url", acceptEmpty=true, endless=true) @ImageUrl String imageUrl) {
-		Request request = new ImageRequest(event.getConfig().getImageWebserverUrl("common-colour"))
-			.addQuery("image", imageUrl)
-			.build(event.getConfig().getImageWebserver());
-
-		event.getHttpClient().newCall(request).enqueue((HttpCallback) response -> {
-			if (!response.isSuccessful()) {
-				ImageUtility.getErrorMessage(event.getTextChannel(), response.code(), response.body().string()).queue();
+		ImageUtility.getColours(event, imageUrl, colours -> {
+			if (colours.isEmpty()) {
+				event.replyFailure("That image does not have any visible colours").queue();
 				return;
 			}
 
-			Document data = Document.parse(response.body().string());
-			Document common = data.getList("colours", Document.class).get(0);
+			Document common = colours.get(0);
 
 			int colour = common.getInteger("colour");
 
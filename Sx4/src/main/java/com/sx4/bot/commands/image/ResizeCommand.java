@@ -8,11 +8,10 @@ import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
 import com.sx4.bot.entities.image.ImageError;
+import com.sx4.bot.entities.image.ImageFilters;
 import com.sx4.bot.entities.image.ImageRequest;
-import com.sx4.bot.http.HttpCallback;
 import com.sx4.bot.utility.ImageUtility;
 import net.dv8tion.jda.api.Permission;
-import okhttp3.Request;
 
 public class ResizeCommand extends Sx4Command {
 
@@ -27,20 +26,18 @@ public class ResizeCommand extends Sx4Command {
 	}
 
 	public void onCommand(Sx4CommandEvent event, @Argument(value="image url") @ImageUrl String imageUrl, @Argument(value="width") @Limit(min=0, max=5000) double width, @Argument(value="height") @Limit(min=0, max=5000) @DefaultNumber(1) double height) {
-		Request request = new ImageRequest(event.getConfig().getImageWebserverUrl("resize"))
-			.addQuery("w", width)
-			.addQuery("h", height)
-			.addQuery("image", imageUrl)
-			.build(event.getConfig().getImageWebserver());
-
-		event.getHttpClient().newCall(request).enqueue((HttpCallback) response -> {
-			ImageUtility.getImageMessage(event, response, (body, error) -> {
-				if (error == ImageError.INVALID_QUERY_VALUE) {
-					return event.replyFailure(body.getString("message"));
-				}
-
-				return null;
-			}).queue();
+		ImageUtility.sendImage(event, imageUrl, ImageFilters.resize(width, height, event.getBot().getImageManager().getMaxPixels()), () -> {
+			return new ImageRequest(event.getConfig().getImageWebserverUrl("resize"))
+				.addQuery("w", width)
+				.addQuery("h", height)
+				.addQuery("image", imageUrl)
+				.build(event.getConfig().getImageWebserver());
+		}, (body, error) -> {
+			if (error == ImageError.INVALID_QUERY_VALUE) {
+				return event.replyFailure(body.getString("message"));
+			}
+
+			return null;
 		});
 	}
 
@@ -1,10 +1,7 @@
 package com.sx4.bot.commands.info;
 
 import com.jockie.bot.core.option.Option;
-import com.mongodb.client.model.Accumulators;
-import com.mongodb.client.model.Aggregates;
 import com.mongodb.client.model.Filters;
-import com.mongodb.client.model.Sorts;
 import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
@@ -16,10 +13,7 @@ import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.utils.MarkdownSanitizer;
 import org.bson.Document;
 import org.bson.conversions.Bson;
-import org.bson.types.ObjectId;
 
-import java.sql.Date;
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -72,21 +66,7 @@ public class CommandStatsCommand extends Sx4Command {
 			filters.add(Filters.eq("channelId", channel.getIdLong()));
 		}
 
-		if (from != 0L) {
-			filters.add(Filters.gte("_id", new ObjectId(Date.from(Instant.ofEpochSecond(from)))));
-		}
-
-		if (to != 0L) {
-			filters.add(Filters.lte("_id", new ObjectId(Date.from(Instant.ofEpochSecond(to)))));
-		}
-
-		List<Bson> pipeline = List.of(
-			Aggregates.match(filters.isEmpty() ? Filters.empty() : Filters.and(filters)),
-			Aggregates.group("$" + (group == null ? GroupType.COMMAND : group).getField(), Accumulators.sum("count", 1L)),
-			Aggregates.sort(Sorts.descending("count"))
-		);
-
-		event.getMongo().aggregateCommands(pipeline).whenComplete((commands, exception) -> {
+		event.getBot().getCommandRollupManager().aggregate(filters, (group == null ? GroupType.COMMAND : group).getField(), from, to).whenComplete((commands, exception) -> {
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
 			}
@@ -1,6 +1,7 @@
 package com.sx4.bot.commands.info;
 
 import com.jockie.bot.core.argument.Argument;
+import com.sx4.bot.cache.ResponseCache;
 import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
@@ -16,6 +17,7 @@ import org.bson.Document;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class DictionaryCommand extends Sx4Command {
 
@@ -32,9 +34,10 @@ public class DictionaryCommand extends Sx4Command {
 	public void onCommand(Sx4CommandEvent event, @Argument(value="query", endless=true) String query) {
 		Request request = new Request.Builder()
 			.url(event.getConfig().getSearchWebserverUrl("dictionary") + "?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8))
+			.tag(ResponseCache.Policy.class, ResponseCache.ttl(1, TimeUnit.DAYS))
 			.build();
 
-		event.getHttpClient().newCall(request).enqueue((HttpCallback) response -> {
+		event.getBot().getResponseCache().enqueue(event.getHttpClient().newCall(request), (HttpCallback) response -> {
 			Document document = Document.parse(response.body().string());
 			if (!response.isSuccessful()) {
 				StringBuilder builder = new StringBuilder("Command failed with status " + response.code());
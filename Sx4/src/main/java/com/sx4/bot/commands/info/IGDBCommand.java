@@ -2,6 +2,7 @@ package com.sx4.bot.commands.info;
 
 import com.jockie.bot.core.argument.Argument;
 import com.jockie.bot.core.option.Option;
+import com.sx4.bot.cache.ResponseCache;
 import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
@@ -23,6 +24,7 @@ import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class IGDBCommand extends Sx4Command {
@@ -59,9 +61,10 @@ public class IGDBCommand extends Sx4Command {
 			.post(RequestBody.create(MediaType.parse("application/json; charset=utf-8"), parser.parse()))
 			.addHeader("Client-ID", event.getConfig().getTwitchClientId())
 			.addHeader("Authorization", "Bearer " + event.getConfig().getTwitch())
+			.tag(ResponseCache.Policy.class, ResponseCache.ttl(1, TimeUnit.HOURS))
 			.build();
 
-		event.getHttpClient().newCall(request).enqueue((HttpCallback) response -> {
+		event.getBot().getResponseCache().enqueue(event.getHttpClient().newCall(request), (HttpCallback) response -> {
 			String body = String.format("{\"data\":%s}", response.body().string());
 
 			List<Document> results = Document.parse(body).getList("data", Document.class);
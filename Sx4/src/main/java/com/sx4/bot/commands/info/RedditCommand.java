@@ -3,6 +3,7 @@ package com.sx4.bot.commands.info;
 import com.jockie.bot.core.argument.Argument;
 import com.jockie.bot.core.option.Option;
 import com.sx4.bot.annotations.argument.*;
+import com.sx4.bot.cache.ResponseCache;
 import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
@@ -18,6 +19,7 @@ import org.bson.Document;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class RedditCommand extends Sx4Command {
@@ -35,9 +37,10 @@ public class RedditCommand extends Sx4Command {
 	public void onCommand(Sx4CommandEvent event, @Argument(value="subreddit") String subreddit, @Option(value="sort", description="What to sort the subreddit by") @Options({"new", "hot", "top"}) @DefaultString("hot") @Lowercase String sort, @Option(value="time", description="If sort is top will choose the top posts after the set amount of time") @Options({"day", "week", "month", "year", "all"}) @DefaultString("day") @Lowercase String time, @Option(value="limit", description="How many posts to show") @DefaultNumber(25) @Limit(min=1, max=100) int limit) {
 		Request request = new Request.Builder()
 			.url("https://reddit.com/r/" + subreddit + "/" + sort + ".json?t=" + time + "&limit=" + limit)
+			.tag(ResponseCache.Policy.class, ResponseCache.ttl(5, TimeUnit.MINUTES))
 			.build();
 
-		event.getHttpClient().newCall(request).enqueue((HttpCallback) response -> {
+		event.getBot().getResponseCache().enqueue(event.getHttpClient().newCall(request), (HttpCallback) response -> {
 			if (response.code() == 302 || response.code() == 404) {
 				event.replyFailure("I could not find that subreddit").queue();
 				return;
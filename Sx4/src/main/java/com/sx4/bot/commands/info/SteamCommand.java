@@ -86,7 +86,7 @@ public class SteamCommand extends Sx4Command {
 		}
 
 		SteamGameCache cache = event.getBot().getSteamGameCache();
-		if (cache.getGames().isEmpty()) {
+		if (cache.isEmpty()) {
 			event.replyFailure("The steam cache is currently empty, try again").queue();
 			return;
 		}
@@ -95,8 +95,7 @@ public class SteamCommand extends Sx4Command {
 
 		List<Document> games;
 		if (query == null) {
-			List<Document> cacheGames = cache.getGames();
-			games = List.of(cacheGames.get(event.getRandom().nextInt(cacheGames.size())));
+			games = List.of(cache.getGame(event.getRandom().nextInt(cache.getGameCount())));
 		} else if (NumberUtility.isNumberUnsigned(query)) {
 			games = List.of(new Document("appid", Integer.parseInt(query)));
 		} else if ((urlMatcher = this.gamePattern.matcher(query)).matches()) {
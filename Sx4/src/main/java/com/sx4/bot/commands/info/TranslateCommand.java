@@ -2,6 +2,7 @@ package com.sx4.bot.commands.info;
 
 import com.jockie.bot.core.argument.Argument;
 import com.jockie.bot.core.option.Option;
+import com.sx4.bot.cache.ResponseCache;
 import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
@@ -26,6 +27,7 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public class TranslateCommand extends Sx4Command {
 
@@ -110,9 +112,10 @@ public class TranslateCommand extends Sx4Command {
 			Request request = new Request.Builder()
 				.url("https://translate.google.com/_/TranslateWebserverUi/data/batchexecute")
 				.post(requestBody)
+				.tag(ResponseCache.Policy.class, ResponseCache.ttl(1, TimeUnit.DAYS))
 				.build();
 
-			event.getHttpClient().newCall(request).enqueue((HttpCallback) response -> event.reply(this.getEmbed(response.body().string(), query, from, to)).queue());
+			event.getBot().getResponseCache().enqueue(event.getHttpClient().newCall(request), (HttpCallback) response -> event.reply(this.getEmbed(response.body().string(), query, from, to)).queue());
 		});
 	}
 
@@ -1,6 +1,7 @@
 package com.sx4.bot.commands.info;
 
 import com.jockie.bot.core.argument.Argument;
+import com.sx4.bot.cache.ResponseCache;
 import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
@@ -17,6 +18,7 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class UrbanDictionaryCommand extends Sx4Command {
 
@@ -67,9 +69,10 @@ public class UrbanDictionaryCommand extends Sx4Command {
 	public void onCommand(Sx4CommandEvent event, @Argument(value="query", endless=true) String query) {
 		Request request = new Request.Builder()
 			.url("http://api.urbandictionary.com/v0/define?term=" + URLEncoder.encode(query, StandardCharsets.UTF_8))
+			.tag(ResponseCache.Policy.class, ResponseCache.ttl(1, TimeUnit.HOURS))
 			.build();
 
-		event.getHttpClient().newCall(request).enqueue((HttpCallback) response -> {
+		event.getBot().getResponseCache().enqueue(event.getHttpClient().newCall(request), (HttpCallback) response -> {
 			Document json = Document.parse(response.body().string());
 
 			List<Document> list = json.getList("list", Document.class, Collections.emptyList());
@@ -6,13 +6,11 @@ import com.mongodb.client.model.Filters;
 import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
+import com.sx4.bot.utility.ExceptionUtility;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.TextChannel;
 import org.bson.conversions.Bson;
-import org.bson.types.ObjectId;
 
-import java.sql.Date;
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -23,7 +21,6 @@ public class UsageCommand extends Sx4Command {
 
 		super.setDescription("View the usage of a specific command");
 		super.setExamples("usage fish", "usage fish --user=Shea#6653", "usage ship --from=1612183011 --to=1612528611");
-		super.setExecuteAsync(true);
 		super.setCategoryAll(ModuleCategory.INFORMATION);
 	}
 
@@ -43,16 +40,13 @@ public class UsageCommand extends Sx4Command {
 			filters.add(Filters.eq("channelId", channel.getIdLong()));
 		}
 
-		if (from != 0L) {
-			filters.add(Filters.gte("_id", new ObjectId(Date.from(Instant.ofEpochSecond(from)))));
-		}
-
-		if (to != 0L) {
-			filters.add(Filters.lte("_id", new ObjectId(Date.from(Instant.ofEpochSecond(to)))));
-		}
+		event.getBot().getCommandRollupManager().count(filters, from, to).whenComplete((amount, exception) -> {
+			if (ExceptionUtility.sendExceptionally(event, exception)) {
+				return;
+			}
 
-		long amount = event.getMongo().countCommands(Filters.and(filters));
-		event.replyFormat("`%s` has been used **%,d** time%s", command.getCommandTrigger(), amount, (amount == 1 ? "" : "s")).queue();
+			event.replyFormat("`%s` has been used **%,d** time%s", command.getCommandTrigger(), amount, (amount == 1 ? "" : "s")).queue();
+		});
 	}
 
 }
@@ -1,6 +1,7 @@
 package com.sx4.bot.commands.info;
 
 import com.jockie.bot.core.argument.Argument;
+import com.sx4.bot.cache.ResponseCache;
 import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
@@ -16,6 +17,7 @@ import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
 
 public class WeatherCommand extends Sx4Command {
 
@@ -70,9 +72,10 @@ public class WeatherCommand extends Sx4Command {
 	public void onCommand(Sx4CommandEvent event, @Argument(value="query", endless=true) String query) {
 		Request request = new Request.Builder()
 			.url(event.getConfig().getSearchWebserverUrl("weather") + "?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8))
+			.tag(ResponseCache.Policy.class, ResponseCache.ttl(10, TimeUnit.MINUTES))
 			.build();
 
-		event.getHttpClient().newCall(request).enqueue((HttpCallback) response -> {
+		event.getBot().getResponseCache().enqueue(event.getHttpClient().newCall(request), (HttpCallback) response -> {
 			if (response.code() == 404) {
 				event.replyFailure("I could not find that location").queue();
 				return;
@@ -123,6 +123,7 @@ public class AutoRoleCommand extends Sx4Command {
 			event.reply(event.getAuthor().getName() + ", are you sure you want to remove every auto role in the server?").setActionRow(buttons).submit()
 				.thenCompose(message -> {
 					return new Waiter<>(event.getBot(), ButtonClickEvent.class)
+						.setMessageId(message.getIdLong())
 						.setPredicate(e -> ButtonUtility.handleButtonConfirmation(e, message, event.getAuthor()))
 						.setCancelPredicate(e -> ButtonUtility.handleButtonCancellation(e, message, event.getAuthor()))
 						.onFailure(e -> ButtonUtility.handleButtonFailure(e, message))
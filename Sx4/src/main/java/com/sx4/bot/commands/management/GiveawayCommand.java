@@ -95,9 +95,12 @@ public class GiveawayCommand extends Sx4Command {
 					.append("endAt", Clock.systemUTC().instant().getEpochSecond() + seconds)
 					.append("duration", seconds)
 					.append("item", item);
+
+				event.getBot().getGiveawayManager().trackGiveaway(data, false);
 				
 				event.getMongo().insertGiveaway(data).whenComplete((result, exception) -> {
 					if (ExceptionUtility.sendExceptionally(event, exception)) {
+						event.getBot().getGiveawayManager().deleteExecutor(message.getIdLong());
 						return;
 					}
 					
@@ -320,9 +323,12 @@ public class GiveawayCommand extends Sx4Command {
 					.append("endAt", Clock.systemUTC().instant().getEpochSecond() + durationFuture)
 					.append("duration", durationFuture)
 					.append("item", itemFuture);
+
+				event.getBot().getGiveawayManager().trackGiveaway(data, false);
 					
 				event.getMongo().insertGiveaway(data).whenComplete((result, exception) -> {
 					if (ExceptionUtility.sendExceptionally(event, exception)) {
+						event.getBot().getGiveawayManager().deleteExecutor(message.getIdLong());
 						return;
 					}
 					
@@ -373,6 +379,7 @@ public class GiveawayCommand extends Sx4Command {
 			
 			channel.editMessageEmbedsById(data.getLong("messageId"), this.getEmbed(data.getInteger("winnersAmount"), seconds, data.getString("item"))).queue();
 			
+			event.getBot().getGiveawayManager().trackGiveaway(data, true);
 			event.getBot().getGiveawayManager().putGiveaway(data, seconds);
 			
 			event.replySuccess("That giveaway has been restarted").queue();
@@ -428,6 +435,7 @@ public class GiveawayCommand extends Sx4Command {
 			event.reply(event.getAuthor().getName() + ", are you sure you want to delete **all** giveaways in this server?").setActionRow(buttons).submit()
 				.thenCompose(message -> {
 					return new Waiter<>(event.getBot(), ButtonClickEvent.class)
+						.setMessageId(message.getIdLong())
 						.setPredicate(e -> ButtonUtility.handleButtonConfirmation(e, message, event.getAuthor()))
 						.setCancelPredicate(e -> ButtonUtility.handleButtonCancellation(e, message, event.getAuthor()))
 						.onFailure(e -> ButtonUtility.handleButtonFailure(e, message))
@@ -454,6 +462,8 @@ public class GiveawayCommand extends Sx4Command {
 							return;
 						}
 
+						event.getBot().getGiveawayManager().deleteGuildEntrants(event.getGuild().getIdLong());
+
 						if (result.getDeletedCount() == 0) {
 							e.reply("There are no giveaways in this server " + event.getConfig().getFailureEmote()).queue();
 							return;
@@ -473,6 +483,8 @@ public class GiveawayCommand extends Sx4Command {
 					event.replyFailure("There was no giveaway with that id").queue();
 					return;
 				}
+
+				event.getBot().getGiveawayManager().deleteExecutor(messageId);
 				
 				event.replySuccess("That giveaway has been deleted").queue();
 			});
@@ -483,7 +495,7 @@ public class GiveawayCommand extends Sx4Command {
 	@CommandId(52)
 	@Examples({"giveaway list"})
 	public void list(Sx4CommandEvent event) {
-		List<Document> giveaways = event.getMongo().getGiveaways(Filters.eq("guildId", event.getGuild().getIdLong())).into(new ArrayList<>());
+		List<Document> giveaways = event.getMongo().getGiveaways(Filters.eq("guildId", event.getGuild().getIdLong())).projection(Projections.exclude("entrants")).into(new ArrayList<>());
 		if (giveaways.isEmpty()) {
 			event.replyFailure("No giveaways have been setup in this server").queue();
 			return;
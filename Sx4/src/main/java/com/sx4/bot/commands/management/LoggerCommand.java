@@ -83,6 +83,8 @@ public class LoggerCommand extends Sx4Command {
 
             return event.getMongo().insertLogger(data);
         }).whenComplete((result, exception) -> {
+            event.getBot().getLoggerCache().invalidate(event.getGuild().getIdLong());
+
             Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
             if (cause instanceof MongoWriteException && ((MongoWriteException) cause).getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
                 event.replyFailure("You already have a logger setup in " + effectiveChannel.getAsMention()).queue();
@@ -105,6 +107,8 @@ public class LoggerCommand extends Sx4Command {
         TextChannel effectiveChannel = channel == null ? event.getTextChannel() : channel;
 
         event.getMongo().deleteLogger(Filters.eq("channelId", effectiveChannel.getIdLong())).whenComplete((result, exception) -> {
+            event.getBot().getLoggerCache().invalidate(event.getGuild().getIdLong());
+
             if (ExceptionUtility.sendExceptionally(event, exception)) {
                 return;
             }
@@ -157,6 +161,8 @@ public class LoggerCommand extends Sx4Command {
 
             return event.getMongo().findAndUpdateLogger(Filters.eq("channelId", effectiveChannel.getIdLong()), update, options);
         }).whenComplete((data, exception) -> {
+            event.getBot().getLoggerCache().invalidate(event.getGuild().getIdLong());
+
             Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
             if (cause instanceof IllegalArgumentException) {
                 event.replyFailure(cause.getMessage()).queue();
@@ -185,6 +191,8 @@ public class LoggerCommand extends Sx4Command {
         TextChannel effectiveChannel = channel == null ? event.getTextChannel() : channel;
 
         event.getMongo().updateLogger(Filters.eq("channelId", effectiveChannel.getIdLong()), Updates.set("webhook.name", name)).whenComplete((result, exception) -> {
+            event.getBot().getLoggerCache().invalidate(event.getGuild().getIdLong());
+
             if (ExceptionUtility.sendExceptionally(event, exception)) {
                 return;
             }
@@ -207,6 +215,8 @@ public class LoggerCommand extends Sx4Command {
         TextChannel effectiveChannel = channel == null ? event.getTextChannel() : channel;
 
         event.getMongo().updateLogger(Filters.eq("channelId", effectiveChannel.getIdLong()), Updates.set("webhook.avatar", url)).whenComplete((result, exception) -> {
+            event.getBot().getLoggerCache().invalidate(event.getGuild().getIdLong());
+
             if (ExceptionUtility.sendExceptionally(event, exception)) {
                 return;
             }
@@ -294,6 +304,8 @@ public class LoggerCommand extends Sx4Command {
             List<Bson> update = List.of(Operators.set("events", Operators.bitwiseOr(Operators.ifNull("$events", LoggerEvent.ALL), raw)));
 
             event.getMongo().updateLogger(Filters.eq("channelId", effectiveChannel.getIdLong()), update, new UpdateOptions()).whenComplete((result, exception) -> {
+                event.getBot().getLoggerCache().invalidate(event.getGuild().getIdLong());
+
                 if (ExceptionUtility.sendExceptionally(event, exception)) {
                     return;
                 }
@@ -323,6 +335,8 @@ public class LoggerCommand extends Sx4Command {
             List<Bson> update = List.of(Operators.set("events", Operators.bitwiseAnd(Operators.ifNull("$events", LoggerEvent.ALL), ~raw)));
 
             event.getMongo().updateLogger(Filters.eq("channelId", effectiveChannel.getIdLong()), update, new UpdateOptions()).whenComplete((result, exception) -> {
+                event.getBot().getLoggerCache().invalidate(event.getGuild().getIdLong());
+
                 if (ExceptionUtility.sendExceptionally(event, exception)) {
                     return;
                 }
@@ -349,6 +363,8 @@ public class LoggerCommand extends Sx4Command {
             TextChannel effectiveChannel = channel == null ? event.getTextChannel() : channel;
 
             event.getMongo().updateLogger(Filters.eq("channelId", effectiveChannel.getIdLong()), Updates.set("events", LoggerEvent.getRaw(events)), new UpdateOptions()).whenComplete((result, exception) -> {
+                event.getBot().getLoggerCache().invalidate(event.getGuild().getIdLong());
+
                 if (ExceptionUtility.sendExceptionally(event, exception)) {
                     return;
                 }
@@ -431,6 +447,8 @@ public class LoggerCommand extends Sx4Command {
                 List<Bson> update = List.of(Operators.set("blacklist.entities", Operators.concatArrays(List.of(Operators.mergeObjects(Operators.ifNull(Operators.first(entityFilter), MongoDatabase.EMPTY_DOCUMENT), new Document("id", id).append("events", eventsRaw).append("type", category.getType()))), Operators.filter(entitiesMap, Operators.ne("$$this.id", id)))));
 
                 event.getMongo().updateLogger(Filters.eq("channelId", effectiveChannel.getIdLong()), update, new UpdateOptions()).whenComplete((result, exception) -> {
+                   event.getBot().getLoggerCache().invalidate(event.getGuild().getIdLong());
+
                    if (ExceptionUtility.sendExceptionally(event, exception)) {
                        return;
                    }
@@ -491,6 +509,8 @@ public class LoggerCommand extends Sx4Command {
                 List<Bson> update = List.of(Operators.set("blacklist.entities", Operators.concatArrays(List.of(Operators.mergeObjects(Operators.ifNull(Operators.first(entityFilter), new Document("id", id).append("type", category.getType())), new Document("events", Operators.toLong(Operators.bitwiseOr(eventsRaw, currentEvents))))), Operators.filter(entitiesMap, Operators.ne("$$this.id", id)))));
 
                 event.getMongo().updateLogger(Filters.eq("channelId", effectiveChannel.getIdLong()), update, new UpdateOptions()).whenComplete((result, exception) -> {
+                    event.getBot().getLoggerCache().invalidate(event.getGuild().getIdLong());
+
                     if (ExceptionUtility.sendExceptionally(event, exception)) {
                         return;
                     }
@@ -551,6 +571,8 @@ public class LoggerCommand extends Sx4Command {
                 List<Bson> update = List.of(Operators.set("blacklist.entities", Operators.let(new Document("newEvents", Operators.toLong(Operators.bitwiseAnd(currentEvents, ~eventsRaw))), Operators.concatArrays(Operators.cond(Operators.eq("$$newEvents", 0L), Collections.EMPTY_LIST, List.of(Operators.mergeObjects(Operators.ifNull(Operators.first(entityFilter), new Document("id", id).append("type", category.getType())), new Document("events", "$$newEvents")))), Operators.filter(entitiesMap, Operators.ne("$$this.id", id))))));
 
                 event.getMongo().updateLogger(Filters.eq("channelId", effectiveChannel.getIdLong()), update, new UpdateOptions()).whenComplete((result, exception) -> {
+                    event.getBot().getLoggerCache().invalidate(event.getGuild().getIdLong());
+
                     if (ExceptionUtility.sendExceptionally(event, exception)) {
                         return;
                     }
@@ -147,6 +147,7 @@ public class ModLogCommand extends Sx4Command {
 
 			event.reply(author.getName() + ", are you sure you want to delete **all** the suggestions in this server?").setActionRow(buttons).submit().thenCompose(message -> {
 				return new Waiter<>(event.getBot(), ButtonClickEvent.class)
+					.setMessageId(message.getIdLong())
 					.setPredicate(e -> ButtonUtility.handleButtonConfirmation(e, message, event.getAuthor()))
 					.setCancelPredicate(e -> ButtonUtility.handleButtonCancellation(e, message, event.getAuthor()))
 					.onFailure(e -> ButtonUtility.handleButtonFailure(e, message))
@@ -278,6 +278,7 @@ public class ReactionRoleCommand extends Sx4Command {
 			event.reply(event.getAuthor().getName() + ", are you sure you want to delete **all** the reaction roles in this server?").setActionRow(buttons).submit()
 				.thenCompose(message -> {
 					return new Waiter<>(event.getBot(), ButtonClickEvent.class)
+						.setMessageId(message.getIdLong())
 						.setPredicate(e -> ButtonUtility.handleButtonConfirmation(e, message, event.getAuthor()))
 						.setCancelPredicate(e -> ButtonUtility.handleButtonCancellation(e, message, event.getAuthor()))
 						.onFailure(e -> ButtonUtility.handleButtonFailure(e, message))
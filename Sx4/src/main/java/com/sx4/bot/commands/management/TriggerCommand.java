@@ -76,6 +76,8 @@ public class TriggerCommand extends Sx4Command {
 		List<Bson> update = List.of(Operators.set("enabled", state.equals("toggle") ? Operators.cond(Operators.exists("$enabled"), false, Operators.REMOVE) : state.equals("enable") ? Operators.REMOVE : false));
 
 		event.getMongo().updateManyTriggers(filter, update, new UpdateOptions()).whenComplete((result, exception) -> {
+			event.getBot().getTriggerManager().invalidateTriggers(event.getGuild().getIdLong());
+
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
 			}
@@ -105,6 +107,8 @@ public class TriggerCommand extends Sx4Command {
 			.append("guildId", event.getGuild().getIdLong());
 
 		event.getMongo().insertTrigger(data).whenComplete((result, exception) -> {
+			event.getBot().getTriggerManager().invalidateTriggers(event.getGuild().getIdLong());
+
 			Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
 			if (cause instanceof MongoWriteException && ((MongoWriteException) cause).getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
 				event.replyFailure("You already have a trigger with that content").queue();
@@ -129,6 +133,8 @@ public class TriggerCommand extends Sx4Command {
 			.append("guildId", event.getGuild().getIdLong());
 
 		event.getMongo().insertTrigger(data).whenComplete((result, exception) -> {
+			event.getBot().getTriggerManager().invalidateTriggers(event.getGuild().getIdLong());
+
 			Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
 			if (cause instanceof MongoWriteException && ((MongoWriteException) cause).getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
 				event.replyFailure("You already have a trigger with that content").queue();
@@ -150,6 +156,8 @@ public class TriggerCommand extends Sx4Command {
 	public void edit(Sx4CommandEvent event, @Argument(value="id") ObjectId id, @Argument(value="response", endless=true) String response, @Option(value="append", description="Appends the response to the current one") boolean append) {
 		List<Bson> update = List.of(Operators.set("response", new Document("content", Operators.cond(Operators.and(Operators.exists("$response.content"), append), Operators.concat("$response.content", response), response))));
 		event.getMongo().updateTrigger(Filters.and(Filters.eq("_id", id), Filters.eq("guildId", event.getGuild().getIdLong())), update, new UpdateOptions()).whenComplete((result, exception) -> {
+			event.getBot().getTriggerManager().invalidateTriggers(event.getGuild().getIdLong());
+
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
 			}
@@ -174,6 +182,8 @@ public class TriggerCommand extends Sx4Command {
 	@AuthorPermissions(permissions={Permission.MANAGE_SERVER})
 	public void advancedEdit(Sx4CommandEvent event, @Argument(value="id") ObjectId id, @Argument(value="response", endless=true) @AdvancedMessage Document response) {
 		event.getMongo().updateTrigger(Filters.and(Filters.eq("_id", id), Filters.eq("guildId", event.getGuild().getIdLong())), Updates.set("response", response), new UpdateOptions()).whenComplete((result, exception) -> {
+			event.getBot().getTriggerManager().invalidateTriggers(event.getGuild().getIdLong());
+
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
 			}
@@ -203,6 +213,7 @@ public class TriggerCommand extends Sx4Command {
 			event.reply(event.getAuthor().getName() + ", are you sure you want to delete **all** the triggers in this server?").setActionRow(buttons).submit()
 				.thenCompose(message -> {
 					return new Waiter<>(event.getBot(), ButtonClickEvent.class)
+						.setMessageId(message.getIdLong())
 						.setPredicate(e -> ButtonUtility.handleButtonConfirmation(e, message, event.getAuthor()))
 						.setCancelPredicate(e -> ButtonUtility.handleButtonCancellation(e, message, event.getAuthor()))
 						.onFailure(e -> ButtonUtility.handleButtonFailure(e, message))
@@ -225,6 +236,8 @@ public class TriggerCommand extends Sx4Command {
 					}
 
 					event.getMongo().deleteManyTriggers(Filters.eq("guildId", event.getGuild().getIdLong())).whenComplete((result, databaseException) -> {
+						event.getBot().getTriggerManager().invalidateTriggers(event.getGuild().getIdLong());
+
 						if (ExceptionUtility.sendExceptionally(event, databaseException)) {
 							return;
 						}
@@ -239,6 +252,8 @@ public class TriggerCommand extends Sx4Command {
 				});
 		} else {
 			event.getMongo().deleteTrigger(Filters.and(Filters.eq("_id", option.getValue()), Filters.eq("guildId", event.getGuild().getIdLong()))).whenComplete((result, exception) -> {
+				event.getBot().getTriggerManager().invalidateTriggers(event.getGuild().getIdLong());
+
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
@@ -263,6 +278,8 @@ public class TriggerCommand extends Sx4Command {
 		List<Bson> update = List.of(Operators.set("case", state.equals("toggle") ? Operators.cond("$case", Operators.REMOVE, true) : state.equals("enable") ? true : Operators.REMOVE));
 
 		event.getMongo().updateManyTriggers(filter, update, new UpdateOptions()).whenComplete((result, exception) -> {
+			event.getBot().getTriggerManager().invalidateTriggers(event.getGuild().getIdLong());
+
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
 			}
@@ -71,6 +71,8 @@ public class AntiInviteCommand extends Sx4Command {
 		FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.BEFORE).projection(Projections.include("enabled"));
 
 		event.getMongo().findAndUpdateRegex(filter, update, options).thenCompose(data -> {
+			event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 			event.replySuccess("Anti-Invite is now " + (data == null || !data.get("enabled", true) ? "enabled" : "disabled")).queue();
 
 			if (data == null) {
@@ -128,6 +130,8 @@ public class AntiInviteCommand extends Sx4Command {
 	public void attempts(Sx4CommandEvent event, @Argument(value="attempts") @Limit(min=1) int attempts) {
 		Bson filter = Filters.and(Filters.eq("regexId", AntiInviteCommand.REGEX_ID), Filters.eq("guildId", event.getGuild().getIdLong()));
 		event.getMongo().updateRegex(filter, Updates.set("attempts.amount", attempts)).whenComplete((result, exception) -> {
+			event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
 			}
@@ -160,6 +164,8 @@ public class AntiInviteCommand extends Sx4Command {
 		Bson filter = Filters.and(Filters.eq("regexId", AntiInviteCommand.REGEX_ID), Filters.eq("guildId", event.getGuild().getIdLong()));
 
 		event.getMongo().updateRegex(filter, update).whenComplete((result, exception) -> {
+			event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
 			}
@@ -199,6 +205,8 @@ public class AntiInviteCommand extends Sx4Command {
 		public void message(Sx4CommandEvent event, @Argument(value="message", endless=true) @Limit(max=1500) String message) {
 			Bson filter = Filters.and(Filters.eq("regexId", AntiInviteCommand.REGEX_ID), Filters.eq("guildId", event.getGuild().getIdLong()));
 			event.getMongo().updateRegex(filter, Updates.set("mod.message", message)).whenComplete((result, exception) -> {
+				event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
@@ -250,6 +258,8 @@ public class AntiInviteCommand extends Sx4Command {
 
 			Bson filter = Filters.and(Filters.eq("regexId", AntiInviteCommand.REGEX_ID), Filters.eq("guildId", event.getGuild().getIdLong()));
 			event.getMongo().updateRegex(filter, update).whenComplete((result, exception) -> {
+				event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
@@ -291,6 +301,8 @@ public class AntiInviteCommand extends Sx4Command {
 		public void message(Sx4CommandEvent event, @Argument(value="message", endless=true) @Limit(max=1500) String message) {
 			Bson filter = Filters.and(Filters.eq("regexId", AntiInviteCommand.REGEX_ID), Filters.eq("guildId", event.getGuild().getIdLong()));
 			event.getMongo().updateRegex(filter, Updates.set("match.message", message)).whenComplete((result, exception) -> {
+				event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
@@ -316,6 +328,8 @@ public class AntiInviteCommand extends Sx4Command {
 		public void action(Sx4CommandEvent event, @Argument(value="actions") MatchAction... actions) {
 			Bson filter = Filters.and(Filters.eq("regexId", AntiInviteCommand.REGEX_ID), Filters.eq("guildId", event.getGuild().getIdLong()));
 			event.getMongo().updateRegex(filter, Updates.set("match.action", MatchAction.getRaw(actions))).whenComplete((result, exception) -> {
+				event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
@@ -381,6 +395,8 @@ public class AntiInviteCommand extends Sx4Command {
 			Bson filter = Filters.and(Filters.eq("regexId", AntiInviteCommand.REGEX_ID), Filters.eq("guildId", event.getGuild().getIdLong()));
 
 			event.getMongo().updateRegex(filter, update).whenComplete((result, exception) -> {
+				event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
@@ -431,6 +447,8 @@ public class AntiInviteCommand extends Sx4Command {
 			Bson filter = Filters.and(Filters.eq("regexId", AntiInviteCommand.REGEX_ID), Filters.eq("guildId", event.getGuild().getIdLong()));
 
 			event.getMongo().updateRegex(filter, update).whenComplete((result, exception) -> {
+				event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
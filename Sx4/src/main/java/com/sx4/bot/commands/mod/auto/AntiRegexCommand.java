@@ -108,6 +108,8 @@ public class AntiRegexCommand extends Sx4Command {
 
 			return event.getMongo().updateRegexTemplateById(id, Updates.inc("uses", 1L));
 		}).whenComplete((result, exception) -> {
+			event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 			Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
 			if (cause instanceof MongoWriteException && ((MongoWriteException) cause).getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
 				event.replyFailure("You already have that anti regex setup in this server").queue();
@@ -158,6 +160,8 @@ public class AntiRegexCommand extends Sx4Command {
 
 			return event.getMongo().insertRegex(patternData);
 		}).whenComplete((result, exception) -> {
+			event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 			Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
 			if (cause instanceof MongoWriteException && ((MongoWriteException) cause).getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
 				event.replyFailure("You already have that anti regex setup in this server").queue();
@@ -212,6 +216,8 @@ public class AntiRegexCommand extends Sx4Command {
 
 			return event.getMongo().findAndUpdateRegex(Filters.eq("_id", id), update, options);
 		}).whenComplete((data, exception) -> {
+			event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 			Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
 			if (cause instanceof IllegalArgumentException) {
 				event.replyFailure(cause.getMessage()).queue();
@@ -244,6 +250,8 @@ public class AntiRegexCommand extends Sx4Command {
 				return CompletableFuture.completedFuture(null);
 			}
 		}).whenComplete((result, exception) -> {
+			event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 			Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
 			if (cause instanceof IllegalArgumentException) {
 				event.replyFailure(cause.getMessage()).queue();
@@ -304,6 +312,8 @@ public class AntiRegexCommand extends Sx4Command {
 	@AuthorPermissions(permissions={Permission.MANAGE_SERVER})
 	public void attempts(Sx4CommandEvent event, @Argument(value="id") ObjectId id, @Argument(value="attempts") @Limit(min=1) int attempts) {
 		event.getMongo().updateRegex(Filters.and(Filters.eq("_id", id), Filters.eq("guildId", event.getGuild().getIdLong())), Updates.set("attempts.amount", attempts)).whenComplete((result, exception) -> {
+			event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
 			}
@@ -331,6 +341,8 @@ public class AntiRegexCommand extends Sx4Command {
 		FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER).projection(Projections.include("admin"));
 
 		event.getMongo().findAndUpdateRegex(Filters.and(Filters.eq("_id", id), Filters.eq("guildId", event.getGuild().getIdLong())), update, options).whenComplete((data, exception) -> {
+			event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
 			}
@@ -361,6 +373,8 @@ public class AntiRegexCommand extends Sx4Command {
 
 		Bson update = amount == 0 ? Updates.unset("attempts.reset") : Updates.set("attempts.reset", new Document("amount", amount).append("after", time.toSeconds()));
 		event.getMongo().updateRegex(Filters.and(Filters.eq("_id", id), Filters.eq("guildId", event.getGuild().getIdLong())), update).whenComplete((result, exception) -> {
+			event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
 			}
@@ -457,6 +471,8 @@ public class AntiRegexCommand extends Sx4Command {
 		@Examples({"anti regex mod message 5f023782ef9eba03390a740c A user has been banned for sending links", "anti regex match message 5f023782ef9eba03390a740c {user.name} has received a {regex.action}"})
 		public void message(Sx4CommandEvent event, @Argument(value="id") ObjectId id, @Argument(value="message", endless=true) @Limit(max=1500) String message) {
 			event.getMongo().updateRegex(Filters.and(Filters.eq("_id", id), Filters.eq("guildId", event.getGuild().getIdLong())), Updates.set("mod.message", message)).whenComplete((result, exception) -> {
+				event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
@@ -507,6 +523,8 @@ public class AntiRegexCommand extends Sx4Command {
 			}
 
 			event.getMongo().updateRegex(Filters.and(Filters.eq("_id", id), Filters.eq("guildId", event.getGuild().getIdLong())), update).whenComplete((result, exception) -> {
+				event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
@@ -547,6 +565,8 @@ public class AntiRegexCommand extends Sx4Command {
 		@Examples({"anti regex match message 5f023782ef9eba03390a740c You cannot have a url in your message :no_entry:", "anti regex match message 5f023782ef9eba03390a740c {user.mention}, don't send that here or else you'll get a {regex.action} :no_entry:"})
 		public void message(Sx4CommandEvent event, @Argument(value="id") ObjectId id, @Argument(value="message", endless=true) @Limit(max=1500) String message) {
 			event.getMongo().updateRegex(Filters.and(Filters.eq("_id", id), Filters.eq("guildId", event.getGuild().getIdLong())), Updates.set("match.message", message)).whenComplete((result, exception) -> {
+				event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
@@ -571,6 +591,8 @@ public class AntiRegexCommand extends Sx4Command {
 		@AuthorPermissions(permissions={Permission.MANAGE_SERVER})
 		public void action(Sx4CommandEvent event, @Argument(value="id") ObjectId id, @Argument(value="actions") MatchAction... actions) {
 			event.getMongo().updateRegex(Filters.and(Filters.eq("_id", id), Filters.eq("guildId", event.getGuild().getIdLong())), Updates.set("match.action", MatchAction.getRaw(actions))).whenComplete((result, exception) -> {
+				event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
@@ -641,6 +663,8 @@ public class AntiRegexCommand extends Sx4Command {
 			List<Bson> update = List.of(Operators.set("whitelist", Operators.concatArrays(concat)));
 
 			event.getMongo().updateRegex(Filters.and(Filters.eq("_id", id), Filters.eq("guildId", event.getGuild().getIdLong())), update).whenComplete((result, exception) -> {
+				event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
@@ -689,6 +713,8 @@ public class AntiRegexCommand extends Sx4Command {
 			concat.add(Operators.filter(channelMap, Operators.not(Operators.in("$$this.id", channelIds))));
 			List<Bson> update = List.of(Operators.set("whitelist", Operators.concatArrays(concat)));
 			event.getMongo().updateRegex(Filters.and(Filters.eq("_id", id), Filters.eq("guildId", event.getGuild().getIdLong())), update).whenComplete((result, exception) -> {
+				event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
@@ -733,6 +759,8 @@ public class AntiRegexCommand extends Sx4Command {
 			List<Bson> update = List.of(Operators.set("whitelist", Operators.concatArrays(concat)));
 
 			event.getMongo().updateRegex(Filters.and(Filters.eq("_id", id), Filters.eq("guildId", event.getGuild().getIdLong())), update).whenComplete((result, exception) -> {
+				event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
@@ -781,6 +809,8 @@ public class AntiRegexCommand extends Sx4Command {
 			List<Bson> update = List.of(Operators.set("whitelist", Operators.concatArrays(concat)));
 
 			event.getMongo().updateRegex(Filters.and(Filters.eq("_id", id), Filters.eq("guildId", event.getGuild().getIdLong())), update).whenComplete((result, exception) -> {
+				event.getBot().getAntiRegexManager().invalidateRegexes(event.getGuild().getIdLong());
+
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
@@ -74,6 +74,8 @@ public class FakePermissionsCommand extends Sx4Command {
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
 			}
+
+			event.getBot().getPermissionContextCache().invalidate(event.getGuild().getIdLong());
 			
 			if (result.getModifiedCount() == 0) {
 				event.replyFailure("That " + (role ? "role" : "user") + " already has all those permissions").queue();
@@ -104,6 +106,8 @@ public class FakePermissionsCommand extends Sx4Command {
 			if (ExceptionUtility.sendExceptionally(event, exception)) {
 				return;
 			}
+
+			event.getBot().getPermissionContextCache().invalidate(event.getGuild().getIdLong());
 			
 			if (result.getModifiedCount() == 0) {
 				event.replyFailure("That " + (role ? "role" : "user") + " doesn't have any of those permissions").queue();
@@ -158,6 +162,8 @@ public class FakePermissionsCommand extends Sx4Command {
 						return;
 					}
 
+					event.getBot().getPermissionContextCache().invalidate(event.getGuild().getIdLong());
+
 					if (result.getModifiedCount() == 0) {
 						event.replyFailure("That " + (isRole ? "role" : "user") + " doesn't have any fake permissions").queue();
 						return;
@@ -173,6 +179,7 @@ public class FakePermissionsCommand extends Sx4Command {
 
 			event.reply(event.getAuthor().getName() + ", are you sure you want to delete **all** fake permissions data?").setActionRow(buttons).submit().thenCompose(message -> {
 				return new Waiter<>(event.getBot(), ButtonClickEvent.class)
+					.setMessageId(message.getIdLong())
 					.setPredicate(e -> ButtonUtility.handleButtonConfirmation(e, message, event.getAuthor()))
 					.setCancelPredicate(e -> ButtonUtility.handleButtonCancellation(e, message, event.getAuthor()))
 					.onFailure(e -> ButtonUtility.handleButtonFailure(e, message))
@@ -199,6 +206,8 @@ public class FakePermissionsCommand extends Sx4Command {
 						return;
 					}
 
+					event.getBot().getPermissionContextCache().invalidate(event.getGuild().getIdLong());
+
 					e.reply("All fake permission data has been deleted in this server " + event.getConfig().getSuccessEmote()).queue();
 				});
 			});
@@ -210,6 +219,8 @@ public class FakePermissionsCommand extends Sx4Command {
 				if (ExceptionUtility.sendExceptionally(event, exception)) {
 					return;
 				}
+
+				event.getBot().getPermissionContextCache().invalidate(event.getGuild().getIdLong());
 				
 				if (result.getModifiedCount() == 0) {
 					event.replyFailure("That " + (role ? "role" : "user") + " doesn't have any fake permissions").queue();
@@ -9,6 +9,7 @@ import com.mongodb.client.model.Updates;
 import com.sx4.bot.annotations.command.AuthorPermissions;
 import com.sx4.bot.annotations.command.CommandId;
 import com.sx4.bot.annotations.command.Examples;
+import com.sx4.bot.cache.PrefixCache;
 import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.core.Sx4Command;
 import com.sx4.bot.core.Sx4CommandEvent;
@@ -37,8 +38,10 @@ public class PrefixCommand extends Sx4Command {
 	}
 
 	public void onCommand(Sx4CommandEvent event) {
-		List<String> guildPrefixes = event.getMongo().getGuildById(event.getGuild().getIdLong(), Projections.include("prefixes")).getList("prefixes", String.class, Collections.emptyList());
-		List<String> userPrefixes = event.getMongo().getUserById(event.getAuthor().getIdLong(), Projections.include("prefixes")).getList("prefixes", String.class, Collections.emptyList());
+		PrefixCache cache = event.getBot().getPrefixCache();
+
+		List<String> guildPrefixes = cache.getGuildPrefixes(event.getGuild().getIdLong());
+		List<String> userPrefixes = cache.getUserPrefixes(event.getAuthor().getIdLong());
 
 		EmbedBuilder embed = new EmbedBuilder();
 		embed.setAuthor("Prefix Settings", null, event.getAuthor().getEffectiveAvatarUrl());
@@ -83,6 +86,8 @@ public class PrefixCommand extends Sx4Command {
 					return;
 				}
 
+				event.getBot().getPrefixCache().putUser(event.getAuthor().getIdLong(), finalPrefixes);
+
 				event.replySuccess("Your prefixes have been updated").queue();
 			});
 		}
@@ -111,6 +116,10 @@ public class PrefixCommand extends Sx4Command {
 					return;
 				}
 
+				PrefixCache cache = event.getBot().getPrefixCache();
+				cache.invalidateUser(event.getAuthor().getIdLong());
+				cache.registerPrefixes(finalPrefixes);
+
 				List<String> previousPrefixes = data == null ? Collections.emptyList() : data.getList("prefixes", String.class, Collections.emptyList());
 				if (previousPrefixes.size() >= 25) {
 					event.replyFailure("You cannot have more than 25 prefixes").queue();
@@ -137,6 +146,8 @@ public class PrefixCommand extends Sx4Command {
 					return;
 				}
 
+				event.getBot().getPrefixCache().invalidateUser(event.getAuthor().getIdLong());
+
 				if (result.getModifiedCount() == 0) {
 					event.replyFailure("You didn't have any " + (all ? "" : "of those ") + "prefixes").queue();
 					return;
@@ -183,6 +194,8 @@ public class PrefixCommand extends Sx4Command {
 					return;
 				}
 
+				event.getBot().getPrefixCache().putGuild(event.getGuild().getIdLong(), finalPrefixes);
+
 				event.replySuccess("The servers prefixes have been updated").queue();
 			});
 		}
@@ -212,6 +225,10 @@ public class PrefixCommand extends Sx4Command {
 					return;
 				}
 
+				PrefixCache cache = event.getBot().getPrefixCache();
+				cache.invalidateGuild(event.getGuild().getIdLong());
+				cache.registerPrefixes(finalPrefixes);
+
 				List<String> previousPrefixes = data == null ? Collections.emptyList() : data.getList("prefixes", String.class, Collections.emptyList());
 				if (previousPrefixes.size() >= 25) {
 					event.replyFailure("You cannot have more than 25 prefixes").queue();
@@ -239,6 +256,8 @@ public class PrefixCommand extends Sx4Command {
 					return;
 				}
 
+				event.getBot().getPrefixCache().invalidateGuild(event.getGuild().getIdLong());
+
 				if (result.getModifiedCount() == 0) {
 					event.replyFailure("The server didn't have any " + (all ? "" : "of those ") + "prefixes").queue();
 					return;
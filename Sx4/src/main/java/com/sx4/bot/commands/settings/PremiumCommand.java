@@ -90,6 +90,7 @@ public class PremiumCommand extends Sx4Command {
 
 		event.reply(embed).setActionRow(buttons).submit().thenCompose(message -> {
 			return new Waiter<>(event.getBot(), ButtonClickEvent.class)
+				.setMessageId(message.getIdLong())
 				.setPredicate(e -> ButtonUtility.handleButtonConfirmation(e, message, event.getAuthor(), "confirm"))
 				.setCancelPredicate(e -> ButtonUtility.handleButtonCancellation(e, message, event.getAuthor(), "cancel"))
 				.onFailure(e -> ButtonUtility.handleButtonFailure(e, message))
@@ -126,6 +127,8 @@ public class PremiumCommand extends Sx4Command {
 
 				return event.getMongo().findAndUpdateGuildById(guildId, guildUpdate, guildOptions);
 			}).whenComplete((data, databaseException) -> {
+				event.getBot().getLoggerCache().invalidate(guildId);
+
 				if (ExceptionUtility.sendExceptionally(event, databaseException) || (data != null && data.isEmpty())) {
 					return;
 				}
@@ -73,6 +73,8 @@ public class WhitelistCommand extends Sx4Command {
 				return;
 			}
 
+			event.getBot().getPermissionContextCache().invalidate(event.getGuild().getIdLong());
+
 			if (result.getModifiedCount() == 0) {
 				event.replyFailure((commands.size() == 1 ? "That command is" :  "Those commands are") +  " already whitelisted for that " + (role ? "role" : "user") + " in those channels").queue();
 				return;
@@ -107,6 +109,8 @@ public class WhitelistCommand extends Sx4Command {
 				return;
 			}
 
+			event.getBot().getPermissionContextCache().invalidate(event.getGuild().getIdLong());
+
 			if (result.getModifiedCount() == 0) {
 				event.replyFailure((commands.size() == 1 ? "That command is" :  "Those commands are") +  " not whitelisted for that " + (role ? "role" : "user") + " in those channels").queue();
 				return;
@@ -128,6 +132,8 @@ public class WhitelistCommand extends Sx4Command {
 					return;
 				}
 
+				event.getBot().getPermissionContextCache().invalidate(event.getGuild().getIdLong());
+
 				if (result.getModifiedCount() == 0) {
 					event.replyFailure("Nothing was whitelisted in this server").queue();
 					return;
@@ -142,6 +148,8 @@ public class WhitelistCommand extends Sx4Command {
 					return;
 				}
 
+				event.getBot().getPermissionContextCache().invalidate(event.getGuild().getIdLong());
+
 				if (result.getModifiedCount() == 0) {
 					event.replyFailure("Nothing was whitelisted in that channel").queue();
 					return;
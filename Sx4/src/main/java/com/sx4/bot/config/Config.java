@@ -307,6 +307,182 @@ public class Config {
 	public String getDatabase() {
 		return this.get(this.getState() + ".database");
 	}
+
+	public boolean isChangeStreamEnabled() {
+		return this.get("mongo.changeStream", false);
+	}
+
+	public int getLoggerThreads() {
+		return this.get("logger.threads", 4);
+	}
+
+	public int getLoggerLinger() {
+		return this.get("logger.linger", 250);
+	}
+
+	public int getLoggerQueueSize() {
+		return this.get("logger.queueSize", 500);
+	}
+
+	public int getCommandLogBatchSize() {
+		return this.get("commandLog.batchSize", 500);
+	}
+
+	public int getCommandLogBufferSize() {
+		return this.get("commandLog.bufferSize", 10000);
+	}
+
+	public int getCommandLogInterval() {
+		return this.get("commandLog.interval", 1000);
+	}
+
+	public int getCommandLogRollupInterval() {
+		return this.get("commandLog.rollupInterval", 300);
+	}
+
+	public int getCommandLogRollupBackfill() {
+		return this.get("commandLog.rollupBackfill", 24);
+	}
+
+	public int getMessageCacheSize() {
+		return this.get("messageCache.maxSize", 750000);
+	}
+
+	public int getMessageCacheGuildSize() {
+		return this.get("messageCache.maxGuildSize", 50000);
+	}
+
+	public int getMessageCacheStripes() {
+		return this.get("messageCache.stripes", 16);
+	}
+
+	public int getExpiryWindow() {
+		return this.get("expiry.window", 3600);
+	}
+
+	public int getWarmUpThreads() {
+		return this.get("warmUp.threads", 4);
+	}
+
+	public int getWarmUpBatchSize() {
+		return this.get("warmUp.batchSize", 1000);
+	}
+
+	public int getWebhookThreads() {
+		return this.get("webhook.threads", 4);
+	}
+
+	public int getWebhookIdleConnections() {
+		return this.get("webhook.idleConnections", 20);
+	}
+
+	public int getWebhookCacheSize() {
+		return this.get("webhook.cacheSize", 10000);
+	}
+
+	public int getLeaderboardSize() {
+		return this.get("leaderboard.size", 10000);
+	}
+
+	public int getLeaderboardReconcileInterval() {
+		return this.get("leaderboard.reconcileInterval", 600);
+	}
+
+	public int getLeaderboardGuildViews() {
+		return this.get("leaderboard.guildViews", 500);
+	}
+
+	public int getLeaderboardGuildExpiry() {
+		return this.get("leaderboard.guildExpiry", 300);
+	}
+
+	public int getImageThreads() {
+		return this.get("image.threads", Runtime.getRuntime().availableProcessors());
+	}
+
+	public int getImageMaxPixels() {
+		return this.get("image.maxPixels", 25000000);
+	}
+
+	public int getImageMaxFrames() {
+		return this.get("image.maxFrames", 300);
+	}
+
+	public int getImageMaxBytes() {
+		return this.get("image.maxBytes", 52428800);
+	}
+
+	public String getRenderCacheDirectory() {
+		return this.get("renderCache.directory", "render-cache");
+	}
+
+	public int getRenderCacheMemorySize() {
+		return this.get("renderCache.memorySize", 67108864);
+	}
+
+	public int getRenderCacheDiskSize() {
+		return this.get("renderCache.diskSize", 1073741824);
+	}
+
+	public int getRenderCacheExpiry() {
+		return this.get("renderCache.expiry", 3600);
+	}
+
+	public int getEventThreads() {
+		return this.get("event.threads", 32);
+	}
+
+	public int getEventSlowThreshold() {
+		return this.get("event.slowThreshold", 5000);
+	}
+
+	public int getEventMaxQueueSize() {
+		return this.get("event.maxQueueSize", 10000);
+	}
+
+	public int getPrefixCacheSize() {
+		return this.get("prefix.cacheSize", 200000);
+	}
+
+	public int getPrefixCacheExpiry() {
+		return this.get("prefix.expiry", 600);
+	}
+
+	public int getPermissionCacheSize() {
+		return this.get("permissionCache.size", 50000);
+	}
+
+	public int getPermissionCacheExpiry() {
+		return this.get("permissionCache.expiry", 600);
+	}
+
+	public String getResponseCacheDirectory() {
+		return this.get("responseCache.directory", "response-cache");
+	}
+
+	public int getResponseCacheMemorySize() {
+		return this.get("responseCache.memorySize", 33554432);
+	}
+
+	public int getResponseCacheDiskSize() {
+		return this.get("responseCache.diskSize", 268435456);
+	}
+
+	public int getGiveawayFlushInterval() {
+		return this.get("giveaway.flushInterval", 30);
+	}
+
+	public int getCalculatorMaxInstructions() {
+		return this.get("calculator.maxInstructions", 2048);
+	}
+
+	public int getCalculatorMaxDepth() {
+		return this.get("calculator.maxDepth", 128);
+	}
+
+	public int getCalculatorCacheSize() {
+		return this.get("calculator.cacheSize", 500);
+	}
 	
 	public String getToken() {
 		return this.get("token." + (this.isTest() ? "test" : this.isCanary() ? "canary" : "main"));
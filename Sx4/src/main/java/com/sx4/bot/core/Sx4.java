@@ -23,11 +23,15 @@ import com.jockie.bot.core.option.factory.impl.OptionFactoryImpl;
 import com.jockie.bot.core.parser.IParser;
 import com.jockie.bot.core.parser.ParsedResult;
 import com.jockie.jda.memory.MemoryOptimizations;
-import com.mongodb.client.model.Projections;
 import com.sx4.api.Sx4Server;
 import com.sx4.bot.annotations.argument.*;
 import com.sx4.bot.cache.GoogleSearchCache;
+import com.sx4.bot.cache.LoggerCache;
 import com.sx4.bot.cache.MessageCache;
+import com.sx4.bot.cache.PermissionContextCache;
+import com.sx4.bot.cache.PrefixCache;
+import com.sx4.bot.cache.RenderCache;
+import com.sx4.bot.cache.ResponseCache;
 import com.sx4.bot.cache.SteamGameCache;
 import com.sx4.bot.category.ModuleCategory;
 import com.sx4.bot.config.Config;
@@ -39,6 +43,7 @@ import com.sx4.bot.entities.economy.item.ItemStack;
 import com.sx4.bot.entities.management.AutoRoleFilter;
 import com.sx4.bot.entities.mod.PartialEmote;
 import com.sx4.bot.entities.mod.Reason;
+import com.sx4.bot.entities.settings.PermissionContext;
 import com.sx4.bot.entities.youtube.YouTubeChannel;
 import com.sx4.bot.entities.youtube.YouTubeVideo;
 import com.sx4.bot.formatter.FormatterManager;
@@ -57,7 +62,6 @@ import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.entities.Message.Attachment;
 import net.dv8tion.jda.api.entities.MessageReaction.ReactionEmote;
 import net.dv8tion.jda.api.hooks.IEventManager;
-import net.dv8tion.jda.api.hooks.InterfacedEventManager;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.requests.restaction.MessageAction;
 import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
@@ -111,7 +115,15 @@ public class Sx4 {
 
 	private final SteamGameCache steamGameCache;
 	private final MessageCache messageCache;
+	private final LoggerCache loggerCache;
 	private final GoogleSearchCache googleCache;
+	private final RenderCache renderCache;
+	private final ResponseCache responseCache;
+	private final PrefixCache prefixCache;
+	private final PrefixCache canaryPrefixCache;
+	private final PermissionContextCache permissionContextCache;
+
+	private final Sx4EventManager eventManager;
 
 	/* Managers */
 	private final YouTubeManager youTubeManager;
@@ -128,6 +140,15 @@ public class Sx4 {
 	private final LeaverManager leaverManager;
 	private final ModActionManager modActionManager;
 	private final SuggestionManager suggestionManager;
+	private final TriggerManager triggerManager;
+	private final CommandLogManager commandLogManager;
+
+	private final LoggerHandler loggerHandler;
+	private final CommandRollupManager commandRollupManager;
+	private final LeaderboardManager leaderboardManager;
+	private final ImageManager imageManager;
+	private final WebhookDeliveryService webhookDeliveryService;
+	private final WarmUpManager warmUpManager;
 	private final PagedManager pagedManager;
 	private final WaiterManager waiterManager;
 	private final ServerStatsManager serverStatsManager;
@@ -145,13 +166,21 @@ public class Sx4 {
 
 		this.mongo = this.config.isMain() ? this.mongoMain : this.mongoCanary;
 
+		if (this.config.isChangeStreamEnabled()) {
+			this.mongoMain.watchGuilds();
+			this.mongoCanary.watchGuilds();
+		}
+
 		this.executor = Executors.newSingleThreadExecutor();
 		this.scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
 
+		this.responseCache = new ResponseCache(this.config);
+
 		this.httpClient = new OkHttpClient.Builder()
 			.connectTimeout(15, TimeUnit.SECONDS)
 			.readTimeout(15, TimeUnit.SECONDS)
 			.writeTimeout(15, TimeUnit.SECONDS)
+			.addInterceptor(this.responseCache)
 			.build();
 
 		ContextManagerFactory.getDefault()
@@ -162,13 +191,14 @@ public class Sx4 {
 
 		MethodCommandFactory.setDefault(new Sx4CommandFactory());
 
+		this.webhookDeliveryService = new WebhookDeliveryService(this);
 		this.modLogManager = new ModLogManager(this);
 
 		ModHandler modHandler = new ModHandler(this);
 		YouTubeHandler youTubeHandler = new YouTubeHandler(this);
-		LoggerHandler loggerHandler = new LoggerHandler(this);
+		this.loggerHandler = new LoggerHandler(this);
 
-		this.antiRegexManager = new AntiRegexManager();
+		this.antiRegexManager = new AntiRegexManager(this);
 		this.economyManager = new EconomyManager();
 		this.giveawayManager = new GiveawayManager(this);
 		this.leaverManager = new LeaverManager(this);
@@ -179,6 +209,12 @@ public class Sx4 {
 		this.starboardManager = new StarboardManager(this);
 		this.suggestionManager = new SuggestionManager(this);
 		this.temporaryBanManager = new TemporaryBanManager(this);
+		this.triggerManager = new TriggerManager(this);
+		this.commandLogManager = new CommandLogManager(this);
+		this.commandRollupManager = new CommandRollupManager(this);
+		this.leaderboardManager = new LeaderboardManager(this);
+		this.imageManager = new ImageManager(this);
+		this.warmUpManager = new WarmUpManager(this);
 		this.welcomerManager = new WelcomerManager(this);
 		this.youTubeManager = new YouTubeManager(this).addListener(youTubeHandler);
 		this.pagedManager = new PagedManager();
@@ -187,9 +223,21 @@ public class Sx4 {
 		this.twitchTokenManager = new TwitchTokenManager(this);
 		this.mysteryBoxManager = new MysteryBoxManager();
 
+		Runtime.getRuntime().addShutdownHook(new Thread(this.commandLogManager::close));
+
 		this.steamGameCache = new SteamGameCache(this);
-		this.messageCache = new MessageCache();
+		this.messageCache = new MessageCache(this.config.getMessageCacheSize(), this.config.getMessageCacheGuildSize(), this.config.getMessageCacheStripes());
+		this.loggerCache = new LoggerCache(this);
 		this.googleCache = new GoogleSearchCache(this);
+		this.renderCache = new RenderCache(this);
+
+		this.prefixCache = new PrefixCache(this.mongo, this.config.getDefaultPrefixes(), this.config.getPrefixCacheSize(), this.config.getPrefixCacheExpiry());
+		this.canaryPrefixCache = this.config.isMain() ? new PrefixCache(this.mongoCanary, this.config.getDefaultPrefixes(), this.config.getPrefixCacheSize(), this.config.getPrefixCacheExpiry()) : this.prefixCache;
+
+		// Picks up prefixes set outside of this process, the initial load is done by the warm up
+		this.scheduledExecutor.scheduleAtFixedRate(() -> ExceptionUtility.safeRun(this.prefixCache::ensurePrefixes), this.config.getPrefixCacheExpiry(), this.config.getPrefixCacheExpiry(), TimeUnit.SECONDS);
+
+		this.permissionContextCache = new PermissionContextCache(this);
 
 		this.setupArgumentFactory();
 		this.setupOptionFactory();
@@ -197,7 +245,9 @@ public class Sx4 {
 		this.commandListener = this.createCommandListener(this.createErrorManager());
 		((CommandParserImpl) this.commandListener.getCommandParser()).addOptionPrefix("");
 
-		IEventManager manager = new InterfacedEventManager();
+		this.eventManager = new Sx4EventManager(this.config.getEventThreads(), this.config.getEventSlowThreshold(), this.config.getEventMaxQueueSize());
+
+		IEventManager manager = this.eventManager;
 		manager.register(this.commandListener);
 		manager.register(new PagedHandler(this));
 		manager.register(new GiveawayHandler(this));
@@ -205,7 +255,7 @@ public class Sx4 {
 		manager.register(modHandler);
 		manager.register(new ConnectionHandler(this));
 		manager.register(new ReactionRoleHandler(this));
-		manager.register(loggerHandler);
+		manager.register(this.loggerHandler);
 		manager.register(new AntiRegexHandler(this));
 		manager.register(new WelcomerHandler(this));
 		manager.register(new LeaverHandler(this));
@@ -454,6 +504,38 @@ public class Sx4 {
 		return this.suggestionManager;
 	}
 
+	public TriggerManager getTriggerManager() {
+		return this.triggerManager;
+	}
+
+	public CommandLogManager getCommandLogManager() {
+		return this.commandLogManager;
+	}
+
+	public LoggerHandler getLoggerHandler() {
+		return this.loggerHandler;
+	}
+
+	public CommandRollupManager getCommandRollupManager() {
+		return this.commandRollupManager;
+	}
+
+	public LeaderboardManager getLeaderboardManager() {
+		return this.leaderboardManager;
+	}
+
+	public ImageManager getImageManager() {
+		return this.imageManager;
+	}
+
+	public WebhookDeliveryService getWebhookDeliveryService() {
+		return this.webhookDeliveryService;
+	}
+
+	public WarmUpManager getWarmUpManager() {
+		return this.warmUpManager;
+	}
+
 	public PagedManager getPagedManager() {
 		return this.pagedManager;
 	}
@@ -482,10 +564,38 @@ public class Sx4 {
 		return this.messageCache;
 	}
 
+	public LoggerCache getLoggerCache() {
+		return this.loggerCache;
+	}
+
 	public GoogleSearchCache getGoogleCache() {
 		return this.googleCache;
 	}
 
+	public RenderCache getRenderCache() {
+		return this.renderCache;
+	}
+
+	public ResponseCache getResponseCache() {
+		return this.responseCache;
+	}
+
+	public PrefixCache getPrefixCache() {
+		return this.prefixCache;
+	}
+
+	public PrefixCache getCanaryPrefixCache() {
+		return this.canaryPrefixCache;
+	}
+
+	public PermissionContextCache getPermissionContextCache() {
+		return this.permissionContextCache;
+	}
+
+	public Sx4EventManager getEventManager() {
+		return this.eventManager;
+	}
+
 	public ShardManager createShardManager(IEventManager manager) {
 		try {
 			return DefaultShardManagerBuilder.create(this.config.getToken(), GatewayIntent.getIntents(5838))
@@ -512,15 +622,13 @@ public class Sx4 {
 			.addCommandEventListener(new Sx4CommandEventListener(this))
 			.setDefaultPrefixes(this.config.getDefaultPrefixes().toArray(String[]::new))
 			.addPreParseCheck(message -> !message.getAuthor().isBot())
+			.addPreParseCheck(this.prefixCache::isPossibleCommand)
 			.addPreExecuteCheck((event, command) -> {
 				if (this.config.isCanary() || event.isFromType(ChannelType.PRIVATE)) {
 					return true;
 				}
 
-				List<String> guildPrefixes = event.getMessage().isFromGuild() ? this.mongoCanary.getGuildById(event.getGuild().getIdLong(), Projections.include("prefixes")).getList("prefixes", String.class, Collections.emptyList()) : Collections.emptyList();
-				List<String> userPrefixes = this.mongoCanary.getUserById(event.getAuthor().getIdLong(), Projections.include("prefixes")).getList("prefixes", String.class, Collections.emptyList());
-
-				List<String> prefixes = userPrefixes.isEmpty() ? guildPrefixes.isEmpty() ? this.config.getDefaultPrefixes() : guildPrefixes : userPrefixes;
+				List<String> prefixes = this.canaryPrefixCache.getPrefixes(event.getMessage());
 				event.setProperty("canaryPrefixes", prefixes);
 
 				return CheckUtility.canReply(this, event.getMessage(), event.getPrefix(), prefixes);
@@ -532,14 +640,10 @@ public class Sx4 {
 
 				return true;
 			}).addPreExecuteCheck((event, command) -> {
-				if (event.isFromGuild()) {
-					Document guildData = this.mongo.getGuildById(event.getGuild().getIdLong(), Projections.include("fakePermissions.holders"));
+				PermissionContext context = event.isFromGuild() ? this.permissionContextCache.get(event.getGuild().getIdLong()) : PermissionContext.EMPTY;
 
-					List<Document> holders = guildData.getEmbedded(List.of("fakePermissions", "holders"), Collections.emptyList());
-					event.setProperty("fakePermissions", holders);
-				} else {
-					event.setProperty("fakePermissions", Collections.emptyList());
-				}
+				event.setProperty("permissionContext", context);
+				event.setProperty("fakePermissions", context.getFakePermissions());
 
 				return true;
 			}).addPreExecuteCheck((event, command) -> {
@@ -552,12 +656,13 @@ public class Sx4 {
 					return true;
 				}
 
-				if (permissions.contains(Permission.MANAGE_ROLES) && !CheckUtility.hasPermissions(this, event.getMember(), event.getProperty("fakePermissions"), EnumSet.of(Permission.MANAGE_ROLES))) {
+				PermissionContext context = event.getProperty("permissionContext");
+				if (permissions.contains(Permission.MANAGE_ROLES) && !CheckUtility.hasPermissions(this, event.getMember(), context, EnumSet.of(Permission.MANAGE_ROLES))) {
 					event.reply(PermissionUtility.formatMissingPermissions(EnumSet.of(Permission.MANAGE_ROLES)) + " " + this.config.getFailureEmote()).queue();
 					return false;
 				}
 
-				EnumSet<Permission> missingPermissions = CheckUtility.missingPermissions(this, event.getMember(), event.getTextChannel(), event.getProperty("fakePermissions"), EnumSet.copyOf(permissions));
+				EnumSet<Permission> missingPermissions = CheckUtility.missingPermissions(this, event.getMember(), event.getTextChannel(), context, EnumSet.copyOf(permissions));
 				if (missingPermissions.isEmpty()) {
 					return true;
 				} else {
@@ -574,7 +679,8 @@ public class Sx4 {
 					return true;
 				}
 
-				if (permissions.contains(Permission.MANAGE_ROLES) && !CheckUtility.hasPermissions(this, event.getSelfMember(), event.getProperty("fakePermissions"), EnumSet.of(Permission.MANAGE_ROLES))) {
+				PermissionContext context = event.getProperty("permissionContext");
+				if (permissions.contains(Permission.MANAGE_ROLES) && !CheckUtility.hasPermissions(this, event.getSelfMember(), context, EnumSet.of(Permission.MANAGE_ROLES))) {
 					event.reply(PermissionUtility.formatMissingPermissions(EnumSet.of(Permission.MANAGE_ROLES), "I am") + " " + this.config.getFailureEmote()).queue();
 					return false;
 				}
@@ -589,7 +695,7 @@ public class Sx4 {
 			}).addPreExecuteCheck((event, command) -> {
 				Sx4Command effectiveCommand = (Sx4Command) (command instanceof DummyCommand ? ((DummyCommand) command).getActualCommand() : command);
 				if (event.isFromGuild()) {
-					boolean canUseCommand = CheckUtility.canUseCommand(this, event.getMember(), event.getTextChannel(), effectiveCommand);
+					boolean canUseCommand = CheckUtility.canUseCommand(this, event.getMember(), event.getTextChannel(), event.getProperty("permissionContext"), effectiveCommand);
 					if (!canUseCommand) {
 						event.reply("You are blacklisted from using that command in this channel " + this.config.getFailureEmote()).queue();
 					}
@@ -680,12 +786,7 @@ public class Sx4 {
 				paged.onSelect(select -> channel.sendMessage(HelpUtility.getHelpMessage(select.getSelected(), embed)).queue());
 
 				paged.execute(channel, message.getAuthor());
-			}).setPrefixesFunction(message -> {
-				List<String> guildPrefixes = message.isFromGuild() ? this.mongo.getGuildById(message.getGuild().getIdLong(), Projections.include("prefixes")).getList("prefixes", String.class, Collections.emptyList()) : Collections.emptyList();
-				List<String> userPrefixes = this.mongo.getUserById(message.getAuthor().getIdLong(), Projections.include("prefixes")).getList("prefixes", String.class, Collections.emptyList());
-
-				return userPrefixes.isEmpty() ? guildPrefixes.isEmpty() ? this.config.getDefaultPrefixes() : guildPrefixes : userPrefixes;
-			}).setCooldownFunction((event, cooldown) -> {
+			}).setPrefixesFunction(this.prefixCache::getPrefixes).setCooldownFunction((event, cooldown) -> {
 				if (!CheckUtility.canReply(this, event.getMessage(), event.getPrefix(), event.getProperty("canaryPrefixes"))) {
 					return;
 				}
@@ -7,6 +7,7 @@ import com.jockie.bot.core.command.impl.CommandListener;
 import com.sx4.bot.config.Config;
 import com.sx4.bot.database.mongo.MongoDatabase;
 import com.sx4.bot.database.postgres.PostgresDatabase;
+import com.sx4.bot.entities.settings.PermissionContext;
 import com.sx4.bot.utility.CheckUtility;
 import com.sx4.bot.utility.HelpUtility;
 import com.sx4.bot.utility.MathUtility;
@@ -84,7 +85,9 @@ public class Sx4CommandEvent extends CommandEvent {
 	}
 
 	public boolean hasPermission(Member member, Permission... permissions) {
-		return CheckUtility.hasPermissions(this.bot, member, this.getTextChannel(), this.getProperty("fakePermissions"), permissions);
+		PermissionContext context = this.getProperty("permissionContext");
+
+		return CheckUtility.hasPermissions(this.bot, member, this.getTextChannel(), context, permissions);
 	}
 	
 	public MessageAction replyHelp() {
@@ -0,0 +1,295 @@
+package com.sx4.bot.core;
+
+import com.sx4.bot.utility.ExceptionUtility;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.channel.category.GenericCategoryEvent;
+import net.dv8tion.jda.api.events.channel.store.GenericStoreChannelEvent;
+import net.dv8tion.jda.api.events.channel.text.GenericTextChannelEvent;
+import net.dv8tion.jda.api.events.channel.voice.GenericVoiceChannelEvent;
+import net.dv8tion.jda.api.events.emote.GenericEmoteEvent;
+import net.dv8tion.jda.api.events.guild.GenericGuildEvent;
+import net.dv8tion.jda.api.events.message.GenericMessageEvent;
+import net.dv8tion.jda.api.events.message.MessageBulkDeleteEvent;
+import net.dv8tion.jda.api.events.role.GenericRoleEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.hooks.IEventManager;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Sx4EventManager implements IEventManager {
+
+	// Events a queue handles before giving its worker up to other guilds
+	private static final int BATCH_SIZE = 32;
+
+	public static class HandlerStats {
+
+		private final LongAdder events = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong(0L);
+
+		private void record(long nanos) {
+			this.events.increment();
+			this.totalNanos.add(nanos);
+			this.maxNanos.accumulateAndGet(nanos, Math::max);
+		}
+
+		public long getEvents() {
+			return this.events.sum();
+		}
+
+		public double getAverageMillis() {
+			long events = this.events.sum();
+			return events == 0 ? 0D : this.totalNanos.sum() / (double) events / 1_000_000D;
+		}
+
+		public double getMaxMillis() {
+			return this.maxNanos.get() / 1_000_000D;
+		}
+
+	}
+
+	private static class Running {
+
+		private final EventListener listener;
+		private final GenericEvent event;
+		private final long start;
+
+		private boolean reported = false;
+
+		public Running(EventListener listener, GenericEvent event, long start) {
+			this.listener = listener;
+			this.event = event;
+			this.start = start;
+		}
+
+	}
+
+	private class EventQueue implements Runnable {
+
+		private final long key;
+		private final Deque<GenericEvent> events = new ArrayDeque<>();
+
+		private boolean running = false;
+
+		// Set once the queue hits its cap so a stuck guild is only reported once per backlog
+		private boolean overflowing = false;
+
+		public EventQueue(long key) {
+			this.key = key;
+		}
+
+		public void run() {
+			for (int i = 0; i < Sx4EventManager.BATCH_SIZE; i++) {
+				GenericEvent[] event = new GenericEvent[1];
+				Sx4EventManager.this.queues.computeIfPresent(this.key, (key, queue) -> {
+					event[0] = queue.events.poll();
+					if (event[0] == null) {
+						queue.running = false;
+						return null;
+					}
+
+					if (queue.overflowing && queue.events.size() < Sx4EventManager.this.maxQueueSize / 2) {
+						queue.overflowing = false;
+					}
+
+					return queue;
+				});
+
+				if (event[0] == null) {
+					return;
+				}
+
+				Sx4EventManager.this.queued.decrementAndGet();
+				Sx4EventManager.this.dispatch(event[0]);
+			}
+
+			// Requeue behind other guilds rather than letting a busy guild hold on to the worker
+			Sx4EventManager.this.executor.execute(this);
+		}
+
+	}
+
+	private final List<EventListener> listeners = new CopyOnWriteArrayList<>();
+	private final Map<EventListener, HandlerStats> stats = new ConcurrentHashMap<>();
+
+	private final Map<Long, EventQueue> queues = new ConcurrentHashMap<>();
+	private final AtomicInteger queued = new AtomicInteger(0);
+	private final AtomicLong dropped = new AtomicLong(0L);
+
+	private final Map<Thread, Running> running = new ConcurrentHashMap<>();
+
+	private final ExecutorService executor;
+	private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor();
+
+	private final long slowThreshold;
+	private final int maxQueueSize;
+
+	public Sx4EventManager(int threads, long slowThreshold, int maxQueueSize) {
+		AtomicInteger count = new AtomicInteger(0);
+
+		this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "sx4-event-" + count.incrementAndGet());
+			thread.setDaemon(true);
+
+			return thread;
+		});
+
+		this.slowThreshold = TimeUnit.MILLISECONDS.toNanos(slowThreshold);
+		this.maxQueueSize = maxQueueSize;
+		this.watchdog.scheduleAtFixedRate(this::checkSlowHandlers, slowThreshold, slowThreshold, TimeUnit.MILLISECONDS);
+	}
+
+	public int getQueuedEvents() {
+		return this.queued.get();
+	}
+
+	public long getDroppedEvents() {
+		return this.dropped.get();
+	}
+
+	public int getActiveQueues() {
+		return this.queues.size();
+	}
+
+	public Map<EventListener, HandlerStats> getHandlerStats() {
+		return Collections.unmodifiableMap(this.stats);
+	}
+
+	public void register(Object listener) {
+		if (!(listener instanceof EventListener)) {
+			throw new IllegalArgumentException("Listener must implement EventListener");
+		}
+
+		this.listeners.add((EventListener) listener);
+		this.stats.put((EventListener) listener, new HandlerStats());
+	}
+
+	public void unregister(Object listener) {
+		this.listeners.remove(listener);
+		this.stats.remove(listener);
+	}
+
+	public List<Object> getRegisteredListeners() {
+		return Collections.unmodifiableList(new ArrayList<>(this.listeners));
+	}
+
+	public void handle(GenericEvent event) {
+		// Everything from one guild goes through the same serial queue so handlers still see that guild's events in order
+		long key = Sx4EventManager.getKey(event);
+
+		boolean[] submit = new boolean[1], dropped = new boolean[1], report = new boolean[1];
+		EventQueue eventQueue = this.queues.compute(key, (id, queue) -> {
+			if (queue == null) {
+				queue = new EventQueue(id);
+			}
+
+			// A guild which can't keep up sheds its newest events rather than growing without limit
+			if (queue.events.size() >= this.maxQueueSize) {
+				dropped[0] = true;
+				if (!queue.overflowing) {
+					queue.overflowing = true;
+					report[0] = true;
+				}
+
+				return queue;
+			}
+
+			queue.events.add(event);
+			if (!queue.running) {
+				queue.running = true;
+				submit[0] = true;
+			}
+
+			return queue;
+		});
+
+		if (dropped[0]) {
+			this.dropped.incrementAndGet();
+			if (report[0]) {
+				ExceptionUtility.sendErrorMessage(new IllegalStateException(String.format("Event queue for %d is full (%,d events), dropping events until it drains", key, this.maxQueueSize)));
+			}
+
+			return;
+		}
+
+		this.queued.incrementAndGet();
+
+		if (submit[0]) {
+			this.executor.execute(eventQueue);
+		}
+	}
+
+	private void dispatch(GenericEvent event) {
+		Thread thread = Thread.currentThread();
+
+		// Listeners run one after another in registration order, the same as a single shared event manager
+		for (EventListener listener : this.listeners) {
+			long start = System.nanoTime();
+			this.running.put(thread, new Running(listener, event, start));
+
+			try {
+				listener.onEvent(event);
+			} catch (Throwable exception) {
+				ExceptionUtility.sendErrorMessage(exception);
+			} finally {
+				this.running.remove(thread);
+
+				HandlerStats stats = this.stats.get(listener);
+				if (stats != null) {
+					stats.record(System.nanoTime() - start);
+				}
+			}
+		}
+	}
+
+	private void checkSlowHandlers() {
+		long now = System.nanoTime();
+		for (Map.Entry<Thread, Running> entry : this.running.entrySet()) {
+			Running running = entry.getValue();
+			if (running.reported || now - running.start < this.slowThreshold) {
+				continue;
+			}
+
+			running.reported = true;
+
+			ExceptionUtility.sendErrorMessage(new IllegalStateException(String.format("Slow handler: %s has been handling %s for %,dms on %s (%,d queued)", running.listener.getClass().getSimpleName(), running.event.getClass().getSimpleName(), TimeUnit.NANOSECONDS.toMillis(now - running.start), entry.getKey().getName(), this.queued.get())));
+		}
+	}
+
+	private static long getKey(GenericEvent event) {
+		Guild guild = null;
+		if (event instanceof GenericGuildEvent) {
+			guild = ((GenericGuildEvent) event).getGuild();
+		} else if (event instanceof GenericMessageEvent) {
+			GenericMessageEvent messageEvent = (GenericMessageEvent) event;
+			guild = messageEvent.isFromGuild() ? messageEvent.getGuild() : null;
+		} else if (event instanceof GenericTextChannelEvent) {
+			guild = ((GenericTextChannelEvent) event).getGuild();
+		} else if (event instanceof GenericVoiceChannelEvent) {
+			guild = ((GenericVoiceChannelEvent) event).getGuild();
+		} else if (event instanceof GenericCategoryEvent) {
+			guild = ((GenericCategoryEvent) event).getGuild();
+		} else if (event instanceof GenericStoreChannelEvent) {
+			guild = ((GenericStoreChannelEvent) event).getGuild();
+		} else if (event instanceof GenericRoleEvent) {
+			guild = ((GenericRoleEvent) event).getGuild();
+		} else if (event instanceof GenericEmoteEvent) {
+			guild = ((GenericEmoteEvent) event).getGuild();
+		} else if (event instanceof MessageBulkDeleteEvent) {
+			guild = ((MessageBulkDeleteEvent) event).getGuild();
+		}
+
+		if (guild != null) {
+			return guild.getIdLong();
+		}
+
+		// Anything without a guild is ordered per shard, negative so it can never clash with a guild id
+		return -1L - event.getJDA().getShardInfo().getShardId();
+	}
+
+}
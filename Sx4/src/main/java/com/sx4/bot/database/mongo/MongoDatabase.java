@@ -2,6 +2,7 @@ package com.sx4.bot.database.mongo;
 
 import com.jockie.bot.core.command.impl.CommandEvent;
 import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
 import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.*;
 import com.mongodb.client.model.*;
@@ -9,9 +10,11 @@ import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.InsertManyResult;
 import com.mongodb.client.result.InsertOneResult;
 import com.mongodb.client.result.UpdateResult;
+import com.sx4.bot.cache.GuildSettingsCache;
 import com.sx4.bot.handlers.MongoDatabaseHandler;
 import com.sx4.bot.utility.ExceptionUtility;
 import net.dv8tion.jda.api.sharding.ShardManager;
+import org.bson.BsonDocument;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.bson.json.JsonMode;
@@ -37,6 +40,9 @@ public class MongoDatabase {
 	
 	private final UpdateOptions updateOptions = new UpdateOptions().upsert(true);
 	private final FindOneAndUpdateOptions findOneAndUpdateOptions = new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER).upsert(true);
+
+	private final GuildSettingsCache guildCache = new GuildSettingsCache();
+	private final UserWriteTracker userWriteTracker = new UserWriteTracker();
 	
 	private final MongoClient client;
 	private final com.mongodb.client.MongoDatabase database;
@@ -90,6 +96,7 @@ public class MongoDatabase {
 	
 	private final MongoCollection<Document> modLogs;
 	private final MongoCollection<Document> commands;
+	private final MongoCollection<Document> commandRollups;
 	private final MongoCollection<Document> messages;
 
 	private final MongoCollection<Document> youtubeNotifications;
@@ -111,6 +118,9 @@ public class MongoDatabase {
 		this.database = this.client.getDatabase(databaseName);
 		
 		this.users = this.database.getCollection("users");
+		this.users.createIndex(Indexes.descending("economy.balance"));
+		this.users.createIndex(Indexes.descending("economy.winnings"));
+		this.users.createIndex(Indexes.descending("economy.streak"));
 
 		this.guilds = this.database.getCollection("guilds");
 
@@ -125,10 +135,12 @@ public class MongoDatabase {
 		this.mutes = this.database.getCollection("mutes");
 		this.mutes.createIndex(Indexes.descending("userId", "guildId"), uniqueIndex);
 		this.mutes.createIndex(Indexes.descending("guildId"));
+		this.mutes.createIndex(Indexes.ascending("unmuteAt"));
 
 		this.temporaryBans = this.database.getCollection("temporaryBans");
 		this.temporaryBans.createIndex(Indexes.descending("userId", "guildId"), uniqueIndex);
 		this.temporaryBans.createIndex(Indexes.descending("guildId"));
+		this.temporaryBans.createIndex(Indexes.ascending("unbanAt"));
 
 		this.warnings = this.database.getCollection("warnings");
 		this.warnings.createIndex(Indexes.descending("userId", "guildId"), uniqueIndex);
@@ -171,6 +183,7 @@ public class MongoDatabase {
 
 		this.reminders = this.database.getCollection("reminders");
 		this.reminders.createIndex(Indexes.descending("userId"));
+		this.reminders.createIndex(Indexes.ascending("remindAt"));
 
 		this.marriages = this.database.getCollection("marriages");
 		this.marriages.createIndex(Indexes.descending("proposerId"));
@@ -197,6 +210,7 @@ public class MongoDatabase {
 		this.giveaways.createIndex(Indexes.descending("channelId"));
 		this.giveaways.createIndex(Indexes.descending("winners"));
 		this.giveaways.createIndex(Indexes.descending("messageId"));
+		this.giveaways.createIndex(Indexes.ascending("endAt"));
 
 		this.redirects = this.database.getCollection("redirects");
 		this.redirects.createIndex(Indexes.descending("url"));
@@ -229,6 +243,9 @@ public class MongoDatabase {
 		this.commands.createIndex(Indexes.descending("guildId"));
 		this.commands.createIndex(Indexes.descending("command.id"));
 		this.commands.createIndex(Indexes.descending("channelId"));
+
+		this.commandRollups = this.database.getCollection("commandRollups");
+		this.commandRollups.createIndex(Indexes.descending("period", "time", "command.id", "command.name", "guildId", "channelId", "authorId"), uniqueIndex);
 		
 		this.messages = this.database.getCollection("messages");
 		this.messages.createIndex(Indexes.descending("updated"), new IndexOptions().expireAfter(14L, TimeUnit.DAYS));
@@ -244,6 +261,10 @@ public class MongoDatabase {
 		this.offences.createIndex(Indexes.descending("guildId", "targetId"));
 	}
 	
+	public UserWriteTracker getUserWriteTracker() {
+		return this.userWriteTracker;
+	}
+
 	public MongoClient getClient() {
 		return this.client;
 	}
@@ -255,14 +276,20 @@ public class MongoDatabase {
 	public CompletableFuture<Boolean> withTransaction(Consumer<ClientSession> consumer) {
 		return CompletableFuture.supplyAsync(() -> {
 			try (ClientSession session = this.client.startSession()) {
+				this.userWriteTracker.begin();
+
 				session.startTransaction();
 				consumer.accept(session);
 				if (session.hasActiveTransaction()) {
 					session.commitTransaction();
+					this.userWriteTracker.commit();
+
 					return true;
 				}
 
 				return false;
+			} finally {
+				this.userWriteTracker.abort();
 			}
 		}, this.executor);
 	}
@@ -270,13 +297,18 @@ public class MongoDatabase {
 	public <Type> CompletableFuture<Type> withTransaction(Function<ClientSession, Type> function) {
 		return CompletableFuture.supplyAsync(() -> {
 			try (ClientSession session = this.client.startSession()) {
+				this.userWriteTracker.begin();
+
 				session.startTransaction();
 				Type value = function.apply(session);
 				if (session.hasActiveTransaction()) {
 					session.commitTransaction();
+					this.userWriteTracker.commit();
 				}
 
 				return value;
+			} finally {
+				this.userWriteTracker.abort();
 			}
 		}, this.executor);
 	}
@@ -297,24 +329,96 @@ public class MongoDatabase {
 		return CompletableFuture.supplyAsync(() -> this.items.aggregate(pipeline).into(new ArrayList<>()), this.executor);
 	}
 
+	// Writes to items and users go through these so the user write tracker sees them, a null session writes outside of a transaction
+	public InsertOneResult insertItem(ClientSession session, Document data) {
+		InsertOneResult result = session == null ? this.items.insertOne(data) : this.items.insertOne(session, data);
+		this.userWriteTracker.track("userId", data, session != null);
+
+		return result;
+	}
+
 	public CompletableFuture<InsertOneResult> insertItem(Document data) {
-		return CompletableFuture.supplyAsync(() -> this.items.insertOne(data), this.executor);
+		return CompletableFuture.supplyAsync(() -> this.insertItem(null, data), this.executor);
+	}
+
+	public UpdateResult updateItem(ClientSession session, Bson filter, Bson update, UpdateOptions options) {
+		UpdateResult result = session == null ? this.items.updateOne(filter, update, options) : this.items.updateOne(session, filter, update, options);
+		this.userWriteTracker.track("userId", filter, session != null);
+
+		return result;
+	}
+
+	public UpdateResult updateItem(ClientSession session, Bson filter, Bson update) {
+		return this.updateItem(session, filter, update, new UpdateOptions());
 	}
 
 	public CompletableFuture<UpdateResult> updateItem(Bson filter, Bson update, UpdateOptions options) {
-		return CompletableFuture.supplyAsync(() -> this.items.updateOne(filter, update, options), this.executor);
+		return CompletableFuture.supplyAsync(() -> this.updateItem(null, filter, update, options), this.executor);
+	}
+
+	public UpdateResult updateItem(ClientSession session, Bson filter, List<? extends Bson> update, UpdateOptions options) {
+		UpdateResult result = session == null ? this.items.updateOne(filter, update, options) : this.items.updateOne(session, filter, update, options);
+		this.userWriteTracker.track("userId", filter, session != null);
+
+		return result;
+	}
+
+	public UpdateResult updateItem(ClientSession session, Bson filter, List<? extends Bson> update) {
+		return this.updateItem(session, filter, update, new UpdateOptions());
 	}
 
 	public CompletableFuture<UpdateResult> updateItem(Bson filter, List<Bson> update, UpdateOptions options) {
-		return CompletableFuture.supplyAsync(() -> this.items.updateOne(filter, update, options), this.executor);
+		return CompletableFuture.supplyAsync(() -> this.updateItem(null, filter, update, options), this.executor);
+	}
+
+	public Document findAndUpdateItem(ClientSession session, Bson filter, Bson update, FindOneAndUpdateOptions options) {
+		Document data = this.items.findOneAndUpdate(session, filter, update, options);
+		this.userWriteTracker.track("userId", filter, true);
+
+		return data;
+	}
+
+	public Document findAndUpdateItem(ClientSession session, Bson filter, List<? extends Bson> update, FindOneAndUpdateOptions options) {
+		Document data = this.items.findOneAndUpdate(session, filter, update, options);
+		this.userWriteTracker.track("userId", filter, true);
+
+		return data;
+	}
+
+	public Document findAndDeleteItem(ClientSession session, Bson filter, FindOneAndDeleteOptions options) {
+		Document data = this.items.findOneAndDelete(session, filter, options);
+		this.userWriteTracker.track("userId", filter, true);
+
+		return data;
+	}
+
+	public DeleteResult deleteItem(ClientSession session, Bson filter) {
+		DeleteResult result = session == null ? this.items.deleteOne(filter) : this.items.deleteOne(session, filter);
+		this.userWriteTracker.track("userId", filter, session != null);
+
+		return result;
 	}
 
 	public CompletableFuture<DeleteResult> deleteItem(Bson filter) {
-		return CompletableFuture.supplyAsync(() -> this.items.deleteOne(filter), this.executor);
+		return CompletableFuture.supplyAsync(() -> this.deleteItem(null, filter), this.executor);
+	}
+
+	public DeleteResult deleteManyItems(ClientSession session, Bson filter) {
+		DeleteResult result = this.items.deleteMany(session, filter);
+		this.userWriteTracker.track("userId", filter, true);
+
+		return result;
+	}
+
+	public BulkWriteResult bulkWriteItems(ClientSession session, List<? extends WriteModel<? extends Document>> bulkData) {
+		BulkWriteResult result = session == null ? this.items.bulkWrite(bulkData) : this.items.bulkWrite(session, bulkData);
+		this.userWriteTracker.track("userId", bulkData, session != null);
+
+		return result;
 	}
 
 	public CompletableFuture<BulkWriteResult> bulkWriteItems(List<WriteModel<Document>> bulkData) {
-		return CompletableFuture.supplyAsync(() -> this.items.bulkWrite(bulkData), this.executor);
+		return CompletableFuture.supplyAsync(() -> this.bulkWriteItems(null, bulkData), this.executor);
 	}
 
 	public MongoCollection<Document> getMediaChannels() {
@@ -369,6 +473,10 @@ public class MongoDatabase {
 		return CompletableFuture.supplyAsync(() -> this.mutes.updateOne(filter, update, options), this.executor);
 	}
 
+	public CompletableFuture<Document> findAndUpdateMute(Bson filter, List<Bson> update, FindOneAndUpdateOptions options) {
+		return CompletableFuture.supplyAsync(() -> this.mutes.findOneAndUpdate(filter, update, options), this.executor);
+	}
+
 	public CompletableFuture<DeleteResult> deleteMute(Bson filter) {
 		return CompletableFuture.supplyAsync(() -> this.mutes.deleteOne(filter), this.executor);
 	}
@@ -826,6 +934,10 @@ public class MongoDatabase {
 		return this.getTriggers(filter, projection).first();
 	}
 
+	public CompletableFuture<List<Document>> aggregateTriggers(List<Bson> pipeline) {
+		return CompletableFuture.supplyAsync(() -> this.triggers.aggregate(pipeline).into(new ArrayList<>()), this.executor);
+	}
+
 	public CompletableFuture<InsertOneResult> insertTrigger(Document data) {
 		return CompletableFuture.supplyAsync(() -> this.triggers.insertOne(data), this.executor);
 	}
@@ -914,6 +1026,10 @@ public class MongoDatabase {
 		return this.getStarboard(Filters.eq("_id", id), projection);
 	}
 
+	public CompletableFuture<Document> findStarboard(Bson filter, Bson projection) {
+		return CompletableFuture.supplyAsync(() -> this.getStarboard(filter, projection), this.executor);
+	}
+
 	public CompletableFuture<InsertOneResult> insertStarboard(Document data) {
 		return CompletableFuture.supplyAsync(() -> this.starboards.insertOne(data), this.executor);
 	}
@@ -1280,8 +1396,19 @@ public class MongoDatabase {
 		return CompletableFuture.supplyAsync(() -> this.users.aggregate(pipeline).into(new ArrayList<>()), this.executor);
 	}
 
+	public UpdateResult updateUser(ClientSession session, Bson filter, List<? extends Bson> update, UpdateOptions options) {
+		UpdateResult result = session == null ? this.users.updateOne(filter, update, options) : this.users.updateOne(session, filter, update, options);
+		this.userWriteTracker.track("_id", filter, session != null);
+
+		return result;
+	}
+
+	public UpdateResult updateUser(ClientSession session, Bson filter, List<? extends Bson> update) {
+		return this.updateUser(session, filter, update, new UpdateOptions());
+	}
+
 	public CompletableFuture<UpdateResult> updateUser(Bson filter, List<? extends Bson> update, UpdateOptions options) {
-		return CompletableFuture.supplyAsync(() -> this.users.updateOne(filter, update, options), this.executor);
+		return CompletableFuture.supplyAsync(() -> this.updateUser(null, filter, update, options), this.executor);
 	}
 
 	public CompletableFuture<UpdateResult> updateUserById(long userId, List<? extends Bson> update, UpdateOptions options) {
@@ -1292,8 +1419,19 @@ public class MongoDatabase {
 		return this.updateUserById(userId, update, this.updateOptions);
 	}
 
+	public UpdateResult updateUser(ClientSession session, Bson filter, Bson update, UpdateOptions options) {
+		UpdateResult result = session == null ? this.users.updateOne(filter, update, options) : this.users.updateOne(session, filter, update, options);
+		this.userWriteTracker.track("_id", filter, session != null);
+
+		return result;
+	}
+
+	public UpdateResult updateUser(ClientSession session, Bson filter, Bson update) {
+		return this.updateUser(session, filter, update, new UpdateOptions());
+	}
+
 	public CompletableFuture<UpdateResult> updateUser(Bson filter, Bson update, UpdateOptions options) {
-		return CompletableFuture.supplyAsync(() -> this.users.updateOne(filter, update, options), this.executor);
+		return CompletableFuture.supplyAsync(() -> this.updateUser(null, filter, update, options), this.executor);
 	}
 	
 	public CompletableFuture<UpdateResult> updateUserById(long userId, Bson update, UpdateOptions options) {
@@ -1308,8 +1446,15 @@ public class MongoDatabase {
 		return this.updateUser(update.getFilter(), update.getUpdate(), update.getOptions());
 	}
 	
+	public Document findAndUpdateUser(ClientSession session, Bson filter, Bson update, FindOneAndUpdateOptions options) {
+		Document data = session == null ? this.users.findOneAndUpdate(filter, update, options) : this.users.findOneAndUpdate(session, filter, update, options);
+		this.userWriteTracker.track("_id", filter, session != null);
+
+		return data;
+	}
+
 	public CompletableFuture<Document> findAndUpdateUser(Bson filter, Bson update, FindOneAndUpdateOptions options) {
-		return CompletableFuture.supplyAsync(() -> this.users.findOneAndUpdate(filter, update, options), this.executor);
+		return CompletableFuture.supplyAsync(() -> this.findAndUpdateUser(null, filter, update, options), this.executor);
 	}
 
 	public CompletableFuture<Document> findAndUpdateUserById(long userId, Bson update, FindOneAndUpdateOptions options) {
@@ -1320,8 +1465,15 @@ public class MongoDatabase {
 		return this.findAndUpdateUserById(userId, update, this.findOneAndUpdateOptions);
 	}
 
+	public Document findAndUpdateUser(ClientSession session, Bson filter, List<? extends Bson> update, FindOneAndUpdateOptions options) {
+		Document data = session == null ? this.users.findOneAndUpdate(filter, update, options) : this.users.findOneAndUpdate(session, filter, update, options);
+		this.userWriteTracker.track("_id", filter, session != null);
+
+		return data;
+	}
+
 	public CompletableFuture<Document> findAndUpdateUser(Bson filter, List<Bson> update, FindOneAndUpdateOptions options) {
-		return CompletableFuture.supplyAsync(() -> this.users.findOneAndUpdate(filter, update, options), this.executor);
+		return CompletableFuture.supplyAsync(() -> this.findAndUpdateUser(null, filter, update, options), this.executor);
 	}
 
 	public CompletableFuture<Document> findAndUpdateUserById(long userId, List<Bson> update, FindOneAndUpdateOptions options) {
@@ -1333,7 +1485,12 @@ public class MongoDatabase {
 	}
 	
 	public CompletableFuture<BulkWriteResult> bulkWriteUsers(List<? extends WriteModel<? extends Document>> bulkData) {
-		return CompletableFuture.supplyAsync(() -> this.users.bulkWrite(bulkData), this.executor);
+		return CompletableFuture.supplyAsync(() -> {
+			BulkWriteResult result = this.users.bulkWrite(bulkData);
+			this.userWriteTracker.track("_id", bulkData, false);
+
+			return result;
+		}, this.executor);
 	}
 	
 	public MongoCollection<Document> getGuilds() {
@@ -1353,19 +1510,17 @@ public class MongoDatabase {
 	}
 	
 	public Document getGuildById(long guildId, Bson filter, Bson projection) {
-		if (filter == null) {
-			filter = Filters.eq("_id", guildId);
-		} else {
-			filter = Filters.and(Filters.eq("_id", guildId), filter);
-		}
-		
-		Document data = this.guilds.find(filter).projection(projection).first();
-		
-		return data == null ? MongoDatabase.EMPTY_DOCUMENT : data;
+		Bson dbFilter = filter == null ? Filters.eq("_id", guildId) : Filters.and(Filters.eq("_id", guildId), filter);
+
+		return this.guildCache.get(guildId, filter, projection, () -> this.guilds.find(dbFilter).projection(projection).first());
 	}
 	
 	public Document getGuildById(long guildId, Bson projection) {
-		return this.getGuildById(guildId, null, projection);
+		return this.guildCache.get(guildId, projection, () -> this.guilds.find(Filters.eq("_id", guildId)).projection(projection).first());
+	}
+
+	public GuildSettingsCache getGuildCache() {
+		return this.guildCache;
 	}
 	
 	public CompletableFuture<UpdateResult> updateGuildById(long guildId, Bson filter, List<? extends Bson> update, UpdateOptions options) {
@@ -1376,7 +1531,14 @@ public class MongoDatabase {
 			dbFilter = Filters.and(Filters.eq("_id", guildId), filter);
 		}
 		
-		return CompletableFuture.supplyAsync(() -> this.guilds.updateOne(dbFilter, update, options), this.executor);
+		this.guildCache.invalidate(guildId);
+
+		return CompletableFuture.supplyAsync(() -> {
+			UpdateResult result = this.guilds.updateOne(dbFilter, update, options);
+			this.guildCache.invalidate(guildId);
+
+			return result;
+		}, this.executor);
 	}
 	
 	public CompletableFuture<UpdateResult> updateGuildById(long guildId, List<? extends Bson> update, UpdateOptions options) {
@@ -1395,7 +1557,14 @@ public class MongoDatabase {
 			dbFilter = Filters.and(Filters.eq("_id", guildId), filter);
 		}
 		
-		return CompletableFuture.supplyAsync(() -> this.guilds.updateOne(dbFilter, update, options), this.executor);
+		this.guildCache.invalidate(guildId);
+
+		return CompletableFuture.supplyAsync(() -> {
+			UpdateResult result = this.guilds.updateOne(dbFilter, update, options);
+			this.guildCache.invalidate(guildId);
+
+			return result;
+		}, this.executor);
 	}
 	
 	public CompletableFuture<UpdateResult> updateGuildById(long guildId, Bson update, UpdateOptions options) {
@@ -1407,7 +1576,12 @@ public class MongoDatabase {
 	}
 	
 	public CompletableFuture<UpdateResult> updateGuild(UpdateOneModel<Document> model) {
-		return CompletableFuture.supplyAsync(() -> this.guilds.updateOne(model.getFilter(), model.getUpdate(), model.getOptions()), this.executor);
+		return CompletableFuture.supplyAsync(() -> {
+			UpdateResult result = this.guilds.updateOne(model.getFilter(), model.getUpdate(), model.getOptions());
+			this.guildCache.invalidateAll();
+
+			return result;
+		}, this.executor);
 	}
 	
 	public CompletableFuture<Document> findAndUpdateGuildById(long guildId, Bson filter, Bson update, FindOneAndUpdateOptions options) {
@@ -1418,7 +1592,14 @@ public class MongoDatabase {
 			dbFilter = Filters.and(Filters.eq("_id", guildId), filter);
 		}
 		
-		return CompletableFuture.supplyAsync(() -> this.guilds.findOneAndUpdate(dbFilter, update, options), this.executor);
+		this.guildCache.invalidate(guildId);
+
+		return CompletableFuture.supplyAsync(() -> {
+			Document result = this.guilds.findOneAndUpdate(dbFilter, update, options);
+			this.guildCache.invalidate(guildId);
+
+			return result;
+		}, this.executor);
 	}
 	
 	public CompletableFuture<Document> findAndUpdateGuildById(long guildId, Bson update, FindOneAndUpdateOptions options) {
@@ -1441,7 +1622,14 @@ public class MongoDatabase {
 			dbFilter = Filters.and(Filters.eq("_id", guildId), filter);
 		}
 		
-		return CompletableFuture.supplyAsync(() -> this.guilds.findOneAndUpdate(dbFilter, update, options), this.executor);
+		this.guildCache.invalidate(guildId);
+
+		return CompletableFuture.supplyAsync(() -> {
+			Document result = this.guilds.findOneAndUpdate(dbFilter, update, options);
+			this.guildCache.invalidate(guildId);
+
+			return result;
+		}, this.executor);
 	}
 	
 	public CompletableFuture<Document> findAndUpdateGuildById(long guildId, List<? extends Bson> update, FindOneAndUpdateOptions options) {
@@ -1457,7 +1645,45 @@ public class MongoDatabase {
 	}
 	
 	public CompletableFuture<BulkWriteResult> bulkWriteGuilds(List<? extends WriteModel<? extends Document>> bulkData) {
-		return CompletableFuture.supplyAsync(() -> this.guilds.bulkWrite(bulkData), this.executor);
+		return CompletableFuture.supplyAsync(() -> {
+			BulkWriteResult result = this.guilds.bulkWrite(bulkData);
+			this.guildCache.invalidateAll();
+
+			return result;
+		}, this.executor);
+	}
+
+	public void watchGuilds() {
+		this.executor.submit(() -> {
+			while (!this.executor.isShutdown()) {
+				try {
+					this.guilds.watch().forEach(change -> {
+						BsonDocument key = change.getDocumentKey();
+						if (key != null && key.isInt64("_id")) {
+							this.guildCache.invalidate(key.getInt64("_id").getValue());
+						} else {
+							this.guildCache.invalidateAll();
+						}
+					});
+				} catch (MongoException exception) {
+					// Change streams require a replica set, fall back to invalidation on write only
+					if (exception.getCode() == 40573) {
+						ExceptionUtility.sendErrorMessage(new IllegalStateException("Change streams are not supported by the MongoDB server, guild cache will only be invalidated on write", exception));
+						return;
+					}
+
+					ExceptionUtility.sendErrorMessage(exception);
+				}
+
+				this.guildCache.invalidateAll();
+
+				try {
+					Thread.sleep(5000);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		});
 	}
 	
 	public MongoCollection<Document> getGiveaways() {
@@ -1656,6 +1882,10 @@ public class MongoDatabase {
 		return CompletableFuture.supplyAsync(() -> this.commands.insertOne(data), this.executor);
 	}
 
+	public CompletableFuture<InsertManyResult> insertManyCommands(List<Document> data) {
+		return CompletableFuture.supplyAsync(() -> this.commands.insertMany(data, new InsertManyOptions().ordered(false)), this.executor);
+	}
+
 	public long countCommands(Bson filter) {
 		return this.commands.countDocuments(filter);
 	}
@@ -1663,6 +1893,26 @@ public class MongoDatabase {
 	public CompletableFuture<List<Document>> aggregateCommands(List<? extends Bson> pipeline) {
 		return CompletableFuture.supplyAsync(() -> this.commands.aggregate(pipeline).into(new ArrayList<>()), this.executor);
 	}
+
+	public MongoCollection<Document> getCommandRollups() {
+		return this.commandRollups;
+	}
+
+	public CompletableFuture<Document> findCommandRollup(Bson filter) {
+		return CompletableFuture.supplyAsync(() -> this.commandRollups.find(filter).first(), this.executor);
+	}
+
+	public CompletableFuture<UpdateResult> updateCommandRollup(Bson filter, Bson update, UpdateOptions options) {
+		return CompletableFuture.supplyAsync(() -> this.commandRollups.updateOne(filter, update, options), this.executor);
+	}
+
+	public CompletableFuture<BulkWriteResult> bulkWriteCommandRollups(List<WriteModel<Document>> bulkData) {
+		return CompletableFuture.supplyAsync(() -> this.commandRollups.bulkWrite(bulkData, new BulkWriteOptions().ordered(false)), this.executor);
+	}
+
+	public CompletableFuture<List<Document>> aggregateCommandRollups(List<? extends Bson> pipeline) {
+		return CompletableFuture.supplyAsync(() -> this.commandRollups.aggregate(pipeline).into(new ArrayList<>()), this.executor);
+	}
 	
 	public MongoCollection<Document> getOffences() {
 		return this.offences;
@@ -0,0 +1,174 @@
+package com.sx4.bot.database.mongo;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.model.*;
+import com.sx4.bot.hooks.UserWriteListener;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.bson.*;
+import org.bson.conversions.Bson;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class UserWriteTracker {
+
+	private static class Transaction {
+
+		private final TLongSet userIds = new TLongHashSet();
+		private boolean unknown = false;
+
+	}
+
+	private final List<UserWriteListener> listeners = new CopyOnWriteArrayList<>();
+
+	// Writes made with the session of MongoDatabase#withTransaction are only reported once the transaction commits
+	private final ThreadLocal<Transaction> transaction = new ThreadLocal<>();
+
+	public UserWriteTracker addListener(UserWriteListener listener) {
+		this.listeners.add(listener);
+
+		return this;
+	}
+
+	public UserWriteTracker removeListener(UserWriteListener listener) {
+		this.listeners.remove(listener);
+
+		return this;
+	}
+
+	public void begin() {
+		this.transaction.set(new Transaction());
+	}
+
+	public void commit() {
+		Transaction transaction = this.transaction.get();
+		this.transaction.remove();
+
+		if (transaction == null) {
+			return;
+		}
+
+		if (transaction.unknown) {
+			this.listeners.forEach(UserWriteListener::onUnknownUserWrite);
+		} else {
+			transaction.userIds.forEach(userId -> {
+				this.listeners.forEach(listener -> listener.onUserWrite(userId));
+				return true;
+			});
+		}
+	}
+
+	public void abort() {
+		this.transaction.remove();
+	}
+
+	private void onUserWrite(long userId, boolean session) {
+		Transaction transaction = this.transaction.get();
+		if (session && transaction != null) {
+			transaction.userIds.add(userId);
+		} else {
+			this.listeners.forEach(listener -> listener.onUserWrite(userId));
+		}
+	}
+
+	private void onUnknownUserWrite(boolean session) {
+		Transaction transaction = this.transaction.get();
+		if (session && transaction != null) {
+			transaction.unknown = true;
+		} else {
+			this.listeners.forEach(UserWriteListener::onUnknownUserWrite);
+		}
+	}
+
+	public void track(String key, Bson filter, boolean session) {
+		if (this.listeners.isEmpty()) {
+			return;
+		}
+
+		BsonDocument document = filter.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+
+		TLongSet userIds = new TLongHashSet();
+		if (UserWriteTracker.collect(key, document, userIds)) {
+			userIds.forEach(userId -> {
+				this.onUserWrite(userId, session);
+				return true;
+			});
+		} else {
+			this.onUnknownUserWrite(session);
+		}
+	}
+
+	public void track(String key, Document document, boolean session) {
+		if (this.listeners.isEmpty()) {
+			return;
+		}
+
+		Object userId = document.get(key);
+		if (userId instanceof Long) {
+			this.onUserWrite((long) userId, session);
+		} else {
+			this.onUnknownUserWrite(session);
+		}
+	}
+
+	public void track(String key, List<? extends WriteModel<?>> bulkData, boolean session) {
+		for (WriteModel<?> model : bulkData) {
+			this.track(key, model, session);
+		}
+	}
+
+	private void track(String key, WriteModel<?> model, boolean session) {
+		if (model instanceof InsertOneModel && ((InsertOneModel<?>) model).getDocument() instanceof Document) {
+			this.track(key, (Document) ((InsertOneModel<?>) model).getDocument(), session);
+		} else if (model instanceof UpdateOneModel) {
+			this.track(key, ((UpdateOneModel<?>) model).getFilter(), session);
+		} else if (model instanceof UpdateManyModel) {
+			this.track(key, ((UpdateManyModel<?>) model).getFilter(), session);
+		} else if (model instanceof ReplaceOneModel) {
+			this.track(key, ((ReplaceOneModel<?>) model).getFilter(), session);
+		} else if (model instanceof DeleteOneModel) {
+			this.track(key, ((DeleteOneModel<?>) model).getFilter(), session);
+		} else if (model instanceof DeleteManyModel) {
+			this.track(key, ((DeleteManyModel<?>) model).getFilter(), session);
+		} else if (!this.listeners.isEmpty()) {
+			this.onUnknownUserWrite(session);
+		}
+	}
+
+	private static boolean collect(String key, BsonDocument filter, TLongSet userIds) {
+		BsonValue value = filter.get(key);
+		if (value != null) {
+			if (value.isInt64()) {
+				userIds.add(value.asInt64().getValue());
+				return true;
+			}
+
+			if (value.isDocument() && value.asDocument().isArray("$in")) {
+				for (BsonValue element : value.asDocument().getArray("$in")) {
+					if (!element.isInt64()) {
+						return false;
+					}
+
+					userIds.add(element.asInt64().getValue());
+				}
+
+				return true;
+			}
+
+			return false;
+		}
+
+		BsonValue and = filter.get("$and");
+		if (and != null && and.isArray()) {
+			for (BsonValue element : and.asArray()) {
+				if (element.isDocument() && UserWriteTracker.collect(key, element.asDocument(), userIds)) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+}
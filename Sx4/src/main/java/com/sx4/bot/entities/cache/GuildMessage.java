@@ -14,7 +14,7 @@ public class GuildMessage {
 	private final boolean pinned;
 	private final String content;
 
-	private GuildMessage(JDA jda, long messageId, long authorId, boolean pinned, String content) {
+	public GuildMessage(JDA jda, long messageId, long authorId, boolean pinned, String content) {
 		this.jda = jda;
 		this.messageId = messageId;
 		this.authorId = authorId;
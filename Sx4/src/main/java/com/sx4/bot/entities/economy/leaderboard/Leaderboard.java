@@ -0,0 +1,118 @@
+package com.sx4.bot.entities.economy.leaderboard;
+
+import gnu.trove.map.TLongLongMap;
+import gnu.trove.map.hash.TLongLongHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class Leaderboard {
+
+	private final int maxSize;
+
+	// Sorted by score descending then id ascending
+	private long[] ids;
+	private long[] scores;
+	private int size = 0;
+
+	private final TLongLongMap index = new TLongLongHashMap();
+
+	// Whether every user with a score is on the board, if not a user can only enter above the current last place
+	private boolean complete;
+
+	public Leaderboard(int maxSize, boolean complete) {
+		this.maxSize = maxSize;
+		this.complete = complete;
+
+		this.ids = new long[Math.max(1, Math.min(maxSize, 16))];
+		this.scores = new long[this.ids.length];
+	}
+
+	public Leaderboard(int maxSize) {
+		this(maxSize, true);
+	}
+
+	private int search(long id, long score) {
+		int low = 0, high = this.size - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+
+			int compare = this.scores[middle] != score ? Long.compare(score, this.scores[middle]) : Long.compare(this.ids[middle], id);
+			if (compare < 0) {
+				low = middle + 1;
+			} else if (compare > 0) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+
+		return -(low + 1);
+	}
+
+	private void removeAt(int position) {
+		this.index.remove(this.ids[position]);
+
+		System.arraycopy(this.ids, position + 1, this.ids, position, this.size - position - 1);
+		System.arraycopy(this.scores, position + 1, this.scores, position, this.size - position - 1);
+
+		this.size--;
+	}
+
+	public synchronized void update(long id, long score) {
+		if (this.index.containsKey(id)) {
+			this.removeAt(this.search(id, this.index.get(id)));
+		}
+
+		if (score == 0L) {
+			return;
+		}
+
+		int position = -(this.search(id, score) + 1);
+		if (!this.complete && position >= this.size) {
+			return;
+		}
+
+		if (this.size == this.maxSize) {
+			if (position >= this.size) {
+				this.complete = false;
+				return;
+			}
+
+			this.removeAt(this.size - 1);
+			this.complete = false;
+		}
+
+		if (this.size == this.ids.length) {
+			int length = Math.min(this.maxSize, this.ids.length * 2);
+
+			this.ids = Arrays.copyOf(this.ids, length);
+			this.scores = Arrays.copyOf(this.scores, length);
+		}
+
+		System.arraycopy(this.ids, position, this.ids, position + 1, this.size - position);
+		System.arraycopy(this.scores, position, this.scores, position + 1, this.size - position);
+
+		this.ids[position] = id;
+		this.scores[position] = score;
+		this.index.put(id, score);
+
+		this.size++;
+	}
+
+	public synchronized int size() {
+		return this.size;
+	}
+
+	public synchronized List<Map.Entry<Long, Long>> getEntries() {
+		List<Map.Entry<Long, Long>> entries = new ArrayList<>(this.size);
+		for (int i = 0; i < this.size; i++) {
+			entries.add(Map.entry(this.ids[i], this.scores[i]));
+		}
+
+		return entries;
+	}
+
+}
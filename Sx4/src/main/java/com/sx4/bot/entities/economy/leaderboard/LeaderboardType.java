@@ -0,0 +1,21 @@
+package com.sx4.bot.entities.economy.leaderboard;
+
+public enum LeaderboardType {
+
+	BALANCE("economy.balance"),
+	WINNINGS("economy.winnings"),
+	STREAK("economy.streak"),
+	NETWORTH(null),
+	ITEMS(null);
+
+	private final String field;
+
+	private LeaderboardType(String field) {
+		this.field = field;
+	}
+
+	public String getField() {
+		return this.field;
+	}
+
+}
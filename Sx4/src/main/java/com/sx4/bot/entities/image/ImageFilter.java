@@ -0,0 +1,13 @@
+package com.sx4.bot.entities.image;
+
+@FunctionalInterface
+public interface ImageFilter {
+
+	Raster apply(Raster raster, int frame);
+
+	// Still images are given the same raster for every frame, so filters with more than one frame shouldn't modify it
+	default int getFrames() {
+		return 1;
+	}
+
+}
@@ -0,0 +1,295 @@
+package com.sx4.bot.entities.image;
+
+import com.sx4.bot.exceptions.image.ImageException;
+import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.bson.Document;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class ImageFilters {
+
+	public static final int HUE_FRAMES = 60;
+
+	private static final int[] EDGE_KERNEL = {-1, -1, -1, -1, 8, -1, -1, -1, -1};
+	private static final int[] EMBOSS_KERNEL = {-2, -1, 0, -1, 1, 1, 0, 1, 2};
+
+	private static final float[] GAUSSIAN_KERNEL = {2, 4, 5, 4, 2, 4, 9, 12, 9, 4, 5, 12, 15, 12, 5, 4, 9, 12, 9, 4, 2, 4, 5, 4, 2};
+	private static final float GAUSSIAN_WEIGHT = 159F;
+
+	private static final float CANNY_HIGH = 0.2F, CANNY_LOW = 0.1F;
+
+	public static ImageFilter invert() {
+		return (raster, frame) -> {
+			int[] pixels = raster.getPixels();
+			int width = raster.getWidth();
+
+			raster.forEachRow(y -> {
+				for (int i = y * width, end = i + width; i < end; i++) {
+					pixels[i] ^= 0x00FFFFFF;
+				}
+			});
+
+			return raster;
+		};
+	}
+
+	public static ImageFilter hue() {
+		return new ImageFilter() {
+			public Raster apply(Raster raster, int frame) {
+				Raster output = raster.copy();
+
+				int[] pixels = output.getPixels();
+				int width = output.getWidth();
+
+				float shift = (frame % ImageFilters.HUE_FRAMES) / (float) ImageFilters.HUE_FRAMES;
+
+				output.forEachRow(y -> {
+					float[] hsb = new float[3];
+					for (int i = y * width, end = i + width; i < end; i++) {
+						int pixel = pixels[i];
+
+						Color.RGBtoHSB((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF, hsb);
+						pixels[i] = (pixel & 0xFF000000) | (Color.HSBtoRGB(hsb[0] + shift, hsb[1], hsb[2]) & 0x00FFFFFF);
+					}
+				});
+
+				return output;
+			}
+
+			public int getFrames() {
+				return ImageFilters.HUE_FRAMES;
+			}
+		};
+	}
+
+	private static int getDimension(double value, int original) {
+		// Whole numbers are pixels and decimals are a percentage of the original
+		int dimension = value > 1 && value % 1 == 0 ? (int) value : (int) Math.round(original * value);
+		if (dimension < 1) {
+			throw new ImageException("Width and height have to be at least 1 pixel");
+		}
+
+		return dimension;
+	}
+
+	public static ImageFilter resize(double width, double height, int maxPixels) {
+		return (raster, frame) -> {
+			int newWidth = ImageFilters.getDimension(width, raster.getWidth()), newHeight = ImageFilters.getDimension(height, raster.getHeight());
+			if ((long) newWidth * newHeight > maxPixels) {
+				throw new ImageException(String.format("The resized image cannot be more than %,d pixels", maxPixels));
+			}
+
+			Raster output = new Raster(newWidth, newHeight);
+
+			Graphics2D graphics = output.getImage().createGraphics();
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.drawImage(raster.getImage(), 0, 0, newWidth, newHeight, null);
+			graphics.dispose();
+
+			return output;
+		};
+	}
+
+	public static ImageFilter crop(double width, double height) {
+		return (raster, frame) -> {
+			int newWidth = ImageFilters.getDimension(width, raster.getWidth()), newHeight = ImageFilters.getDimension(height, raster.getHeight());
+			if (newWidth > raster.getWidth() || newHeight > raster.getHeight()) {
+				throw new ImageException("You cannot crop an image to a size bigger than the original image");
+			}
+
+			int left = (raster.getWidth() - newWidth) / 2, top = (raster.getHeight() - newHeight) / 2;
+
+			int[] pixels = raster.getPixels();
+			int oldWidth = raster.getWidth();
+
+			Raster output = new Raster(newWidth, newHeight);
+			int[] outputPixels = output.getPixels();
+
+			output.forEachRow(y -> System.arraycopy(pixels, (y + top) * oldWidth + left, outputPixels, y * newWidth, newWidth));
+
+			return output;
+		};
+	}
+
+	private static Raster convolve(Raster raster, int[] kernel) {
+		int width = raster.getWidth();
+
+		Raster output = new Raster(width, raster.getHeight());
+		int[] pixels = output.getPixels();
+
+		output.forEachRow(y -> {
+			for (int x = 0; x < width; x++) {
+				int red = 0, green = 0, blue = 0;
+				for (int k = 0; k < 9; k++) {
+					int weight = kernel[k];
+					if (weight == 0) {
+						continue;
+					}
+
+					int pixel = raster.getClampedPixel(x + k % 3 - 1, y + k / 3 - 1);
+					red += ((pixel >> 16) & 0xFF) * weight;
+					green += ((pixel >> 8) & 0xFF) * weight;
+					blue += (pixel & 0xFF) * weight;
+				}
+
+				pixels[y * width + x] = (raster.getPixel(x, y) & 0xFF000000) | (ImageFilters.clamp(red) << 16) | (ImageFilters.clamp(green) << 8) | ImageFilters.clamp(blue);
+			}
+		});
+
+		return output;
+	}
+
+	public static ImageFilter edge() {
+		return (raster, frame) -> ImageFilters.convolve(raster, ImageFilters.EDGE_KERNEL);
+	}
+
+	public static ImageFilter emboss() {
+		return (raster, frame) -> ImageFilters.convolve(raster, ImageFilters.EMBOSS_KERNEL);
+	}
+
+	public static ImageFilter canny() {
+		return (raster, frame) -> {
+			int width = raster.getWidth(), height = raster.getHeight(), size = width * height;
+			int[] pixels = raster.getPixels();
+
+			float[] gray = new float[size];
+			raster.forEachRow(y -> {
+				for (int i = y * width, end = i + width; i < end; i++) {
+					int pixel = pixels[i];
+					gray[i] = 0.299F * ((pixel >> 16) & 0xFF) + 0.587F * ((pixel >> 8) & 0xFF) + 0.114F * (pixel & 0xFF);
+				}
+			});
+
+			float[] blurred = new float[size];
+			raster.forEachRow(y -> {
+				for (int x = 0; x < width; x++) {
+					float sum = 0;
+					for (int k = 0; k < 25; k++) {
+						int sampleX = Math.min(Math.max(x + k % 5 - 2, 0), width - 1), sampleY = Math.min(Math.max(y + k / 5 - 2, 0), height - 1);
+						sum += gray[sampleY * width + sampleX] * ImageFilters.GAUSSIAN_KERNEL[k];
+					}
+
+					blurred[y * width + x] = sum / ImageFilters.GAUSSIAN_WEIGHT;
+				}
+			});
+
+			float[] magnitude = new float[size];
+			byte[] direction = new byte[size];
+			raster.forEachRow(y -> {
+				if (y == 0 || y == height - 1) {
+					return;
+				}
+
+				for (int x = 1; x < width - 1; x++) {
+					int i = y * width + x;
+
+					float gx = blurred[i - width + 1] + 2 * blurred[i + 1] + blurred[i + width + 1] - blurred[i - width - 1] - 2 * blurred[i - 1] - blurred[i + width - 1];
+					float gy = blurred[i + width - 1] + 2 * blurred[i + width] + blurred[i + width + 1] - blurred[i - width - 1] - 2 * blurred[i - width] - blurred[i - width + 1];
+
+					magnitude[i] = (float) Math.hypot(gx, gy);
+
+					// Round the gradient to one of four directions, 0 = horizontal, 1 = 45 degrees, 2 = vertical, 3 = 135 degrees
+					double angle = Math.toDegrees(Math.atan2(gy, gx));
+					angle = angle < 0 ? angle + 180 : angle;
+					direction[i] = (byte) (angle < 22.5 || angle >= 157.5 ? 0 : angle < 67.5 ? 1 : angle < 112.5 ? 2 : 3);
+				}
+			});
+
+			float[] suppressed = new float[size];
+			raster.forEachRow(y -> {
+				if (y == 0 || y == height - 1) {
+					return;
+				}
+
+				for (int x = 1; x < width - 1; x++) {
+					int i = y * width + x, offset;
+					switch (direction[i]) {
+						case 0: offset = 1; break;
+						case 1: offset = width + 1; break;
+						case 2: offset = width; break;
+						default: offset = width - 1;
+					}
+
+					float value = magnitude[i];
+					if (value >= magnitude[i - offset] && value >= magnitude[i + offset]) {
+						suppressed[i] = value;
+					}
+				}
+			});
+
+			float max = 0;
+			for (float value : suppressed) {
+				max = Math.max(max, value);
+			}
+
+			float high = max * ImageFilters.CANNY_HIGH, low = max * ImageFilters.CANNY_LOW;
+
+			// Hysteresis, weak edges are only kept when they're connected to a strong one
+			byte[] edges = new byte[size];
+			int[] stack = new int[size];
+			int stackSize = 0;
+			for (int i = 0; i < size; i++) {
+				if (suppressed[i] >= high && high > 0) {
+					edges[i] = 1;
+					stack[stackSize++] = i;
+				}
+			}
+
+			while (stackSize > 0) {
+				int i = stack[--stackSize], x = i % width, y = i / width;
+				for (int neighbourY = Math.max(y - 1, 0); neighbourY <= Math.min(y + 1, height - 1); neighbourY++) {
+					for (int neighbourX = Math.max(x - 1, 0); neighbourX <= Math.min(x + 1, width - 1); neighbourX++) {
+						int neighbour = neighbourY * width + neighbourX;
+						if (edges[neighbour] == 0 && suppressed[neighbour] >= low) {
+							edges[neighbour] = 1;
+							stack[stackSize++] = neighbour;
+						}
+					}
+				}
+			}
+
+			Raster output = new Raster(width, height);
+			int[] outputPixels = output.getPixels();
+
+			output.forEachRow(y -> {
+				for (int i = y * width, end = i + width; i < end; i++) {
+					outputPixels[i] = edges[i] == 1 ? 0xFFFFFFFF : 0xFF000000;
+				}
+			});
+
+			return output;
+		};
+	}
+
+	public static List<Document> getColours(Raster raster) {
+		TIntIntHashMap counts = new TIntIntHashMap();
+		for (int pixel : raster.getPixels()) {
+			// Fully transparent pixels have no visible colour
+			if ((pixel >>> 24) == 0) {
+				continue;
+			}
+
+			counts.adjustOrPutValue(pixel & 0x00FFFFFF, 1, 1);
+		}
+
+		List<Document> colours = new ArrayList<>(counts.size());
+		for (TIntIntIterator iterator = counts.iterator(); iterator.hasNext();) {
+			iterator.advance();
+
+			colours.add(new Document("colour", iterator.key()).append("pixels", iterator.value()));
+		}
+
+		colours.sort(Comparator.comparingInt((Document colour) -> colour.getInteger("pixels")).reversed());
+
+		return colours;
+	}
+
+	private static int clamp(int value) {
+		return value < 0 ? 0 : Math.min(value, 255);
+	}
+
+}
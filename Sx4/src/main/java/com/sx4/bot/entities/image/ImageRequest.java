@@ -16,12 +16,21 @@ public class ImageRequest {
 	private final Document fields;
 	private final Map<String, String> queries;
 	private byte[] image;
+	private String version;
 
 	public ImageRequest(String path) {
 		this.url = new StringBuilder(path);
 		this.fields = new Document();
 		this.queries = new HashMap<>();
 		this.image = null;
+		this.version = null;
+	}
+
+	// Changes the render cache key when an input which isn't part of the request changes, such as a replaced banner file
+	public ImageRequest setVersion(Object version) {
+		this.version = version == null ? null : String.valueOf(version);
+
+		return this;
 	}
 
 	public ImageRequest setImage(byte[] image) {
@@ -64,6 +73,10 @@ public class ImageRequest {
 			.url(this.url.toString())
 			.addHeader("Authorization", authorization);
 
+		if (this.version != null) {
+			builder.tag(String.class, this.version);
+		}
+
 		if (!this.fields.isEmpty()) {
 			builder.post(RequestBody.create(MediaType.parse("application/json"), this.fields.toJson()));
 		} else if (this.image != null) {
@@ -0,0 +1,21 @@
+package com.sx4.bot.entities.image;
+
+public class ImageResult {
+
+	private final byte[] bytes;
+	private final String format;
+
+	public ImageResult(byte[] bytes, String format) {
+		this.bytes = bytes;
+		this.format = format;
+	}
+
+	public byte[] getBytes() {
+		return this.bytes;
+	}
+
+	public String getFormat() {
+		return this.format;
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.sx4.bot.entities.image;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+public class Raster {
+
+	// Rows handled by a single task before it stops splitting
+	private static final int ROW_THRESHOLD = 16;
+
+	private static class RowAction extends RecursiveAction {
+
+		private final IntConsumer consumer;
+		private final int from, to;
+
+		public RowAction(IntConsumer consumer, int from, int to) {
+			this.consumer = consumer;
+			this.from = from;
+			this.to = to;
+		}
+
+		protected void compute() {
+			if (this.to - this.from <= Raster.ROW_THRESHOLD) {
+				for (int y = this.from; y < this.to; y++) {
+					this.consumer.accept(y);
+				}
+
+				return;
+			}
+
+			int middle = (this.from + this.to) >>> 1;
+			RecursiveAction.invokeAll(new RowAction(this.consumer, this.from, middle), new RowAction(this.consumer, middle, this.to));
+		}
+
+	}
+
+	private final BufferedImage image;
+
+	private final int width;
+	private final int height;
+
+	// ARGB pixels backing the image, row by row
+	private final int[] pixels;
+
+	public Raster(int width, int height) {
+		this(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB));
+	}
+
+	private Raster(BufferedImage image) {
+		this.image = image;
+		this.width = image.getWidth();
+		this.height = image.getHeight();
+		this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+	}
+
+	public int getWidth() {
+		return this.width;
+	}
+
+	public int getHeight() {
+		return this.height;
+	}
+
+	public int[] getPixels() {
+		return this.pixels;
+	}
+
+	public int getPixel(int x, int y) {
+		return this.pixels[y * this.width + x];
+	}
+
+	public int getClampedPixel(int x, int y) {
+		return this.pixels[Math.min(Math.max(y, 0), this.height - 1) * this.width + Math.min(Math.max(x, 0), this.width - 1)];
+	}
+
+	public void setPixel(int x, int y, int pixel) {
+		this.pixels[y * this.width + x] = pixel;
+	}
+
+	public BufferedImage getImage() {
+		return this.image;
+	}
+
+	// Has to be called from within a ForkJoinPool for the rows to be split across it
+	public void forEachRow(IntConsumer consumer) {
+		new RowAction(consumer, 0, this.height).invoke();
+	}
+
+	public Raster copy() {
+		Raster raster = new Raster(this.width, this.height);
+		System.arraycopy(this.pixels, 0, raster.pixels, 0, this.pixels.length);
+
+		return raster;
+	}
+
+	public static Raster fromImage(BufferedImage image) {
+		if (image.getType() == BufferedImage.TYPE_INT_ARGB) {
+			return new Raster(image);
+		}
+
+		Raster raster = new Raster(image.getWidth(), image.getHeight());
+
+		Graphics2D graphics = raster.image.createGraphics();
+		graphics.drawImage(image, 0, 0, null);
+		graphics.dispose();
+
+		return raster;
+	}
+
+}
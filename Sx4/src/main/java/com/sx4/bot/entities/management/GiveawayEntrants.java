@@ -0,0 +1,190 @@
+package com.sx4.bot.entities.management;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.sx4.bot.utility.MathUtility;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongPredicate;
+
+public class GiveawayEntrants {
+
+	private final long messageId;
+	private final long channelId;
+	private final long guildId;
+
+	private TLongSet entrants;
+
+	// Changes since the last flush, an id is only ever in one of them
+	private final TLongSet added = new TLongHashSet();
+	private final TLongSet removed = new TLongHashSet();
+
+	// Changes seen while the reactions are being paged, applied on top of them once they're done
+	private TLongSet journalAdded, journalRemoved;
+
+	private final CompletableFuture<Void> reconciled = new CompletableFuture<>();
+
+	public GiveawayEntrants(long messageId, long channelId, long guildId, Collection<Long> entrants, boolean reconciling) {
+		this.messageId = messageId;
+		this.channelId = channelId;
+		this.guildId = guildId;
+
+		this.entrants = new TLongHashSet(entrants);
+
+		if (reconciling) {
+			this.journalAdded = new TLongHashSet();
+			this.journalRemoved = new TLongHashSet();
+		} else {
+			this.reconciled.complete(null);
+		}
+	}
+
+	public GiveawayEntrants(Document data, boolean reconciling) {
+		this(data.getLong("messageId"), data.getLong("channelId"), data.getLong("guildId"), data.getList("entrants", Long.class, List.of()), reconciling);
+	}
+
+	public long getMessageId() {
+		return this.messageId;
+	}
+
+	public long getChannelId() {
+		return this.channelId;
+	}
+
+	public long getGuildId() {
+		return this.guildId;
+	}
+
+	public CompletableFuture<Void> getReconciled() {
+		return this.reconciled;
+	}
+
+	public synchronized int size() {
+		return this.entrants.size();
+	}
+
+	public synchronized void add(long userId) {
+		if (this.journalAdded != null) {
+			this.journalAdded.add(userId);
+			this.journalRemoved.remove(userId);
+		}
+
+		if (this.entrants.add(userId) && !this.removed.remove(userId)) {
+			this.added.add(userId);
+		}
+	}
+
+	public synchronized void remove(long userId) {
+		if (this.journalAdded != null) {
+			this.journalRemoved.add(userId);
+			this.journalAdded.remove(userId);
+		}
+
+		if (this.entrants.remove(userId) && !this.added.remove(userId)) {
+			this.removed.add(userId);
+		}
+	}
+
+	public synchronized void clear() {
+		for (long userId : this.entrants.toArray()) {
+			this.remove(userId);
+		}
+	}
+
+	public void reconcile(TLongSet reactors) {
+		synchronized (this) {
+			if (reactors != null) {
+				reactors.addAll(this.journalAdded);
+				reactors.removeAll(this.journalRemoved);
+
+				for (long userId : this.entrants.toArray()) {
+					if (!reactors.contains(userId) && !this.added.remove(userId)) {
+						this.removed.add(userId);
+					}
+				}
+
+				for (long userId : reactors.toArray()) {
+					if (!this.entrants.contains(userId) && !this.removed.remove(userId)) {
+						this.added.add(userId);
+					}
+				}
+
+				this.entrants = reactors;
+			}
+
+			this.journalAdded = null;
+			this.journalRemoved = null;
+		}
+
+		this.reconciled.complete(null);
+	}
+
+	public synchronized List<Long> toList() {
+		return GiveawayEntrants.toList(this.entrants);
+	}
+
+	public synchronized void drainUpdates(List<WriteModel<Document>> bulkData) {
+		if (this.added.isEmpty() && this.removed.isEmpty()) {
+			return;
+		}
+
+		// Ended giveaways have a full snapshot of their entrants written, a late flush shouldn't touch it
+		Bson filter = Filters.and(Filters.eq("messageId", this.messageId), Filters.exists("winners", false));
+
+		// Both can't be in the same update as they modify the same field
+		if (!this.added.isEmpty()) {
+			bulkData.add(new UpdateOneModel<>(filter, Updates.addEachToSet("entrants", GiveawayEntrants.toList(this.added))));
+			this.added.clear();
+		}
+
+		if (!this.removed.isEmpty()) {
+			bulkData.add(new UpdateOneModel<>(filter, Updates.pullAll("entrants", GiveawayEntrants.toList(this.removed))));
+			this.removed.clear();
+		}
+	}
+
+	public synchronized long[] sample(int amount, LongPredicate predicate) {
+		long[] reservoir = new long[amount];
+
+		// Reservoir sampling so only the entrants which can win are considered without collecting them first
+		int seen = 0;
+		for (TLongIterator iterator = this.entrants.iterator(); iterator.hasNext();) {
+			long userId = iterator.next();
+			if (!predicate.test(userId)) {
+				continue;
+			}
+
+			if (seen < amount) {
+				reservoir[seen] = userId;
+			} else {
+				int index = MathUtility.RANDOM.nextInt(seen + 1);
+				if (index < amount) {
+					reservoir[index] = userId;
+				}
+			}
+
+			seen++;
+		}
+
+		return seen < amount ? Arrays.copyOf(reservoir, seen) : reservoir;
+	}
+
+	private static List<Long> toList(TLongSet set) {
+		List<Long> list = new ArrayList<>(set.size());
+		set.forEach(list::add);
+
+		return list;
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.sx4.bot.entities.management;
+
+import org.bson.Document;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class GuildLoggers {
+
+	public static final int MAX_LOGGERS = 3;
+
+	private final List<Document> loggers;
+	private final List<Document> premiumLoggers;
+
+	private final long[] events;
+	private final long allEvents;
+	private final long premiumAllEvents;
+
+	private final long premiumEndAt;
+	private final long expiresAt;
+
+	public GuildLoggers(List<Document> loggers, long premiumEndAt, long expiresAt) {
+		this.premiumEndAt = premiumEndAt;
+		this.expiresAt = expiresAt;
+
+		this.events = new long[loggers.size()];
+
+		List<Document> premiumLoggers = new ArrayList<>(loggers.size()), nonPremiumLoggers = new ArrayList<>(Math.min(loggers.size(), GuildLoggers.MAX_LOGGERS));
+
+		long allEvents = 0L, premiumAllEvents = 0L;
+		for (int i = 0; i < loggers.size(); i++) {
+			Document logger = loggers.get(i);
+
+			long events = logger.get("events", LoggerEvent.ALL);
+			this.events[i] = events;
+
+			premiumLoggers.add(new Document(logger).append("premium", true));
+			premiumAllEvents |= events;
+
+			if (i < GuildLoggers.MAX_LOGGERS) {
+				nonPremiumLoggers.add(new Document(logger).append("premium", false));
+				allEvents |= events;
+			}
+		}
+
+		this.premiumLoggers = Collections.unmodifiableList(premiumLoggers);
+		this.loggers = Collections.unmodifiableList(nonPremiumLoggers);
+
+		this.allEvents = allEvents;
+		this.premiumAllEvents = premiumAllEvents;
+	}
+
+	public boolean isPremium() {
+		return Clock.systemUTC().instant().getEpochSecond() < this.premiumEndAt;
+	}
+
+	public boolean isExpired() {
+		return System.currentTimeMillis() >= this.expiresAt;
+	}
+
+	public boolean isEmpty() {
+		return this.premiumLoggers.isEmpty();
+	}
+
+	public boolean hasEvent(LoggerEvent event) {
+		return ((this.isPremium() ? this.premiumAllEvents : this.allEvents) & event.getRaw()) == event.getRaw();
+	}
+
+	public List<Document> getLoggers() {
+		return this.isPremium() ? this.premiumLoggers : this.loggers;
+	}
+
+	public List<Document> getLoggers(LoggerEvent event) {
+		if (!this.hasEvent(event)) {
+			return Collections.emptyList();
+		}
+
+		List<Document> loggers = this.getLoggers(), eventLoggers = new ArrayList<>(loggers.size());
+		for (int i = 0; i < loggers.size(); i++) {
+			if ((this.events[i] & event.getRaw()) == event.getRaw()) {
+				eventLoggers.add(loggers.get(i));
+			}
+		}
+
+		return eventLoggers;
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.sx4.bot.entities.management;
+
+import org.bson.Document;
+
+import java.util.*;
+
+public class TriggerIndex {
+
+	public static final TriggerIndex EMPTY = new TriggerIndex(Collections.emptyList());
+
+	private final Document[] triggers;
+
+	private final Map<String, List<Integer>> caseSensitive;
+	private final Map<String, List<Integer>> caseInsensitive;
+
+	public TriggerIndex(List<Document> triggers) {
+		this.triggers = triggers.toArray(Document[]::new);
+		this.caseSensitive = new HashMap<>();
+		this.caseInsensitive = new HashMap<>();
+
+		for (int i = 0; i < this.triggers.length; i++) {
+			Document trigger = this.triggers[i];
+
+			String content = trigger.getString("trigger");
+			if (content == null) {
+				continue;
+			}
+
+			if (trigger.get("case", false)) {
+				this.caseSensitive.computeIfAbsent(content, key -> new ArrayList<>(1)).add(i);
+			} else {
+				this.caseInsensitive.computeIfAbsent(TriggerIndex.fold(content), key -> new ArrayList<>(1)).add(i);
+			}
+		}
+	}
+
+	public boolean isEmpty() {
+		return this.triggers.length == 0;
+	}
+
+	public int size() {
+		return this.triggers.length;
+	}
+
+	public List<Document> getTriggers(String content) {
+		List<Integer> sensitive = this.caseSensitive.getOrDefault(content, Collections.emptyList());
+		List<Integer> insensitive = this.caseInsensitive.isEmpty() ? Collections.emptyList() : this.caseInsensitive.getOrDefault(TriggerIndex.fold(content), Collections.emptyList());
+		if (sensitive.isEmpty() && insensitive.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		// Keep the order the triggers were stored in so responses are sent in the same order as before
+		List<Document> triggers = new ArrayList<>(sensitive.size() + insensitive.size());
+
+		int i = 0, j = 0;
+		while (i < sensitive.size() || j < insensitive.size()) {
+			if (j == insensitive.size() || (i < sensitive.size() && sensitive.get(i) < insensitive.get(j))) {
+				triggers.add(this.triggers[sensitive.get(i++)]);
+			} else {
+				triggers.add(this.triggers[insensitive.get(j++)]);
+			}
+		}
+
+		return triggers;
+	}
+
+	// Folds characters the same way String#equalsIgnoreCase compares them
+	private static String fold(String content) {
+		char[] characters = new char[content.length()];
+		for (int i = 0; i < characters.length; i++) {
+			characters[i] = Character.toLowerCase(Character.toUpperCase(content.charAt(i)));
+		}
+
+		return new String(characters);
+	}
+
+}
@@ -0,0 +1,156 @@
+package com.sx4.bot.entities.mod.auto;
+
+import com.sx4.bot.database.mongo.MongoDatabase;
+import com.sx4.bot.entities.management.WhitelistType;
+import com.sx4.bot.entities.settings.HolderType;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+public class CompiledRegex {
+
+	public static class Whitelist {
+
+		public static final Whitelist EMPTY = new Whitelist(MongoDatabase.EMPTY_DOCUMENT);
+
+		private final TLongSet users;
+		private final TLongSet roles;
+		private final TLongSet guilds;
+
+		private final List<Map.Entry<Integer, Set<String>>> groups;
+
+		public Whitelist(Document data) {
+			this.users = new TLongHashSet();
+			this.roles = new TLongHashSet();
+
+			for (Document holder : data.getList("holders", Document.class, Collections.emptyList())) {
+				long id = holder.getLong("id");
+				int type = holder.getInteger("type");
+				if (type == HolderType.USER.getType()) {
+					this.users.add(id);
+				} else if (type == HolderType.ROLE.getType()) {
+					this.roles.add(id);
+				}
+			}
+
+			this.guilds = new TLongHashSet(data.getList("guilds", Long.class, Collections.emptyList()));
+
+			this.groups = new ArrayList<>();
+			for (Document group : data.getList("groups", Document.class, Collections.emptyList())) {
+				this.groups.add(Map.entry(group.getInteger("group"), new HashSet<>(group.getList("strings", String.class, Collections.emptyList()))));
+			}
+		}
+
+		public boolean isWhitelisted(long guildId, long userId, long[] roleIds) {
+			if (this.users.contains(userId) || this.roles.contains(guildId)) {
+				return true;
+			}
+
+			for (long roleId : roleIds) {
+				if (this.roles.contains(roleId)) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		public boolean isGuildWhitelisted(long guildId) {
+			return this.guilds.contains(guildId);
+		}
+
+		public int getWhitelistedGroups(Matcher matcher) {
+			int count = 0;
+			for (Map.Entry<Integer, Set<String>> group : this.groups) {
+				int index = group.getKey();
+				if (index > matcher.groupCount()) {
+					continue;
+				}
+
+				String match = matcher.group(index);
+				if (match != null && group.getValue().contains(match)) {
+					count++;
+				}
+			}
+
+			return count;
+		}
+
+	}
+
+	private final Document data;
+
+	private final ObjectId id;
+	private final RegexType type;
+	private final Pattern pattern;
+	private final boolean admin;
+
+	private final TLongObjectMap<Whitelist> channels;
+	private final TLongObjectMap<Whitelist> categories;
+
+	public CompiledRegex(Document data, Pattern invitePattern) {
+		this.data = data;
+		this.id = data.getObjectId("_id");
+		this.type = RegexType.fromId(data.getInteger("type"));
+		this.admin = data.getBoolean("admin", true);
+
+		Pattern pattern;
+		try {
+			pattern = this.type == RegexType.REGEX ? Pattern.compile(data.getString("pattern")) : invitePattern;
+		} catch (PatternSyntaxException e) {
+			pattern = null;
+		}
+
+		this.pattern = pattern;
+
+		this.channels = new TLongObjectHashMap<>();
+		this.categories = new TLongObjectHashMap<>();
+
+		for (Document whitelist : data.getList("whitelist", Document.class, Collections.emptyList())) {
+			int type = whitelist.getInteger("type");
+			if (type == WhitelistType.CHANNEL.getId()) {
+				this.channels.put(whitelist.getLong("id"), new Whitelist(whitelist));
+			} else if (type == WhitelistType.CATEGORY.getId()) {
+				this.categories.put(whitelist.getLong("id"), new Whitelist(whitelist));
+			}
+		}
+	}
+
+	public Document getData() {
+		return this.data;
+	}
+
+	public ObjectId getId() {
+		return this.id;
+	}
+
+	public RegexType getType() {
+		return this.type;
+	}
+
+	public Pattern getPattern() {
+		return this.pattern;
+	}
+
+	public boolean isAdminWhitelisted() {
+		return this.admin;
+	}
+
+	public Whitelist getWhitelist(long channelId, long categoryId) {
+		Whitelist whitelist = this.channels.get(channelId);
+		if (whitelist == null && categoryId != 0L) {
+			whitelist = this.categories.get(categoryId);
+		}
+
+		return whitelist == null ? Whitelist.EMPTY : whitelist;
+	}
+
+}
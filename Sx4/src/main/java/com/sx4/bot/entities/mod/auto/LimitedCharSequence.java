@@ -0,0 +1,37 @@
+package com.sx4.bot.entities.mod.auto;
+
+import com.sx4.bot.exceptions.mod.RegexLimitException;
+
+public class LimitedCharSequence implements CharSequence {
+
+	private final CharSequence sequence;
+	private final long limit;
+
+	private long accesses = 0;
+
+	public LimitedCharSequence(CharSequence sequence, long limit) {
+		this.sequence = sequence;
+		this.limit = limit;
+	}
+
+	public char charAt(int index) {
+		if (++this.accesses > this.limit) {
+			throw new RegexLimitException("Regex exceeded the limit of " + this.limit + " character accesses");
+		}
+
+		return this.sequence.charAt(index);
+	}
+
+	public int length() {
+		return this.sequence.length();
+	}
+
+	public CharSequence subSequence(int start, int end) {
+		return this.sequence.subSequence(start, end);
+	}
+
+	public String toString() {
+		return this.sequence.toString();
+	}
+
+}
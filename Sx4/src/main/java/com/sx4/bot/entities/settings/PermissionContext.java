@@ -0,0 +1,153 @@
+package com.sx4.bot.entities.settings;
+
+import gnu.trove.map.TLongLongMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongLongHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import org.bson.Document;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+public class PermissionContext {
+
+	public static final PermissionContext EMPTY = new PermissionContext(0L, Collections.emptyList(), Collections.emptyList());
+
+	private static final int NONE = 0;
+	private static final int WHITELISTED = 1;
+	private static final int BLACKLISTED = 2;
+
+	private static class CommandHolder {
+
+		private final BitSet whitelisted;
+		private final BitSet blacklisted;
+
+		public CommandHolder(BitSet whitelisted, BitSet blacklisted) {
+			this.whitelisted = whitelisted;
+			this.blacklisted = blacklisted;
+		}
+
+		public int getState(int commandId) {
+			if (this.whitelisted.get(commandId)) {
+				return PermissionContext.WHITELISTED;
+			}
+
+			return this.blacklisted.get(commandId) ? PermissionContext.BLACKLISTED : PermissionContext.NONE;
+		}
+
+	}
+
+	private static class ChannelBlacklist {
+
+		private final TLongObjectMap<CommandHolder> roles = new TLongObjectHashMap<>();
+		private final TLongObjectMap<CommandHolder> users = new TLongObjectHashMap<>();
+
+	}
+
+	private final long guildId;
+
+	private final List<Document> fakePermissions;
+	private final TLongLongMap rolePermissions = new TLongLongHashMap();
+	private final TLongLongMap userPermissions = new TLongLongHashMap();
+
+	private final TLongObjectMap<ChannelBlacklist> blacklists = new TLongObjectHashMap<>();
+
+	public PermissionContext(long guildId, List<Document> fakePermissions, List<Document> blacklists) {
+		this.guildId = guildId;
+		this.fakePermissions = fakePermissions;
+
+		for (Document holder : fakePermissions) {
+			long id = holder.getLong("id"), permissions = holder.get("permissions", 0L);
+			if (holder.getInteger("type") == HolderType.ROLE.getType()) {
+				this.rolePermissions.put(id, this.rolePermissions.get(id) | permissions);
+			} else {
+				this.userPermissions.put(id, this.userPermissions.get(id) | permissions);
+			}
+		}
+
+		for (Document blacklist : blacklists) {
+			ChannelBlacklist channel = new ChannelBlacklist();
+			for (Document holder : blacklist.getList("holders", Document.class, Collections.emptyList())) {
+				BitSet whitelisted = PermissionContext.toBitSet(holder.getList("whitelisted", Long.class, Collections.emptyList()));
+				BitSet blacklisted = PermissionContext.toBitSet(holder.getList("blacklisted", Long.class, Collections.emptyList()));
+				if (whitelisted.isEmpty() && blacklisted.isEmpty()) {
+					continue;
+				}
+
+				CommandHolder commandHolder = new CommandHolder(whitelisted, blacklisted);
+				if (holder.getInteger("type") == HolderType.ROLE.getType()) {
+					channel.roles.put(holder.getLong("id"), commandHolder);
+				} else {
+					channel.users.put(holder.getLong("id"), commandHolder);
+				}
+			}
+
+			if (!channel.roles.isEmpty() || !channel.users.isEmpty()) {
+				this.blacklists.put(blacklist.getLong("channelId"), channel);
+			}
+		}
+	}
+
+	public long getGuildId() {
+		return this.guildId;
+	}
+
+	public List<Document> getFakePermissions() {
+		return this.fakePermissions;
+	}
+
+	public long getFakePermissionsRaw(Member member) {
+		// The @everyone role shares its id with the guild and every member has it
+		long permissions = this.userPermissions.get(member.getIdLong()) | this.rolePermissions.get(this.guildId);
+		if (this.rolePermissions.isEmpty()) {
+			return permissions;
+		}
+
+		for (Role role : member.getRoles()) {
+			permissions |= this.rolePermissions.get(role.getIdLong());
+		}
+
+		return permissions;
+	}
+
+	public boolean canUseCommand(Member member, long channelId, int commandId) {
+		ChannelBlacklist blacklist = this.blacklists.get(channelId);
+		if (blacklist == null) {
+			return true;
+		}
+
+		// A whitelist on any of the member's holders beats a blacklist on any other
+		int state = PermissionContext.getState(blacklist.users.get(member.getIdLong()), commandId) | PermissionContext.getState(blacklist.roles.get(this.guildId), commandId);
+		if ((state & PermissionContext.WHITELISTED) != 0) {
+			return true;
+		}
+
+		if (!blacklist.roles.isEmpty()) {
+			for (Role role : member.getRoles()) {
+				state |= PermissionContext.getState(blacklist.roles.get(role.getIdLong()), commandId);
+				if ((state & PermissionContext.WHITELISTED) != 0) {
+					return true;
+				}
+			}
+		}
+
+		return state == PermissionContext.NONE;
+	}
+
+	private static int getState(CommandHolder holder, int commandId) {
+		return holder == null ? PermissionContext.NONE : holder.getState(commandId);
+	}
+
+	private static BitSet toBitSet(List<Long> longs) {
+		long[] array = new long[longs.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = longs.get(i);
+		}
+
+		return BitSet.valueOf(array);
+	}
+
+}
@@ -0,0 +1,381 @@
+package com.sx4.bot.entities.utility;
+
+import com.sx4.bot.utility.ExceptionUtility;
+
+import java.time.Clock;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class TimingWheel<K, V> {
+
+	private static final int WHEEL_BITS = 6;
+	private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+	private static final int LEVELS = 4;
+
+	public static final long MAX_WINDOW = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+	public interface Loader {
+
+		void load(long from, long to);
+
+	}
+
+	public static class Timeout<K, V> {
+
+		private final K key;
+		private final V value;
+		private final long deadline;
+
+		private Bucket<K, V> bucket;
+		private Timeout<K, V> previous, next;
+
+		private Timeout(K key, V value, long deadline) {
+			this.key = key;
+			this.value = value;
+			this.deadline = deadline;
+		}
+
+		public K getKey() {
+			return this.key;
+		}
+
+		public V getValue() {
+			return this.value;
+		}
+
+		public long getDeadline() {
+			return this.deadline;
+		}
+
+	}
+
+	private static class Bucket<K, V> {
+
+		private Timeout<K, V> head, tail;
+
+		public void add(Timeout<K, V> timeout) {
+			timeout.bucket = this;
+			timeout.previous = this.tail;
+			timeout.next = null;
+
+			if (this.tail == null) {
+				this.head = timeout;
+			} else {
+				this.tail.next = timeout;
+			}
+
+			this.tail = timeout;
+		}
+
+		public void remove(Timeout<K, V> timeout) {
+			if (timeout.previous == null) {
+				this.head = timeout.next;
+			} else {
+				timeout.previous.next = timeout.next;
+			}
+
+			if (timeout.next == null) {
+				this.tail = timeout.previous;
+			} else {
+				timeout.next.previous = timeout.previous;
+			}
+
+			timeout.bucket = null;
+			timeout.previous = null;
+			timeout.next = null;
+		}
+
+		public Timeout<K, V> clear() {
+			Timeout<K, V> head = this.head;
+
+			this.head = null;
+			this.tail = null;
+
+			return head;
+		}
+
+	}
+
+	private final Bucket<K, V>[][] wheels;
+	private final Bucket<K, V> overdue = new Bucket<>();
+
+	private final Map<K, Timeout<K, V>> timeouts = new HashMap<>();
+
+	private final long window;
+	private final Consumer<List<Timeout<K, V>>> handler;
+	private final Loader loader;
+
+	// Loads block on the database so they're kept off the executor ticking the wheel
+	private final ExecutorService loadExecutor = Executors.newSingleThreadExecutor();
+
+	// The next second to be processed, -1 until the wheel is started
+	private long tick = -1L;
+	private long loadedUntil = 0L;
+
+	// The end of the window being loaded, deadlines up to it are accepted while the load runs
+	private long loadingUntil = 0L;
+
+	// Keys scheduled or cancelled while a load is running, the loader's copy of them may be stale
+	private Set<K> touched;
+
+	// Deadlines past the loaded window which may not be in the database yet, kept until they're released or paged in
+	private final Map<K, Timeout<K, V>> held = new HashMap<>();
+
+	@SuppressWarnings("unchecked")
+	public TimingWheel(long window, Consumer<List<Timeout<K, V>>> handler, Loader loader) {
+		if (window < 2 || window > TimingWheel.MAX_WINDOW) {
+			throw new IllegalArgumentException("window has to be between 2 and " + TimingWheel.MAX_WINDOW + " seconds");
+		}
+
+		this.window = window;
+		this.handler = handler;
+		this.loader = loader;
+
+		this.wheels = new Bucket[TimingWheel.LEVELS][TimingWheel.WHEEL_SIZE];
+		for (int level = 0; level < TimingWheel.LEVELS; level++) {
+			for (int index = 0; index < TimingWheel.WHEEL_SIZE; index++) {
+				this.wheels[level][index] = new Bucket<>();
+			}
+		}
+	}
+
+	private long now() {
+		return Clock.systemUTC().instant().getEpochSecond();
+	}
+
+	public void start(ScheduledExecutorService executor) {
+		long now = this.now();
+		synchronized (this) {
+			if (this.tick != -1L) {
+				return;
+			}
+
+			this.tick = now;
+			this.beginLoad(now + this.window);
+		}
+
+		executor.scheduleAtFixedRate(this::advance, 1, 1, TimeUnit.SECONDS);
+
+		// Anything already overdue is loaded as well and expires on the first tick
+		this.load(0L, now + this.window);
+	}
+
+	private void beginLoad(long to) {
+		this.loadingUntil = to;
+		this.touched = new HashSet<>();
+
+		Iterator<Timeout<K, V>> iterator = this.held.values().iterator();
+		while (iterator.hasNext()) {
+			Timeout<K, V> timeout = iterator.next();
+			if (timeout.deadline <= to) {
+				iterator.remove();
+
+				this.touched.add(timeout.key);
+				this.add(timeout.key, timeout.value, timeout.deadline);
+			}
+		}
+	}
+
+	private void load(long from, long to) {
+		try {
+			this.loader.load(from, to);
+
+			synchronized (this) {
+				this.loadedUntil = to;
+				this.touched = null;
+			}
+		} catch (Throwable e) {
+			// Retry the same window on the next tick
+			synchronized (this) {
+				this.loadingUntil = this.loadedUntil;
+				this.touched = null;
+			}
+
+			throw e;
+		}
+	}
+
+	private boolean add(K key, V value, long deadline) {
+		this.remove(key);
+
+		// Anything past the loaded window stays in the database until it is paged in
+		if (this.tick == -1L || deadline > this.loadingUntil) {
+			return false;
+		}
+
+		Timeout<K, V> timeout = new Timeout<>(key, value, deadline);
+
+		this.timeouts.put(key, timeout);
+		this.getBucket(deadline).add(timeout);
+
+		return true;
+	}
+
+	public synchronized boolean schedule(K key, V value, long deadline) {
+		if (this.touched != null) {
+			this.touched.add(key);
+		}
+
+		this.held.remove(key);
+
+		return this.add(key, value, deadline);
+	}
+
+	/*
+	 * Schedules the key, if the deadline is past the loaded window it is held until release is called so it can't be
+	 * missed by a load which reads the database before the new deadline has been written.
+	 */
+	public synchronized boolean hold(K key, V value, long deadline) {
+		if (this.schedule(key, value, deadline)) {
+			return true;
+		}
+
+		this.held.put(key, new Timeout<>(key, value, deadline));
+
+		return false;
+	}
+
+	public synchronized void release(K key) {
+		this.held.remove(key);
+	}
+
+	/*
+	 * Used by the loader, unlike schedule this won't replace a key which has been scheduled or cancelled since the
+	 * load started as the database read may have happened before that change.
+	 */
+	public synchronized boolean offer(K key, V value, long deadline) {
+		if (this.touched != null && this.touched.contains(key)) {
+			return false;
+		}
+
+		return this.add(key, value, deadline);
+	}
+
+	public synchronized Timeout<K, V> cancel(K key) {
+		if (this.touched != null) {
+			this.touched.add(key);
+		}
+
+		this.held.remove(key);
+
+		return this.remove(key);
+	}
+
+	public synchronized Timeout<K, V> get(K key) {
+		return this.timeouts.get(key);
+	}
+
+	public synchronized int size() {
+		return this.timeouts.size();
+	}
+
+	public synchronized long getLoadedUntil() {
+		return this.loadedUntil;
+	}
+
+	private Timeout<K, V> remove(K key) {
+		Timeout<K, V> timeout = this.timeouts.remove(key);
+		if (timeout != null && timeout.bucket != null) {
+			timeout.bucket.remove(timeout);
+		}
+
+		return timeout;
+	}
+
+	private Bucket<K, V> getBucket(long deadline) {
+		long delta = deadline - this.tick;
+		if (delta < 0) {
+			return this.overdue;
+		}
+
+		int level = 0;
+		while (level < TimingWheel.LEVELS - 1 && delta >= 1L << (TimingWheel.WHEEL_BITS * (level + 1))) {
+			level++;
+		}
+
+		return this.wheels[level][(int) (deadline >>> (TimingWheel.WHEEL_BITS * level)) & TimingWheel.WHEEL_MASK];
+	}
+
+	private void expire(Bucket<K, V> bucket, List<Timeout<K, V>> expired) {
+		Timeout<K, V> timeout = bucket.clear();
+		while (timeout != null) {
+			Timeout<K, V> next = timeout.next;
+
+			timeout.bucket = null;
+			timeout.previous = null;
+			timeout.next = null;
+
+			this.timeouts.remove(timeout.key);
+			expired.add(timeout);
+
+			timeout = next;
+		}
+	}
+
+	private void cascade(Bucket<K, V> bucket) {
+		Timeout<K, V> timeout = bucket.clear();
+		while (timeout != null) {
+			Timeout<K, V> next = timeout.next;
+
+			this.getBucket(timeout.deadline).add(timeout);
+
+			timeout = next;
+		}
+	}
+
+	private void advance() {
+		try {
+			long now = this.now(), from, to;
+			boolean load;
+
+			List<Timeout<K, V>> expired = new ArrayList<>();
+			synchronized (this) {
+				this.expire(this.overdue, expired);
+
+				while (this.tick <= now) {
+					int index = (int) this.tick & TimingWheel.WHEEL_MASK;
+					if (index == 0) {
+						// Move the next slot of each higher level down once the level below it wraps around
+						for (int level = 1; level < TimingWheel.LEVELS; level++) {
+							int levelIndex = (int) (this.tick >>> (TimingWheel.WHEEL_BITS * level)) & TimingWheel.WHEEL_MASK;
+
+							this.cascade(this.wheels[level][levelIndex]);
+							if (levelIndex != 0) {
+								break;
+							}
+						}
+					}
+
+					this.expire(this.wheels[0][index], expired);
+
+					this.tick++;
+				}
+
+				from = this.loadedUntil;
+				to = now + this.window;
+
+				// Only one load runs at a time, the next window is picked up once it finishes
+				load = this.touched == null && to - from > this.window / 2;
+				if (load) {
+					this.beginLoad(to);
+				}
+			}
+
+			if (load) {
+				this.loadExecutor.execute(() -> ExceptionUtility.safeRun(() -> this.load(from, to)));
+			}
+
+			if (!expired.isEmpty()) {
+				this.handler.accept(expired);
+			}
+		} catch (Throwable e) {
+			ExceptionUtility.sendErrorMessage(e);
+		}
+	}
+
+}
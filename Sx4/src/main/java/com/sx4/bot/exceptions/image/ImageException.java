@@ -0,0 +1,9 @@
+package com.sx4.bot.exceptions.image;
+
+public class ImageException extends RuntimeException {
+
+	public ImageException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.sx4.bot.exceptions.image;
+
+public class ImageRenderException extends RuntimeException {
+
+	private final int status;
+	private final String body;
+
+	public ImageRenderException(int status, String body) {
+		super("Image webserver responded with status " + status);
+
+		this.status = status;
+		this.body = body;
+	}
+
+	public int getStatus() {
+		return this.status;
+	}
+
+	public String getBody() {
+		return this.body;
+	}
+
+}
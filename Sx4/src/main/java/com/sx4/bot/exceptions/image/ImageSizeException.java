@@ -0,0 +1,17 @@
+package com.sx4.bot.exceptions.image;
+
+public class ImageSizeException extends RuntimeException {
+
+	private final long size;
+
+	public ImageSizeException(long size) {
+		super("Image is too large to upload (" + size + " bytes)");
+
+		this.size = size;
+	}
+
+	public long getSize() {
+		return this.size;
+	}
+
+}
@@ -0,0 +1,9 @@
+package com.sx4.bot.exceptions.image;
+
+public class UnsupportedImageException extends ImageException {
+
+	public UnsupportedImageException(String message) {
+		super(message);
+	}
+
+}
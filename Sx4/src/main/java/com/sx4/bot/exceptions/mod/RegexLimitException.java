@@ -0,0 +1,9 @@
+package com.sx4.bot.exceptions.mod;
+
+public class RegexLimitException extends RuntimeException {
+
+	public RegexLimitException(String message) {
+		super(message, null, false, false);
+	}
+
+}
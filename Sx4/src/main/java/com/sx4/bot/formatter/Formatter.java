@@ -8,7 +8,7 @@ public class Formatter implements IFormatter<String> {
 
     public Formatter(String string) {
         this.string = string;
-        this.manager = new FormatterManager(FormatterManager.getDefaultManager());
+        this.manager = FormatterManager.withParent(FormatterManager.getDefaultManager());
     }
 
     public Formatter addVariable(Class<?> type, String name, Object argument) {
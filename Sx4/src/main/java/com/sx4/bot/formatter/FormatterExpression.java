@@ -0,0 +1,243 @@
+package com.sx4.bot.formatter;
+
+import com.sx4.bot.formatter.function.FormatterEvent;
+import com.sx4.bot.formatter.function.FormatterFunction;
+import com.sx4.bot.formatter.function.FormatterParser;
+import com.sx4.bot.formatter.function.FormatterVariable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class FormatterExpression {
+
+	public static final int MAX_CACHED_EXPRESSIONS = 10_000;
+
+	private static final Map<String, FormatterExpression> CACHE = new LinkedHashMap<>(16, 0.75F, true) {
+		protected boolean removeEldestEntry(Map.Entry<String, FormatterExpression> eldest) {
+			return this.size() > FormatterExpression.MAX_CACHED_EXPRESSIONS;
+		}
+	};
+
+	private static class Argument {
+
+		private final String text;
+		private final FormatterExpression expression;
+
+		public Argument(String text) {
+			this.text = text;
+
+			int length = text.length();
+			if (length > 1 && text.charAt(0) == '{' && text.charAt(length - 1) == '}' && text.charAt(length - 2) != '\\') {
+				this.expression = FormatterExpression.compile(text.substring(1, length - 1));
+			} else {
+				this.expression = null;
+			}
+		}
+
+		public Object toObject(Class<?> type, FormatterManager manager) {
+			if (this.expression != null) {
+				Object value = this.expression.evaluate(manager);
+				if (value != null && type.isAssignableFrom(value.getClass())) {
+					return value;
+				}
+			}
+
+			FormatterParser<?> parser = manager.getParser(type);
+			if (parser == null) {
+				return null;
+			} else {
+				return parser.parse(IFormatter.format(this.text, manager));
+			}
+		}
+
+	}
+
+	private static class Step {
+
+		private final String name;
+
+		private final String functionName;
+		private final String argument;
+
+		private final Map<Integer, Argument[]> arguments = new ConcurrentHashMap<>();
+
+		public Step(String name) {
+			this.name = name;
+
+			int bracketIndex = 0;
+			while ((bracketIndex = name.indexOf('(', bracketIndex + 1)) != -1 && FormatterExpression.isEscaped(name, bracketIndex));
+
+			int endBracketIndex = name.length();
+			while ((endBracketIndex = name.lastIndexOf(')', endBracketIndex - 1)) != -1 && FormatterExpression.isEscaped(name, endBracketIndex));
+
+			if (bracketIndex == -1 || endBracketIndex < bracketIndex) {
+				this.functionName = null;
+				this.argument = null;
+			} else {
+				this.functionName = name.substring(0, bracketIndex);
+				this.argument = name.substring(bracketIndex + 1, endBracketIndex);
+			}
+		}
+
+		public boolean isFunction() {
+			return this.functionName != null;
+		}
+
+		public Argument[] getArguments(int parameterCount) {
+			return this.arguments.computeIfAbsent(parameterCount, this::splitArguments);
+		}
+
+		private Argument[] splitArguments(int parameterCount) {
+			if (parameterCount == 2) {
+				return new Argument[] {new Argument(this.argument)};
+			} else if (parameterCount < 2) {
+				return new Argument[0];
+			}
+
+			List<Argument> arguments = new ArrayList<>();
+
+			int lastIndex = -1, i = 0;
+			do {
+				int nextIndex = this.argument.indexOf(',', lastIndex + 1);
+				while (nextIndex != -1 && FormatterExpression.isEscaped(this.argument, nextIndex)) {
+					nextIndex = this.argument.indexOf(',', nextIndex + 1);
+				}
+
+				String argument;
+				if (++i == parameterCount - 1) {
+					argument = this.argument.substring(lastIndex + 1);
+					lastIndex = -1;
+				} else {
+					argument = this.argument.substring(lastIndex + 1, (lastIndex = nextIndex) == -1 ? this.argument.length() : nextIndex);
+				}
+
+				arguments.add(new Argument(argument));
+			} while (lastIndex != -1);
+
+			return arguments.toArray(Argument[]::new);
+		}
+
+	}
+
+	private final Step[] steps;
+	private final Step[] prefixSteps;
+
+	private FormatterExpression(String expression) {
+		List<Integer> ends = new ArrayList<>();
+
+		int opened = 0, closed = 0;
+		for (int i = 0; i < expression.length(); i++) {
+			char character = expression.charAt(i), characterBefore = expression.charAt(Math.max(0, i - 1));
+			if (character == '(' && characterBefore != '\\') {
+				opened++;
+			} else if (character == ')' && characterBefore != '\\') {
+				closed++;
+			} else if (character == '.' && opened == closed && !FormatterExpression.isEscaped(expression, i)) {
+				ends.add(i);
+			}
+		}
+
+		ends.add(expression.length());
+
+		this.steps = new Step[ends.size()];
+		this.prefixSteps = new Step[ends.size()];
+
+		int start = 0;
+		for (int i = 0; i < ends.size(); i++) {
+			int end = ends.get(i);
+
+			this.steps[i] = new Step(expression.substring(start, end));
+			// When a previous step resolves to nothing the next lookup uses everything up to this point as the name
+			this.prefixSteps[i] = i == 0 ? this.steps[0] : new Step(expression.substring(0, end));
+
+			start = end + 1;
+		}
+	}
+
+	public Object evaluate(FormatterManager manager) {
+		Class<?> type = Void.class;
+		Object value = null;
+
+		for (int i = 0; i < this.steps.length; i++) {
+			Step step = value == null ? this.prefixSteps[i] : this.steps[i];
+			if (!step.isFunction()) {
+				FormatterVariable<?> variable = manager.getVariable(type, step.name);
+				if (variable == null && i == this.steps.length - 1) {
+					return null;
+				} else if (variable == null) {
+					continue;
+				}
+
+				value = variable.parse(value);
+			} else {
+				FormatterFunction<?> function = manager.getFunction(type, step.functionName);
+				if (function == null) {
+					return null;
+				}
+
+				Class<?>[] parameters = function.getParameterTypes();
+				Argument[] arguments = step.getArguments(parameters.length);
+
+				Object[] functionArguments = new Object[arguments.length + 1];
+				functionArguments[0] = new FormatterEvent<>(value, manager);
+
+				for (int j = 0; j < arguments.length; j++) {
+					Object argumentValue = arguments[j].toObject(function.isUsePrevious() ? type : parameters[j + 1], manager);
+					if (argumentValue == null) {
+						return null;
+					}
+
+					functionArguments[j + 1] = argumentValue;
+				}
+
+				if (functionArguments.length < parameters.length - 1) {
+					return null;
+				}
+
+				try {
+					value = function.invoke(functionArguments);
+				} catch (InvocationTargetException | IllegalArgumentException exception) {
+					exception.printStackTrace();
+					value = null;
+				}
+			}
+
+			if (value == null) {
+				continue;
+			}
+
+			type = value.getClass();
+		}
+
+		return value;
+	}
+
+	public static Object toObject(String text, Class<?> type, FormatterManager manager) {
+		return new Argument(text).toObject(type, manager);
+	}
+
+	public static FormatterExpression compile(String expression) {
+		synchronized (FormatterExpression.CACHE) {
+			FormatterExpression compiled = FormatterExpression.CACHE.get(expression);
+			if (compiled != null) {
+				return compiled;
+			}
+		}
+
+		FormatterExpression compiled = new FormatterExpression(expression);
+		synchronized (FormatterExpression.CACHE) {
+			FormatterExpression.CACHE.put(expression, compiled);
+		}
+
+		return compiled;
+	}
+
+	static boolean isEscaped(String string, int index) {
+		return index > 0 && string.charAt(index - 1) == '\\';
+	}
+
+}
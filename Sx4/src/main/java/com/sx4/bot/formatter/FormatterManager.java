@@ -9,6 +9,7 @@ import com.sx4.bot.formatter.function.FormatterVariable;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 public class FormatterManager {
@@ -22,18 +23,25 @@ public class FormatterManager {
 
 	private final Set<Class<?>> handleInheritance;
 
+	private final Map<Class<?>, Set<Class<?>>> inheritanceTypes;
+
+	private final FormatterManager parent;
+
+	private FormatterManager(Map<Class<?>, Map<String, FormatterFunction<?>>> functions, Map<Class<?>, Map<String, FormatterVariable<?>>> variables, Map<Class<?>, FormatterParser<?>> parsers, Set<Class<?>> handleInheritance, FormatterManager parent) {
+		this.functions = functions;
+		this.variables = variables;
+		this.parsers = parsers;
+		this.handleInheritance = handleInheritance;
+		this.inheritanceTypes = new ConcurrentHashMap<>();
+		this.parent = parent;
+	}
+
 	public FormatterManager(FormatterManager manager) {
-		this.functions = new HashMap<>(manager.getFunctions());
-		this.variables = new HashMap<>(manager.getVariables());
-		this.parsers = new HashMap<>(manager.getParsers());
-		this.handleInheritance = new LinkedHashSet<>(manager.getHandleInheritance());
+		this(new HashMap<>(manager.getFunctions()), new HashMap<>(manager.getVariables()), new HashMap<>(manager.getParsers()), new LinkedHashSet<>(manager.getHandleInheritance()), manager.getParent());
 	}
 
 	public FormatterManager() {
-		this.functions = new HashMap<>();
-		this.variables = new HashMap<>();
-		this.parsers = new HashMap<>();
-		this.handleInheritance = new LinkedHashSet<>();
+		this(new HashMap<>(), new HashMap<>(), new HashMap<>(), new LinkedHashSet<>(), null);
 	}
 
 	public FormatterManager addParser(FormatterParser<?> parser) {
@@ -91,6 +99,7 @@ public class FormatterManager {
 		});
 
 		this.handleInheritance.add(function.getType());
+		this.inheritanceTypes.clear();
 
 		return this;
 	}
@@ -108,6 +117,7 @@ public class FormatterManager {
 		});
 
 		this.handleInheritance.add(variable.getType());
+		this.inheritanceTypes.clear();
 
 		return this;
 	}
@@ -121,33 +131,40 @@ public class FormatterManager {
 	}
 
 	public FormatterParser<?> getParser(Class<?> type) {
-		return this.parsers.get(type);
+		FormatterParser<?> parser = this.parsers.get(type);
+		if (parser == null && this.parent != null) {
+			return this.parent.getParser(type);
+		}
+
+		return parser;
 	}
 
 	public FormatterFunction<?> getFunction(Class<?> type, String name) {
 		for (Class<?> inheritanceType : this.getInheritanceTypes(type)) {
-			FormatterFunction<?> function = this.functions.getOrDefault(inheritanceType, new HashMap<>()).get(name);
+			Map<String, FormatterFunction<?>> names = this.functions.get(inheritanceType);
+			FormatterFunction<?> function = names == null ? null : names.get(name);
 			if (function != null) {
 				return function;
 			}
 		}
 
-		return null;
+		return this.parent == null ? null : this.parent.getFunction(type, name);
 	}
 
 	public FormatterVariable<?> getVariable(Class<?> type, String name) {
 		for (Class<?> inheritanceType : this.getInheritanceTypes(type)) {
-			FormatterVariable<?> variable = this.variables.getOrDefault(inheritanceType, new HashMap<>()).get(name);
+			Map<String, FormatterVariable<?>> names = this.variables.get(inheritanceType);
+			FormatterVariable<?> variable = names == null ? null : names.get(name);
 			if (variable != null) {
 				return variable;
 			}
 		}
 
-		return null;
+		return this.parent == null ? null : this.parent.getVariable(type, name);
 	}
 
 	public List<FormatterFunction<?>> getFunctions(Class<?> type) {
-		List<FormatterFunction<?>> functions = new ArrayList<>();
+		List<FormatterFunction<?>> functions = this.parent == null ? new ArrayList<>() : this.parent.getFunctions(type);
 		for (Class<?> inheritanceType : this.getInheritanceTypes(type)) {
 			Map<String, FormatterFunction<?>> names = this.functions.get(inheritanceType);
 			if (names == null) {
@@ -163,7 +180,7 @@ public class FormatterManager {
 	}
 
 	public List<FormatterVariable<?>> getVariables(Class<?> type) {
-		List<FormatterVariable<?>> functions = new ArrayList<>();
+		List<FormatterVariable<?>> functions = this.parent == null ? new ArrayList<>() : this.parent.getVariables(type);
 		for (Class<?> inheritanceType : this.getInheritanceTypes(type)) {
 			Map<String, FormatterVariable<?>> names = this.variables.get(inheritanceType);
 			if (names == null) {
@@ -191,7 +208,12 @@ public class FormatterManager {
 	}
 
 	private Set<Class<?>> getInheritanceTypes(Class<?> type) {
-		Set<Class<?>> types = new HashSet<>();
+		Set<Class<?>> types = this.inheritanceTypes.get(type);
+		if (types != null) {
+			return types;
+		}
+
+		types = new HashSet<>();
 		types.add(type);
 
 		for (Class<?> inheritanceType : this.handleInheritance) {
@@ -200,6 +222,11 @@ public class FormatterManager {
 			}
 		}
 
+		// Scoped managers are short lived and mutated while formatting so only the shared manager keeps the lookups
+		if (this.parent == null) {
+			this.inheritanceTypes.put(type, types);
+		}
+
 		return types;
 	}
 
@@ -207,6 +234,14 @@ public class FormatterManager {
 		return this.handleInheritance;
 	}
 
+	public FormatterManager getParent() {
+		return this.parent;
+	}
+
+	public static FormatterManager withParent(FormatterManager parent) {
+		return new FormatterManager(new HashMap<>(), new HashMap<>(), new HashMap<>(), new LinkedHashSet<>(), parent);
+	}
+
 	public static FormatterManager getDefaultManager() {
 		return FormatterManager.defaultManager;
 	}
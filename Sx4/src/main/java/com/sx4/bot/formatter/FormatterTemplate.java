@@ -0,0 +1,155 @@
+package com.sx4.bot.formatter;
+
+import com.sx4.bot.formatter.function.FormatterCondition;
+import com.sx4.bot.utility.ColourUtility;
+import com.sx4.bot.utility.StringUtility;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class FormatterTemplate {
+
+	public static final int MAX_CACHED_TEMPLATES = 10_000;
+
+	private static final Map<String, FormatterTemplate> CACHE = new LinkedHashMap<>(16, 0.75F, true) {
+		protected boolean removeEldestEntry(Map.Entry<String, FormatterTemplate> eldest) {
+			return this.size() > FormatterTemplate.MAX_CACHED_TEMPLATES;
+		}
+	};
+
+	private interface Node {
+
+		void render(StringBuilder builder, FormatterManager manager);
+
+	}
+
+	private static class TextNode implements Node {
+
+		private final String text;
+
+		public TextNode(String text) {
+			this.text = text;
+		}
+
+		public void render(StringBuilder builder, FormatterManager manager) {
+			builder.append(this.text);
+		}
+
+	}
+
+	private static class ExpressionNode implements Node {
+
+		private final String text;
+		private final FormatterExpression expression;
+
+		public ExpressionNode(String text) {
+			this.text = text;
+			this.expression = FormatterExpression.compile(text);
+		}
+
+		public void render(StringBuilder builder, FormatterManager manager) {
+			Object value = this.expression.evaluate(manager);
+			if (value == null) {
+				// Unknown formatters are kept as they were written but anything nested inside them is still formatted
+				builder.append('{');
+				FormatterTemplate.compile(this.text).render(builder, manager);
+				builder.append('}');
+			} else {
+				builder.append(FormatterTemplate.toString(value));
+			}
+		}
+
+	}
+
+	private final Node[] nodes;
+
+	private FormatterTemplate(String string) {
+		List<Node> nodes = new ArrayList<>();
+
+		int index = -1, textIndex = 0;
+		Open: while ((index = string.indexOf('{', index + 1)) != -1) {
+			if (FormatterExpression.isEscaped(string, index)) {
+				continue;
+			}
+
+			int endIndex = index;
+			while ((endIndex = string.indexOf('}', endIndex + 1)) != -1) {
+				if (FormatterExpression.isEscaped(string, endIndex)) {
+					continue;
+				}
+
+				String formatter = string.substring(index + 1, endIndex);
+				if (StringUtility.isNotEqual(formatter, '{', '}')) {
+					continue;
+				}
+
+				if (index > textIndex) {
+					nodes.add(new TextNode(string.substring(textIndex, index)));
+				}
+
+				nodes.add(new ExpressionNode(formatter));
+
+				textIndex = endIndex + 1;
+				index = endIndex;
+
+				continue Open;
+			}
+		}
+
+		if (textIndex < string.length()) {
+			nodes.add(new TextNode(string.substring(textIndex)));
+		}
+
+		this.nodes = nodes.toArray(Node[]::new);
+	}
+
+	public String render(FormatterManager manager) {
+		StringBuilder builder = new StringBuilder();
+		this.render(builder, manager);
+
+		return builder.toString();
+	}
+
+	public void render(StringBuilder builder, FormatterManager manager) {
+		for (Node node : this.nodes) {
+			node.render(builder, manager);
+		}
+	}
+
+	public static FormatterTemplate compile(String string) {
+		synchronized (FormatterTemplate.CACHE) {
+			FormatterTemplate template = FormatterTemplate.CACHE.get(string);
+			if (template != null) {
+				return template;
+			}
+		}
+
+		FormatterTemplate template = new FormatterTemplate(string);
+		synchronized (FormatterTemplate.CACHE) {
+			FormatterTemplate.CACHE.put(string, template);
+		}
+
+		return template;
+	}
+
+	public static String toString(Object object) {
+		if (object == null) {
+			return "null";
+		} else if (object instanceof Color) {
+			return ColourUtility.toHexString(((Color) object).getRGB());
+		} else if (object instanceof Double) {
+			Double value = ((Double) object);
+			if (value % 1 == 0) {
+				return String.valueOf(value.longValue());
+			}
+		} else if (object instanceof FormatterCondition) {
+			return FormatterTemplate.toString(((FormatterCondition) object).orElse(null));
+		}
+
+		return object.toString();
+	}
+
+}
@@ -12,7 +12,7 @@ public class JsonFormatter implements IFormatter<Document> {
 
 	public JsonFormatter(Document document) {
 		this.document = document;
-		this.manager = new FormatterManager(FormatterManager.getDefaultManager());
+		this.manager = FormatterManager.withParent(FormatterManager.getDefaultManager());
 	}
 
 	public JsonFormatter addVariable(Class<?> type, String name, Object argument) {
@@ -1,14 +1,19 @@
 package com.sx4.bot.formatter.function;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.List;
 
 public class FormatterFunction<Type> {
 
 	private final Class<Type> type;
 	private final String name, description;
 	private final Method method;
+	private final MethodHandle handle;
+	private final Class<?>[] parameterTypes;
 	private final boolean usePrevious;
 
 	public FormatterFunction(Class<Type> type, String name, String description, boolean usePrevious) {
@@ -16,14 +21,30 @@ public class FormatterFunction<Type> {
 		this.type = type;
 		this.description = description;
 		this.usePrevious = usePrevious;
+		this.method = this.findMethod();
+		this.parameterTypes = this.method.getParameterTypes();
 
+		try {
+			this.handle = MethodHandles.lookup().unreflect(this.method)
+				.bindTo(this)
+				.asSpreader(Object[].class, this.parameterTypes.length)
+				.asType(MethodType.methodType(Object.class, Object[].class));
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("FormatterFunction parse method is not accessible", e);
+		}
+	}
+
+	public FormatterFunction(Class<Type> type, String name, String description) {
+		this(type, name, description, false);
+	}
+
+	private Method findMethod() {
 		Method[] methods = this.getClass().getMethods();
 		for (Method method : methods) {
 			if (method.getName().equalsIgnoreCase("parse")) {
 				for (Class<?> parameter : method.getParameterTypes()) {
 					if (parameter == FormatterEvent.class) {
-						this.method = method;
-						return;
+						return method;
 					}
 				}
 
@@ -34,10 +55,6 @@ public class FormatterFunction<Type> {
 		throw new IllegalStateException("FormatterFunction doesn't have a parse method");
 	}
 
-	public FormatterFunction(Class<Type> type, String name, String description) {
-		this(type, name, description, false);
-	}
-
 	public String getDescription() {
 		return this.description;
 	}
@@ -58,8 +75,37 @@ public class FormatterFunction<Type> {
 		return this.method;
 	}
 
-	public Object parse(List<Object> arguments) throws InvocationTargetException, IllegalAccessException {
-		return this.method.invoke(this, arguments.toArray());
+	public Class<?>[] getParameterTypes() {
+		return this.parameterTypes;
+	}
+
+	public Object invoke(Object[] arguments) throws InvocationTargetException {
+		if (arguments.length != this.parameterTypes.length) {
+			throw new IllegalArgumentException("Expected " + this.parameterTypes.length + " arguments but got " + arguments.length);
+		}
+
+		for (int i = 0; i < arguments.length; i++) {
+			Object argument = arguments[i];
+			if (argument != null && !this.isInstance(this.parameterTypes[i], argument)) {
+				throw new IllegalArgumentException("Argument " + i + " is not of type " + this.parameterTypes[i].getName());
+			}
+		}
+
+		try {
+			return (Object) this.handle.invokeExact(arguments);
+		} catch (WrongMethodTypeException e) {
+			throw new IllegalArgumentException(e);
+		} catch (Throwable e) {
+			throw new InvocationTargetException(e);
+		}
+	}
+
+	private boolean isInstance(Class<?> type, Object argument) {
+		if (!type.isPrimitive()) {
+			return type.isInstance(argument);
+		}
+
+		return MethodType.methodType(type).wrap().returnType().isInstance(argument);
 	}
 
 }
@@ -4,13 +4,14 @@ import com.mongodb.client.model.*;
 import com.sx4.bot.core.Sx4;
 import com.sx4.bot.database.mongo.MongoDatabase;
 import com.sx4.bot.database.mongo.model.Operators;
-import com.sx4.bot.entities.management.WhitelistType;
 import com.sx4.bot.entities.mod.Reason;
 import com.sx4.bot.entities.mod.action.Action;
+import com.sx4.bot.entities.mod.auto.CompiledRegex;
+import com.sx4.bot.entities.mod.auto.LimitedCharSequence;
 import com.sx4.bot.entities.mod.auto.MatchAction;
 import com.sx4.bot.entities.mod.auto.RegexType;
-import com.sx4.bot.entities.settings.HolderType;
 import com.sx4.bot.exceptions.mod.ModException;
+import com.sx4.bot.exceptions.mod.RegexLimitException;
 import com.sx4.bot.formatter.Formatter;
 import com.sx4.bot.utility.ExceptionUtility;
 import com.sx4.bot.utility.FutureUtility;
@@ -25,6 +26,7 @@ import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
+import java.time.Clock;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.regex.Matcher;
@@ -35,9 +37,9 @@ public class AntiRegexHandler implements EventListener {
 
     public static final String INVITE_REGEX = "discord(?:(?:(?:app)?\\.com|\\.co|\\.media)/invite|\\.gg)/([a-z\\-0-9]{2,32})";
 
-    private final Pattern invitePattern = Pattern.compile(AntiRegexHandler.INVITE_REGEX, Pattern.CASE_INSENSITIVE);
+    public static final long MAX_REGEX_ACCESSES = 1_000_000L;
 
-    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
 
     private final Sx4 bot;
 
@@ -75,77 +77,56 @@ public class AntiRegexHandler implements EventListener {
         long guildId = guild.getIdLong(), userId = member.getIdLong(), channelId = textChannel.getIdLong();
 
         Category parent = textChannel.getParent();
-        List<Role> roles = member.getRoles();
+        long parentId = parent == null ? 0L : parent.getIdLong();
+
+        long[] roleIds = member.getRoles().stream().mapToLong(Role::getIdLong).toArray();
         String content = message.getContentRaw();
 
-        List<Bson> guildPipeline = List.of(
-            Aggregates.project(Projections.fields(Projections.computed("premium", Operators.lt(Operators.nowEpochSecond(), Operators.ifNull("$premium.endAt", 0L))), Projections.computed("guildId", "$_id"))),
-            Aggregates.match(Filters.eq("guildId", guild.getIdLong()))
-        );
-
-        List<Bson> pipeline = List.of(
-            Aggregates.match(Filters.and(Filters.eq("guildId", guild.getIdLong()), Filters.exists("enabled", false))),
-            Aggregates.group(null, Accumulators.push("regexes", Operators.ROOT)),
-            Aggregates.unionWith("guilds", guildPipeline),
-            Aggregates.group(null, Accumulators.max("premium", "$premium"), Accumulators.max("regexes", "$regexes")),
-            Aggregates.project(Projections.computed("regexes", Operators.let(new Document("regexes", Operators.ifNull("$regexes", Collections.EMPTY_LIST)), Operators.cond(Operators.ifNull("$premium", false), "$$regexes", Operators.concatArrays(Operators.filter("$$regexes", Operators.ne("$$this.type", RegexType.REGEX.getId())), Operators.slice(Operators.filter("$$regexes", Operators.eq("$$this.type", RegexType.REGEX.getId())), 0, 3))))))
-        );
-
-        this.bot.getMongo().aggregateRegexes(pipeline).whenComplete((documents, exception) -> {
-            if (documents.isEmpty()) {
+        CompletableFuture<List<CompiledRegex>> future = this.bot.getAntiRegexManager().retrieveRegexes(guildId);
+
+        List<CompiledRegex> cached = future.getNow(null);
+        if (cached != null && cached.isEmpty()) {
+            return;
+        }
+
+        future.whenCompleteAsync((regexes, exception) -> {
+            if (ExceptionUtility.sendErrorMessage(exception) || regexes.isEmpty()) {
                 return;
             }
 
-            Document data = documents.get(0);
+            boolean admin = member.hasPermission(Permission.ADMINISTRATOR);
+            boolean premium = Clock.systemUTC().instant().getEpochSecond() < this.bot.getMongo().getGuildById(guildId, Projections.include("premium.endAt")).getEmbedded(List.of("premium", "endAt"), 0L);
 
-            this.executor.submit(() -> {
-                List<CompletableFuture<Document>> matches = new ArrayList<>();
-                Regexes : for (Document regex : data.getList("regexes", Document.class)) {
-                    if (member.hasPermission(Permission.ADMINISTRATOR) && regex.getBoolean("admin", true)) {
-                        continue;
-                    }
+            int regexCount = 0;
 
-                    List<Document> channels = regex.getList("whitelist", Document.class, Collections.emptyList());
-
-                    Document channel = channels.stream()
-                        .filter(d -> (d.getInteger("type") == WhitelistType.CHANNEL.getId() && d.getLong("id") == channelId) || (d.getInteger("type") == WhitelistType.CATEGORY.getId() && parent != null && d.getLong("id") == parent.getIdLong()))
-                        .min(Comparator.comparingInt(d -> d.getInteger("type", 0)))
-                        .orElse(MongoDatabase.EMPTY_DOCUMENT);
-
-                    List<Document> holders = channel.getList("holders", Document.class, Collections.emptyList());
-                    for (Document holder : holders) {
-                        long holderId = holder.getLong("id");
-                        int type = holder.getInteger("type");
-                        if (type == HolderType.USER.getType() && userId == holderId) {
-                            continue Regexes;
-                        } else if (type == HolderType.ROLE.getType() && (guildId == holderId || roles.stream().anyMatch(role -> role.getIdLong() == holderId))) {
-                            continue Regexes;
-                        }
-                    }
+            List<CompletableFuture<Document>> matches = new ArrayList<>();
+            for (CompiledRegex regex : regexes) {
+                RegexType type = regex.getType();
+                if (type == RegexType.REGEX && !premium && ++regexCount > 3) {
+                    continue;
+                }
+
+                if (admin && regex.isAdminWhitelisted()) {
+                    continue;
+                }
 
-                    RegexType type = RegexType.fromId(regex.getInteger("type"));
+                CompiledRegex.Whitelist whitelist = regex.getWhitelist(channelId, parentId);
+                if (whitelist.isWhitelisted(guildId, userId, roleIds)) {
+                    continue;
+                }
 
-                    Pattern pattern = type == RegexType.REGEX ? Pattern.compile(regex.getString("pattern")) : this.invitePattern;
+                Pattern pattern = regex.getPattern();
+                if (pattern == null) {
+                    continue;
+                }
 
-                    Matcher matcher;
-                    try {
-                        matcher = this.executor.submit(() -> pattern.matcher(content)).get(2000, TimeUnit.MILLISECONDS);
-                    } catch (TimeoutException | InterruptedException | ExecutionException e) {
-                        continue;
-                    }
+                Matcher matcher = pattern.matcher(new LimitedCharSequence(content, AntiRegexHandler.MAX_REGEX_ACCESSES));
 
-                    Set<String> codes = new HashSet<>();
-                    int matchCount = 0, totalCount = 0;
+                Set<String> codes = new HashSet<>();
+                int matchCount = 0, totalCount = 0;
+                try {
                     while (matcher.find()) {
-                        List<Document> groups = channel.getList("groups", Document.class, Collections.emptyList());
-                        for (Document group : groups) {
-                            List<String> strings = group.getList("strings", String.class, Collections.emptyList());
-
-                            String match = matcher.group(group.getInteger("group"));
-                            if (match != null && strings.contains(match)) {
-                                matchCount++;
-                            }
-                        }
+                        matchCount += whitelist.getWhitelistedGroups(matcher);
 
                         if (type == RegexType.INVITE) {
                             codes.add(matcher.group(1));
@@ -153,115 +134,117 @@ public class AntiRegexHandler implements EventListener {
 
                         totalCount++;
                     }
+                } catch (RegexLimitException e) {
+                    continue;
+                }
 
-                    if (matchCount == totalCount) {
-                        continue;
-                    }
-
-                    CompletableFuture<Document> future;
-                    if (type == RegexType.INVITE) {
-                        List<CompletableFuture<Invite>> futures = codes.stream()
-                            .map(code -> Invite.resolve(message.getJDA(), code, true).submit())
-                            .collect(Collectors.toList());
+                if (matchCount == totalCount) {
+                    continue;
+                }
 
-                        List<Long> guilds = channel.getList("guilds", Long.class, Collections.emptyList());
+                Document data = regex.getData();
 
-                        future = FutureUtility.anyOf(futures, invite -> {
-                            Invite.Guild inviteGuild = invite.getGuild();
-                            return inviteGuild == null || (!guilds.contains(inviteGuild.getIdLong()) && inviteGuild.getIdLong() != guildId);
-                        }).thenApply(invite -> invite == null ? null : regex);
-                    } else {
-                        future = CompletableFuture.completedFuture(regex);
-                    }
+                CompletableFuture<Document> matchFuture;
+                if (type == RegexType.INVITE) {
+                    List<CompletableFuture<Invite>> futures = codes.stream()
+                        .map(code -> Invite.resolve(message.getJDA(), code, true).submit())
+                        .collect(Collectors.toList());
 
-                    matches.add(future);
+                    matchFuture = FutureUtility.anyOf(futures, invite -> {
+                        Invite.Guild inviteGuild = invite.getGuild();
+                        return inviteGuild == null || (!whitelist.isGuildWhitelisted(inviteGuild.getIdLong()) && inviteGuild.getIdLong() != guildId);
+                    }).thenApply(invite -> invite == null ? null : data);
+                } else {
+                    matchFuture = CompletableFuture.completedFuture(data);
                 }
 
-                FutureUtility.anyOf(matches, Objects::nonNull).thenAccept(regex -> {
-                    if (regex == null) {
-                        return;
-                    }
+                matches.add(matchFuture);
+            }
 
-                    ObjectId id = regex.getObjectId("_id");
-                    RegexType type = RegexType.fromId(regex.getInteger("type"));
+            FutureUtility.anyOf(matches, Objects::nonNull).thenAccept(regex -> {
+                if (regex == null) {
+                    return;
+                }
 
-                    int currentAttempts = this.bot.getAntiRegexManager().getAttempts(id, userId);
+                ObjectId id = regex.getObjectId("_id");
+                RegexType type = RegexType.fromId(regex.getInteger("type"));
 
-                    Document match = regex.get("match", MongoDatabase.EMPTY_DOCUMENT);
-                    long matchAction = match.get("action", MatchAction.ALL);
+                int currentAttempts = this.bot.getAntiRegexManager().getAttempts(id, userId);
 
-                    Document mod = regex.get("mod", MongoDatabase.EMPTY_DOCUMENT);
-                    Document actionData = mod.get("action", Document.class);
+                Document match = regex.get("match", MongoDatabase.EMPTY_DOCUMENT);
+                long matchAction = match.get("action", MatchAction.ALL);
 
-                    Action action = actionData == null ? null : Action.fromData(actionData);
+                Document mod = regex.get("mod", MongoDatabase.EMPTY_DOCUMENT);
+                Document actionData = mod.get("action", Document.class);
 
-                    Document attempts = regex.get("attempts", MongoDatabase.EMPTY_DOCUMENT);
-                    int maxAttempts = attempts.get("amount", 3);
+                Action action = actionData == null ? null : Action.fromData(actionData);
 
-                    String matchMessage = this.format(match.get("message", type.getDefaultMatchMessage()),
-                        user, textChannel, id, currentAttempts + 1, maxAttempts, action);
+                Document attempts = regex.get("attempts", MongoDatabase.EMPTY_DOCUMENT);
+                int maxAttempts = attempts.get("amount", 3);
 
-                    String modMessage = this.format(mod.get("message", type.getDefaultModMessage()),
-                        user, textChannel, id, currentAttempts + 1, maxAttempts, action);
+                String matchMessage = this.format(match.get("message", type.getDefaultMatchMessage()),
+                    user, textChannel, id, currentAttempts + 1, maxAttempts, action);
 
-                    if ((matchAction & MatchAction.DELETE_MESSAGE.getRaw()) == MatchAction.DELETE_MESSAGE.getRaw() && selfMember.hasPermission(textChannel, Permission.MESSAGE_MANAGE)) {
-                        message.delete().queue();
-                    }
+                String modMessage = this.format(mod.get("message", type.getDefaultModMessage()),
+                    user, textChannel, id, currentAttempts + 1, maxAttempts, action);
 
-                    boolean send = (matchAction & MatchAction.SEND_MESSAGE.getRaw()) == MatchAction.SEND_MESSAGE.getRaw() && selfMember.hasPermission(textChannel, Permission.MESSAGE_WRITE);
-                    if (action != null && currentAttempts + 1 == maxAttempts) {
-                        Reason reason = new Reason(String.format("Sent a message which matched regex `%s` %d time%s", id.toHexString(), maxAttempts, maxAttempts == 1 ? "" : "s"));
+                if ((matchAction & MatchAction.DELETE_MESSAGE.getRaw()) == MatchAction.DELETE_MESSAGE.getRaw() && selfMember.hasPermission(textChannel, Permission.MESSAGE_MANAGE)) {
+                    message.delete().queue();
+                }
 
-                        ModUtility.performAction(this.bot, action, member, selfMember, reason).thenCompose(result -> {
-                            if (send) {
-                                textChannel.sendMessage(modMessage).allowedMentions(EnumSet.allOf(Message.MentionType.class)).queue();
-                            }
+                boolean send = (matchAction & MatchAction.SEND_MESSAGE.getRaw()) == MatchAction.SEND_MESSAGE.getRaw() && selfMember.hasPermission(textChannel, Permission.MESSAGE_WRITE);
+                if (action != null && currentAttempts + 1 == maxAttempts) {
+                    Reason reason = new Reason(String.format("Sent a message which matched regex `%s` %d time%s", id.toHexString(), maxAttempts, maxAttempts == 1 ? "" : "s"));
 
-                            Bson filter = Filters.and(Filters.eq("userId", userId), Filters.eq("regexId", id));
-                            return this.bot.getMongo().deleteRegexAttempt(filter);
-                        }).whenComplete((result, modException) -> {
-                            Throwable cause = modException instanceof CompletionException ? modException.getCause() : modException;
-                            if (cause instanceof ModException) {
-                                textChannel.sendMessage(modException.getMessage() + " " + this.bot.getConfig().getFailureEmote()).queue();
-                                return;
-                            }
+                    ModUtility.performAction(this.bot, action, member, selfMember, reason).thenCompose(result -> {
+                        if (send) {
+                            textChannel.sendMessage(modMessage).allowedMentions(EnumSet.allOf(Message.MentionType.class)).queue();
+                        }
 
-                            if (ExceptionUtility.sendExceptionally(textChannel, cause)) {
-                                return;
-                            }
+                        Bson filter = Filters.and(Filters.eq("userId", userId), Filters.eq("regexId", id));
+                        return this.bot.getMongo().deleteRegexAttempt(filter);
+                    }).whenComplete((result, modException) -> {
+                        Throwable cause = modException instanceof CompletionException ? modException.getCause() : modException;
+                        if (cause instanceof ModException) {
+                            textChannel.sendMessage(modException.getMessage() + " " + this.bot.getConfig().getFailureEmote()).queue();
+                            return;
+                        }
 
-                            this.bot.getAntiRegexManager().clearAttempts(id, userId);
-                        });
+                        if (ExceptionUtility.sendExceptionally(textChannel, cause)) {
+                            return;
+                        }
 
-                        return;
-                    }
+                        this.bot.getAntiRegexManager().clearAttempts(id, userId);
+                    });
 
-                    if (send) {
-                        textChannel.sendMessage(matchMessage).allowedMentions(EnumSet.allOf(Message.MentionType.class)).queue();
-                    }
+                    return;
+                }
 
-                    Document reset = attempts.get("reset", Document.class);
+                if (send) {
+                    textChannel.sendMessage(matchMessage).allowedMentions(EnumSet.allOf(Message.MentionType.class)).queue();
+                }
 
-                    List<Bson> update = List.of(
-                        Operators.set("attempts", Operators.let(new Document("attempts", Operators.ifNull("$attempts", 0)), Operators.cond(Operators.exists("$reset"), Operators.max(1, Operators.add(1, Operators.subtract("$$attempts", Operators.multiply(Operators.toInt(Operators.floor(Operators.divide(Operators.subtract(Operators.nowEpochSecond(), "$lastAttempt"), "$reset.after"))), "$reset.amount")))), Operators.add("$$attempts", 1)))),
-                        Operators.set("lastAttempt", Operators.nowEpochSecond()),
-                        Operators.setOnInsert("guildId", guildId),
-                        reset == null ? Operators.unset("reset") : Operators.set("reset", reset)
-                    );
+                Document reset = attempts.get("reset", Document.class);
 
-                    Bson filter = Filters.and(Filters.eq("userId", userId), Filters.eq("regexId", id));
-                    FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().upsert(true).projection(Projections.include("attempts")).returnDocument(ReturnDocument.AFTER);
+                List<Bson> update = List.of(
+                    Operators.set("attempts", Operators.let(new Document("attempts", Operators.ifNull("$attempts", 0)), Operators.cond(Operators.exists("$reset"), Operators.max(1, Operators.add(1, Operators.subtract("$$attempts", Operators.multiply(Operators.toInt(Operators.floor(Operators.divide(Operators.subtract(Operators.nowEpochSecond(), "$lastAttempt"), "$reset.after"))), "$reset.amount")))), Operators.add("$$attempts", 1)))),
+                    Operators.set("lastAttempt", Operators.nowEpochSecond()),
+                    Operators.setOnInsert("guildId", guildId),
+                    reset == null ? Operators.unset("reset") : Operators.set("reset", reset)
+                );
 
-                    this.bot.getMongo().findAndUpdateRegexAttempt(filter, update, options).whenComplete((attemptsData, attemptsException) -> {
-                        if (ExceptionUtility.sendErrorMessage(attemptsException)) {
-                            return;
-                        }
+                Bson filter = Filters.and(Filters.eq("userId", userId), Filters.eq("regexId", id));
+                FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().upsert(true).projection(Projections.include("attempts")).returnDocument(ReturnDocument.AFTER);
 
-                        this.bot.getAntiRegexManager().setAttempts(id, userId, attemptsData.getInteger("attempts", 0));
-                    });
+                this.bot.getMongo().findAndUpdateRegexAttempt(filter, update, options).whenComplete((attemptsData, attemptsException) -> {
+                    if (ExceptionUtility.sendErrorMessage(attemptsException)) {
+                        return;
+                    }
+
+                    this.bot.getAntiRegexManager().setAttempts(id, userId, attemptsData.getInteger("attempts", 0));
                 });
             });
-        });
+        }, this.executor);
     }
 
     @Override
@@ -8,7 +8,6 @@ import club.minnced.discord.webhook.send.WebhookEmbed.EmbedField;
 import club.minnced.discord.webhook.send.WebhookEmbed.EmbedFooter;
 import club.minnced.discord.webhook.send.WebhookEmbedBuilder;
 import com.sx4.bot.core.Sx4;
-import com.sx4.bot.utility.ExceptionUtility;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDA.ShardInfo;
 import net.dv8tion.jda.api.events.*;
@@ -17,6 +16,7 @@ import net.dv8tion.jda.api.requests.CloseCode;
 
 import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ConnectionHandler implements EventListener {
 
@@ -32,7 +32,7 @@ public class ConnectionHandler implements EventListener {
 			.build();
 	}
 	
-	private int readyEventsCalled = 0;
+	private final AtomicInteger readyEventsCalled = new AtomicInteger(0);
 	
 	public WebhookEmbed getEmbed(JDA jda, String state, int colour) {
 		return this.getEmbed(jda, state, null, null, colour);
@@ -57,17 +57,11 @@ public class ConnectionHandler implements EventListener {
 
 	public void onReady(ReadyEvent event) {
 		JDA jda = event.getJDA();
-		
-		if (++this.readyEventsCalled == jda.getShardInfo().getShardTotal()) {
-			ExceptionUtility.safeRun(this.bot.getReminderManager()::ensureReminders);
-			ExceptionUtility.safeRun(this.bot.getMuteManager()::ensureMutes);
-			ExceptionUtility.safeRun(this.bot.getTemporaryBanManager()::ensureBans);
-			ExceptionUtility.safeRun(this.bot.getGiveawayManager()::ensureGiveaways);
-			ExceptionUtility.safeRun(this.bot.getYouTubeManager()::ensureSubscriptions);
 
-			if (this.bot.getConfig().isMain()) {
-				ExceptionUtility.safeRun(this.bot.getPatreonManager()::ensurePatrons);
-			}
+		this.bot.getWarmUpManager().warmUpShard(jda);
+		
+		if (this.readyEventsCalled.incrementAndGet() == jda.getShardInfo().getShardTotal()) {
+			this.bot.getWarmUpManager().warmUp();
 		}
 		
 		this.eventsWebhook.send(this.getEmbed(jda, "Ready", this.bot.getConfig().getGreen()));
@@ -3,9 +3,15 @@ package com.sx4.bot.handlers;
 import com.mongodb.client.model.Filters;
 import com.sx4.bot.core.Sx4;
 import com.sx4.bot.database.mongo.MongoDatabase;
+import com.sx4.bot.entities.management.GiveawayEntrants;
+import net.dv8tion.jda.api.entities.MessageReaction.ReactionEmote;
 import net.dv8tion.jda.api.events.GenericEvent;
 import net.dv8tion.jda.api.events.message.MessageBulkDeleteEvent;
 import net.dv8tion.jda.api.events.message.MessageDeleteEvent;
+import net.dv8tion.jda.api.events.message.guild.react.GenericGuildMessageReactionEvent;
+import net.dv8tion.jda.api.events.message.guild.react.GuildMessageReactionAddEvent;
+import net.dv8tion.jda.api.events.message.react.MessageReactionRemoveAllEvent;
+import net.dv8tion.jda.api.events.message.react.MessageReactionRemoveEmoteEvent;
 import net.dv8tion.jda.api.hooks.EventListener;
 
 import java.util.List;
@@ -25,12 +31,46 @@ public class GiveawayHandler implements EventListener {
 		messageIds.forEach(this.bot.getGiveawayManager()::deleteExecutor);
 	}
 
+	private boolean isGiveawayEmote(ReactionEmote emote) {
+		return emote.isEmoji() && emote.getName().equals("🎉");
+	}
+
+	public void onGenericGuildMessageReaction(GenericGuildMessageReactionEvent event) {
+		if (!this.isGiveawayEmote(event.getReactionEmote()) || event.getUserIdLong() == event.getJDA().getSelfUser().getIdLong()) {
+			return;
+		}
+
+		GiveawayEntrants entrants = this.bot.getGiveawayManager().getEntrants(event.getMessageIdLong());
+		if (entrants == null) {
+			return;
+		}
+
+		if (event instanceof GuildMessageReactionAddEvent) {
+			entrants.add(event.getUserIdLong());
+		} else {
+			entrants.remove(event.getUserIdLong());
+		}
+	}
+
+	public void onReactionsCleared(long messageId) {
+		GiveawayEntrants entrants = this.bot.getGiveawayManager().getEntrants(messageId);
+		if (entrants != null) {
+			entrants.clear();
+		}
+	}
+
 	@Override
 	public void onEvent(GenericEvent event) {
 		if (event instanceof MessageBulkDeleteEvent) {
 			this.handle(((MessageBulkDeleteEvent) event).getMessageIds().stream().map(Long::valueOf).collect(Collectors.toList()));
 		} else if (event instanceof MessageDeleteEvent) {
 			this.handle(List.of(((MessageDeleteEvent) event).getMessageIdLong()));
+		} else if (event instanceof GenericGuildMessageReactionEvent) {
+			this.onGenericGuildMessageReaction((GenericGuildMessageReactionEvent) event);
+		} else if (event instanceof MessageReactionRemoveAllEvent) {
+			this.onReactionsCleared(((MessageReactionRemoveAllEvent) event).getMessageIdLong());
+		} else if (event instanceof MessageReactionRemoveEmoteEvent && this.isGiveawayEmote(((MessageReactionRemoveEmoteEvent) event).getReactionEmote())) {
+			this.onReactionsCleared(((MessageReactionRemoveEmoteEvent) event).getMessageIdLong());
 		}
 	}
 
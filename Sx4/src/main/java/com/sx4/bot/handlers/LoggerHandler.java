@@ -5,17 +5,14 @@ import club.minnced.discord.webhook.send.WebhookEmbed.EmbedAuthor;
 import club.minnced.discord.webhook.send.WebhookEmbed.EmbedField;
 import club.minnced.discord.webhook.send.WebhookEmbed.EmbedFooter;
 import club.minnced.discord.webhook.send.WebhookEmbedBuilder;
-import com.mongodb.client.model.Accumulators;
-import com.mongodb.client.model.Aggregates;
 import com.mongodb.client.model.Filters;
-import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
 import com.sx4.bot.core.Sx4;
-import com.sx4.bot.database.mongo.MongoDatabase;
-import com.sx4.bot.database.mongo.model.Operators;
 import com.sx4.bot.entities.cache.GuildMessage;
 import com.sx4.bot.entities.management.LoggerContext;
 import com.sx4.bot.entities.management.LoggerEvent;
 import com.sx4.bot.managers.LoggerManager;
+import com.sx4.bot.managers.WebhookDeliveryService;
 import com.sx4.bot.utility.ColourUtility;
 import com.sx4.bot.utility.ExceptionUtility;
 import com.sx4.bot.utility.LoggerUtility;
@@ -69,7 +66,6 @@ import net.dv8tion.jda.api.events.role.update.RoleUpdateNameEvent;
 import net.dv8tion.jda.api.events.role.update.RoleUpdatePermissionsEvent;
 import net.dv8tion.jda.api.hooks.EventListener;
 import net.dv8tion.jda.internal.utils.tuple.Pair;
-import okhttp3.OkHttpClient;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
@@ -89,11 +85,8 @@ public class LoggerHandler implements EventListener {
 	
 	private final Map<Long, LoggerManager> managers;
 
-	private final ExecutorService managerExecutor = Executors.newCachedThreadPool();
-	private final ScheduledExecutorService webhookExecutor = Executors.newScheduledThreadPool(20);
-	private final OkHttpClient webhookClient = new OkHttpClient.Builder()
-		.callTimeout(3, TimeUnit.SECONDS)
-		.build();
+	private final ScheduledExecutorService managerExecutor;
+	private final WebhookDeliveryService.Feature webhooks;
 
 	private final TLongObjectMap<TLongIntMap> disconnectCache = new TLongObjectHashMap<>();
 	private final TLongObjectMap<TLongIntMap> moveCache = new TLongObjectHashMap<>();
@@ -103,18 +96,39 @@ public class LoggerHandler implements EventListener {
 	
 	public LoggerHandler(Sx4 bot) {
 		this.bot = bot;
-		this.managers = new HashMap<>();
+		this.managers = new ConcurrentHashMap<>();
+		this.managerExecutor = Executors.newScheduledThreadPool(bot.getConfig().getLoggerThreads());
+		this.webhooks = bot.getWebhookDeliveryService().register("Sx4 - Logger", (channel, webhook) -> {
+			Bson update = Updates.combine(
+				Updates.set("webhook.id", webhook.getIdLong()),
+				Updates.set("webhook.token", webhook.getToken())
+			);
+
+			return this.bot.getMongo().updateLogger(Filters.eq("channelId", channel.getIdLong()), update)
+				.whenComplete((result, exception) -> this.bot.getLoggerCache().invalidate(channel.getGuild().getIdLong()));
+		});
 	}
 
 	private LoggerManager getManager(long channelId) {
-		if (this.managers.containsKey(channelId)) {
-			return this.managers.get(channelId);
+		return this.managers.computeIfAbsent(channelId, key -> new LoggerManager(this.bot, this.managerExecutor, this.webhooks, this.bot.getConfig().getLoggerLinger(), this.bot.getConfig().getLoggerQueueSize()));
+	}
+
+	public long getDroppedLogs() {
+		long dropped = 0L;
+		for (LoggerManager manager : this.managers.values()) {
+			dropped += manager.getDropped();
 		}
 
-		LoggerManager manager = new LoggerManager(this.bot, this.managerExecutor, this.webhookClient, this.webhookExecutor);
-		this.managers.put(channelId, manager);
+		return dropped;
+	}
+
+	public int getQueuedLogs() {
+		int queued = 0;
+		for (LoggerManager manager : this.managers.values()) {
+			queued += manager.getQueueSize();
+		}
 
-		return manager;
+		return queued;
 	}
 
 	public void queue(Guild guild, List<Document> loggers, LoggerEvent event, LoggerContext context, WebhookEmbed... embeds) {
@@ -139,7 +153,15 @@ public class LoggerHandler implements EventListener {
 		}
 
 		if (!deletedLoggers.isEmpty()) {
-			this.bot.getMongo().deleteManyLoggers(Filters.in("channelId", deletedLoggers)).whenComplete(MongoDatabase.exceptionally(this.bot.getShardManager()));
+			deletedLoggers.forEach(this.webhooks::removeWebhook);
+
+			this.bot.getLoggerCache().invalidate(guild.getIdLong());
+
+			this.bot.getMongo().deleteManyLoggers(Filters.in("channelId", deletedLoggers)).whenComplete((result, exception) -> {
+				this.bot.getLoggerCache().invalidate(guild.getIdLong());
+
+				ExceptionUtility.sendErrorMessage(exception);
+			});
 		}
 	}
 	
@@ -162,21 +184,6 @@ public class LoggerHandler implements EventListener {
 		return this.retrieveAuditLogs(guild, type, 0);
 	}
 
-	private List<Bson> getPipeline(long guildId) {
-		List<Bson> guildPipeline = List.of(
-			Aggregates.project(Projections.fields(Projections.computed("premium", Operators.lt(Operators.nowEpochSecond(), Operators.ifNull("$premium.endAt", 0L))), Projections.computed("guildId", "$_id"))),
-			Aggregates.match(Filters.eq("guildId", guildId))
-		);
-
-		return List.of(
-			Aggregates.match(Filters.and(Filters.eq("guildId", guildId), Filters.exists("enabled", false))),
-			Aggregates.group(null, Accumulators.push("loggers", Operators.ROOT)),
-			Aggregates.unionWith("guilds", guildPipeline),
-			Aggregates.group(null, Accumulators.max("premium", "$premium"), Accumulators.max("loggers", "$loggers")),
-			Aggregates.project(Projections.computed("loggers", Operators.let(new Document("loggers", Operators.map(Operators.ifNull("$loggers", Collections.EMPTY_LIST), Operators.mergeObjects("$$this", new Document("premium", Operators.ifNull("$premium", false))))), Operators.cond(Operators.ifNull("$premium", false), "$$loggers", Operators.slice("$$loggers", 0, 3)))))
-		);
-	}
-
 	private void delay(Runnable runnable) {
 		this.executor.schedule(runnable, LoggerHandler.DELAY, TimeUnit.MILLISECONDS);
 	}
@@ -194,18 +201,16 @@ public class LoggerHandler implements EventListener {
 			loggerContext.setUser(message.getAuthor());
 		}
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -344,17 +349,15 @@ public class LoggerHandler implements EventListener {
 
 		LoggerEvent loggerEvent = LoggerEvent.MESSAGE_DELETE;
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
 			if (guild.getSelfMember().hasPermission(Permission.VIEW_AUDIT_LOGS)) {
 				this.retrieveAuditLogsDelayed(guild, ActionType.MESSAGE_BULK_DELETE).whenComplete((logs, auditException) -> {
 					this.messageCache.putIfAbsent(guild.getIdLong(), new TLongIntHashMap());
@@ -373,13 +376,13 @@ public class LoggerHandler implements EventListener {
 						.findFirst()
 						.orElse(null);
 
-					this.handleBulkMessages(textChannel, messageIds, data.getList("loggers", Document.class), loggerEvent, entry == null ? null : entry.getUser());
+					this.handleBulkMessages(textChannel, messageIds, guildLoggers.getLoggers(), loggerEvent, entry == null ? null : entry.getUser());
 				});
 
 				return;
 			}
 
-			this.handleBulkMessages(textChannel, messageIds, data.getList("loggers", Document.class), loggerEvent, null);
+			this.handleBulkMessages(textChannel, messageIds, guildLoggers.getLoggers(), loggerEvent, null);
 		});
 	}
 
@@ -425,18 +428,16 @@ public class LoggerHandler implements EventListener {
 			embed.addField(new EmbedField(false, "After", StringUtility.limit(message.getContentRaw(), MessageEmbed.VALUE_MAX_LENGTH, String.format("[...](%s)", message.getJumpUrl()))));
 		}
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			this.queue(guild, data.getList("loggers", Document.class), loggerEvent, loggerContext, embed.build());
+			this.queue(guild, guildLoggers.getLoggers(), loggerEvent, loggerContext, embed.build());
 		});
 	}
 
@@ -455,18 +456,16 @@ public class LoggerHandler implements EventListener {
 		embed.setAuthor(new EmbedAuthor(user.getAsTag(), user.getEffectiveAvatarUrl(), null));
 		embed.setFooter(new EmbedFooter(String.format("%s ID: %s", user.isBot() ? "Bot" : "User", member.getId()), null));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -530,18 +529,16 @@ public class LoggerHandler implements EventListener {
 			embed.addField(new EmbedField(true, "Roles", rolesMessage));
 		}
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = data.getList("loggers", Document.class);
+			List<Document> loggers = guildLoggers.getLoggers();
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -590,18 +587,16 @@ public class LoggerHandler implements EventListener {
 		embed.setAuthor(new EmbedAuthor(user.getAsTag(), user.getEffectiveAvatarUrl(), null));
 		embed.setFooter(new EmbedFooter(String.format("User ID: %s", user.getId()), null));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -644,18 +639,16 @@ public class LoggerHandler implements EventListener {
 		embed.setAuthor(new EmbedAuthor(user.getAsTag(), user.getEffectiveAvatarUrl(), null));
 		embed.setFooter(new EmbedFooter(String.format("User ID: %s", user.getId()), null));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -701,18 +694,16 @@ public class LoggerHandler implements EventListener {
 			.setFooter(new EmbedFooter(String.format("User ID: %s", member.getId()), null))
 			.setAuthor(new EmbedAuthor(user.getAsTag(), user.getEffectiveAvatarUrl(), null));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			this.queue(guild, data.getList("loggers", Document.class), loggerEvent, loggerContext, embed.build());
+			this.queue(guild, guildLoggers.getLoggers(), loggerEvent, loggerContext, embed.build());
 		});
 	}
 
@@ -733,18 +724,16 @@ public class LoggerHandler implements EventListener {
 		embed.setAuthor(new EmbedAuthor(user.getAsTag(), user.getEffectiveAvatarUrl(), null));
 		embed.setFooter(new EmbedFooter(String.format("User ID: %s", user.getId()), null));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = data.getList("loggers", Document.class);
+			List<Document> loggers = guildLoggers.getLoggers();
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -807,18 +796,16 @@ public class LoggerHandler implements EventListener {
 		embed.addField(new EmbedField(false, "Before", String.format("`%s`", left.getName())));
 		embed.addField(new EmbedField(false, "After", String.format("`%s`", joined.getName())));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -878,18 +865,16 @@ public class LoggerHandler implements EventListener {
 		embed.setFooter(new EmbedFooter(String.format("User ID: %s", user.getId()), null));
 		embed.setColor(muted ? this.bot.getConfig().getRed() : this.bot.getConfig().getGreen());
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -939,18 +924,16 @@ public class LoggerHandler implements EventListener {
 		embed.setFooter(new EmbedFooter(String.format("User ID: %s", user.getId()), null));
 		embed.setColor(deafened ? this.bot.getConfig().getRed() : this.bot.getConfig().getGreen());
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -1007,18 +990,16 @@ public class LoggerHandler implements EventListener {
 		embed.setAuthor(new EmbedAuthor(guild.getName(), guild.getIconUrl(), null));
 		embed.setFooter(new EmbedFooter(String.format("%s ID: %s", event.isRoleOverride() ? "Role" : "User", permissionHolder.getIdLong()), null));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -1087,18 +1068,16 @@ public class LoggerHandler implements EventListener {
 		embed.setAuthor(new EmbedAuthor(guild.getName(), guild.getIconUrl(), null));
 		embed.setFooter(new EmbedFooter(String.format("%s ID: %s", event.isRoleOverride() ? "Role" : "User", permissionHolder.getIdLong()), null));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -1170,18 +1149,16 @@ public class LoggerHandler implements EventListener {
 
 		// wait for member leave or role delete event if needed
 		this.delay(() -> {
-			this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+			this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 				if (ExceptionUtility.sendErrorMessage(exception)) {
 					return;
 				}
 
-				if (documents.isEmpty()) {
+				if (guildLoggers.isEmpty()) {
 					return;
 				}
 
-				Document data = documents.get(0);
-
-				List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+				List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 				if (loggers.isEmpty()) {
 					return;
 				}
@@ -1236,18 +1213,16 @@ public class LoggerHandler implements EventListener {
 		embed.setAuthor(new EmbedAuthor(guild.getName(), guild.getIconUrl(), null));
 		embed.setFooter(new EmbedFooter(String.format("%s ID: %s", channel.getType() == ChannelType.CATEGORY ? "Category" : "Channel", channel.getId()), null));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -1306,18 +1281,16 @@ public class LoggerHandler implements EventListener {
 		embed.setAuthor(new EmbedAuthor(guild.getName(), guild.getIconUrl(), null));
 		embed.setFooter(new EmbedFooter(String.format("%s ID: %s", channel.getType() == ChannelType.CATEGORY ? "Category" : "Channel", channel.getId()), null));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -1379,18 +1352,16 @@ public class LoggerHandler implements EventListener {
 		embed.addField(new EmbedField(false, "Before", String.format("`%s`", oldName)));
 		embed.addField(new EmbedField(false, "After", String.format("`%s`", channel.getName())));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -1450,18 +1421,16 @@ public class LoggerHandler implements EventListener {
 		embed.setAuthor(new EmbedAuthor(guild.getName(), guild.getIconUrl(), null));
 		embed.setFooter(new EmbedFooter(String.format("Role ID: %s", role.getId()), null));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -1504,18 +1473,16 @@ public class LoggerHandler implements EventListener {
 		embed.setAuthor(new EmbedAuthor(guild.getName(), guild.getIconUrl(), null));
 		embed.setFooter(new EmbedFooter(String.format("Role ID: %s", role.getId()), null));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -1561,18 +1528,16 @@ public class LoggerHandler implements EventListener {
 		embed.addField(new EmbedField(false, "Before", String.format("`%s`", event.getOldName())));
 		embed.addField(new EmbedField(false, "After", String.format("`%s`", event.getNewName())));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -1621,18 +1586,16 @@ public class LoggerHandler implements EventListener {
 		embed.addField(new EmbedField(false, "Before", String.format("Hex: [#%s](%3$s)\nRGB: [%2$s](%3$s)", ColourUtility.toHexString(oldColour), ColourUtility.toRGBString(oldColour), "https://image.sx4.dev/api/colour?w=1000&h=500&colour=" + oldColour)));
 		embed.addField(new EmbedField(false, "After", String.format("Hex: [#%s](%3$s)\nRGB: [%2$s](%3$s)", ColourUtility.toHexString(newColour), ColourUtility.toRGBString(newColour), "https://image.sx4.dev/api/colour?w=1000&h=500&colour=" + newColour)));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -1680,18 +1643,16 @@ public class LoggerHandler implements EventListener {
 		embed.setAuthor(new EmbedAuthor(guild.getName(), guild.getIconUrl(), null));
 		embed.setFooter(new EmbedFooter(String.format("Role ID: %s", role.getId()), null));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -1777,18 +1738,16 @@ public class LoggerHandler implements EventListener {
 			embed.setFooter(new EmbedFooter(String.format("Role ID: %s", firstRole.getId()), null));
 		}
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -1899,18 +1858,16 @@ public class LoggerHandler implements EventListener {
 				}
 			}
 
-			this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+			this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 				if (ExceptionUtility.sendErrorMessage(exception)) {
 					return;
 				}
 
-				if (documents.isEmpty()) {
+				if (guildLoggers.isEmpty()) {
 					return;
 				}
 
-				Document data = documents.get(0);
-
-				List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+				List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 				if (loggers.isEmpty()) {
 					return;
 				}
@@ -1979,18 +1936,16 @@ public class LoggerHandler implements EventListener {
 		embed.addField(new EmbedField(false, "Before", String.format("`%s`", event.getOldNickname() != null ? event.getOldNickname() : member.getUser().getName())));
 		embed.addField(new EmbedField(false, "After", String.format("`%s`", event.getNewNickname() != null ? event.getNewNickname() : member.getUser().getName())));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -2033,18 +1988,16 @@ public class LoggerHandler implements EventListener {
 		embed.setAuthor(new EmbedAuthor(guild.getName(), guild.getIconUrl(), null));
 		embed.setFooter(new EmbedFooter(String.format("Emote ID: %s", emote.getId()), null));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -2087,18 +2040,16 @@ public class LoggerHandler implements EventListener {
 		embed.setAuthor(new EmbedAuthor(guild.getName(), guild.getIconUrl(), null));
 		embed.setFooter(new EmbedFooter(String.format("Emote ID: %s", emote.getId()), null));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -2144,18 +2095,16 @@ public class LoggerHandler implements EventListener {
 		embed.addField(new EmbedField(false, "Before", String.format("`%s`", event.getOldName())));
 		embed.addField(new EmbedField(false, "After", String.format("`%s`", event.getNewName())));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			List<Document> loggers = LoggerUtility.getValidLoggers(data.getList("loggers", Document.class), loggerEvent, loggerContext);
+			List<Document> loggers = LoggerUtility.getValidLoggers(guildLoggers.getLoggers(loggerEvent), loggerEvent, loggerContext);
 			if (loggers.isEmpty()) {
 				return;
 			}
@@ -2212,18 +2161,16 @@ public class LoggerHandler implements EventListener {
 		embed.setAuthor(new EmbedAuthor(guild.getName(), guild.getIconUrl(), null));
 		embed.setFooter(new EmbedFooter(String.format("Emote ID: %s", emote.getId()), null));
 
-		this.bot.getMongo().aggregateLoggers(this.getPipeline(guild.getIdLong())).whenComplete((documents, exception) -> {
+		this.bot.getLoggerCache().retrieveLoggers(guild.getIdLong()).whenComplete((guildLoggers, exception) -> {
 			if (ExceptionUtility.sendErrorMessage(exception)) {
 				return;
 			}
 
-			if (documents.isEmpty()) {
+			if (guildLoggers.isEmpty()) {
 				return;
 			}
 
-			Document data = documents.get(0);
-
-			this.queue(guild, data.getList("loggers", Document.class), loggerEvent, loggerContext, embed.build());
+			this.queue(guild, guildLoggers.getLoggers(), loggerEvent, loggerContext, embed.build());
 		});
 	}
 
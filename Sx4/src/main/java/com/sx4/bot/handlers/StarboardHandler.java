@@ -32,6 +32,7 @@ import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
+import java.time.Clock;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -116,54 +117,44 @@ public class StarboardHandler implements EventListener {
 		return MessageUtility.fromJson(formatter.parse());
 	}
 
+	private boolean isStarboardReaction(Document starboard, TextChannel channel, ReactionEmote emote) {
+		if (!starboard.get("enabled", false) || channel == null) {
+			return false;
+		}
+
+		Document emoteData = starboard.get("emote", new Document("name", "⭐"));
+		if (emote.isEmoji()) {
+			return emote.getEmoji().equals(emoteData.getString("name"));
+		} else {
+			return emoteData.containsKey("id") && emoteData.getLong("id") == emote.getIdLong();
+		}
+	}
+
 	public void onGuildMessageReactionAdd(GuildMessageReactionAddEvent event) {
 		if (event.getUser().isBot()) {
 			return;
 		}
 
-		List<Bson> starboardPipeline = List.of(
-			Aggregates.match(Filters.or(Filters.eq("originalMessageId", event.getMessageIdLong()), Filters.eq("messageId", event.getMessageIdLong()))),
-			Aggregates.project(Projections.include("originalMessageId"))
-		);
+		Document data = this.bot.getMongo().getGuildById(event.getGuild().getIdLong(), Projections.include("starboard", "premium.endAt"));
+		Document starboard = data.get("starboard", MongoDatabase.EMPTY_DOCUMENT);
 
-		List<Bson> pipeline = List.of(
-			Aggregates.match(Filters.eq("_id", event.getGuild().getIdLong())),
-			Aggregates.project(Projections.fields(Projections.include("starboard"), Projections.computed("premium", Operators.lt(Operators.nowEpochSecond(), Operators.ifNull("$premium.endAt", 0L))))),
-			Aggregates.unionWith("starboards", starboardPipeline),
-			Aggregates.group(null, Accumulators.max("messageId", "$originalMessageId"), Accumulators.max("starboard", "$starboard"), Accumulators.max("premium", "$premium"))
-		);
+		long channelId = starboard.get("channelId", 0L);
+		TextChannel channel = channelId == 0L ? null : event.getGuild().getTextChannelById(channelId);
 
-		this.bot.getMongo().aggregateGuilds(pipeline).whenComplete((documents, aggregateException) -> {
-			if (ExceptionUtility.sendErrorMessage(aggregateException)) {
-				return;
-			}
-
-			if (documents.isEmpty()) {
-				return;
-			}
-
-			Document data = documents.get(0);
-			Document starboard = data.get("starboard", MongoDatabase.EMPTY_DOCUMENT);
-			if (!starboard.get("enabled", false)) {
-				return;
-			}
-
-			long channelId = starboard.get("channelId", 0L);
-
-			TextChannel channel = channelId == 0L ? null : event.getGuild().getTextChannelById(channelId);
-			if (channel == null) {
-				return;
-			}
+		ReactionEmote emote = event.getReactionEmote();
+		if (!this.isStarboardReaction(starboard, channel, emote)) {
+			return;
+		}
 
-			ReactionEmote emote = event.getReactionEmote();
-			boolean emoji = emote.isEmoji();
+		boolean premium = Clock.systemUTC().instant().getEpochSecond() < data.getEmbedded(List.of("premium", "endAt"), 0L);
 
-			Document emoteData = starboard.get("emote", new Document("name", "⭐"));
-			if ((emoji && !emote.getEmoji().equals(emoteData.getString("name"))) || (!emoji && (!emoteData.containsKey("id") || emoteData.getLong("id") != emote.getIdLong()))) {
+		Bson filter = Filters.or(Filters.eq("originalMessageId", event.getMessageIdLong()), Filters.eq("messageId", event.getMessageIdLong()));
+		this.bot.getMongo().findStarboard(filter, Projections.include("originalMessageId")).whenComplete((starboardData, findException) -> {
+			if (ExceptionUtility.sendErrorMessage(findException)) {
 				return;
 			}
 
-			Long originalMessageId = data.getLong("messageId");
+			Long originalMessageId = starboardData == null ? null : starboardData.getLong("originalMessageId");
 			long messageId = originalMessageId == null ? event.getMessageIdLong() : originalMessageId;
 
 			event.retrieveMessage().queue(message -> {
@@ -179,7 +170,6 @@ public class StarboardHandler implements EventListener {
 
 				this.bot.getMongo().insertStar(star).thenCompose(result -> {
 					Bson update = Updates.combine(
-						Updates.inc("count", 1),
 						Updates.setOnInsert("originalMessageId", messageId),
 						Updates.setOnInsert("guildId", event.getGuild().getIdLong()),
 						Updates.setOnInsert("channelId", event.getChannel().getIdLong()),
@@ -191,10 +181,14 @@ public class StarboardHandler implements EventListener {
 						update = Updates.combine(update, Updates.set("image", image));
 					}
 
-					FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER).upsert(true);
-					return this.bot.getMongo().findAndUpdateStarboard(Filters.eq("originalMessageId", messageId), update, options);
+					return this.bot.getStarboardManager().incrementStars(messageId, update);
 				}).thenCompose(updatedData -> {
-					WebhookMessage webhookMessage = this.getStarboardMessage(starboard, updatedData, event.getGuild(), event.getMember(), emote, data.getBoolean("premium"));
+					// Another reaction in the same batch handles the message
+					if (updatedData == null) {
+						return CompletableFuture.completedFuture(null);
+					}
+
+					WebhookMessage webhookMessage = this.getStarboardMessage(starboard, updatedData, event.getGuild(), event.getMember(), emote, premium);
 					if (webhookMessage == null) {
 						return CompletableFuture.completedFuture(null);
 					}
@@ -234,49 +228,30 @@ public class StarboardHandler implements EventListener {
 			return;
 		}
 
-		List<Bson> starboardPipeline = List.of(
-			Aggregates.match(Filters.or(Filters.eq("originalMessageId", event.getMessageIdLong()), Filters.eq("messageId", event.getMessageIdLong()))),
-			Aggregates.project(Projections.include("originalMessageId", "messageId", "count"))
-		);
-
-		List<Bson> pipeline = List.of(
-			Aggregates.match(Filters.eq("_id", event.getGuild().getIdLong())),
-			Aggregates.project(Projections.fields(Projections.include("starboard"), Projections.computed("premium", Operators.lt(Operators.nowEpochSecond(), Operators.ifNull("$premium.endAt", 0L))))),
-			Aggregates.unionWith("starboards", starboardPipeline),
-			Aggregates.group(null, Accumulators.max("count", "$count"), Accumulators.max("messageId", "$messageId"), Accumulators.max("originalMessageId", "$originalMessageId"), Accumulators.max("starboard", "$starboard"), Accumulators.max("premium", "$premium"))
-		);
-
-		this.bot.getMongo().aggregateGuilds(pipeline).whenComplete((documents, aggregateException) -> {
-			if (ExceptionUtility.sendErrorMessage(aggregateException)) {
-				return;
-			}
+		Document data = this.bot.getMongo().getGuildById(event.getGuild().getIdLong(), Projections.include("starboard", "premium.endAt"));
+		Document starboard = data.get("starboard", MongoDatabase.EMPTY_DOCUMENT);
 
-			if (documents.isEmpty()) {
-				return;
-			}
+		long channelId = starboard.get("channelId", 0L);
+		TextChannel channel = channelId == 0L ? null : event.getGuild().getTextChannelById(channelId);
 
-			Document data = documents.get(0);
-			Document starboard = data.get("starboard", MongoDatabase.EMPTY_DOCUMENT);
-			if (!starboard.get("enabled", false)) {
-				return;
-			}
+		ReactionEmote emote = event.getReactionEmote();
+		if (!this.isStarboardReaction(starboard, channel, emote)) {
+			return;
+		}
 
-			long channelId = starboard.get("channelId", 0L);
+		boolean premium = Clock.systemUTC().instant().getEpochSecond() < data.getEmbedded(List.of("premium", "endAt"), 0L);
 
-			TextChannel channel = channelId == 0L ? null : event.getGuild().getTextChannelById(channelId);
-			if (channel == null) {
+		Bson filter = Filters.or(Filters.eq("originalMessageId", event.getMessageIdLong()), Filters.eq("messageId", event.getMessageIdLong()));
+		this.bot.getMongo().findStarboard(filter, Projections.include("originalMessageId", "messageId")).whenComplete((starboardData, findException) -> {
+			if (ExceptionUtility.sendErrorMessage(findException)) {
 				return;
 			}
 
-			ReactionEmote emote = event.getReactionEmote();
-			boolean emoji = emote.isEmoji();
-
-			Document emoteData = starboard.get("emote", new Document("name", "⭐"));
-			if ((emoji && !emote.getEmoji().equals(emoteData.getString("name"))) || (!emoji && (!emoteData.containsKey("id") || emoteData.getLong("id") != emote.getIdLong()))) {
+			if (starboardData == null) {
 				return;
 			}
 
-			Long originalMessageId = data.getLong("originalMessageId");
+			Long originalMessageId = starboardData.getLong("originalMessageId");
 			if (originalMessageId == null) {
 				return;
 			}
@@ -301,15 +276,15 @@ public class StarboardHandler implements EventListener {
 					return;
 				}
 
-				if (!data.containsKey("messageId")) {
+				if (!starboardData.containsKey("messageId")) {
 					return;
 				}
 
-				WebhookMessage webhookMessage = this.getStarboardMessage(starboard, updatedData, event.getGuild(), event.getMember(), emote, data.getBoolean("premium"));
+				WebhookMessage webhookMessage = this.getStarboardMessage(starboard, updatedData, event.getGuild(), event.getMember(), emote, premium);
 				if (webhookMessage == null) {
-					this.bot.getStarboardManager().deleteStarboard(data.getLong("messageId"), channel.getIdLong(), starboard.get("webhook", MongoDatabase.EMPTY_DOCUMENT));
+					this.bot.getStarboardManager().deleteStarboard(starboardData.getLong("messageId"), channel.getIdLong(), starboard.get("webhook", MongoDatabase.EMPTY_DOCUMENT));
 				} else {
-					this.bot.getStarboardManager().editStarboard(data.getLong("messageId"), channel.getIdLong(), starboard.get("webhook", MongoDatabase.EMPTY_DOCUMENT), webhookMessage);
+					this.bot.getStarboardManager().editStarboard(starboardData.getLong("messageId"), channel.getIdLong(), starboard.get("webhook", MongoDatabase.EMPTY_DOCUMENT), webhookMessage);
 				}
 			});
 		});
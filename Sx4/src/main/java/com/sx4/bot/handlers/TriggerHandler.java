@@ -2,8 +2,9 @@ package com.sx4.bot.handlers;
 
 import com.mongodb.client.model.*;
 import com.sx4.bot.core.Sx4;
-import com.sx4.bot.database.mongo.MongoDatabase;
+import com.sx4.bot.entities.management.TriggerIndex;
 import com.sx4.bot.formatter.JsonFormatter;
+import com.sx4.bot.utility.ExceptionUtility;
 import com.sx4.bot.utility.MessageUtility;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Message;
@@ -20,6 +21,7 @@ import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 public class TriggerHandler implements EventListener {
 
@@ -39,14 +41,27 @@ public class TriggerHandler implements EventListener {
 			return;
 		}
 
-		List<WriteModel<Document>> bulkData = new ArrayList<>();
-		this.bot.getMongo().getTriggers(Filters.eq("guildId", message.getGuild().getIdLong()), Projections.include("trigger", "response", "case", "enabled")).forEach(trigger -> {
-			if (!trigger.get("enabled", true)) {
+		long guildId = message.getGuild().getIdLong();
+
+		CompletableFuture<TriggerIndex> future = this.bot.getTriggerManager().retrieveTriggers(guildId);
+
+		TriggerIndex cachedIndex = future.getNow(null);
+		if (cachedIndex != null && cachedIndex.isEmpty()) {
+			return;
+		}
+
+		future.whenComplete((index, exception) -> {
+			if (ExceptionUtility.sendErrorMessage(exception)) {
+				return;
+			}
+
+			List<Document> triggers = index.getTriggers(message.getContentRaw());
+			if (triggers.isEmpty()) {
 				return;
 			}
 
-			boolean equals = trigger.get("case", false) ? message.getContentRaw().equals(trigger.getString("trigger")) : message.getContentRaw().equalsIgnoreCase(trigger.getString("trigger"));
-			if (equals) {
+			List<WriteModel<Document>> bulkData = new ArrayList<>();
+			for (Document trigger : triggers) {
 				Document response = new JsonFormatter(trigger.get("response", Document.class))
 					.member(message.getMember())
 					.user(message.getAuthor())
@@ -62,11 +77,17 @@ public class TriggerHandler implements EventListener {
 					bulkData.add(new UpdateOneModel<>(Filters.eq("_id", trigger.getObjectId("_id")), Updates.set("enabled", false)));
 				}
 			}
-		});
 
-		if (!bulkData.isEmpty()) {
-			this.bot.getMongo().bulkWriteTriggers(bulkData).whenComplete(MongoDatabase.exceptionally(this.bot.getShardManager()));
-		}
+			if (!bulkData.isEmpty()) {
+				this.bot.getTriggerManager().invalidateTriggers(guildId);
+
+				this.bot.getMongo().bulkWriteTriggers(bulkData).whenComplete((result, databaseException) -> {
+					this.bot.getTriggerManager().invalidateTriggers(guildId);
+
+					ExceptionUtility.sendErrorMessage(databaseException);
+				});
+			}
+		});
 	}
 
 	@Override
@@ -0,0 +1,11 @@
+package com.sx4.bot.hooks;
+
+import java.util.EventListener;
+
+public interface UserWriteListener extends EventListener {
+
+	default void onUserWrite(long userId) {}
+
+	default void onUnknownUserWrite() {}
+
+}
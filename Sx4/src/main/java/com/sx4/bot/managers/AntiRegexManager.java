@@ -1,9 +1,18 @@
 package com.sx4.bot.managers;
 
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.sx4.bot.core.Sx4;
+import com.sx4.bot.entities.mod.auto.CompiledRegex;
+import com.sx4.bot.handlers.AntiRegexHandler;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public class AntiRegexManager {
 
@@ -19,11 +28,56 @@ public class AntiRegexManager {
     public static final String DEFAULT_INVITE_MOD_MESSAGE = "**{user.tag}** has received a {regex.action.name} for sending a discord invite "
         + "{regex.attempts.max} time{regex.attempts.max.equals(1).then().else(s)} <:done:852905002829217793>";
 
+    public static final int MAX_CACHED_GUILDS = 50_000;
+
+    private final Pattern invitePattern = Pattern.compile(AntiRegexHandler.INVITE_REGEX, Pattern.CASE_INSENSITIVE);
+
     // TODO: Would also be nice for a way to combine attempts across multiple anti regexes
     private final Map<ObjectId, Map<Long, Integer>> attempts;
 
-    public AntiRegexManager() {
+    private final Map<Long, CompletableFuture<List<CompiledRegex>>> regexes;
+
+    private final Sx4 bot;
+
+    public AntiRegexManager(Sx4 bot) {
         this.attempts = new HashMap<>();
+        this.regexes = new LinkedHashMap<>(16, 0.75F, true) {
+            protected boolean removeEldestEntry(Map.Entry<Long, CompletableFuture<List<CompiledRegex>>> eldest) {
+                return this.size() > AntiRegexManager.MAX_CACHED_GUILDS;
+            }
+        };
+
+        this.bot = bot;
+    }
+
+    public CompletableFuture<List<CompiledRegex>> retrieveRegexes(long guildId) {
+        synchronized (this.regexes) {
+            CompletableFuture<List<CompiledRegex>> future = this.regexes.get(guildId);
+            if (future != null && !future.isCompletedExceptionally()) {
+                return future;
+            }
+
+            List<Bson> pipeline = List.of(
+                Aggregates.match(Filters.and(Filters.eq("guildId", guildId), Filters.exists("enabled", false))),
+                Aggregates.sort(Sorts.ascending("_id"))
+            );
+
+            future = this.bot.getMongo().aggregateRegexes(pipeline).thenApply(documents -> {
+                return documents.stream()
+                    .map(data -> new CompiledRegex(data, this.invitePattern))
+                    .collect(Collectors.toUnmodifiableList());
+            });
+
+            this.regexes.put(guildId, future);
+
+            return future;
+        }
+    }
+
+    public void invalidateRegexes(long guildId) {
+        synchronized (this.regexes) {
+            this.regexes.remove(guildId);
+        }
     }
 
     public synchronized int getAttempts(ObjectId id, long userId) {
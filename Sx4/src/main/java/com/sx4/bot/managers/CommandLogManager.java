@@ -0,0 +1,144 @@
+package com.sx4.bot.managers;
+
+import com.sx4.bot.config.Config;
+import com.sx4.bot.core.Sx4;
+import com.sx4.bot.utility.ExceptionUtility;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CommandLogManager {
+
+	private final Queue<Document> buffer = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger size = new AtomicInteger(0);
+	private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+
+	private final AtomicLong dropped = new AtomicLong(0L);
+	private final AtomicLong flushes = new AtomicLong(0L);
+	private final AtomicLong lastFlushLatency = new AtomicLong(0L);
+	private final AtomicLong totalFlushLatency = new AtomicLong(0L);
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+	private final int batchSize;
+	private final int maxBufferSize;
+
+	private final Sx4 bot;
+
+	public CommandLogManager(Sx4 bot) {
+		Config config = bot.getConfig();
+
+		this.bot = bot;
+		this.batchSize = config.getCommandLogBatchSize();
+		this.maxBufferSize = config.getCommandLogBufferSize();
+
+		long interval = config.getCommandLogInterval();
+		this.executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	public void log(Document data) {
+		if (this.size.incrementAndGet() > this.maxBufferSize) {
+			this.size.decrementAndGet();
+			this.dropped.incrementAndGet();
+
+			return;
+		}
+
+		this.buffer.add(data);
+
+		// Once closed nothing else will flush the buffer so the entry is written straight away
+		if (this.executor.isShutdown()) {
+			this.flush();
+			return;
+		}
+
+		if (this.size.get() >= this.batchSize && this.flushRequested.compareAndSet(false, true)) {
+			try {
+				this.executor.execute(this::flush);
+			} catch (RejectedExecutionException e) {
+				this.flush();
+			}
+		}
+	}
+
+	private void flush() {
+		this.flushRequested.set(false);
+
+		try {
+			while (true) {
+				List<Document> batch = new ArrayList<>(Math.min(this.size.get(), this.batchSize));
+
+				Document data;
+				while (batch.size() < this.batchSize && (data = this.buffer.poll()) != null) {
+					batch.add(data);
+				}
+
+				if (batch.isEmpty()) {
+					return;
+				}
+
+				this.size.addAndGet(-batch.size());
+
+				long start = System.nanoTime();
+				try {
+					this.bot.getMongo().insertManyCommands(batch).join();
+				} catch (CompletionException e) {
+					ExceptionUtility.sendErrorMessage(e.getCause());
+				}
+
+				long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+				this.lastFlushLatency.set(latency);
+				this.totalFlushLatency.addAndGet(latency);
+				this.flushes.incrementAndGet();
+
+				if (batch.size() < this.batchSize) {
+					return;
+				}
+			}
+		} catch (Throwable exception) {
+			// Keep the scheduled flush alive if anything unexpected happens
+			ExceptionUtility.sendErrorMessage(exception);
+		}
+	}
+
+	public void close() {
+		this.executor.shutdown();
+
+		try {
+			this.executor.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		this.flush();
+	}
+
+	public int getBufferSize() {
+		return this.size.get();
+	}
+
+	public long getDropped() {
+		return this.dropped.get();
+	}
+
+	public long getFlushes() {
+		return this.flushes.get();
+	}
+
+	public long getLastFlushLatency() {
+		return this.lastFlushLatency.get();
+	}
+
+	public double getAverageFlushLatency() {
+		long flushes = this.flushes.get();
+		return flushes == 0 ? 0D : (double) this.totalFlushLatency.get() / flushes;
+	}
+
+}
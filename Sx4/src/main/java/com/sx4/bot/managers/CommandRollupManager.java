@@ -0,0 +1,242 @@
+package com.sx4.bot.managers;
+
+import com.mongodb.client.model.*;
+import com.sx4.bot.config.Config;
+import com.sx4.bot.core.Sx4;
+import com.sx4.bot.utility.ExceptionUtility;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.time.Clock;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CommandRollupManager {
+
+	public static final long HOUR = TimeUnit.HOURS.toSeconds(1);
+	public static final long DAY = TimeUnit.DAYS.toSeconds(1);
+
+	// Hours are only compacted once any buffered command logs for them have been written
+	public static final long GRACE = TimeUnit.MINUTES.toSeconds(5);
+
+	private static final Bson WATERMARK_FILTER = Filters.eq("_id", "watermark");
+	private static final int BATCH_SIZE = 1000;
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+	// Everything before this epoch second has been compacted, -1 until it has been loaded
+	private final AtomicLong watermark = new AtomicLong(-1L);
+
+	private final int backfill;
+
+	private final Sx4 bot;
+
+	public CommandRollupManager(Sx4 bot) {
+		Config config = bot.getConfig();
+
+		this.bot = bot;
+		this.backfill = config.getCommandLogRollupBackfill();
+
+		long interval = config.getCommandLogRollupInterval();
+		this.executor.scheduleWithFixedDelay(this::compact, 0, interval, TimeUnit.SECONDS);
+	}
+
+	public long getWatermark() {
+		return this.watermark.get();
+	}
+
+	private long loadWatermark() {
+		Document data = this.bot.getMongo().findCommandRollup(CommandRollupManager.WATERMARK_FILTER).join();
+		if (data != null) {
+			return data.getLong("time");
+		}
+
+		// Nothing has been compacted yet, start from the first hour with a command in it
+		Document first = this.bot.getMongo().getCommands(Filters.empty())
+			.thenApply(iterable -> iterable.sort(Sorts.ascending("_id")).limit(1).projection(Projections.include("_id")).first())
+			.join();
+
+		long time = first == null ? Clock.systemUTC().instant().getEpochSecond() : first.getObjectId("_id").getTimestamp();
+
+		return CommandRollupManager.floor(time, CommandRollupManager.HOUR);
+	}
+
+	private void compact() {
+		try {
+			long watermark = this.watermark.get();
+			if (watermark == -1L) {
+				watermark = this.loadWatermark();
+				this.watermark.set(watermark);
+			}
+
+			long now = Clock.systemUTC().instant().getEpochSecond();
+			for (int i = 0; i < this.backfill && watermark + CommandRollupManager.HOUR + CommandRollupManager.GRACE <= now; i++) {
+				this.compactHour(watermark);
+
+				watermark += CommandRollupManager.HOUR;
+				if (watermark % CommandRollupManager.DAY == 0) {
+					this.compactDay(watermark - CommandRollupManager.DAY);
+				}
+
+				this.bot.getMongo().updateCommandRollup(CommandRollupManager.WATERMARK_FILTER, Updates.set("time", watermark), new UpdateOptions().upsert(true)).join();
+				this.watermark.set(watermark);
+			}
+		} catch (Throwable exception) {
+			// Keep the scheduled compaction alive, the same hour is retried on the next run
+			ExceptionUtility.sendErrorMessage(exception);
+		}
+	}
+
+	private void compactHour(long start) {
+		List<Bson> pipeline = List.of(
+			Aggregates.match(Filters.and(Filters.gte("_id", CommandRollupManager.toObjectId(start)), Filters.lt("_id", CommandRollupManager.toObjectId(start + CommandRollupManager.HOUR)))),
+			Aggregates.group(CommandRollupManager.getRollupKey(), Accumulators.sum("count", 1L))
+		);
+
+		this.write("hour", start, this.bot.getMongo().aggregateCommands(pipeline).join());
+	}
+
+	private void compactDay(long start) {
+		List<Bson> pipeline = List.of(
+			Aggregates.match(Filters.and(Filters.eq("period", "hour"), Filters.gte("time", start), Filters.lt("time", start + CommandRollupManager.DAY))),
+			Aggregates.group(CommandRollupManager.getRollupKey(), Accumulators.sum("count", "$count"))
+		);
+
+		this.write("day", start, this.bot.getMongo().aggregateCommandRollups(pipeline).join());
+	}
+
+	private void write(String period, long time, List<Document> groups) {
+		List<WriteModel<Document>> bulkData = new ArrayList<>();
+		for (Document group : groups) {
+			Document key = group.get("_id", Document.class);
+
+			// Counts are set rather than incremented so a period which failed part way can be compacted again
+			Bson filter = Filters.and(
+				Filters.eq("period", period),
+				Filters.eq("time", time),
+				Filters.eq("command.id", key.get("commandId")),
+				Filters.eq("command.name", key.get("commandName")),
+				Filters.eq("guildId", key.get("guildId")),
+				Filters.eq("channelId", key.get("channelId")),
+				Filters.eq("authorId", key.get("authorId"))
+			);
+
+			bulkData.add(new UpdateOneModel<>(filter, Updates.set("count", group.getLong("count")), new UpdateOptions().upsert(true)));
+			if (bulkData.size() == CommandRollupManager.BATCH_SIZE) {
+				this.bot.getMongo().bulkWriteCommandRollups(bulkData).join();
+				bulkData = new ArrayList<>();
+			}
+		}
+
+		if (!bulkData.isEmpty()) {
+			this.bot.getMongo().bulkWriteCommandRollups(bulkData).join();
+		}
+	}
+
+	public CompletableFuture<List<Document>> aggregate(List<Bson> filters, String field, long from, long to) {
+		long start = from, end = to == 0L ? Long.MAX_VALUE : to;
+		long watermark = Math.max(this.watermark.get(), 0L);
+
+		// Only whole hours which have already been compacted are read from the rollups, the edges of the range come from the raw commands
+		long rollupStart = CommandRollupManager.ceil(start, CommandRollupManager.HOUR), rollupEnd = Math.min(CommandRollupManager.floor(end, CommandRollupManager.HOUR), watermark);
+
+		List<Bson> rawFilters = new ArrayList<>(filters);
+		if (from != 0L) {
+			rawFilters.add(Filters.gte("_id", CommandRollupManager.toObjectId(from)));
+		}
+
+		if (to != 0L) {
+			rawFilters.add(Filters.lt("_id", CommandRollupManager.toObjectId(to + 1)));
+		}
+
+		if (rollupStart >= rollupEnd) {
+			return this.bot.getMongo().aggregateCommands(CommandRollupManager.getPipeline(rawFilters, field, 1L)).thenApply(CommandRollupManager::sort);
+		}
+
+		rawFilters.add(Filters.or(Filters.lt("_id", CommandRollupManager.toObjectId(rollupStart)), Filters.gte("_id", CommandRollupManager.toObjectId(rollupEnd))));
+
+		long dayStart = CommandRollupManager.ceil(rollupStart, CommandRollupManager.DAY), dayEnd = CommandRollupManager.floor(rollupEnd, CommandRollupManager.DAY);
+
+		Bson periodFilter;
+		if (dayStart >= dayEnd) {
+			periodFilter = CommandRollupManager.getPeriodFilter("hour", rollupStart, rollupEnd);
+		} else {
+			periodFilter = Filters.or(
+				CommandRollupManager.getPeriodFilter("day", dayStart, dayEnd),
+				CommandRollupManager.getPeriodFilter("hour", rollupStart, dayStart),
+				CommandRollupManager.getPeriodFilter("hour", dayEnd, rollupEnd)
+			);
+		}
+
+		List<Bson> rollupFilters = new ArrayList<>(filters);
+		rollupFilters.add(periodFilter);
+
+		CompletableFuture<List<Document>> raw = this.bot.getMongo().aggregateCommands(CommandRollupManager.getPipeline(rawFilters, field, 1L));
+		CompletableFuture<List<Document>> rollups = this.bot.getMongo().aggregateCommandRollups(CommandRollupManager.getPipeline(rollupFilters, field, "$count"));
+
+		return raw.thenCombine(rollups, (rawGroups, rollupGroups) -> {
+			Map<Object, Long> counts = new HashMap<>();
+			for (Document group : rawGroups) {
+				counts.merge(group.get("_id"), group.getLong("count"), Long::sum);
+			}
+
+			for (Document group : rollupGroups) {
+				counts.merge(group.get("_id"), group.getLong("count"), Long::sum);
+			}
+
+			List<Document> groups = new ArrayList<>(counts.size());
+			for (Map.Entry<Object, Long> entry : counts.entrySet()) {
+				groups.add(new Document("_id", entry.getKey()).append("count", entry.getValue()));
+			}
+
+			return CommandRollupManager.sort(groups);
+		});
+	}
+
+	public CompletableFuture<Long> count(List<Bson> filters, long from, long to) {
+		return this.aggregate(filters, null, from, to).thenApply(groups -> groups.stream().mapToLong(group -> group.getLong("count")).sum());
+	}
+
+	private static List<Bson> getPipeline(List<Bson> filters, String field, Object count) {
+		return List.of(
+			Aggregates.match(filters.isEmpty() ? Filters.empty() : Filters.and(filters)),
+			Aggregates.group(field == null ? null : "$" + field, Accumulators.sum("count", count))
+		);
+	}
+
+	private static Bson getPeriodFilter(String period, long start, long end) {
+		return Filters.and(Filters.eq("period", period), Filters.gte("time", start), Filters.lt("time", end));
+	}
+
+	private static Document getRollupKey() {
+		return new Document("commandId", "$command.id")
+			.append("commandName", "$command.name")
+			.append("guildId", "$guildId")
+			.append("channelId", "$channelId")
+			.append("authorId", "$authorId");
+	}
+
+	private static List<Document> sort(List<Document> groups) {
+		groups.sort(Comparator.comparingLong((Document group) -> group.getLong("count")).reversed());
+		return groups;
+	}
+
+	private static ObjectId toObjectId(long epochSecond) {
+		// The smallest id of a second so every boundary compares the same way regardless of where it's used
+		return ObjectId.getSmallestWithDate(new Date(TimeUnit.SECONDS.toMillis(epochSecond)));
+	}
+
+	private static long floor(long time, long unit) {
+		return Math.floorDiv(time, unit) * unit;
+	}
+
+	private static long ceil(long time, long unit) {
+		return -Math.floorDiv(-time, unit) * unit;
+	}
+
+}
@@ -1,18 +1,23 @@
 package com.sx4.bot.managers;
 
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
 import com.mongodb.client.model.UpdateOneModel;
 import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
 import com.sx4.bot.core.Sx4;
 import com.sx4.bot.database.mongo.MongoDatabase;
+import com.sx4.bot.entities.management.GiveawayEntrants;
+import com.sx4.bot.entities.utility.TimingWheel;
+import com.sx4.bot.utility.ExceptionUtility;
 import com.sx4.bot.utility.FutureUtility;
-import com.sx4.bot.utility.MathUtility;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Message.MentionType;
-import net.dv8tion.jda.api.entities.MessageReaction;
 import net.dv8tion.jda.api.entities.TextChannel;
 import org.bson.Document;
 import org.bson.conversions.Bson;
@@ -20,47 +25,38 @@ import org.bson.conversions.Bson;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class GiveawayManager {
 	
-	private final Map<Long, ScheduledFuture<?>> executors;
-	
-	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+	private final TimingWheel<Long, Document> wheel;
+
+	// Entrants of every giveaway which hasn't ended, kept up to date from reactions
+	private final Map<Long, GiveawayEntrants> entrants = new ConcurrentHashMap<>();
 
 	private final Sx4 bot;
 	
 	public GiveawayManager(Sx4 bot) {
-		this.executors = new HashMap<>();
 		this.bot = bot;
+		this.wheel = new TimingWheel<>(bot.getConfig().getExpiryWindow(), this::handleGiveaways, this::loadGiveaways);
+
+		long interval = bot.getConfig().getGiveawayFlushInterval();
+		bot.getScheduledExecutor().scheduleWithFixedDelay(() -> ExceptionUtility.safeRun(this::flushEntrants), interval, interval, TimeUnit.SECONDS);
 	}
 	
-	public ScheduledExecutorService getExecutor() {
-		return this.executor;
-	}
-	
-	public ScheduledFuture<?> getExecutor(long messageId) {
-		return this.executors.get(messageId);
+	public TimingWheel<Long, Document> getWheel() {
+		return this.wheel;
 	}
 	
 	public void deleteExecutor(long messageId) {
-		ScheduledFuture<?> executor = this.executors.remove(messageId);
-		if (executor != null && !executor.isDone()) {
-			executor.cancel(true);
-		}
-	}
-	
-	public void putExecutor(long messageId, ScheduledFuture<?> executor) {
-		ScheduledFuture<?> oldExecutor = this.executors.remove(messageId);
-		if (oldExecutor != null) {
-			oldExecutor.cancel(true);
-		}
-		
-		this.executors.put(messageId, executor);
+		this.wheel.cancel(messageId);
+		this.entrants.remove(messageId);
 	}
 	
 	public void putGiveaway(Document data, long seconds) {
-		this.putExecutor(data.getLong("messageId"), this.executor.schedule(() -> this.endGiveaway(data), seconds, TimeUnit.SECONDS));
+		this.wheel.schedule(data.getLong("messageId"), data, Clock.systemUTC().instant().getEpochSecond() + seconds);
 	}
 	
 	public void endGiveaway(Document data) {
@@ -98,95 +94,162 @@ public class GiveawayManager {
 			return CompletableFuture.completedFuture(null);
 		}
 		
-		CompletableFuture<UpdateOneModel<Document>> future = new CompletableFuture<>();
-		
-		channel.retrieveMessageById(messageId).queue(message -> {
-			MessageReaction reaction = message.getReactions().stream()
-				.filter(r -> r.getReactionEmote().getName().equals("🎉"))
-				.findFirst()
-				.orElse(null);
-			
-			if (reaction == null) {
-				future.complete(null);
-				return;
+		GiveawayEntrants tracked = this.entrants.get(messageId);
+
+		CompletableFuture<GiveawayEntrants> future;
+		if (tracked != null) {
+			future = tracked.getReconciled().thenApply($ -> tracked);
+		} else if (data.containsKey("entrants")) {
+			future = CompletableFuture.completedFuture(new GiveawayEntrants(data, false));
+		} else {
+			// Giveaways which ended before entrants were tracked only have their reactions to go off
+			GiveawayEntrants legacy = new GiveawayEntrants(data, true);
+			future = this.retrieveEntrants(channel, messageId).thenApply(reactors -> {
+				legacy.reconcile(reactors);
+				return legacy;
+			}).exceptionally(exception -> null);
+		}
+
+		this.deleteExecutor(messageId);
+
+		return future.thenApply(entrants -> {
+			if (entrants == null) {
+				return null;
 			}
-			
+
 			List<Long> oldWinners = data.getList("winners", Long.class, Collections.emptyList());
-			
-			List<Member> members = new ArrayList<>();
-			reaction.retrieveUsers().forEachAsync(user -> {
-				Member member = guild.getMember(user);
-				if (member != null && member.getIdLong() != guild.getSelfMember().getIdLong() && !oldWinners.contains(member.getIdLong())) {
-					members.add(member);
-				}
-				
-				return true;
-			}).thenRun(() -> {
-				Bson update;
-				if (members.size() == 0) {
-					update = Updates.set("winners", Collections.EMPTY_LIST);
-					
-					future.complete(new UpdateOneModel<>(Filters.eq("messageId", messageId), forced ? Updates.combine(Updates.set("endAt", Clock.systemUTC().instant().getEpochSecond()), update) : update));
-					channel.sendMessage("At least " + (oldWinners.isEmpty() ? "1 person needs" : oldWinners.size() == 1 ? "1 extra person needs" : oldWinners.size() + " extra people need") + " to have entered the giveaway to pick a winner " + this.bot.getConfig().getFailureEmote()).queue();
-					
-					return;
-				}
-				
-				Set<Member> winners = MathUtility.randomSample(members, Math.min(data.getInteger("winnersAmount"), members.size()));
-				
-				List<Long> winnerIds = new ArrayList<>();
-				List<String> winnerTags = new ArrayList<>(), winnerMentions = new ArrayList<>();
-				for (Member winner : winners) {
-					winnerIds.add(winner.getIdLong());
-					winnerTags.add(winner.getUser().getAsTag());
-					winnerMentions.add(winner.getAsMention());
-				}
+			TLongSet oldWinnerIds = new TLongHashSet(oldWinners);
 
-				if (guild.getSelfMember().hasPermission(channel, Permission.MESSAGE_WRITE)) {
-					channel.sendMessage(String.join(", ", winnerMentions) + ", Congratulations you have won the giveaway for **" + data.getString("item") + "**").allowedMentions(EnumSet.of(MentionType.USER)).queue();
-				}
-				
-				EmbedBuilder embed = new EmbedBuilder();
-				embed.setTitle("Giveaway");
-				embed.setDescription("**" + String.join(", ", winnerTags) + "** has won **" + data.getString("item") + "**");
-				embed.setTimestamp(Instant.now());
-				embed.setFooter("Giveaway Ended", null);
-
-				if (guild.getSelfMember().hasPermission(channel, Permission.MESSAGE_WRITE, Permission.MESSAGE_EMBED_LINKS)) {
-					message.editMessageEmbeds(embed.build()).queue();
+			long selfId = guild.getSelfMember().getIdLong();
+			long[] sample = entrants.sample(data.getInteger("winnersAmount"), userId -> userId != selfId && !oldWinnerIds.contains(userId) && guild.getMemberById(userId) != null);
+
+			List<Member> winners = new ArrayList<>(sample.length);
+			for (long userId : sample) {
+				Member member = guild.getMemberById(userId);
+				if (member != null) {
+					winners.add(member);
 				}
-				
-				update = Updates.set("winners", winnerIds);
-				
-				future.complete(new UpdateOneModel<>(Filters.eq("messageId", messageId), forced ? Updates.combine(Updates.set("endAt", Clock.systemUTC().instant().getEpochSecond()), update) : update));
-			});
+			}
+
+			Bson update;
+			if (winners.size() == 0) {
+				update = Updates.combine(Updates.set("winners", Collections.EMPTY_LIST), Updates.set("entrants", entrants.toList()));
+
+				channel.sendMessage("At least " + (oldWinners.isEmpty() ? "1 person needs" : oldWinners.size() == 1 ? "1 extra person needs" : oldWinners.size() + " extra people need") + " to have entered the giveaway to pick a winner " + this.bot.getConfig().getFailureEmote()).queue();
+
+				return new UpdateOneModel<>(Filters.eq("messageId", messageId), forced ? Updates.combine(Updates.set("endAt", Clock.systemUTC().instant().getEpochSecond()), update) : update);
+			}
+
+			List<Long> winnerIds = new ArrayList<>();
+			List<String> winnerTags = new ArrayList<>(), winnerMentions = new ArrayList<>();
+			for (Member winner : winners) {
+				winnerIds.add(winner.getIdLong());
+				winnerTags.add(winner.getUser().getAsTag());
+				winnerMentions.add(winner.getAsMention());
+			}
+
+			if (guild.getSelfMember().hasPermission(channel, Permission.MESSAGE_WRITE)) {
+				channel.sendMessage(String.join(", ", winnerMentions) + ", Congratulations you have won the giveaway for **" + data.getString("item") + "**").allowedMentions(EnumSet.of(MentionType.USER)).queue();
+			}
+
+			EmbedBuilder embed = new EmbedBuilder();
+			embed.setTitle("Giveaway");
+			embed.setDescription("**" + String.join(", ", winnerTags) + "** has won **" + data.getString("item") + "**");
+			embed.setTimestamp(Instant.now());
+			embed.setFooter("Giveaway Ended", null);
+
+			if (guild.getSelfMember().hasPermission(channel, Permission.MESSAGE_WRITE, Permission.MESSAGE_EMBED_LINKS)) {
+				channel.editMessageEmbedsById(messageId, embed.build()).queue();
+			}
+
+			// The entrants are kept so a reroll can draw from them
+			update = Updates.combine(Updates.set("winners", winnerIds), Updates.set("entrants", entrants.toList()));
+
+			return new UpdateOneModel<>(Filters.eq("messageId", messageId), forced ? Updates.combine(Updates.set("endAt", Clock.systemUTC().instant().getEpochSecond()), update) : update);
 		});
-		
-		this.deleteExecutor(messageId);
-		
-		return future;
+	}
+
+	public GiveawayEntrants getEntrants(long messageId) {
+		return this.entrants.get(messageId);
+	}
+
+	public GiveawayEntrants trackGiveaway(Document data, boolean reconcile) {
+		GiveawayEntrants entrants = new GiveawayEntrants(data, reconcile);
+		this.entrants.put(entrants.getMessageId(), entrants);
+
+		if (reconcile) {
+			this.reconcileEntrants(entrants);
+		}
+
+		return entrants;
+	}
+
+	public void deleteGuildEntrants(long guildId) {
+		this.entrants.values().removeIf(entrants -> entrants.getGuildId() == guildId);
+	}
+
+	public CompletableFuture<TLongSet> retrieveEntrants(TextChannel channel, long messageId) {
+		TLongSet entrants = new TLongHashSet();
+
+		return channel.retrieveReactionUsersById(messageId, "🎉").forEachAsync(user -> {
+			entrants.add(user.getIdLong());
+			return true;
+		}).thenApply($ -> entrants);
+	}
+
+	private void reconcileEntrants(GiveawayEntrants entrants) {
+		Guild guild = this.bot.getShardManager().getGuildById(entrants.getGuildId());
+		TextChannel channel = guild == null ? null : guild.getTextChannelById(entrants.getChannelId());
+		if (channel == null || !guild.getSelfMember().hasPermission(channel, Permission.MESSAGE_READ, Permission.MESSAGE_HISTORY)) {
+			entrants.reconcile(null);
+			return;
+		}
+
+		// If the reactions can't be read the stored entrants are the best there is
+		this.retrieveEntrants(channel, entrants.getMessageId()).whenComplete((reactors, exception) -> entrants.reconcile(exception == null ? reactors : null));
+	}
+
+	public void flushEntrants() {
+		List<WriteModel<Document>> bulkData = new ArrayList<>();
+		for (GiveawayEntrants entrants : this.entrants.values()) {
+			entrants.drainUpdates(bulkData);
+		}
+
+		if (!bulkData.isEmpty()) {
+			this.bot.getMongo().bulkWriteGiveaways(bulkData).whenComplete(MongoDatabase.exceptionally(this.bot.getShardManager()));
+		}
 	}
 	
-	public void ensureGiveaways() {
+	private void handleGiveaways(List<TimingWheel.Timeout<Long, Document>> timeouts) {
 		List<CompletableFuture<UpdateOneModel<Document>>> futures = new ArrayList<>();
-		this.bot.getMongo().getGiveaways(Filters.not(Filters.exists("winners"))).forEach(data -> {
-			long endAt = data.getLong("endAt"), timeNow = Clock.systemUTC().instant().getEpochSecond();
-			if (endAt - timeNow > 0) {
-				this.putGiveaway(data, endAt - timeNow);
-			} else {
-				futures.add(this.endGiveawayBulk(data));
+		for (TimingWheel.Timeout<Long, Document> timeout : timeouts) {
+			futures.add(this.endGiveawayBulk(timeout.getValue()));
+		}
+
+		FutureUtility.allOf(futures, Objects::nonNull).thenCompose(bulkData -> {
+			if (!bulkData.isEmpty()) {
+				return this.bot.getMongo().bulkWriteGiveaways(bulkData);
 			}
-		});
 
-		if (!futures.isEmpty()) {
-			FutureUtility.allOf(futures, Objects::nonNull).thenCompose(bulkData -> {
-				if (!bulkData.isEmpty()) {
-					return this.bot.getMongo().bulkWriteGiveaways(bulkData);
-				}
+			return CompletableFuture.completedFuture(null);
+		}).whenComplete(MongoDatabase.exceptionally(this.bot.getShardManager()));
+	}
 
-				return CompletableFuture.completedFuture(null);
-			}).whenComplete(MongoDatabase.exceptionally(this.bot.getShardManager()));
-		}
+	private void loadGiveaways(long from, long to) {
+		Bson filter = Filters.and(Filters.not(Filters.exists("winners")), Filters.gt("endAt", from), Filters.lte("endAt", to));
+		this.bot.getMongo().getGiveaways(filter).projection(Projections.exclude("entrants")).batchSize(this.bot.getConfig().getWarmUpBatchSize()).forEach(data -> {
+			this.wheel.offer(data.getLong("messageId"), data, data.getLong("endAt"));
+		});
+	}
+	
+	public void ensureGiveaways() {
+		// Reactions can change while offline so every running giveaway is checked against its message once
+		Bson filter = Filters.not(Filters.exists("winners"));
+		this.bot.getMongo().getGiveaways(filter).projection(Projections.include("messageId", "channelId", "guildId", "entrants")).batchSize(this.bot.getConfig().getWarmUpBatchSize()).forEach(data -> {
+			this.trackGiveaway(data, true);
+		});
+
+		this.wheel.start(this.bot.getScheduledExecutor());
 	}
 	
 }
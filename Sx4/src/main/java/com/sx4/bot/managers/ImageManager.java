@@ -0,0 +1,369 @@
+package com.sx4.bot.managers;
+
+import com.sx4.bot.config.Config;
+import com.sx4.bot.core.Sx4;
+import com.sx4.bot.entities.image.ImageFilter;
+import com.sx4.bot.entities.image.ImageResult;
+import com.sx4.bot.entities.image.Raster;
+import com.sx4.bot.exceptions.image.ImageException;
+import com.sx4.bot.exceptions.image.ImageSizeException;
+import com.sx4.bot.exceptions.image.UnsupportedImageException;
+import com.sx4.bot.utility.NumberUtility;
+import net.dv8tion.jda.api.entities.Message;
+import okhttp3.*;
+import org.w3c.dom.Node;
+
+import javax.imageio.*;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+public class ImageManager {
+
+	private static final String GIF_IMAGE_FORMAT = "javax_imageio_gif_image_1.0";
+	private static final String GIF_STREAM_FORMAT = "javax_imageio_gif_stream_1.0";
+
+	// Delay in hundredths of a second used for frames which the filter creates
+	public static final int DEFAULT_DELAY = 5;
+
+	private static class GifSequence implements Closeable {
+
+		private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		private final ImageOutputStream stream;
+		private final ImageWriter writer;
+
+		private boolean first = true;
+
+		public GifSequence() throws IOException {
+			this.writer = ImageIO.getImageWritersByFormatName("gif").next();
+			this.stream = ImageIO.createImageOutputStream(this.output);
+
+			this.writer.setOutput(this.stream);
+			this.writer.prepareWriteSequence(null);
+		}
+
+		public void write(Raster raster, int delay) throws IOException {
+			BufferedImage image = raster.getImage();
+
+			ImageWriteParam param = this.writer.getDefaultWriteParam();
+			IIOMetadata metadata = this.writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), param);
+
+			IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(ImageManager.GIF_IMAGE_FORMAT);
+
+			IIOMetadataNode control = ImageManager.getNode(root, "GraphicControlExtension", true);
+			control.setAttribute("disposalMethod", "restoreToBackgroundColor");
+			control.setAttribute("userInputFlag", "FALSE");
+			control.setAttribute("delayTime", Integer.toString(delay));
+
+			if (this.first) {
+				IIOMetadataNode application = new IIOMetadataNode("ApplicationExtension");
+				application.setAttribute("applicationID", "NETSCAPE");
+				application.setAttribute("authenticationCode", "2.0");
+				application.setUserObject(new byte[] {1, 0, 0});
+
+				ImageManager.getNode(root, "ApplicationExtensions", true).appendChild(application);
+
+				this.first = false;
+			}
+
+			metadata.setFromTree(ImageManager.GIF_IMAGE_FORMAT, root);
+
+			this.writer.writeToSequence(new IIOImage(image, null, metadata), param);
+
+			// Stop encoding as soon as the gif could no longer be uploaded
+			this.stream.flush();
+			if (this.output.size() > Message.MAX_FILE_SIZE) {
+				throw new ImageSizeException(-1);
+			}
+		}
+
+		public byte[] finish() throws IOException {
+			this.writer.endWriteSequence();
+			this.stream.flush();
+
+			return this.output.toByteArray();
+		}
+
+		public void close() throws IOException {
+			this.writer.dispose();
+			this.stream.close();
+		}
+
+	}
+
+	private final ForkJoinPool pool;
+	private final OkHttpClient client;
+
+	private final int maxPixels;
+	private final int maxFrames;
+	private final int maxBytes;
+
+	public ImageManager(Sx4 bot) {
+		Config config = bot.getConfig();
+
+		// Decoding happens in memory, the disk cache only slows streams down
+		ImageIO.setUseCache(false);
+
+		this.pool = new ForkJoinPool(config.getImageThreads());
+		this.client = bot.getHttpClient();
+
+		this.maxPixels = config.getImageMaxPixels();
+		this.maxFrames = config.getImageMaxFrames();
+		this.maxBytes = config.getImageMaxBytes();
+	}
+
+	public int getMaxPixels() {
+		return this.maxPixels;
+	}
+
+	public ForkJoinPool getPool() {
+		return this.pool;
+	}
+
+	private CompletableFuture<byte[]> download(String url) {
+		Request request;
+		try {
+			request = new Request.Builder().url(url).build();
+		} catch (IllegalArgumentException e) {
+			return CompletableFuture.failedFuture(new ImageException("That url could not be formed to a valid image"));
+		}
+
+		CompletableFuture<byte[]> future = new CompletableFuture<>();
+		this.client.newCall(request).enqueue(new Callback() {
+			public void onFailure(Call call, IOException e) {
+				future.completeExceptionally(new ImageException("That url could not be formed to a valid image"));
+			}
+
+			public void onResponse(Call call, Response response) {
+				try (response) {
+					if (!response.isSuccessful()) {
+						future.completeExceptionally(new ImageException("That url could not be formed to a valid image"));
+						return;
+					}
+
+					long length = response.body().contentLength();
+					if (length > ImageManager.this.maxBytes) {
+						future.completeExceptionally(ImageManager.this.getSizeException(length));
+						return;
+					}
+
+					// The body is buffered here so the pool never blocks on the socket, chunked responses are limited as they're read
+					ByteArrayOutputStream output = new ByteArrayOutputStream(length == -1 ? 8192 : (int) length);
+					try (InputStream input = response.body().byteStream()) {
+						byte[] buffer = new byte[8192];
+
+						int read;
+						long total = 0;
+						while ((read = input.read(buffer)) != -1) {
+							total += read;
+							if (total > ImageManager.this.maxBytes) {
+								future.completeExceptionally(ImageManager.this.getSizeException(-1));
+								return;
+							}
+
+							output.write(buffer, 0, read);
+						}
+					}
+
+					future.complete(output.toByteArray());
+				} catch (IOException e) {
+					future.completeExceptionally(new ImageException("That url could not be formed to a valid image"));
+				}
+			}
+		});
+
+		return future;
+	}
+
+	private ImageException getSizeException(long length) {
+		// The full size of a chunked body isn't known once it has gone over the limit
+		if (length == -1) {
+			return new ImageException(String.format("Image cannot be larger than %s", NumberUtility.getBytesReadable(this.maxBytes)));
+		}
+
+		return new ImageException(String.format("Image cannot be larger than %s (**%s**)", NumberUtility.getBytesReadable(this.maxBytes), NumberUtility.getBytesReadable(length)));
+	}
+
+	private <Type> CompletableFuture<Type> read(String url, Function<ImageReader, Type> function) {
+		return this.download(url).thenApplyAsync(bytes -> {
+			try (ImageInputStream stream = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+				Iterator<ImageReader> readers = stream == null ? null : ImageIO.getImageReaders(stream);
+				if (readers == null || !readers.hasNext()) {
+					throw new UnsupportedImageException("There is no local reader for this image format");
+				}
+
+				ImageReader reader = readers.next();
+				try {
+					reader.setInput(stream, true, false);
+
+					return function.apply(reader);
+				} finally {
+					reader.dispose();
+				}
+			} catch (IOException e) {
+				throw new CompletionException(new UnsupportedImageException(e.getMessage()));
+			} catch (UncheckedIOException e) {
+				throw new CompletionException(new UnsupportedImageException(e.getCause().getMessage()));
+			}
+		}, this.pool);
+	}
+
+	public CompletableFuture<ImageResult> process(String url, ImageFilter filter) {
+		return this.read(url, reader -> {
+			try {
+				if (reader.getFormatName().equalsIgnoreCase("gif")) {
+					return this.processGif(reader, filter);
+				}
+
+				this.checkSize(reader.getWidth(0), reader.getHeight(0));
+
+				Raster raster = Raster.fromImage(reader.read(0));
+
+				int frames = filter.getFrames();
+				if (frames == 1) {
+					ByteArrayOutputStream output = new ByteArrayOutputStream();
+					ImageIO.write(filter.apply(raster, 0).getImage(), "png", output);
+
+					return new ImageResult(output.toByteArray(), "png");
+				}
+
+				try (GifSequence sequence = new GifSequence()) {
+					for (int i = 0; i < frames; i++) {
+						sequence.write(filter.apply(raster, i), ImageManager.DEFAULT_DELAY);
+					}
+
+					return new ImageResult(sequence.finish(), "gif");
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	public <Type> CompletableFuture<Type> analyse(String url, Function<Raster, Type> function) {
+		return this.read(url, reader -> {
+			try {
+				this.checkSize(reader.getWidth(0), reader.getHeight(0));
+
+				return function.apply(Raster.fromImage(reader.read(0)));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	private ImageResult processGif(ImageReader reader, ImageFilter filter) throws IOException {
+		int width = reader.getWidth(0), height = reader.getHeight(0);
+
+		IIOMetadata streamMetadata = reader.getStreamMetadata();
+		if (streamMetadata != null) {
+			IIOMetadataNode screen = ImageManager.getNode((IIOMetadataNode) streamMetadata.getAsTree(ImageManager.GIF_STREAM_FORMAT), "LogicalScreenDescriptor", false);
+			if (screen != null) {
+				width = Math.max(width, Integer.parseInt(screen.getAttribute("logicalScreenWidth")));
+				height = Math.max(height, Integer.parseInt(screen.getAttribute("logicalScreenHeight")));
+			}
+		}
+
+		this.checkSize(width, height);
+
+		// Frames are composited onto the canvas one at a time so only a single decoded frame is held at once
+		Raster canvas = new Raster(width, height), last = null;
+		Graphics2D graphics = canvas.getImage().createGraphics();
+
+		try (GifSequence sequence = new GifSequence()) {
+			int frame = 0;
+			while (true) {
+				BufferedImage image;
+				try {
+					image = reader.read(frame);
+				} catch (IndexOutOfBoundsException e) {
+					break;
+				}
+
+				if (frame == this.maxFrames) {
+					throw new ImageException(String.format("Gifs cannot have more than %,d frames", this.maxFrames));
+				}
+
+				IIOMetadataNode root = (IIOMetadataNode) reader.getImageMetadata(frame).getAsTree(ImageManager.GIF_IMAGE_FORMAT);
+
+				IIOMetadataNode descriptor = ImageManager.getNode(root, "ImageDescriptor", false);
+				int left = descriptor == null ? 0 : Integer.parseInt(descriptor.getAttribute("imageLeftPosition"));
+				int top = descriptor == null ? 0 : Integer.parseInt(descriptor.getAttribute("imageTopPosition"));
+
+				IIOMetadataNode control = ImageManager.getNode(root, "GraphicControlExtension", false);
+				String disposal = control == null ? "none" : control.getAttribute("disposalMethod");
+				int delay = control == null ? ImageManager.DEFAULT_DELAY : Integer.parseInt(control.getAttribute("delayTime"));
+
+				int[] previous = disposal.equals("restoreToPrevious") ? canvas.getPixels().clone() : null;
+
+				graphics.drawImage(image, left, top, null);
+
+				last = canvas.copy();
+				sequence.write(filter.apply(last, frame), delay);
+
+				if (disposal.equals("restoreToBackgroundColor")) {
+					graphics.setComposite(AlphaComposite.Clear);
+					graphics.fillRect(left, top, image.getWidth(), image.getHeight());
+					graphics.setComposite(AlphaComposite.SrcOver);
+				} else if (previous != null) {
+					System.arraycopy(previous, 0, canvas.getPixels(), 0, previous.length);
+				}
+
+				frame++;
+			}
+
+			if (last == null) {
+				throw new UnsupportedImageException("The gif has no frames");
+			}
+
+			// A single frame gif is treated like a still image for filters which animate it
+			if (frame == 1) {
+				for (int i = 1; i < filter.getFrames(); i++) {
+					sequence.write(filter.apply(last, i), ImageManager.DEFAULT_DELAY);
+				}
+			}
+
+			return new ImageResult(sequence.finish(), "gif");
+		} finally {
+			graphics.dispose();
+		}
+	}
+
+	private void checkSize(int width, int height) {
+		if ((long) width * height > this.maxPixels) {
+			throw new ImageException(String.format("Images cannot be more than %,d pixels (**%,d**)", this.maxPixels, (long) width * height));
+		}
+	}
+
+	private static IIOMetadataNode getNode(IIOMetadataNode root, String name, boolean create) {
+		for (Node node = root.getFirstChild(); node != null; node = node.getNextSibling()) {
+			if (node.getNodeName().equalsIgnoreCase(name)) {
+				return (IIOMetadataNode) node;
+			}
+		}
+
+		if (!create) {
+			return null;
+		}
+
+		IIOMetadataNode node = new IIOMetadataNode(name);
+		root.appendChild(node);
+
+		return node;
+	}
+
+}
@@ -0,0 +1,458 @@
+package com.sx4.bot.managers;
+
+import com.mongodb.client.model.*;
+import com.sx4.bot.config.Config;
+import com.sx4.bot.core.Sx4;
+import com.sx4.bot.database.mongo.model.Operators;
+import com.sx4.bot.entities.economy.leaderboard.Leaderboard;
+import com.sx4.bot.entities.economy.leaderboard.LeaderboardType;
+import com.sx4.bot.hooks.UserWriteListener;
+import com.sx4.bot.utility.ExceptionUtility;
+import gnu.trove.map.TIntLongMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TIntLongHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import net.dv8tion.jda.api.entities.Guild;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LeaderboardManager implements UserWriteListener {
+
+	public static final int ALL_ITEMS = -1;
+
+	private static final int BATCH_SIZE = 1000;
+
+	private static class Scores {
+
+		public static final Scores EMPTY = new Scores();
+
+		private long balance = 0L, winnings = 0L, streak = 0L, networth = 0L, items = 0L;
+		private final TIntLongMap amounts = new TIntLongHashMap();
+
+		public long get(LeaderboardType type, int itemId) {
+			switch (type) {
+				case BALANCE:
+					return this.balance;
+				case WINNINGS:
+					return this.winnings;
+				case STREAK:
+					return this.streak;
+				case NETWORTH:
+					return this.networth;
+				case ITEMS:
+					return itemId == LeaderboardManager.ALL_ITEMS ? this.items : this.amounts.get(itemId);
+				default:
+					return 0L;
+			}
+		}
+
+	}
+
+	private class GuildView {
+
+		private final TLongObjectMap<Scores> scores;
+		private final Map<String, Leaderboard> boards = new HashMap<>();
+
+		private final long expiresAt;
+
+		public GuildView(TLongObjectMap<Scores> scores) {
+			this.scores = scores;
+			this.expiresAt = System.currentTimeMillis() + LeaderboardManager.this.guildExpiry;
+		}
+
+		public boolean isExpired() {
+			return System.currentTimeMillis() >= this.expiresAt;
+		}
+
+		public synchronized Leaderboard getLeaderboard(LeaderboardType type, int itemId) {
+			return this.boards.computeIfAbsent(LeaderboardManager.getKey(type, itemId), key -> {
+				Leaderboard leaderboard = new Leaderboard(Integer.MAX_VALUE);
+				this.scores.forEachEntry((userId, scores) -> {
+					leaderboard.update(userId, scores.get(type, itemId));
+					return true;
+				});
+
+				return leaderboard;
+			});
+		}
+
+		public synchronized void update(long userId, Scores scores) {
+			this.scores.put(userId, scores);
+
+			for (Map.Entry<String, Leaderboard> entry : this.boards.entrySet()) {
+				String[] key = entry.getKey().split(":");
+				entry.getValue().update(userId, scores.get(LeaderboardType.valueOf(key[0]), Integer.parseInt(key[1])));
+			}
+		}
+
+	}
+
+	private final Map<String, CompletableFuture<Leaderboard>> leaderboards = new ConcurrentHashMap<>();
+	private final Map<Long, CompletableFuture<GuildView>> guildViews;
+
+	private final TLongSet dirty = new TLongHashSet();
+	private final TLongSet recent = new TLongHashSet();
+
+	private final AtomicBoolean reconcileRequested = new AtomicBoolean(false);
+	private final AtomicInteger reconciling = new AtomicInteger(0);
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+	private final int size;
+	private final long guildExpiry;
+
+	private final Sx4 bot;
+
+	public LeaderboardManager(Sx4 bot) {
+		Config config = bot.getConfig();
+
+		this.bot = bot;
+		this.size = config.getLeaderboardSize();
+		this.guildExpiry = TimeUnit.SECONDS.toMillis(config.getLeaderboardGuildExpiry());
+
+		int maxGuildViews = config.getLeaderboardGuildViews();
+		this.guildViews = new LinkedHashMap<>(16, 0.75F, true) {
+			protected boolean removeEldestEntry(Map.Entry<Long, CompletableFuture<GuildView>> eldest) {
+				return this.size() > maxGuildViews;
+			}
+		};
+
+		bot.getMongo().getUserWriteTracker().addListener(this);
+
+		this.executor.scheduleWithFixedDelay(this::flush, 1, 1, TimeUnit.SECONDS);
+
+		long interval = config.getLeaderboardReconcileInterval();
+		this.executor.scheduleWithFixedDelay(() -> this.reconcileRequested.set(true), interval, interval, TimeUnit.SECONDS);
+	}
+
+	public void onUserWrite(long userId) {
+		if (this.isEmpty()) {
+			return;
+		}
+
+		synchronized (this.dirty) {
+			this.dirty.add(userId);
+		}
+	}
+
+	public void onUnknownUserWrite() {
+		if (this.isEmpty()) {
+			return;
+		}
+
+		this.reconcileRequested.set(true);
+	}
+
+	private boolean isEmpty() {
+		if (!this.leaderboards.isEmpty()) {
+			return false;
+		}
+
+		synchronized (this.guildViews) {
+			return this.guildViews.isEmpty();
+		}
+	}
+
+	public CompletableFuture<Leaderboard> getLeaderboard(LeaderboardType type, int itemId) {
+		String key = LeaderboardManager.getKey(type, itemId);
+
+		CompletableFuture<Leaderboard> future = this.leaderboards.get(key);
+		if (future != null) {
+			return future;
+		}
+
+		CompletableFuture<Leaderboard> newFuture = new CompletableFuture<>();
+
+		future = this.leaderboards.putIfAbsent(key, newFuture);
+		if (future != null) {
+			return future;
+		}
+
+		this.load(type, itemId).whenComplete((leaderboard, exception) -> {
+			if (exception != null) {
+				// Let the next request try again
+				this.leaderboards.remove(key, newFuture);
+				newFuture.completeExceptionally(exception);
+			} else {
+				newFuture.complete(leaderboard);
+			}
+		});
+
+		return newFuture;
+	}
+
+	public CompletableFuture<Leaderboard> getLeaderboard(LeaderboardType type) {
+		return this.getLeaderboard(type, LeaderboardManager.ALL_ITEMS);
+	}
+
+	public CompletableFuture<Leaderboard> getLeaderboard(Guild guild, LeaderboardType type, int itemId) {
+		long guildId = guild.getIdLong();
+
+		CompletableFuture<GuildView> future;
+		synchronized (this.guildViews) {
+			future = this.guildViews.get(guildId);
+			if (future == null || (future.isDone() && !future.isCompletedExceptionally() && future.join().isExpired())) {
+				CompletableFuture<GuildView> newFuture = new CompletableFuture<>();
+				this.guildViews.put(guildId, newFuture);
+
+				long[] memberIds = guild.getMemberCache().stream().mapToLong(member -> member.getIdLong()).toArray();
+				this.loadScores(memberIds).whenComplete((scores, exception) -> {
+					if (exception != null) {
+						synchronized (this.guildViews) {
+							this.guildViews.remove(guildId, newFuture);
+						}
+
+						newFuture.completeExceptionally(exception);
+					} else {
+						newFuture.complete(new GuildView(scores));
+					}
+				});
+
+				future = newFuture;
+			}
+		}
+
+		return future.thenApply(view -> view.getLeaderboard(type, itemId));
+	}
+
+	public CompletableFuture<Leaderboard> getLeaderboard(Guild guild, LeaderboardType type) {
+		return this.getLeaderboard(guild, type, LeaderboardManager.ALL_ITEMS);
+	}
+
+	private CompletableFuture<Leaderboard> load(LeaderboardType type, int itemId) {
+		CompletableFuture<List<Document>> future;
+		if (type == LeaderboardType.NETWORTH) {
+			List<Bson> userPipeline = List.of(
+				Aggregates.project(Projections.computed("score", "$economy.balance")),
+				Aggregates.match(Filters.and(Filters.exists("score"), Filters.ne("score", 0)))
+			);
+
+			List<Bson> pipeline = List.of(
+				Aggregates.project(Projections.fields(Projections.computed("_id", "$userId"), Projections.computed("score", LeaderboardManager.getItemValue()))),
+				Aggregates.unionWith("users", userPipeline),
+				Aggregates.group("$_id", Accumulators.sum("score", "$score")),
+				Aggregates.match(Filters.ne("score", 0)),
+				Aggregates.sort(Sorts.descending("score")),
+				Aggregates.limit(this.size)
+			);
+
+			future = this.bot.getMongo().aggregateItems(pipeline);
+		} else if (type == LeaderboardType.ITEMS) {
+			Bson filter = Filters.ne("amount", 0);
+			if (itemId != LeaderboardManager.ALL_ITEMS) {
+				filter = Filters.and(filter, Filters.eq("item.id", itemId));
+			}
+
+			List<Bson> pipeline = List.of(
+				Aggregates.match(filter),
+				Aggregates.group("$userId", Accumulators.sum("score", "$amount")),
+				Aggregates.match(Filters.ne("score", 0)),
+				Aggregates.sort(Sorts.descending("score")),
+				Aggregates.limit(this.size)
+			);
+
+			future = this.bot.getMongo().aggregateItems(pipeline);
+		} else {
+			List<Bson> pipeline = List.of(
+				Aggregates.match(Filters.and(Filters.exists(type.getField()), Filters.ne(type.getField(), 0))),
+				Aggregates.sort(Sorts.descending(type.getField())),
+				Aggregates.limit(this.size),
+				Aggregates.project(Projections.computed("score", "$" + type.getField()))
+			);
+
+			future = this.bot.getMongo().aggregateUsers(pipeline);
+		}
+
+		return future.thenApply(documents -> {
+			Leaderboard leaderboard = new Leaderboard(this.size, documents.size() < this.size);
+			for (Document data : documents) {
+				leaderboard.update(data.getLong("_id"), data.get("score", Number.class).longValue());
+			}
+
+			return leaderboard;
+		});
+	}
+
+	private CompletableFuture<TLongObjectMap<Scores>> loadScores(long[] userIds) {
+		List<CompletableFuture<TLongObjectMap<Scores>>> futures = new ArrayList<>();
+		for (int i = 0; i < userIds.length; i += LeaderboardManager.BATCH_SIZE) {
+			List<Long> batch = new ArrayList<>(LeaderboardManager.BATCH_SIZE);
+			for (int j = i; j < Math.min(i + LeaderboardManager.BATCH_SIZE, userIds.length); j++) {
+				batch.add(userIds[j]);
+			}
+
+			futures.add(this.loadScores(batch));
+		}
+
+		return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply($ -> {
+			TLongObjectMap<Scores> scores = new TLongObjectHashMap<>();
+			futures.forEach(future -> scores.putAll(future.join()));
+
+			return scores;
+		});
+	}
+
+	private CompletableFuture<TLongObjectMap<Scores>> loadScores(List<Long> userIds) {
+		List<Bson> userPipeline = List.of(
+			Aggregates.match(Filters.in("_id", userIds)),
+			Aggregates.project(Projections.fields(
+				Projections.computed("balance", "$economy.balance"),
+				Projections.computed("winnings", "$economy.winnings"),
+				Projections.computed("streak", "$economy.streak")
+			))
+		);
+
+		List<Bson> itemPipeline = List.of(
+			Aggregates.match(Filters.in("userId", userIds)),
+			Aggregates.project(Projections.fields(Projections.include("userId", "amount", "item.id"), Projections.computed("value", LeaderboardManager.getItemValue()))),
+			Aggregates.group(new Document("userId", "$userId").append("itemId", "$item.id"), Accumulators.sum("amount", "$amount"), Accumulators.sum("value", "$value"))
+		);
+
+		CompletableFuture<List<Document>> users = this.bot.getMongo().aggregateUsers(userPipeline);
+		CompletableFuture<List<Document>> items = this.bot.getMongo().aggregateItems(itemPipeline);
+
+		return users.thenCombine(items, (userData, itemData) -> {
+			TLongObjectMap<Scores> scores = new TLongObjectHashMap<>();
+			for (Document data : userData) {
+				Scores userScores = new Scores();
+				userScores.balance = data.get("balance", 0L);
+				userScores.winnings = data.get("winnings", 0L);
+				userScores.streak = data.get("streak", 0);
+				userScores.networth = userScores.balance;
+
+				scores.put(data.getLong("_id"), userScores);
+			}
+
+			for (Document data : itemData) {
+				Document key = data.get("_id", Document.class);
+
+				long userId = key.getLong("userId");
+
+				Scores userScores = scores.get(userId);
+				if (userScores == null) {
+					userScores = new Scores();
+					scores.put(userId, userScores);
+				}
+
+				long amount = data.get("amount", Number.class).longValue();
+
+				userScores.amounts.adjustOrPutValue(key.getInteger("itemId"), amount, amount);
+				userScores.items += amount;
+				userScores.networth += data.get("value", Number.class).longValue();
+			}
+
+			return scores;
+		});
+	}
+
+	private void flush() {
+		try {
+			if (this.reconcileRequested.compareAndSet(true, false)) {
+				this.reconcile();
+			}
+
+			long[] userIds;
+			synchronized (this.dirty) {
+				if (this.dirty.isEmpty()) {
+					return;
+				}
+
+				userIds = this.dirty.toArray();
+				this.dirty.clear();
+			}
+
+			if (this.reconciling.get() > 0) {
+				// Boards being reloaded may have been read before these writes, they are applied again once the reload is done
+				synchronized (this.recent) {
+					this.recent.addAll(userIds);
+				}
+			}
+
+			TLongObjectMap<Scores> scores = this.loadScores(userIds).join();
+
+			List<Map.Entry<Long, GuildView>> views = new ArrayList<>();
+			synchronized (this.guildViews) {
+				for (Map.Entry<Long, CompletableFuture<GuildView>> entry : this.guildViews.entrySet()) {
+					CompletableFuture<GuildView> future = entry.getValue();
+					if (future.isDone() && !future.isCompletedExceptionally()) {
+						views.add(Map.entry(entry.getKey(), future.join()));
+					}
+				}
+			}
+
+			for (long userId : userIds) {
+				Scores userScores = scores.get(userId);
+				if (userScores == null) {
+					userScores = Scores.EMPTY;
+				}
+
+				for (Map.Entry<String, CompletableFuture<Leaderboard>> entry : this.leaderboards.entrySet()) {
+					CompletableFuture<Leaderboard> future = entry.getValue();
+					if (!future.isDone() || future.isCompletedExceptionally()) {
+						continue;
+					}
+
+					String[] key = entry.getKey().split(":");
+					future.join().update(userId, userScores.get(LeaderboardType.valueOf(key[0]), Integer.parseInt(key[1])));
+				}
+
+				for (Map.Entry<Long, GuildView> view : views) {
+					Guild guild = this.bot.getShardManager().getGuildById(view.getKey());
+					if (guild != null && guild.getMemberById(userId) != null) {
+						view.getValue().update(userId, userScores);
+					}
+				}
+			}
+		} catch (Throwable exception) {
+			// Keep the scheduled flush alive, anything missed is picked up by the next reconcile
+			ExceptionUtility.sendErrorMessage(exception);
+		}
+	}
+
+	private void reconcile() {
+		for (Map.Entry<String, CompletableFuture<Leaderboard>> entry : this.leaderboards.entrySet()) {
+			CompletableFuture<Leaderboard> future = entry.getValue();
+			if (!future.isDone() || future.isCompletedExceptionally()) {
+				continue;
+			}
+
+			String key = entry.getKey();
+			String[] type = key.split(":");
+
+			this.reconciling.incrementAndGet();
+			this.load(LeaderboardType.valueOf(type[0]), Integer.parseInt(type[1])).whenComplete((leaderboard, exception) -> {
+				if (exception != null) {
+					ExceptionUtility.sendErrorMessage(exception);
+				} else {
+					this.leaderboards.replace(key, future, CompletableFuture.completedFuture(leaderboard));
+				}
+
+				if (this.reconciling.decrementAndGet() == 0) {
+					synchronized (this.recent) {
+						synchronized (this.dirty) {
+							this.dirty.addAll(this.recent);
+						}
+
+						this.recent.clear();
+					}
+				}
+			});
+		}
+	}
+
+	private static String getKey(LeaderboardType type, int itemId) {
+		return type.name() + ":" + (type == LeaderboardType.ITEMS ? itemId : LeaderboardManager.ALL_ITEMS);
+	}
+
+	private static Bson getItemValue() {
+		return Operators.cond(Operators.exists("$item.durability"), Operators.toLong(Operators.multiply(Operators.divide("$item.price", "$item.maxDurability"), "$item.durability")), Operators.multiply("$item.price", "$amount"));
+	}
+
+}
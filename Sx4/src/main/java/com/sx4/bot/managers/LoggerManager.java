@@ -1,6 +1,5 @@
 package com.sx4.bot.managers;
 
-import club.minnced.discord.webhook.exception.HttpException;
 import club.minnced.discord.webhook.send.WebhookEmbed;
 import club.minnced.discord.webhook.send.WebhookMessage;
 import club.minnced.discord.webhook.send.WebhookMessageBuilder;
@@ -9,23 +8,23 @@ import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.model.Updates;
 import com.sx4.bot.core.Sx4;
 import com.sx4.bot.database.mongo.MongoDatabase;
-import com.sx4.bot.entities.webhook.WebhookClient;
+import com.sx4.bot.exceptions.mod.BotPermissionException;
 import com.sx4.bot.utility.ExceptionUtility;
 import com.sx4.bot.utility.MessageUtility;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.exceptions.ErrorResponseException;
 import net.dv8tion.jda.api.requests.ErrorResponse;
-import okhttp3.OkHttpClient;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class LoggerManager {
 
@@ -94,176 +93,173 @@ public class LoggerManager {
 
     private static final int MAX_RETRIES = 3;
 
-    private WebhookClient webhook;
     private final BlockingDeque<Request> queue;
 
-    private final OkHttpClient webhookClient;
-    private final ScheduledExecutorService webhookExecutor;
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final AtomicLong dropped = new AtomicLong(0L);
 
-    private final ExecutorService executor;
+    private final WebhookDeliveryService.Feature webhooks;
+    private final ScheduledExecutorService executor;
+
+    private final long linger;
+    private final int maxQueueSize;
 
     private final Sx4 bot;
 
-    public LoggerManager(Sx4 bot, ExecutorService executor, OkHttpClient webhookClient, ScheduledExecutorService webhookExecutor) {
+    public LoggerManager(Sx4 bot, ScheduledExecutorService executor, WebhookDeliveryService.Feature webhooks, long linger, int maxQueueSize) {
         this.queue = new LinkedBlockingDeque<>();
         this.bot = bot;
         this.executor = executor;
-        this.webhookExecutor = webhookExecutor;
-        this.webhookClient = webhookClient;
+        this.webhooks = webhooks;
+        this.linger = linger;
+        this.maxQueueSize = maxQueueSize;
     }
 
-    private void createWebhook(TextChannel channel, List<Request> requests) {
-        channel.createWebhook("Sx4 - Logger").submit().whenComplete((webhook, exception) -> {
-            Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
-            if (cause instanceof ErrorResponseException && ((ErrorResponseException) cause).getErrorResponse() == ErrorResponse.MAX_WEBHOOKS) {
-                Bson update = Updates.combine(
-                    Updates.set("enabled", false),
-                    Updates.unset("webhook.id"),
-                    Updates.unset("webhook.token")
-                );
-
-                this.bot.getMongo().updateLogger(Filters.eq("channelId", channel.getIdLong()), update, new UpdateOptions()).whenComplete((result, databaseException) -> {
-                    ExceptionUtility.sendErrorMessage(databaseException);
-                    this.queue.clear();
-                });
+    public long getDropped() {
+        return this.dropped.get();
+    }
+
+    public int getQueueSize() {
+        return this.queue.size();
+    }
 
+    private void schedule(long delay) {
+        // Only one flush can be pending or in flight per channel, this keeps logs in order and webhook calls sequential
+        if (this.scheduled.compareAndSet(false, true)) {
+            this.executor.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void next() {
+        this.scheduled.set(false);
+
+        if (!this.queue.isEmpty()) {
+            this.schedule(0L);
+        }
+    }
+
+    private void requeue(List<Request> requests) {
+        // Add in reverse so the logs keep their order at the front of the queue
+        for (int i = requests.size() - 1; i >= 0; i--) {
+            this.queue.addFirst(requests.get(i).incrementAttempts());
+        }
+    }
+
+    private void flush() {
+        try {
+            Request request = this.queue.poll();
+            if (request == null) {
+                this.next();
                 return;
             }
 
-            if (ExceptionUtility.sendErrorMessage(exception)) {
-                requests.forEach(failedRequest -> this.queue.addFirst(failedRequest.incrementAttempts()));
-                this.handleQueue();
+            if (request.getAttempts() == LoggerManager.MAX_RETRIES) {
+                this.next();
+                return;
+            }
 
+            Guild guild = request.getGuild();
+            if (guild == null) {
+                this.next();
                 return;
             }
 
-            this.webhook = new WebhookClient(webhook.getIdLong(), webhook.getToken(), this.webhookExecutor, this.webhookClient);
+            long channelId = request.getChannelId();
+            TextChannel channel = request.getChannel(guild);
+            if (channel == null) {
+                this.webhooks.removeWebhook(channelId);
 
-            Bson update = Updates.combine(
-                Updates.set("webhook.id", webhook.getIdLong()),
-                Updates.set("webhook.token", webhook.getToken())
-            );
+                this.bot.getMongo().deleteLogger(Filters.eq("channelId", channelId)).whenComplete((result, exception) -> {
+                    this.bot.getLoggerCache().invalidate(request.getGuildId());
 
-            this.bot.getMongo().updateLogger(Filters.eq("channelId", channel.getIdLong()), update, new UpdateOptions()).whenComplete((result, databaseException) -> {
-                ExceptionUtility.sendErrorMessage(databaseException);
+                    ExceptionUtility.sendErrorMessage(exception);
+                    this.queue.clear();
+                    this.next();
+                });
 
-                requests.forEach(failedRequest -> this.queue.addFirst(failedRequest.incrementAttempts()));
-                this.handleQueue();
-            });
-        });
-    }
+                return;
+            }
 
-    private void handleQueue() {
-        this.executor.submit(() -> {
-            try {
-                Request request = this.queue.poll();
-                if (request == null) {
-                    return;
-                }
+            List<WebhookEmbed> embeds = new ArrayList<>(request.getEmbeds());
+            int length = MessageUtility.getWebhookEmbedLength(embeds);
 
-                if (request.getAttempts() == LoggerManager.MAX_RETRIES) {
-                    this.handleQueue();
-                    return;
-                }
+            List<Request> requests = new ArrayList<>();
+            requests.add(request);
 
-                Guild guild = request.getGuild();
-                if (guild == null) {
-                    this.handleQueue();
-                    return;
+            // Pack as many queued logs as fit into a single webhook message
+            Request nextRequest;
+            while ((nextRequest = this.queue.peek()) != null) {
+                List<WebhookEmbed> nextEmbeds = nextRequest.getEmbeds();
+                int nextLength = MessageUtility.getWebhookEmbedLength(nextEmbeds);
+
+                if (embeds.size() + nextEmbeds.size() > WebhookMessage.MAX_EMBEDS || length + nextLength > MessageEmbed.EMBED_MAX_LENGTH_BOT) {
+                    break;
                 }
 
-                long channelId = request.getChannelId();
-                TextChannel channel = request.getChannel(guild);
-                if (channel == null) {
-                    this.bot.getMongo().deleteLogger(Filters.eq("channelId", channelId)).whenComplete((result, exception) -> {
-                        ExceptionUtility.sendErrorMessage(exception);
+                this.queue.poll();
+
+                embeds.addAll(nextEmbeds);
+                requests.add(nextRequest);
+                length += nextLength;
+            }
+
+            Document logger = request.getLogger();
+            Document webhookData = logger.get("webhook", MongoDatabase.EMPTY_DOCUMENT);
+            boolean premium = logger.getBoolean("premium");
+
+            WebhookMessage message = new WebhookMessageBuilder()
+                .addEmbeds(embeds)
+                .setUsername(premium ? webhookData.get("name", "Sx4 - Logger") : "Sx4 - Logger")
+                .setAvatarUrl(premium ? webhookData.get("avatar", request.getJDA().getSelfUser().getEffectiveAvatarUrl()) : request.getJDA().getSelfUser().getEffectiveAvatarUrl())
+                .build();
+
+            this.webhooks.send(channel, webhookData, message).whenComplete((result, exception) -> {
+                Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+                if (cause instanceof ErrorResponseException && ((ErrorResponseException) cause).getErrorResponse() == ErrorResponse.MAX_WEBHOOKS) {
+                    Bson update = Updates.combine(
+                        Updates.set("enabled", false),
+                        Updates.unset("webhook.id"),
+                        Updates.unset("webhook.token")
+                    );
+
+                    this.bot.getMongo().updateLogger(Filters.eq("channelId", channelId), update, new UpdateOptions()).whenComplete((updateResult, databaseException) -> {
+                        this.bot.getLoggerCache().invalidate(request.getGuildId());
+
+                        ExceptionUtility.sendErrorMessage(databaseException);
                         this.queue.clear();
+                        this.next();
                     });
 
                     return;
                 }
 
-                List<WebhookEmbed> embeds = new ArrayList<>(request.getEmbeds());
-                int length = MessageUtility.getWebhookEmbedLength(embeds);
-
-                List<Request> skippedRequests = new ArrayList<>(), requests = new ArrayList<>();
-                requests.add(request);
-
-                Request nextRequest;
-                while ((nextRequest = this.queue.poll()) != null) {
-                    List<WebhookEmbed> nextEmbeds = nextRequest.getEmbeds();
-                    int nextLength = MessageUtility.getWebhookEmbedLength(nextEmbeds);
-
-                    if (embeds.size() + nextEmbeds.size() > WebhookMessage.MAX_EMBEDS || length + nextLength > MessageEmbed.EMBED_MAX_LENGTH_BOT) {
-                        skippedRequests.add(nextRequest);
-                        break;
-                    }
-
-                    embeds.addAll(nextEmbeds);
-                    requests.add(nextRequest);
-                    length += nextLength;
+                // The logs can't be sent without a webhook so they're dropped until the permission is given
+                if (cause instanceof BotPermissionException) {
+                    this.next();
+                    return;
                 }
 
-                // Keep order of logs
-                skippedRequests.forEach(this.queue::addFirst);
-
-                Document logger = request.getLogger();
-                Document webhookData = logger.get("webhook", MongoDatabase.EMPTY_DOCUMENT);
-                boolean premium = logger.getBoolean("premium");
-
-                WebhookMessage message = new WebhookMessageBuilder()
-                    .addEmbeds(embeds)
-                    .setUsername(premium ? webhookData.get("name", "Sx4 - Logger") : "Sx4 - Logger")
-                    .setAvatarUrl(premium ? webhookData.get("avatar", request.getJDA().getSelfUser().getEffectiveAvatarUrl()) : request.getJDA().getSelfUser().getEffectiveAvatarUrl())
-                    .build();
-
-                if (this.webhook == null) {
-                    if (!webhookData.containsKey("id")) {
-                        if (guild.getSelfMember().hasPermission(channel, Permission.MANAGE_WEBHOOKS)) {
-                            this.createWebhook(channel, requests);
-                            return;
-                        }
-
-                        this.handleQueue();
-                        return;
-                    } else {
-                        this.webhook = new WebhookClient(webhookData.getLong("id"), webhookData.getString("token"), this.webhookExecutor, this.webhookClient);
-                    }
+                if (ExceptionUtility.sendErrorMessage(exception)) {
+                    this.requeue(requests);
                 }
 
-                this.webhook.send(message).whenComplete((result, exception) -> {
-                    Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
-                    if (cause instanceof HttpException && ((HttpException) cause).getCode() == 404) {
-                        if (guild.getSelfMember().hasPermission(channel, Permission.MANAGE_WEBHOOKS)) {
-                            this.createWebhook(channel, requests);
-                            return;
-                        }
-
-                        this.handleQueue();
-                        return;
-                    }
-
-                    if (ExceptionUtility.sendErrorMessage(exception)) {
-                        requests.forEach(failedRequest -> this.queue.addFirst(failedRequest.incrementAttempts()));
-                    }
-
-                    this.handleQueue();
-                });
-            } catch (Throwable exception) {
-                // Continue queue even if an exception occurs to avoid the queue getting stuck
-                ExceptionUtility.sendErrorMessage(exception);
-                this.handleQueue();
-            }
-        });
+                this.next();
+            });
+        } catch (Throwable exception) {
+            // Continue queue even if an exception occurs to avoid the queue getting stuck
+            ExceptionUtility.sendErrorMessage(exception);
+            this.next();
+        }
     }
 
     private void queue(Request request) {
-        if (this.queue.isEmpty()) {
-            this.queue.add(request);
-            this.handleQueue();
-        } else {
-            this.queue.add(request);
+        if (this.queue.size() >= this.maxQueueSize) {
+            this.dropped.incrementAndGet();
+            return;
         }
+
+        this.queue.add(request);
+        this.schedule(this.linger);
     }
 
     public void queue(TextChannel channel, Document logger, List<WebhookEmbed> embeds) {
@@ -1,6 +1,5 @@
 package com.sx4.bot.managers;
 
-import club.minnced.discord.webhook.exception.HttpException;
 import club.minnced.discord.webhook.send.WebhookEmbed;
 import club.minnced.discord.webhook.send.WebhookMessage;
 import club.minnced.discord.webhook.send.WebhookMessageBuilder;
@@ -8,75 +7,41 @@ import com.mongodb.client.model.Updates;
 import com.sx4.bot.core.Sx4;
 import com.sx4.bot.entities.webhook.ReadonlyMessage;
 import com.sx4.bot.entities.webhook.WebhookClient;
-import com.sx4.bot.exceptions.mod.BotPermissionException;
-import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.entities.User;
-import okhttp3.OkHttpClient;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 
 public class ModLogManager implements WebhookManager {
 
-	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
-	private final OkHttpClient client = new OkHttpClient();
-
-	private final Map<Long, WebhookClient> webhooks;
+	private final WebhookDeliveryService.Feature webhooks;
 
 	private final Sx4 bot;
 
 	public ModLogManager(Sx4 bot) {
-		this.webhooks = new HashMap<>();
 		this.bot = bot;
+		this.webhooks = bot.getWebhookDeliveryService().register("Sx4 - Mod Logs", (channel, webhook) -> {
+			Bson update = Updates.combine(
+				Updates.set("modLog.webhook.id", webhook.getIdLong()),
+				Updates.set("modLog.webhook.token", webhook.getToken())
+			);
+
+			return this.bot.getMongo().updateGuildById(channel.getGuild().getIdLong(), update);
+		});
 	}
 
 	public WebhookClient getWebhook(long channelId) {
-		return this.webhooks.get(channelId);
+		return this.webhooks.getWebhook(channelId);
 	}
 
 	public WebhookClient removeWebhook(long channelId) {
-		return this.webhooks.remove(channelId);
+		return this.webhooks.removeWebhook(channelId);
 	}
 
 	public void putWebhook(long channelId, WebhookClient webhook) {
-		this.webhooks.put(channelId, webhook);
-	}
-
-	private CompletableFuture<ReadonlyMessage> createWebhook(TextChannel channel, WebhookMessage message) {
-		if (!channel.getGuild().getSelfMember().hasPermission(channel, Permission.MANAGE_WEBHOOKS)) {
-			return CompletableFuture.failedFuture(new BotPermissionException(Permission.MANAGE_WEBHOOKS));
-		}
-
-		return channel.createWebhook("Sx4 - Mod Logs").submit().thenCompose(webhook -> {
-			WebhookClient webhookClient = new WebhookClient(webhook.getIdLong(), webhook.getToken(), this.executor, this.client);
-
-			this.webhooks.put(channel.getIdLong(), webhookClient);
-
-			Bson update = Updates.combine(
-				Updates.set("modLog.webhook.id", webhook.getIdLong()),
-				Updates.set("modLog.webhook.token", webhook.getToken())
-			);
-
-			return this.bot.getMongo().updateGuildById(channel.getGuild().getIdLong(), update)
-				.thenCompose(result -> webhookClient.send(message))
-				.thenApply(webhookMessage -> new ReadonlyMessage(webhookMessage, webhook.getIdLong(), webhook.getToken()));
-		}).exceptionallyCompose(exception -> {
-			Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
-			if (cause instanceof HttpException && ((HttpException) cause).getCode() == 404) {
-				this.webhooks.remove(channel.getIdLong());
-
-				return this.createWebhook(channel, message);
-			}
-
-			return CompletableFuture.failedFuture(exception);
-		});
+		this.webhooks.putWebhook(channelId, webhook);
 	}
 
 	public CompletableFuture<ReadonlyMessage> sendModLog(TextChannel channel, Document webhookData, WebhookEmbed embed, boolean premium) {
@@ -88,32 +53,10 @@ public class ModLogManager implements WebhookManager {
 			.addEmbeds(embed)
 			.build();
 
-		WebhookClient webhook;
-		if (this.webhooks.containsKey(channel.getIdLong())) {
-			webhook = this.webhooks.get(channel.getIdLong());
-		} else if (!webhookData.containsKey("id")) {
-			return this.createWebhook(channel, message);
-		} else {
-			webhook = new WebhookClient(webhookData.getLong("id"), webhookData.getString("token"), this.executor, this.client);
-
-			this.webhooks.put(channel.getIdLong(), webhook);
-		}
-
-		return webhook.send(message)
-			.thenApply(webhookMessage -> new ReadonlyMessage(webhookMessage, webhook.getId(), webhook.getToken()))
-			.exceptionallyCompose(exception -> {
-				Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
-				if (cause instanceof HttpException && ((HttpException) cause).getCode() == 404) {
-					this.webhooks.remove(channel.getIdLong());
-
-					return this.createWebhook(channel, message);
-				}
-
-				return CompletableFuture.failedFuture(exception);
-			});
+		return this.webhooks.send(channel, webhookData, message);
 	}
 
-	public CompletableFuture<club.minnced.discord.webhook.receive.ReadonlyMessage> editModLog(long messageId, long channelId, Document webhookData, WebhookEmbed embed) {
+	public CompletableFuture<ReadonlyMessage> editModLog(long messageId, long channelId, Document webhookData, WebhookEmbed embed) {
 		User selfUser = this.bot.getShardManager().getShardById(0).getSelfUser();
 
 		WebhookMessage message = new WebhookMessageBuilder()
@@ -122,18 +65,7 @@ public class ModLogManager implements WebhookManager {
 			.addEmbeds(embed)
 			.build();
 
-		WebhookClient webhook;
-		if (this.webhooks.containsKey(channelId)) {
-			webhook = this.webhooks.get(channelId);
-		} else if (!webhookData.containsKey("id")) {
-			return CompletableFuture.completedFuture(null);
-		} else {
-			webhook = new WebhookClient(webhookData.getLong("id"), webhookData.getString("token"), this.executor, this.client);
-
-			this.webhooks.put(channelId, webhook);
-		}
-
-		return webhook.edit(messageId, message);
+		return this.webhooks.edit(channelId, webhookData, messageId, message);
 	}
 
-}
\ No newline at end of file
+}
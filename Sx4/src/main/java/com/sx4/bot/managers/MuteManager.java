@@ -7,6 +7,7 @@ import com.mongodb.client.model.WriteModel;
 import com.sx4.bot.core.Sx4;
 import com.sx4.bot.database.mongo.MongoDatabase;
 import com.sx4.bot.entities.mod.Reason;
+import com.sx4.bot.entities.utility.TimingWheel;
 import com.sx4.bot.events.mod.UnmuteEvent;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
@@ -14,106 +15,45 @@ import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Role;
 import net.dv8tion.jda.api.entities.User;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 
 import java.time.Clock;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 public class MuteManager {
-	
-	private final Map<Long, Map<Long, ScheduledFuture<?>>> executors;
-	
-	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+	private final TimingWheel<Map.Entry<Long, Long>, Long> wheel;
 
 	private final Sx4 bot;
 
 	public MuteManager(Sx4 bot) {
-		this.executors = new HashMap<>();
 		this.bot = bot;
+		this.wheel = new TimingWheel<>(bot.getConfig().getExpiryWindow(), this::handleMutes, this::loadMutes);
 	}
-	
-	public ScheduledExecutorService getExecutor() {
-		return this.executor;
-	}
-	
-	public ScheduledFuture<?> getExecutor(long guildId, long userId) {
-		if (this.executors.containsKey(guildId)) {
-			Map<Long, ScheduledFuture<?>> users = this.executors.get(guildId);
 
-			return users.get(userId);
-		}
-
-		return null;
+	public TimingWheel<Map.Entry<Long, Long>, Long> getWheel() {
+		return this.wheel;
 	}
-	
-	public void putExecutor(long guildId, long userId, ScheduledFuture<?> executor) {
-		if (this.executors.containsKey(guildId)) {
-			Map<Long, ScheduledFuture<?>> users = this.executors.get(guildId);
-
-			ScheduledFuture<?> oldExecutor = users.get(userId);
-			if (oldExecutor != null && !oldExecutor.isDone()) {
-				oldExecutor.cancel(true);
-			}
-
-			users.put(userId, executor);
-		} else {
-			Map<Long, ScheduledFuture<?>> users = new HashMap<>();
-			users.put(userId, executor);
 
-			this.executors.put(guildId, users);
-		}
+	public void deleteExecutor(long guildId, long userId) {
+		this.wheel.cancel(Map.entry(guildId, userId));
 	}
-	
-	public void extendExecutor(long guildId, long userId, Runnable runnable, long seconds) {
-		if (this.executors.containsKey(guildId)) {
-			Map<Long, ScheduledFuture<?>> users = this.executors.get(guildId);
-
-			ScheduledFuture<?> oldExecutor = users.get(userId);
-			if (oldExecutor != null && !oldExecutor.isDone()) {
-				seconds += oldExecutor.getDelay(TimeUnit.SECONDS);
-				oldExecutor.cancel(true);
-			}
 
-			users.put(userId, this.executor.schedule(runnable, seconds, TimeUnit.SECONDS));
-		}
+	public void putMute(long guildId, long userId, long roleId, long unmuteAt) {
+		this.wheel.schedule(Map.entry(guildId, userId), roleId, unmuteAt);
 	}
-	
-	public void deleteExecutor(long guildId, long userId) {
-		if (this.executors.containsKey(guildId)) {
-			Map<Long, ScheduledFuture<?>> users = this.executors.get(guildId);
 
-			ScheduledFuture<?> executor = users.remove(userId);
-			if (executor != null && !executor.isDone()) {
-				executor.cancel(true);
-			}
+	public static long getUnmuteAt(Document oldData, long seconds, boolean extend) {
+		// Mirrors the update so the deadline matches what was written without reading the mute back
+		if (extend && oldData != null && oldData.containsKey("unmuteAt")) {
+			return oldData.getLong("unmuteAt") + seconds;
 		}
+
+		return Clock.systemUTC().instant().getEpochSecond() + seconds;
 	}
-	
-	public void putMute(long guildId, long userId, long roleId, long seconds, boolean extend) {
-		ScheduledFuture<?> executor = this.getExecutor(guildId, userId);
-		if (executor != null && !executor.isDone()) {
-			if (extend) {
-				seconds += executor.getDelay(TimeUnit.SECONDS);
-			}
-			
-			executor.cancel(true);
-		}
-		
-		ScheduledFuture<?> newExecutor = this.executor.schedule(() -> this.removeMute(guildId, userId, roleId), seconds, TimeUnit.SECONDS);
-		
-		this.putExecutor(guildId, userId, newExecutor);
-	}
-	
-	public void putMute(long guildId, long userId, long roleId, long seconds) {
-		this.putMute(guildId, userId, roleId, seconds, false);
-	}
-	
+
 	public DeleteOneModel<Document> removeMuteBulk(long guildId, long userId, long roleId) {
 		Guild guild = this.bot.getShardManager().getGuildById(guildId);
 		if (guild == null) {
@@ -130,7 +70,6 @@ public class MuteManager {
 		UnmuteEvent event = new UnmuteEvent(guild.getSelfMember(), member == null ? User.fromId(userId) : member.getUser(), reason);
 
 		this.bot.getModActionManager().onModAction(event);
-		this.deleteExecutor(guildId, userId);
 		
 		return new DeleteOneModel<>(Filters.and(Filters.eq("guildId", guildId), Filters.eq("userId", userId)));
 	}
@@ -142,35 +81,38 @@ public class MuteManager {
 		}
 	}
 	
-	public void ensureMutes() {
-		Map<Long, Long> roleIds = new HashMap<>();
-		this.bot.getMongo().getGuilds(Filters.exists("mute.roleId"), Projections.include("mute.roleId")).forEach(data -> {
-			roleIds.put(data.getLong("_id"), data.getEmbedded(List.of("mute", "roleId"), Long.class));
-		});
-
+	private void handleMutes(List<TimingWheel.Timeout<Map.Entry<Long, Long>, Long>> timeouts) {
 		List<WriteModel<Document>> bulkData = new ArrayList<>();
-		this.bot.getMongo().getMutes(Filters.empty(), Projections.include("unmuteAt", "userId", "guildId")).forEach(data -> {
+		for (TimingWheel.Timeout<Map.Entry<Long, Long>, Long> timeout : timeouts) {
+			Map.Entry<Long, Long> key = timeout.getKey();
+
+			DeleteOneModel<Document> model = this.removeMuteBulk(key.getKey(), key.getValue(), timeout.getValue());
+			if (model != null) {
+				bulkData.add(model);
+			}
+		}
+
+		if (!bulkData.isEmpty()) {
+			this.bot.getMongo().bulkWriteMutes(bulkData).whenComplete(MongoDatabase.exceptionally(this.bot.getShardManager()));
+		}
+	}
+
+	private void loadMutes(long from, long to) {
+		Bson filter = Filters.and(Filters.gt("unmuteAt", from), Filters.lte("unmuteAt", to));
+		this.bot.getMongo().getMutes(filter, Projections.include("unmuteAt", "userId", "guildId")).batchSize(this.bot.getConfig().getWarmUpBatchSize()).forEach(data -> {
 			long guildId = data.getLong("guildId");
 
-			long roleId = roleIds.getOrDefault(guildId, 0L);
+			long roleId = this.bot.getMongo().getGuildById(guildId, Projections.include("mute.roleId")).getEmbedded(List.of("mute", "roleId"), 0L);
 			if (roleId == 0L) {
 				return;
 			}
 
-			long currentTime = Clock.systemUTC().instant().getEpochSecond(), unmuteAt = data.getLong("unmuteAt");
-			if (unmuteAt > currentTime) {
-				this.putMute(guildId, data.getLong("userId"), roleId, unmuteAt - currentTime);
-			} else {
-				DeleteOneModel<Document> model = this.removeMuteBulk(guildId, data.getLong("userId"), roleId);
-				if (model != null) {
-					bulkData.add(model);
-				}
-			}
+			this.wheel.offer(Map.entry(guildId, data.getLong("userId")), roleId, data.getLong("unmuteAt"));
 		});
-
-		if (!bulkData.isEmpty()) {
-			this.bot.getMongo().bulkWriteMutes(bulkData).whenComplete(MongoDatabase.exceptionally(this.bot.getShardManager()));
-		}
+	}
+	
+	public void ensureMutes() {
+		this.wheel.start(this.bot.getScheduledExecutor());
 	}
 	
 }
@@ -3,80 +3,47 @@ package com.sx4.bot.managers;
 import com.mongodb.client.model.*;
 import com.sx4.bot.core.Sx4;
 import com.sx4.bot.database.mongo.MongoDatabase;
+import com.sx4.bot.entities.utility.TimingWheel;
 import com.sx4.bot.utility.FutureUtility;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.exceptions.ErrorResponseException;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
 import java.time.Clock;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ReminderManager {
 
 	private static final int MAX_ATTEMPTS = 3;
 	
-	private final Map<ObjectId, ScheduledFuture<?>> executors;
+	private final TimingWheel<ObjectId, Document> wheel;
 	private final Map<ObjectId, Integer> attempts;
-	
-	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
 
 	private final Sx4 bot;
 
 	public ReminderManager(Sx4 bot) {
-		this.executors = new HashMap<>();
-		this.attempts = new HashMap<>();
+		this.attempts = new ConcurrentHashMap<>();
 		this.bot = bot;
+		this.wheel = new TimingWheel<>(bot.getConfig().getExpiryWindow(), this::handleReminders, this::loadReminders);
 	}
 	
-	public ScheduledExecutorService getExecutor() {
-		return this.executor;
-	}
-	
-	public ScheduledFuture<?> getExecutor(ObjectId id) {
-		return this.executors.get(id);
-	}
-	
-	public void putExecutor(ObjectId id, ScheduledFuture<?> executor) {
-		ScheduledFuture<?> oldExecutor = this.executors.put(id, executor);
-		if (oldExecutor != null && !oldExecutor.isDone()) {
-			oldExecutor.cancel(true);
-		}
-	}
-	
-	public void extendExecutor(ObjectId id, Runnable runnable, long seconds) {
-		ScheduledFuture<?> oldExecutor = this.getExecutor(id);
-		if (oldExecutor != null && !oldExecutor.isDone()) {
-			seconds += oldExecutor.getDelay(TimeUnit.SECONDS);
-			oldExecutor.cancel(true);
-		}
-
-		this.executors.put(id, this.executor.schedule(runnable, seconds, TimeUnit.SECONDS));
+	public TimingWheel<ObjectId, Document> getWheel() {
+		return this.wheel;
 	}
 	
 	public void deleteExecutor(ObjectId id) {
-		ScheduledFuture<?> oldExecutor = this.executors.remove(id);
-		if (oldExecutor != null && !oldExecutor.isDone()) {
-			oldExecutor.cancel(true);
-		}
+		this.wheel.cancel(id);
 	}
 	
 	public void putReminder(long duration, Document data) {
-		this.putExecutor(data.getObjectId("_id"), this.executor.schedule(() -> this.executeReminder(data), duration, TimeUnit.SECONDS));
-	}
-	
-	public void executeReminder(Document data) {
-		this.executeReminderBulk(data).whenComplete((model, exception) -> {
-			if (model instanceof UpdateOneModel) {
-				this.bot.getMongo().updateReminder((UpdateOneModel<Document>) model).whenComplete(MongoDatabase.exceptionally(this.bot.getShardManager()));
-			} else {
-				this.bot.getMongo().deleteReminder((DeleteOneModel<Document>) model).whenComplete(MongoDatabase.exceptionally(this.bot.getShardManager()));
-			}
-		});
+		this.wheel.schedule(data.getObjectId("_id"), data, Clock.systemUTC().instant().getEpochSecond() + duration);
 	}
 
 	private WriteModel<Document> handleReminder(Document data, int attempts) {
@@ -90,8 +57,8 @@ public class ReminderManager {
 
 			data.append("remindAt", newRemindAt);
 
-			// Make sure it's synced by checking the current time
-			this.putReminder(newRemindAt - now, data);
+			// Held until the bulk write below has stored the new remindAt, otherwise a load could read the old one
+			this.wheel.hold(id, data, newRemindAt);
 
 			return new UpdateOneModel<>(Filters.eq("_id", id), Updates.set("remindAt", newRemindAt));
 		} else {
@@ -131,32 +98,37 @@ public class ReminderManager {
 		}
 	}
 	
-	public void ensureReminders() {
+	private void handleReminders(List<TimingWheel.Timeout<ObjectId, Document>> timeouts) {
 		List<CompletableFuture<WriteModel<Document>>> futures = new ArrayList<>();
-		this.bot.getMongo().getReminders(MongoDatabase.EMPTY_DOCUMENT, MongoDatabase.EMPTY_DOCUMENT).forEach(data -> {
-			ObjectId id = data.getObjectId("_id");
-
-			long remindAt = data.getLong("remindAt"), currentTime = Clock.systemUTC().instant().getEpochSecond();
-			if (remindAt > currentTime) {
-				ScheduledFuture<?> executor = this.executor.schedule(() -> this.executeReminder(data), remindAt - currentTime, TimeUnit.SECONDS);
+		for (TimingWheel.Timeout<ObjectId, Document> timeout : timeouts) {
+			futures.add(this.executeReminderBulk(timeout.getValue()));
+		}
 
-				this.putExecutor(id, executor);
-			} else {
-				futures.add(this.executeReminderBulk(data));
+		FutureUtility.allOf(futures).thenCompose(bulkData -> {
+			if (!bulkData.isEmpty()) {
+				return this.bot.getMongo().bulkWriteReminders(bulkData);
 			}
-		});
 
-		if (futures.isEmpty()) {
-			return;
-		}
-
-		FutureUtility.allOf(futures).whenComplete((bulkData, exception) -> {
-			if (bulkData.isEmpty()) {
-				return;
+			return CompletableFuture.completedFuture(null);
+		}).whenComplete((result, exception) -> {
+			// A failed write keeps the repeats held so they're still added once their window is loaded
+			if (exception == null) {
+				for (TimingWheel.Timeout<ObjectId, Document> timeout : timeouts) {
+					this.wheel.release(timeout.getKey());
+				}
 			}
+		}).whenComplete(MongoDatabase.exceptionally(this.bot.getShardManager()));
+	}
 
-			this.bot.getMongo().bulkWriteReminders(bulkData).whenComplete(MongoDatabase.exceptionally(this.bot.getShardManager()));
+	private void loadReminders(long from, long to) {
+		Bson filter = Filters.and(Filters.gt("remindAt", from), Filters.lte("remindAt", to));
+		this.bot.getMongo().getReminders(filter, MongoDatabase.EMPTY_DOCUMENT).batchSize(this.bot.getConfig().getWarmUpBatchSize()).forEach(data -> {
+			this.wheel.offer(data.getObjectId("_id"), data, data.getLong("remindAt"));
 		});
 	}
 	
+	public void ensureReminders() {
+		this.wheel.start(this.bot.getScheduledExecutor());
+	}
+	
 }
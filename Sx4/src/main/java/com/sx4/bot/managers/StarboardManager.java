@@ -1,25 +1,19 @@
 package com.sx4.bot.managers;
 
-import club.minnced.discord.webhook.exception.HttpException;
 import club.minnced.discord.webhook.send.WebhookMessage;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
 import com.mongodb.client.model.Updates;
 import com.sx4.bot.core.Sx4;
 import com.sx4.bot.entities.webhook.ReadonlyMessage;
 import com.sx4.bot.entities.webhook.WebhookClient;
-import com.sx4.bot.exceptions.mod.BotPermissionException;
-import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.TextChannel;
-import okhttp3.OkHttpClient;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 
 public class StarboardManager implements WebhookManager {
 
@@ -31,114 +25,105 @@ public class StarboardManager implements WebhookManager {
 		new Document("stars", 100).append("message", new Document("content", "🎆 **{stars}** {channel.mention}"))
 	);
 
-	private final Map<Long, WebhookClient> webhooks;
+	private static class PendingStars {
 
-	private final OkHttpClient client = new OkHttpClient();
-	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		private final List<CompletableFuture<Document>> futures = new ArrayList<>();
+
+		private Bson update;
+		private int count = 0;
+
+		public void add(Bson update, CompletableFuture<Document> future) {
+			this.update = update;
+			this.futures.add(future);
+			this.count++;
+		}
+
+	}
+
+	private final WebhookDeliveryService.Feature webhooks;
+
+	private final Map<Long, PendingStars> pendingStars = new HashMap<>();
+	private final Set<Long> updatingStars = new HashSet<>();
 
 	private final Sx4 bot;
 
 	public StarboardManager(Sx4 bot) {
-		this.webhooks = new HashMap<>();
 		this.bot = bot;
+		this.webhooks = bot.getWebhookDeliveryService().register("Sx4 - Starboard", (channel, webhook) -> {
+			Bson update = Updates.combine(
+				Updates.set("starboard.webhook.id", webhook.getIdLong()),
+				Updates.set("starboard.webhook.token", webhook.getToken())
+			);
+
+			return this.bot.getMongo().updateGuildById(channel.getGuild().getIdLong(), update);
+		});
 	}
 
-	public WebhookClient getWebhook(long id) {
-		return this.webhooks.get(id);
+	public WebhookClient getWebhook(long channelId) {
+		return this.webhooks.getWebhook(channelId);
 	}
 
-	public WebhookClient removeWebhook(long id) {
-		return this.webhooks.remove(id);
+	public WebhookClient removeWebhook(long channelId) {
+		return this.webhooks.removeWebhook(channelId);
 	}
 
-	public void putWebhook(long id, WebhookClient webhook) {
-		this.webhooks.put(id, webhook);
+	public void putWebhook(long channelId, WebhookClient webhook) {
+		this.webhooks.putWebhook(channelId, webhook);
 	}
 
-	private CompletableFuture<ReadonlyMessage> createWebhook(TextChannel channel, WebhookMessage message) {
-		if (!channel.getGuild().getSelfMember().hasPermission(channel, Permission.MANAGE_WEBHOOKS)) {
-			return CompletableFuture.failedFuture(new BotPermissionException(Permission.MANAGE_WEBHOOKS));
-		}
+	public CompletableFuture<Document> incrementStars(long messageId, Bson update) {
+		CompletableFuture<Document> future = new CompletableFuture<>();
 
-		return channel.createWebhook("Sx4 - Starboard").submit().thenCompose(webhook -> {
-			WebhookClient webhookClient = new WebhookClient(webhook.getIdLong(), webhook.getToken(), this.executor, this.client);
+		boolean flush;
+		synchronized (this.pendingStars) {
+			this.pendingStars.computeIfAbsent(messageId, key -> new PendingStars()).add(update, future);
 
-			this.webhooks.put(channel.getIdLong(), webhookClient);
+			flush = this.updatingStars.add(messageId);
+		}
 
-			Bson update = Updates.combine(
-				Updates.set("starboard.webhook.id", webhook.getIdLong()),
-				Updates.set("starboard.webhook.token", webhook.getToken())
-			);
+		if (flush) {
+			this.flushStars(messageId);
+		}
 
-			return this.bot.getMongo().updateGuildById(channel.getGuild().getIdLong(), update)
-				.thenCompose(result -> webhookClient.send(message))
-				.thenApply(webhookMessage -> new ReadonlyMessage(webhookMessage, webhook.getIdLong(), webhook.getToken()));
-		}).exceptionallyCompose(exception -> {
-			Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
-			if (cause instanceof HttpException && ((HttpException) cause).getCode() == 404) {
-				this.webhooks.remove(channel.getIdLong());
+		return future;
+	}
 
-				return this.createWebhook(channel, message);
+	private void flushStars(long messageId) {
+		PendingStars pending;
+		synchronized (this.pendingStars) {
+			pending = this.pendingStars.remove(messageId);
+			if (pending == null) {
+				this.updatingStars.remove(messageId);
+				return;
 			}
+		}
 
-			return CompletableFuture.failedFuture(exception);
+		// Stars added while an update is in flight are combined into the next $inc, only the latest star gets the updated data
+		FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER).upsert(true);
+		this.bot.getMongo().findAndUpdateStarboard(Filters.eq("originalMessageId", messageId), Updates.combine(Updates.inc("count", pending.count), pending.update), options).whenComplete((data, exception) -> {
+			List<CompletableFuture<Document>> futures = pending.futures;
+			for (int i = 0; i < futures.size(); i++) {
+				if (exception != null) {
+					futures.get(i).completeExceptionally(exception);
+				} else {
+					futures.get(i).complete(i == futures.size() - 1 ? data : null);
+				}
+			}
+
+			this.flushStars(messageId);
 		});
 	}
 
 	public CompletableFuture<ReadonlyMessage> sendStarboard(TextChannel channel, Document webhookData, WebhookMessage message) {
-		WebhookClient webhook;
-		if (this.webhooks.containsKey(channel.getIdLong())) {
-			webhook = this.webhooks.get(channel.getIdLong());
-		} else if (!webhookData.containsKey("id")) {
-			return this.createWebhook(channel, message);
-		} else {
-			webhook = new WebhookClient(webhookData.getLong("id"), webhookData.getString("token"), this.executor, this.client);
-
-			this.webhooks.put(channel.getIdLong(), webhook);
-		}
-
-		return webhook.send(message)
-			.thenApply(webhookMessage -> new ReadonlyMessage(webhookMessage, webhook.getId(), webhook.getToken()))
-			.exceptionallyCompose(exception -> {
-				Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
-				if (cause instanceof HttpException && ((HttpException) cause).getCode() == 404) {
-					this.webhooks.remove(channel.getIdLong());
-
-					return this.createWebhook(channel, message);
-				}
-
-				return CompletableFuture.failedFuture(exception);
-			});
+		return this.webhooks.send(channel, webhookData, message);
 	}
 
 	public CompletableFuture<ReadonlyMessage> editStarboard(long messageId, long channelId, Document webhookData, WebhookMessage message) {
-		WebhookClient webhook;
-		if (this.webhooks.containsKey(channelId)) {
-			webhook = this.webhooks.get(channelId);
-		} else if (!webhookData.containsKey("id")) {
-			return CompletableFuture.completedFuture(null);
-		} else {
-			webhook = new WebhookClient(webhookData.getLong("id"), webhookData.getString("token"), this.executor, this.client);
-
-			this.webhooks.put(channelId, webhook);
-		}
-
-		return webhook.edit(messageId, message).thenApply(webhookMessage -> new ReadonlyMessage(webhookMessage, webhook.getId(), webhook.getToken()));
+		return this.webhooks.edit(channelId, webhookData, messageId, message);
 	}
 
 	public CompletableFuture<Void> deleteStarboard(long messageId, long channelId, Document webhookData) {
-		WebhookClient webhook;
-		if (this.webhooks.containsKey(channelId)) {
-			webhook = this.webhooks.get(channelId);
-		} else if (!webhookData.containsKey("id")) {
-			return CompletableFuture.completedFuture(null);
-		} else {
-			webhook = new WebhookClient(webhookData.getLong("id"), webhookData.getString("token"), this.executor, this.client);
-
-			this.webhooks.put(channelId, webhook);
-		}
-
-		return webhook.delete(messageId);
+		return this.webhooks.delete(channelId, webhookData, messageId);
 	}
 
 }
@@ -4,80 +4,41 @@ import com.mongodb.client.model.*;
 import com.sx4.bot.core.Sx4;
 import com.sx4.bot.database.mongo.MongoDatabase;
 import com.sx4.bot.entities.mod.Reason;
+import com.sx4.bot.entities.utility.TimingWheel;
 import com.sx4.bot.events.mod.UnbanEvent;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.sharding.ShardManager;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 
 import java.time.Clock;
-import java.util.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 public class TemporaryBanManager {
 	
-	private final Map<Long, Map<Long, ScheduledFuture<?>>> executors;
-	
-	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+	private final TimingWheel<Map.Entry<Long, Long>, Void> wheel;
 
 	private final Sx4 bot;
 	
 	public TemporaryBanManager(Sx4 bot) {
-		this.executors = new HashMap<>();
 		this.bot = bot;
+		this.wheel = new TimingWheel<>(bot.getConfig().getExpiryWindow(), this::handleBans, this::loadBans);
 	}
 	
-	public ScheduledExecutorService getExecutor() {
-		return this.executor;
-	}
-	
-	public ScheduledFuture<?> getExecutor(long guildId, long userId) {
-		if (this.executors.containsKey(guildId)) {
-			Map<Long, ScheduledFuture<?>> users = this.executors.get(guildId);
-			
-			return users.get(userId);
-		}
-		
-		return null;
-	}
-	
-	public void putExecutor(long guildId, long userId, ScheduledFuture<?> executor) {
-		if (this.executors.containsKey(guildId)) {
-			Map<Long, ScheduledFuture<?>> users = this.executors.get(guildId);
-			
-			ScheduledFuture<?> oldExecutor = users.get(userId);
-			if (oldExecutor != null && !oldExecutor.isDone()) {
-				oldExecutor.cancel(true);
-			}
-			
-			users.put(userId, executor);
-		} else {
-			Map<Long, ScheduledFuture<?>> users = new HashMap<>();
-			users.put(userId, executor);
-			
-			this.executors.put(guildId, users);
-		}
+	public TimingWheel<Map.Entry<Long, Long>, Void> getWheel() {
+		return this.wheel;
 	}
 	
 	public void deleteExecutor(long guildId, long userId) {
-		if (this.executors.containsKey(guildId)) {
-			Map<Long, ScheduledFuture<?>> users = this.executors.get(guildId);
-			
-			ScheduledFuture<?> executor = users.remove(userId);
-			if (executor != null && !executor.isDone()) {
-				executor.cancel(true);
-			}
-		}
+		this.wheel.cancel(Map.entry(guildId, userId));
 	}
 	
 	public void putBan(long guildId, long userId, long seconds) {
-		ScheduledFuture<?> executor = this.executor.schedule(() -> this.removeBan(guildId, userId), seconds, TimeUnit.SECONDS);
-		
-		this.putExecutor(guildId, userId, executor);
+		this.wheel.schedule(Map.entry(guildId, userId), null, Clock.systemUTC().instant().getEpochSecond() + seconds);
 	}
 
 	public DeleteOneModel<Document> removeBanAndGet(long guildId, long userId, boolean automatic) {
@@ -122,23 +83,31 @@ public class TemporaryBanManager {
 		this.removeBan(guildId, userId, true);
 	}
 
-	public void ensureBans() {
+	private void handleBans(List<TimingWheel.Timeout<Map.Entry<Long, Long>, Void>> timeouts) {
 		List<WriteModel<Document>> bulkData = new ArrayList<>();
-		this.bot.getMongo().getTemporaryBans(MongoDatabase.EMPTY_DOCUMENT, Projections.include("guildId", "userId", "unbanAt")).forEach(data -> {
-			long currentTime = Clock.systemUTC().instant().getEpochSecond(), unbanAt = data.getLong("unbanAt");
-			if (unbanAt > currentTime) {
-				this.putBan(data.getLong("guildId"), data.getLong("userId"), unbanAt - currentTime);
-			} else {
-				DeleteOneModel<Document> model = this.removeBanAndGet(data.getLong("guildId"), data.getLong("userId"));
-				if (model != null) {
-					bulkData.add(model);
-				}
+		for (TimingWheel.Timeout<Map.Entry<Long, Long>, Void> timeout : timeouts) {
+			Map.Entry<Long, Long> key = timeout.getKey();
+
+			DeleteOneModel<Document> model = this.removeBanAndGet(key.getKey(), key.getValue());
+			if (model != null) {
+				bulkData.add(model);
 			}
-		});
+		}
 
 		if (!bulkData.isEmpty()) {
 			this.bot.getMongo().bulkWriteTemporaryBans(bulkData).whenComplete(MongoDatabase.exceptionally(this.bot.getShardManager()));
 		}
 	}
+
+	private void loadBans(long from, long to) {
+		Bson filter = Filters.and(Filters.gt("unbanAt", from), Filters.lte("unbanAt", to));
+		this.bot.getMongo().getTemporaryBans(filter, Projections.include("guildId", "userId", "unbanAt")).batchSize(this.bot.getConfig().getWarmUpBatchSize()).forEach(data -> {
+			this.wheel.offer(Map.entry(data.getLong("guildId"), data.getLong("userId")), null, data.getLong("unbanAt"));
+		});
+	}
+
+	public void ensureBans() {
+		this.wheel.start(this.bot.getScheduledExecutor());
+	}
 	
 }
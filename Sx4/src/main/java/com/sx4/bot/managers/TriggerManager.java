@@ -0,0 +1,59 @@
+package com.sx4.bot.managers;
+
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.sx4.bot.core.Sx4;
+import com.sx4.bot.entities.management.TriggerIndex;
+import org.bson.conversions.Bson;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class TriggerManager {
+
+	public static final int MAX_CACHED_GUILDS = 50_000;
+
+	private final Map<Long, CompletableFuture<TriggerIndex>> triggers;
+
+	private final Sx4 bot;
+
+	public TriggerManager(Sx4 bot) {
+		this.triggers = new LinkedHashMap<>(16, 0.75F, true) {
+			protected boolean removeEldestEntry(Map.Entry<Long, CompletableFuture<TriggerIndex>> eldest) {
+				return this.size() > TriggerManager.MAX_CACHED_GUILDS;
+			}
+		};
+
+		this.bot = bot;
+	}
+
+	public CompletableFuture<TriggerIndex> retrieveTriggers(long guildId) {
+		synchronized (this.triggers) {
+			CompletableFuture<TriggerIndex> future = this.triggers.get(guildId);
+			if (future != null && !future.isCompletedExceptionally()) {
+				return future;
+			}
+
+			List<Bson> pipeline = List.of(
+				Aggregates.match(Filters.and(Filters.eq("guildId", guildId), Filters.ne("enabled", false))),
+				Aggregates.project(Projections.include("trigger", "response", "case"))
+			);
+
+			future = this.bot.getMongo().aggregateTriggers(pipeline).thenApply(documents -> documents.isEmpty() ? TriggerIndex.EMPTY : new TriggerIndex(documents));
+
+			this.triggers.put(guildId, future);
+
+			return future;
+		}
+	}
+
+	public void invalidateTriggers(long guildId) {
+		synchronized (this.triggers) {
+			this.triggers.remove(guildId);
+		}
+	}
+
+}
@@ -0,0 +1,180 @@
+package com.sx4.bot.managers;
+
+import com.mongodb.client.model.Filters;
+import com.sx4.bot.cache.PrefixCache;
+import com.sx4.bot.core.Sx4;
+import com.sx4.bot.utility.ExceptionUtility;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import org.bson.Document;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class WarmUpManager {
+
+	public static class Task {
+
+		private final String name;
+		private final AtomicLong progress = new AtomicLong(0L);
+
+		private volatile long startedAt = 0L;
+		private volatile long finishedAt = 0L;
+		private volatile Throwable exception;
+
+		public Task(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public long getProgress() {
+			return this.progress.get();
+		}
+
+		public void addProgress(long amount) {
+			this.progress.addAndGet(amount);
+		}
+
+		public void setProgress(long progress) {
+			this.progress.set(progress);
+		}
+
+		public boolean isStarted() {
+			return this.startedAt != 0L;
+		}
+
+		public boolean isDone() {
+			return this.finishedAt != 0L;
+		}
+
+		public Throwable getException() {
+			return this.exception;
+		}
+
+		public long getDuration() {
+			if (this.startedAt == 0L) {
+				return 0L;
+			}
+
+			return (this.finishedAt == 0L ? System.currentTimeMillis() : this.finishedAt) - this.startedAt;
+		}
+
+	}
+
+	private final Map<String, Task> tasks = Collections.synchronizedMap(new LinkedHashMap<>());
+
+	private final ExecutorService executor;
+
+	private final Sx4 bot;
+
+	public WarmUpManager(Sx4 bot) {
+		this.bot = bot;
+		this.executor = Executors.newFixedThreadPool(bot.getConfig().getWarmUpThreads());
+	}
+
+	public List<Task> getTasks() {
+		synchronized (this.tasks) {
+			return new ArrayList<>(this.tasks.values());
+		}
+	}
+
+	public CompletableFuture<Void> submit(String name, Consumer<Task> consumer) {
+		Task task = new Task(name);
+		this.tasks.put(name, task);
+
+		return CompletableFuture.runAsync(() -> {
+			task.startedAt = System.currentTimeMillis();
+
+			try {
+				consumer.accept(task);
+			} catch (Throwable e) {
+				task.exception = e;
+				ExceptionUtility.sendErrorMessage(e);
+			}
+
+			task.finishedAt = System.currentTimeMillis();
+
+			System.out.println(String.format("Warm up task %s %s in %,dms (%,d processed)", name, task.exception == null ? "finished" : "failed", task.getDuration(), task.getProgress()));
+		}, this.executor);
+	}
+
+	public CompletableFuture<Void> warmUpShard(JDA jda) {
+		return this.submit("guilds-" + jda.getShardInfo().getShardId(), task -> {
+			int batchSize = this.bot.getConfig().getWarmUpBatchSize();
+
+			List<Guild> guilds = jda.getGuilds();
+			for (int i = 0; i < guilds.size(); i += batchSize) {
+				List<Guild> batch = guilds.subList(i, Math.min(i + batchSize, guilds.size()));
+
+				Set<Long> guildIds = new HashSet<>();
+				for (Guild guild : batch) {
+					guildIds.add(guild.getIdLong());
+				}
+
+				this.warmGuilds(guildIds, batchSize);
+
+				task.addProgress(batch.size());
+			}
+		});
+	}
+
+	private void warmGuilds(Set<Long> guildIds, int batchSize) {
+		PrefixCache cache = this.bot.getPrefixCache();
+
+		for (Document data : this.bot.getMongo().getGuilds(Filters.in("_id", guildIds), PrefixCache.PROJECTION).batchSize(batchSize)) {
+			long guildId = data.getLong("_id");
+
+			cache.putGuild(guildId, data.getList("prefixes", String.class, Collections.emptyList()));
+			guildIds.remove(guildId);
+		}
+
+		// Guilds without a document are cached as empty so they don't hit the database either
+		for (long guildId : guildIds) {
+			cache.putGuild(guildId, Collections.emptyList());
+		}
+	}
+
+	public CompletableFuture<Void> warmUp() {
+		long start = System.currentTimeMillis();
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		futures.add(this.submit("prefixes", task -> task.setProgress(this.bot.getPrefixCache().ensurePrefixes())));
+
+		futures.add(this.submit("reminders", task -> {
+			this.bot.getReminderManager().ensureReminders();
+			task.setProgress(this.bot.getReminderManager().getWheel().size());
+		}));
+
+		futures.add(this.submit("mutes", task -> {
+			this.bot.getMuteManager().ensureMutes();
+			task.setProgress(this.bot.getMuteManager().getWheel().size());
+		}));
+
+		futures.add(this.submit("bans", task -> {
+			this.bot.getTemporaryBanManager().ensureBans();
+			task.setProgress(this.bot.getTemporaryBanManager().getWheel().size());
+		}));
+
+		futures.add(this.submit("giveaways", task -> {
+			this.bot.getGiveawayManager().ensureGiveaways();
+			task.setProgress(this.bot.getGiveawayManager().getWheel().size());
+		}));
+
+		futures.add(this.submit("subscriptions", task -> this.bot.getYouTubeManager().ensureSubscriptions()));
+
+		if (this.bot.getConfig().isMain()) {
+			futures.add(this.submit("patrons", task -> this.bot.getPatreonManager().ensurePatrons()));
+		}
+
+		return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+			.thenRun(() -> System.out.println(String.format("Warm up finished in %,dms", System.currentTimeMillis() - start)));
+	}
+
+}
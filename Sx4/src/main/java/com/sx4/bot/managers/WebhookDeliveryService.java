@@ -0,0 +1,334 @@
+package com.sx4.bot.managers;
+
+import club.minnced.discord.webhook.exception.HttpException;
+import club.minnced.discord.webhook.send.WebhookMessage;
+import com.sx4.bot.config.Config;
+import com.sx4.bot.core.Sx4;
+import com.sx4.bot.entities.webhook.ReadonlyMessage;
+import com.sx4.bot.entities.webhook.WebhookClient;
+import com.sx4.bot.exceptions.mod.BotPermissionException;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.TextChannel;
+import net.dv8tion.jda.api.entities.Webhook;
+import okhttp3.ConnectionPool;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import org.bson.Document;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public class WebhookDeliveryService {
+
+	private static class Bucket {
+
+		// -1 when the limit of the current window is unknown
+		private int remaining = -1;
+		private long resetAt = 0L;
+
+		public synchronized void update(int remaining, long resetAt) {
+			this.remaining = remaining;
+			this.resetAt = resetAt;
+		}
+
+		public synchronized long reserve(long now) {
+			if (now >= this.resetAt) {
+				this.remaining = -1;
+				return 0L;
+			}
+
+			if (this.remaining == -1) {
+				return 0L;
+			}
+
+			if (this.remaining > 0) {
+				this.remaining--;
+				return 0L;
+			}
+
+			return this.resetAt - now;
+		}
+
+	}
+
+	public class Feature {
+
+		private final String name;
+		private final BiFunction<TextChannel, Webhook, CompletableFuture<?>> save;
+
+		private Feature(String name, BiFunction<TextChannel, Webhook, CompletableFuture<?>> save) {
+			this.name = name;
+			this.save = save;
+		}
+
+		private String getKey(long channelId) {
+			return this.name + ":" + channelId;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public WebhookClient getWebhook(long channelId) {
+			synchronized (WebhookDeliveryService.this.webhooks) {
+				return WebhookDeliveryService.this.webhooks.get(this.getKey(channelId));
+			}
+		}
+
+		public WebhookClient removeWebhook(long channelId) {
+			synchronized (WebhookDeliveryService.this.webhooks) {
+				return WebhookDeliveryService.this.webhooks.remove(this.getKey(channelId));
+			}
+		}
+
+		private WebhookClient replaceWebhook(long channelId, WebhookClient webhook) {
+			synchronized (WebhookDeliveryService.this.webhooks) {
+				String key = this.getKey(channelId);
+
+				// Another send may have already replaced the stale client, in which case that one is used instead
+				WebhookClient current = WebhookDeliveryService.this.webhooks.get(key);
+				if (current == webhook) {
+					WebhookDeliveryService.this.webhooks.remove(key);
+					return null;
+				}
+
+				return current;
+			}
+		}
+
+		public void putWebhook(long channelId, WebhookClient webhook) {
+			synchronized (WebhookDeliveryService.this.webhooks) {
+				WebhookDeliveryService.this.webhooks.put(this.getKey(channelId), webhook);
+			}
+		}
+
+		private WebhookClient getWebhook(long channelId, Document webhookData) {
+			synchronized (WebhookDeliveryService.this.webhooks) {
+				WebhookClient webhook = WebhookDeliveryService.this.webhooks.get(this.getKey(channelId));
+				if (webhook == null && webhookData.containsKey("id")) {
+					webhook = WebhookDeliveryService.this.createClient(webhookData.getLong("id"), webhookData.getString("token"));
+
+					WebhookDeliveryService.this.webhooks.put(this.getKey(channelId), webhook);
+				}
+
+				return webhook;
+			}
+		}
+
+		private CompletableFuture<WebhookClient> createWebhook(TextChannel channel) {
+			String key = this.getKey(channel.getIdLong());
+
+			CompletableFuture<WebhookClient> future;
+			synchronized (WebhookDeliveryService.this.creating) {
+				// Only one webhook is ever created for a channel at a time, anything else waits for it
+				CompletableFuture<WebhookClient> existing = WebhookDeliveryService.this.creating.get(key);
+				if (existing != null) {
+					return existing;
+				}
+
+				future = new CompletableFuture<>();
+				WebhookDeliveryService.this.creating.put(key, future);
+			}
+
+			CompletableFuture<WebhookClient> creation;
+			if (!channel.getGuild().getSelfMember().hasPermission(channel, Permission.MANAGE_WEBHOOKS)) {
+				creation = CompletableFuture.failedFuture(new BotPermissionException(Permission.MANAGE_WEBHOOKS));
+			} else {
+				creation = channel.createWebhook(this.name).submit().thenCompose(webhook -> {
+					WebhookClient webhookClient = WebhookDeliveryService.this.createClient(webhook.getIdLong(), webhook.getToken());
+
+					this.putWebhook(channel.getIdLong(), webhookClient);
+
+					return this.save.apply(channel, webhook).thenApply($ -> webhookClient);
+				});
+			}
+
+			creation.whenComplete((webhook, exception) -> {
+				synchronized (WebhookDeliveryService.this.creating) {
+					WebhookDeliveryService.this.creating.remove(key);
+				}
+
+				if (exception != null) {
+					future.completeExceptionally(exception);
+				} else {
+					future.complete(webhook);
+				}
+			});
+
+			return future;
+		}
+
+		private CompletableFuture<ReadonlyMessage> send(WebhookClient webhook, WebhookMessage message) {
+			return WebhookDeliveryService.this.dispatch(webhook, client -> client.send(message))
+				.thenApply(webhookMessage -> new ReadonlyMessage(webhookMessage, webhook.getId(), webhook.getToken()));
+		}
+
+		public CompletableFuture<ReadonlyMessage> send(TextChannel channel, Document webhookData, WebhookMessage message) {
+			WebhookClient webhook = this.getWebhook(channel.getIdLong(), webhookData);
+			if (webhook == null) {
+				return this.createWebhook(channel).thenCompose(client -> this.send(client, message));
+			}
+
+			return this.send(webhook, message).exceptionallyCompose(exception -> {
+				Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+				if (cause instanceof HttpException && ((HttpException) cause).getCode() == 404) {
+					WebhookClient current = this.replaceWebhook(channel.getIdLong(), webhook);
+					if (current != null) {
+						return this.send(current, message);
+					}
+
+					return this.createWebhook(channel).thenCompose(client -> this.send(client, message));
+				}
+
+				return CompletableFuture.failedFuture(exception);
+			});
+		}
+
+		public CompletableFuture<ReadonlyMessage> edit(long channelId, Document webhookData, long messageId, WebhookMessage message) {
+			WebhookClient webhook = this.getWebhook(channelId, webhookData);
+			if (webhook == null) {
+				return CompletableFuture.completedFuture(null);
+			}
+
+			return WebhookDeliveryService.this.dispatch(webhook, client -> client.edit(messageId, message))
+				.thenApply(webhookMessage -> new ReadonlyMessage(webhookMessage, webhook.getId(), webhook.getToken()));
+		}
+
+		public CompletableFuture<Void> delete(long channelId, Document webhookData, long messageId) {
+			WebhookClient webhook = this.getWebhook(channelId, webhookData);
+			if (webhook == null) {
+				return CompletableFuture.completedFuture(null);
+			}
+
+			return WebhookDeliveryService.this.dispatch(webhook, client -> client.delete(messageId));
+		}
+
+	}
+
+	private final Map<String, WebhookClient> webhooks;
+	private final Map<Long, Bucket> buckets;
+	private final Map<String, CompletableFuture<WebhookClient>> creating = new HashMap<>();
+
+	private final OkHttpClient client;
+	private final ScheduledExecutorService executor;
+
+	public WebhookDeliveryService(Sx4 bot) {
+		Config config = bot.getConfig();
+
+		this.executor = Executors.newScheduledThreadPool(config.getWebhookThreads());
+		this.client = bot.getHttpClient().newBuilder()
+			.connectionPool(new ConnectionPool(config.getWebhookIdleConnections(), 5, TimeUnit.MINUTES))
+			.addInterceptor(this::intercept)
+			.build();
+
+		int maxSize = config.getWebhookCacheSize();
+
+		// Clients share the pool so evicted ones are just dropped rather than closed
+		this.webhooks = new LinkedHashMap<>(16, 0.75F, true) {
+			protected boolean removeEldestEntry(Map.Entry<String, WebhookClient> eldest) {
+				return this.size() > maxSize;
+			}
+		};
+
+		this.buckets = new LinkedHashMap<>(16, 0.75F, true) {
+			protected boolean removeEldestEntry(Map.Entry<Long, Bucket> eldest) {
+				return this.size() > maxSize;
+			}
+		};
+	}
+
+	public Feature register(String name, BiFunction<TextChannel, Webhook, CompletableFuture<?>> save) {
+		return new Feature(name, save);
+	}
+
+	public OkHttpClient getClient() {
+		return this.client;
+	}
+
+	public ScheduledExecutorService getExecutor() {
+		return this.executor;
+	}
+
+	public int size() {
+		synchronized (this.webhooks) {
+			return this.webhooks.size();
+		}
+	}
+
+	public WebhookClient createClient(long id, String token) {
+		return new WebhookClient(id, token, this.executor, this.client);
+	}
+
+	private Bucket getBucket(long webhookId) {
+		synchronized (this.buckets) {
+			return this.buckets.computeIfAbsent(webhookId, key -> new Bucket());
+		}
+	}
+
+	private <Type> CompletableFuture<Type> dispatch(WebhookClient webhook, Function<WebhookClient, CompletableFuture<Type>> request) {
+		long delay = this.getBucket(webhook.getId()).reserve(System.currentTimeMillis());
+		if (delay <= 0L) {
+			return request.apply(webhook);
+		}
+
+		// Wait for the bucket to reset rather than running into a 429
+		CompletableFuture<Type> future = new CompletableFuture<>();
+		this.executor.schedule(() -> {
+			request.apply(webhook).whenComplete((result, exception) -> {
+				if (exception != null) {
+					future.completeExceptionally(exception);
+				} else {
+					future.complete(result);
+				}
+			});
+		}, delay, TimeUnit.MILLISECONDS);
+
+		return future;
+	}
+
+	private Response intercept(Interceptor.Chain chain) throws IOException {
+		Response response = chain.proceed(chain.request());
+
+		long webhookId = WebhookDeliveryService.getWebhookId(chain.request().url());
+		if (webhookId == 0L) {
+			return response;
+		}
+
+		String remaining = response.header("X-RateLimit-Remaining"), resetAfter = response.header("X-RateLimit-Reset-After");
+		if (remaining == null || resetAfter == null) {
+			return response;
+		}
+
+		try {
+			this.getBucket(webhookId).update(Integer.parseInt(remaining), System.currentTimeMillis() + (long) Math.ceil(Double.parseDouble(resetAfter) * 1000));
+		} catch (NumberFormatException e) {
+			// ignore malformed headers, the client still handles 429s itself
+		}
+
+		return response;
+	}
+
+	private static long getWebhookId(HttpUrl url) {
+		List<String> segments = url.pathSegments();
+
+		int index = segments.indexOf("webhooks");
+		if (index == -1 || index + 1 >= segments.size()) {
+			return 0L;
+		}
+
+		try {
+			return Long.parseLong(segments.get(index + 1));
+		} catch (NumberFormatException e) {
+			return 0L;
+		}
+	}
+
+}
@@ -16,6 +16,7 @@ import org.bson.Document;
 
 import java.time.Clock;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -34,7 +35,7 @@ public class YouTubeManager {
 	private final Sx4 bot;
 	
 	public YouTubeManager(Sx4 bot) {
-		this.executors = new HashMap<>();
+		this.executors = new ConcurrentHashMap<>();
 		this.listeners = new ArrayList<>();
 		this.bot = bot;
 	}
@@ -150,9 +151,11 @@ public class YouTubeManager {
 	}
 	
 	public void ensureSubscriptions() {
+		int batchSize = this.bot.getConfig().getWarmUpBatchSize();
+
 		List<WriteModel<Document>> bulkData = new ArrayList<>();
 		
-		this.bot.getMongo().getYouTubeSubscriptions().find().forEach(data -> {
+		this.bot.getMongo().getYouTubeSubscriptions().find().batchSize(batchSize).forEach(data -> {
 			String channelId = data.getString("_id");
 			
 			long timeTill = data.getLong("resubscribeAt") - Clock.systemUTC().instant().getEpochSecond();
@@ -161,6 +164,11 @@ public class YouTubeManager {
 				if (model != null) {
 					bulkData.add(model);
 				}
+
+				if (bulkData.size() >= batchSize) {
+					this.bot.getMongo().bulkWriteYouTubeSubscriptions(new ArrayList<>(bulkData)).whenComplete(MongoDatabase.exceptionally(this.bot.getShardManager()));
+					bulkData.clear();
+				}
 			} else {
 				this.putResubscription(channelId, timeTill);
 			}
@@ -2,15 +2,30 @@ package com.sx4.bot.utility;
 
 import com.jockie.bot.core.command.impl.CommandEvent;
 import com.sx4.bot.config.Config;
+import com.sx4.bot.core.Sx4CommandEvent;
 import com.sx4.bot.entities.image.ImageError;
+import com.sx4.bot.entities.image.ImageFilter;
+import com.sx4.bot.entities.image.ImageFilters;
+import com.sx4.bot.entities.image.ImageRequest;
+import com.sx4.bot.exceptions.image.ImageException;
+import com.sx4.bot.exceptions.image.ImageRenderException;
+import com.sx4.bot.exceptions.image.ImageSizeException;
+import com.sx4.bot.exceptions.image.UnsupportedImageException;
+import com.sx4.bot.http.HttpCallback;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.requests.restaction.MessageAction;
+import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
 import org.bson.Document;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 
 public class ImageUtility {
@@ -26,12 +41,27 @@ public class ImageUtility {
 	public static MessageAction getImageMessage(TextChannel channel, Response response, BiFunction<Document, ImageError, MessageAction> badRequest) throws IOException {
 		int status = response.code();
 		if (status == 200) {
-			byte[] bytes = response.body().bytes();
-			if (bytes.length > Message.MAX_FILE_SIZE) {
-				return channel.sendMessageFormat("File size cannot exceed %s (**%s**) %s", NumberUtility.getBytesReadable(Message.MAX_FILE_SIZE), NumberUtility.getBytesReadable(bytes.length), Config.get().getFailureEmote());
+			ResponseBody body = response.body();
+			String fileName = String.format("image.%s", response.header("Content-Type").split("/")[1]);
+
+			// Oversized renders are rejected from the headers before any of the body is read
+			long length = body.contentLength();
+			if (length > Message.MAX_FILE_SIZE) {
+				response.close();
+				return ImageUtility.getFileSizeMessage(channel, length);
 			}
 
-			return channel.sendFile(bytes, String.format("image.%s", response.header("Content-Type").split("/")[1]));
+			if (length == -1) {
+				// Without a length the body is read into okio's pooled segments up to one byte over the limit
+				BufferedSource source = body.source();
+				if (source.request(Message.MAX_FILE_SIZE + 1)) {
+					response.close();
+					return ImageUtility.getFileSizeMessage(channel, -1);
+				}
+			}
+
+			// The body is piped straight into the upload, JDA closes it once the request has been sent
+			return channel.sendFile(body.byteStream(), fileName);
 		} else {
 			return ImageUtility.getErrorMessage(channel, status, response.body().string(), badRequest);
 		}
@@ -41,6 +71,112 @@ public class ImageUtility {
 		return ImageUtility.getImageMessage(channel, response, null);
 	}
 
+	public static MessageAction getFileSizeMessage(TextChannel channel, long size) {
+		if (size == -1) {
+			return channel.sendMessageFormat("File size cannot exceed %s %s", NumberUtility.getBytesReadable(Message.MAX_FILE_SIZE), Config.get().getFailureEmote());
+		}
+
+		return channel.sendMessageFormat("File size cannot exceed %s (**%s**) %s", NumberUtility.getBytesReadable(Message.MAX_FILE_SIZE), NumberUtility.getBytesReadable(size), Config.get().getFailureEmote());
+	}
+
+	public static MessageAction getImageMessage(TextChannel channel, byte[] bytes, String format) {
+		if (bytes.length > Message.MAX_FILE_SIZE) {
+			return ImageUtility.getFileSizeMessage(channel, bytes.length);
+		}
+
+		return channel.sendFile(bytes, String.format("image.%s", format));
+	}
+
+	public static void sendImageMessage(Sx4CommandEvent event, Request request, BiFunction<Document, ImageError, MessageAction> badRequest) {
+		event.getBot().getRenderCache().retrieve(request).whenComplete((result, exception) -> {
+			Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+			if (cause instanceof ImageRenderException) {
+				ImageRenderException renderException = (ImageRenderException) cause;
+				ImageUtility.getErrorMessage(event.getTextChannel(), renderException.getStatus(), renderException.getBody(), badRequest).queue();
+				return;
+			}
+
+			if (cause instanceof ImageSizeException) {
+				ImageUtility.getFileSizeMessage(event.getTextChannel(), ((ImageSizeException) cause).getSize()).queue();
+				return;
+			}
+
+			if (ExceptionUtility.sendExceptionally(event, exception)) {
+				return;
+			}
+
+			ImageUtility.getImageMessage(event.getTextChannel(), result.getBytes(), result.getFormat()).queue();
+		});
+	}
+
+	public static void sendImageMessage(Sx4CommandEvent event, Request request) {
+		ImageUtility.sendImageMessage(event, request, null);
+	}
+
+	public static void sendImage(Sx4CommandEvent event, String imageUrl, ImageFilter filter, Supplier<Request> fallback, BiFunction<Document, ImageError, MessageAction> badRequest) {
+		event.getBot().getImageManager().process(imageUrl, filter).whenComplete((result, exception) -> {
+			Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+			if (cause instanceof UnsupportedImageException) {
+				// Formats which can't be decoded locally are still handled by the image webserver
+				ImageUtility.sendImageMessage(event, fallback.get(), badRequest);
+				return;
+			}
+
+			if (cause instanceof ImageException) {
+				event.replyFailure(cause.getMessage()).queue();
+				return;
+			}
+
+			if (cause instanceof ImageSizeException) {
+				ImageUtility.getFileSizeMessage(event.getTextChannel(), ((ImageSizeException) cause).getSize()).queue();
+				return;
+			}
+
+			if (ExceptionUtility.sendExceptionally(event, exception)) {
+				return;
+			}
+
+			ImageUtility.getImageMessage(event.getTextChannel(), result.getBytes(), result.getFormat()).queue();
+		});
+	}
+
+	public static void sendImage(Sx4CommandEvent event, String imageUrl, ImageFilter filter, Supplier<Request> fallback) {
+		ImageUtility.sendImage(event, imageUrl, filter, fallback, null);
+	}
+
+	public static void getColours(Sx4CommandEvent event, String imageUrl, Consumer<List<Document>> consumer) {
+		event.getBot().getImageManager().analyse(imageUrl, ImageFilters::getColours).whenComplete((colours, exception) -> {
+			Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+			if (cause instanceof UnsupportedImageException) {
+				Request request = new ImageRequest(event.getConfig().getImageWebserverUrl("common-colour"))
+					.addQuery("image", imageUrl)
+					.build(event.getConfig().getImageWebserver());
+
+				event.getHttpClient().newCall(request).enqueue((HttpCallback) response -> {
+					if (!response.isSuccessful()) {
+						ImageUtility.getErrorMessage(event.getTextChannel(), response.code(), response.body().string()).queue();
+						return;
+					}
+
+					consumer.accept(Document.parse(response.body().string()).getList("colours", Document.class));
+				});
+
+				return;
+			}
+
+			if (cause instanceof ImageException) {
+				event.replyFailure(cause.getMessage()).queue();
+				return;
+			}
+
+			if (ExceptionUtility.sendExceptionally(event, exception)) {
+				return;
+			}
+
+			consumer.accept(colours);
+		});
+	}
+
 	public static MessageAction getErrorMessage(TextChannel channel, int status, String fullBody, BiFunction<Document, ImageError, MessageAction> badRequest) {
 		if (status == 400) {
 			Document body = Document.parse(fullBody);
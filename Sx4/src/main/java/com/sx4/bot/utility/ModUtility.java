@@ -6,11 +6,13 @@ import com.sx4.bot.database.mongo.MongoDatabase;
 import com.sx4.bot.database.mongo.model.Operators;
 import com.sx4.bot.entities.mod.Reason;
 import com.sx4.bot.entities.mod.action.*;
+import com.sx4.bot.entities.settings.PermissionContext;
 import com.sx4.bot.events.mod.*;
 import com.sx4.bot.exceptions.mod.AuthorPermissionException;
 import com.sx4.bot.exceptions.mod.BotHierarchyException;
 import com.sx4.bot.exceptions.mod.BotPermissionException;
 import com.sx4.bot.exceptions.mod.MaxRolesException;
+import com.sx4.bot.managers.MuteManager;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
@@ -21,7 +23,7 @@ import org.bson.conversions.Bson;
 
 import java.time.Clock;
 import java.time.Duration;
-import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
@@ -108,13 +110,17 @@ public class ModUtility {
 				Filters.eq("guildId", guildId)
 			);
 
-			return bot.getMongo().updateMute(filter, update, new UpdateOptions().upsert(true));
-		}).thenCompose(result -> {
+			FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().returnDocument(ReturnDocument.BEFORE).projection(Projections.include("unmuteAt")).upsert(true);
+
+			return bot.getMongo().findAndUpdateMute(filter, update, options);
+		}).thenCompose(oldData -> {
 			Role role = atomicRole.get();
-			boolean wasExtended = extend && result.getUpsertedId() == null;
+			boolean wasExtended = extend && oldData != null;
+
+			long unmuteAt = MuteManager.getUnmuteAt(oldData, duration, extend);
 
 			return guild.addRoleToMember(target, role).reason(ModUtility.getAuditReason(reason, moderator.getUser())).submit().thenApply($ -> {
-				bot.getMuteManager().putMute(guild.getIdLong(), target.getIdLong(), role.getIdLong(), duration, wasExtended);
+				bot.getMuteManager().putMute(guild.getIdLong(), target.getIdLong(), role.getIdLong(), unmuteAt);
 
 				ModActionEvent modEvent = wasExtended ? new MuteExtendEvent(moderator, target.getUser(), reason, duration) : new MuteEvent(moderator, target.getUser(), reason, duration);
 				bot.getModActionManager().onModAction(modEvent);
@@ -213,9 +219,9 @@ public class ModUtility {
 
 		Guild guild = target.getGuild();
 
-		Document data = bot.getMongo().getGuildById(guild.getIdLong(), Projections.include("warn", "mute", "temporaryBan", "fakePermissions"));
+		Document data = bot.getMongo().getGuildById(guild.getIdLong(), Projections.include("warn", "mute", "temporaryBan"));
 
-		List<Document> fakePermissions = data.getEmbedded(List.of("fakePermissions", "holders"), Collections.emptyList());
+		PermissionContext context = bot.getPermissionContextCache().get(guild.getIdLong());
 
 		Document warnData = data.get("warn", MongoDatabase.EMPTY_DOCUMENT);
 
@@ -296,8 +302,10 @@ public class ModUtility {
 							Filters.eq("guildId", guild.getIdLong())
 						);
 
-						return bot.getMongo().updateMute(muteFilter, muteUpdate, new UpdateOptions().upsert(true));
-					}).whenComplete((muteResult, muteException) -> {
+						FindOneAndUpdateOptions muteOptions = new FindOneAndUpdateOptions().returnDocument(ReturnDocument.BEFORE).projection(Projections.include("unmuteAt")).upsert(true);
+
+						return bot.getMongo().findAndUpdateMute(muteFilter, muteUpdate, muteOptions);
+					}).whenComplete((oldMute, muteException) -> {
 						if (muteException != null) {
 							future.completeExceptionally(muteException);
 							return;
@@ -306,7 +314,7 @@ public class ModUtility {
 						Role role = atomicRole.get();
 
 						guild.addRoleToMember(target, role).reason(ModUtility.getAuditReason(reason, moderator.getUser())).queue($ -> {
-							bot.getMuteManager().putMute(guild.getIdLong(), target.getIdLong(), role.getIdLong(), muteDuration,extend && muteResult.getUpsertedId() == null);
+							bot.getMuteManager().putMute(guild.getIdLong(), target.getIdLong(), role.getIdLong(), MuteManager.getUnmuteAt(oldMute, muteDuration, extend));
 
 							bot.getModActionManager().onModAction(new WarnEvent(moderator, target.getUser(), reason, currentWarning, nextWarning));
 
@@ -326,7 +334,7 @@ public class ModUtility {
 						return;
 					}
 
-					if (!CheckUtility.hasPermissions(bot, moderator, fakePermissions, Permission.KICK_MEMBERS)) {
+					if (!CheckUtility.hasPermissions(bot, moderator, context, EnumSet.of(Permission.KICK_MEMBERS))) {
 						future.completeExceptionally(new AuthorPermissionException(Permission.KICK_MEMBERS));
 						return;
 					}
@@ -349,7 +357,7 @@ public class ModUtility {
 						return;
 					}
 
-					if (!CheckUtility.hasPermissions(bot, moderator, fakePermissions, Permission.BAN_MEMBERS)) {
+					if (!CheckUtility.hasPermissions(bot, moderator, context, EnumSet.of(Permission.BAN_MEMBERS))) {
 						future.completeExceptionally(new AuthorPermissionException(Permission.BAN_MEMBERS));
 						return;
 					}
@@ -389,7 +397,7 @@ public class ModUtility {
 						return;
 					}
 
-					if (!CheckUtility.hasPermissions(bot, moderator, fakePermissions, Permission.BAN_MEMBERS)) {
+					if (!CheckUtility.hasPermissions(bot, moderator, context, EnumSet.of(Permission.BAN_MEMBERS))) {
 						future.completeExceptionally(new AuthorPermissionException(Permission.BAN_MEMBERS));
 						return;
 					}
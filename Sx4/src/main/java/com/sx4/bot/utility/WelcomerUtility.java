@@ -1,24 +1,27 @@
 package com.sx4.bot.utility;
 
 import club.minnced.discord.webhook.send.WebhookMessageBuilder;
+import com.sx4.bot.cache.RenderCache;
 import com.sx4.bot.config.Config;
 import com.sx4.bot.entities.image.ImageRequest;
+import com.sx4.bot.exceptions.image.ImageRenderException;
+import com.sx4.bot.exceptions.image.ImageSizeException;
 import com.sx4.bot.formatter.IFormatter;
 import com.sx4.bot.formatter.JsonFormatter;
-import com.sx4.bot.http.HttpCallback;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.User;
-import okhttp3.OkHttpClient;
 import org.bson.Document;
 
+import java.io.File;
 import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.concurrent.CompletionException;
 import java.util.function.BiConsumer;
 
 public class WelcomerUtility {
 
-	public static void getWelcomerMessage(OkHttpClient httpClient, Document messageData, String bannerId, Member member, boolean canary, boolean image, boolean gif, BiConsumer<WebhookMessageBuilder, Throwable> consumer) {
+	public static void getWelcomerMessage(RenderCache renderCache, Document messageData, String bannerId, Member member, boolean canary, boolean image, boolean gif, BiConsumer<WebhookMessageBuilder, Throwable> consumer) {
 		Guild guild = member.getGuild();
 		User user = member.getUser();
 		OffsetDateTime now = OffsetDateTime.now();
@@ -52,32 +55,40 @@ public class WelcomerUtility {
 				.addQuery("directory", canary ? "sx4-canary" : "sx4-main");
 
 			if (bannerId != null) {
-				request.addQuery("banner_id", bannerId);
+				// Banners are replaced under the same id so the file's modification time keeps cached renders from going stale
+				request.addQuery("banner_id", bannerId)
+					.setVersion(new File("welcomer/banners/" + bannerId).lastModified());
 			}
 
-			httpClient.newCall(request.build(Config.get().getImageWebserver())).enqueue((HttpCallback) response -> {
-				if (response.isSuccessful()) {
-					String fileName = "welcomer." + response.header("Content-Type").split("/")[1];
-					formatter.addVariable("file.name", fileName).addVariable("file.url", "attachment://" + fileName);
+			renderCache.retrieve(request.build(Config.get().getImageWebserver())).whenComplete((result, exception) -> {
+				Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+				if (cause instanceof ImageRenderException || cause instanceof ImageSizeException) {
+					return;
+				}
 
-					WebhookMessageBuilder builder;
-					if (messageData == null) {
-						builder = new WebhookMessageBuilder();
-					} else {
-						try {
-							builder = MessageUtility.fromJson(formatter.parse());
-						} catch (IllegalArgumentException e) {
-							consumer.accept(null, e);
-							return;
-						}
-					}
+				if (cause != null) {
+					consumer.accept(null, cause);
+					return;
+				}
 
-					builder.addFile(fileName, response.body().bytes());
+				String fileName = "welcomer." + result.getFormat();
+				formatter.addVariable("file.name", fileName).addVariable("file.url", "attachment://" + fileName);
 
-					consumer.accept(builder, null);
+				WebhookMessageBuilder builder;
+				if (messageData == null) {
+					builder = new WebhookMessageBuilder();
 				} else {
-					response.close();
+					try {
+						builder = MessageUtility.fromJson(formatter.parse());
+					} catch (IllegalArgumentException e) {
+						consumer.accept(null, e);
+						return;
+					}
 				}
+
+				builder.addFile(fileName, result.getBytes());
+
+				consumer.accept(builder, null);
 			});
 		}
 	}
@@ -32,6 +32,8 @@ public class Waiter<Type extends GenericEvent> {
 
 	private long authorId = 0L;
 	private long channelId = 0L;
+
+	private long messageId = 0L;
 	
 	private long timeout = 0L;
 	
@@ -78,6 +80,16 @@ public class Waiter<Type extends GenericEvent> {
 		return this.authorId;
 	}
 
+	public Waiter<Type> setMessageId(long messageId) {
+		this.messageId = messageId;
+
+		return this;
+	}
+
+	public long getMessageId() {
+		return this.messageId;
+	}
+
 	public void onCancelled(Consumer<CancelType> onCancelled) {
 		this.future.whenComplete((result, exception) -> {
 			Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
@@ -13,13 +13,7 @@ public class WaiterHandler implements EventListener {
 	}
 
 	public void onEvent(GenericEvent event) {
-		Class<?> clazz = event.getClass();
-		
-		while (clazz != null) {
-			this.bot.getWaiterManager().checkWaiters(event, clazz);
-			
-			clazz = clazz.getSuperclass();
-		}
+		this.bot.getWaiterManager().checkWaiters(event);
 	}
 	
 }
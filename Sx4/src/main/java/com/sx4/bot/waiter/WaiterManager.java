@@ -1,84 +1,162 @@
 package com.sx4.bot.waiter;
 
+import com.sx4.bot.utility.ExceptionUtility;
 import com.sx4.bot.waiter.Waiter.CancelType;
 import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.interaction.ButtonClickEvent;
+import net.dv8tion.jda.api.events.message.GenericMessageEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class WaiterManager {
-	
-	private final List<Waiter<?>> waiters;
+
+	private static class Timeout implements Comparable<Timeout> {
+
+		private final Waiter<?> waiter;
+
+		private final long expiresAt;
+		private final long sequence;
+
+		public Timeout(Waiter<?> waiter, long expiresAt, long sequence) {
+			this.waiter = waiter;
+			this.expiresAt = expiresAt;
+			this.sequence = sequence;
+		}
+
+		public int compareTo(Timeout timeout) {
+			int compare = Long.compare(this.expiresAt, timeout.expiresAt);
+			return compare == 0 ? Long.compare(this.sequence, timeout.sequence) : compare;
+		}
+
+	}
+
+	public static final long TIMEOUT_TICK = 250L;
+
+	private final Map<Class<?>, List<Waiter<?>>> waiters;
+	private final Map<Long, List<Waiter<?>>> messageWaiters;
 	private final Map<Long, Map<Long, Waiter<?>>> uniqueWaiters;
-	
-	private final Map<Waiter<?>, ScheduledFuture<?>> executors;
-	
+
+	private final Map<Class<?>, List<Class<?>>> hierarchies;
+
+	private final NavigableSet<Timeout> timeouts;
+	private final Map<Waiter<?>, Timeout> waiterTimeouts;
+	private final AtomicLong sequence = new AtomicLong(0L);
+
 	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
-	
+
 	public WaiterManager() {
-		this.uniqueWaiters = new HashMap<>();
-		this.waiters = new ArrayList<>();
-		this.executors = new HashMap<>();
+		this.waiters = new ConcurrentHashMap<>();
+		this.messageWaiters = new ConcurrentHashMap<>();
+		this.uniqueWaiters = new ConcurrentHashMap<>();
+		this.hierarchies = new ConcurrentHashMap<>();
+		this.timeouts = new ConcurrentSkipListSet<>();
+		this.waiterTimeouts = new ConcurrentHashMap<>();
+
+		this.executor.scheduleAtFixedRate(this::expireTimeouts, WaiterManager.TIMEOUT_TICK, WaiterManager.TIMEOUT_TICK, TimeUnit.MILLISECONDS);
 	}
-	
-	public void setTimeout(Waiter<?> waiter) {
-		if (this.executors.containsKey(waiter)) {
-			ScheduledFuture<?> executor = this.executors.remove(waiter);
-			if (executor != null && !executor.isDone()) {
-				executor.cancel(true);
+
+	private void expireTimeouts() {
+		long now = System.currentTimeMillis();
+
+		Iterator<Timeout> iterator = this.timeouts.iterator();
+		while (iterator.hasNext()) {
+			Timeout timeout = iterator.next();
+			if (timeout.expiresAt > now) {
+				break;
+			}
+
+			if (!this.timeouts.remove(timeout)) {
+				continue;
+			}
+
+			this.waiterTimeouts.remove(timeout.waiter, timeout);
+
+			try {
+				timeout.waiter.timeout();
+			} catch (Throwable exception) {
+				// A failing waiter should not stop the rest from timing out
+				ExceptionUtility.sendErrorMessage(exception);
 			}
 		}
-		
-		this.executors.put(waiter, this.executor.schedule(waiter::timeout, waiter.getTimeout(), TimeUnit.SECONDS));
 	}
-	
+
+	public void setTimeout(Waiter<?> waiter) {
+		Timeout timeout = new Timeout(waiter, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(waiter.getTimeout()), this.sequence.getAndIncrement());
+
+		Timeout oldTimeout = this.waiterTimeouts.put(waiter, timeout);
+		if (oldTimeout != null) {
+			this.timeouts.remove(oldTimeout);
+		}
+
+		this.timeouts.add(timeout);
+	}
+
 	public void cancelTimeout(Waiter<?> waiter) {
-		if (this.executors.containsKey(waiter)) {
-			ScheduledFuture<?> executor = this.executors.remove(waiter);
-			if (executor != null && !executor.isDone()) {
-				executor.cancel(true);
-			}
+		Timeout timeout = this.waiterTimeouts.remove(waiter);
+		if (timeout != null) {
+			this.timeouts.remove(timeout);
 		}
 	}
-	
+
+	private <Key> void add(Map<Key, List<Waiter<?>>> map, Key key, Waiter<?> waiter) {
+		map.compute(key, (mapKey, waiters) -> {
+			if (waiters == null) {
+				waiters = new CopyOnWriteArrayList<>();
+			}
+
+			waiters.add(waiter);
+
+			return waiters;
+		});
+	}
+
+	private <Key> void remove(Map<Key, List<Waiter<?>>> map, Key key, Waiter<?> waiter) {
+		map.computeIfPresent(key, (mapKey, waiters) -> {
+			waiters.remove(waiter);
+
+			return waiters.isEmpty() ? null : waiters;
+		});
+	}
+
 	public void addWaiter(Waiter<?> waiter) {
 		if (waiter.isUnique() && waiter.getEvent().isAssignableFrom(MessageReceivedEvent.class)) {
-			Map<Long, Waiter<?>> users = this.uniqueWaiters.get(waiter.getChannelId());
-			if (users != null) {
-				Waiter<?> oldWaiter = users.remove(waiter.getAuthorId());
-				if (oldWaiter != null) {
-					oldWaiter.cancel(null, CancelType.UNIQUE);
+			List<Waiter<?>> replaced = new ArrayList<>(1);
+			this.uniqueWaiters.compute(waiter.getChannelId(), (channelId, users) -> {
+				if (users == null) {
+					users = new ConcurrentHashMap<>();
 				}
-				
-				users.put(waiter.getAuthorId(), waiter);
-				
-				return;
-			}
-			
-			users = new HashMap<>();
-			users.put(waiter.getAuthorId(), waiter);
-			
-			this.uniqueWaiters.put(waiter.getChannelId(), users);
+
+				Waiter<?> oldWaiter = users.put(waiter.getAuthorId(), waiter);
+				if (oldWaiter != null && oldWaiter != waiter) {
+					replaced.add(oldWaiter);
+				}
+
+				return users;
+			});
+
+			// Cancel outside of the compute as cancelling removes the waiter from the same map
+			replaced.forEach(oldWaiter -> oldWaiter.cancel(null, CancelType.UNIQUE));
+		} else if (waiter.getMessageId() != 0L) {
+			this.add(this.messageWaiters, waiter.getMessageId(), waiter);
 		} else {
-			this.waiters.add(waiter);
+			this.add(this.waiters, waiter.getEvent(), waiter);
 		}
 	}
-	
+
 	public void removeWaiter(Waiter<?> waiter) {
 		if (waiter.isUnique()) {
-			Map<Long, Waiter<?>> users = this.uniqueWaiters.get(waiter.getChannelId());
-			if (users != null) {
-				users.remove(waiter.getAuthorId());
-			}
+			this.uniqueWaiters.computeIfPresent(waiter.getChannelId(), (channelId, users) -> {
+				users.remove(waiter.getAuthorId(), waiter);
+
+				return users.isEmpty() ? null : users;
+			});
+		} else if (waiter.getMessageId() != 0L) {
+			this.remove(this.messageWaiters, waiter.getMessageId(), waiter);
 		} else {
-			this.waiters.remove(waiter);
+			this.remove(this.waiters, waiter.getEvent(), waiter);
 		}
 	}
 
@@ -95,27 +173,68 @@ public class WaiterManager {
 
 		waiter.failure(event);
 	}
-	
-	public void checkWaiters(GenericEvent event, Class<?> clazz) {
+
+	private List<Class<?>> getHierarchy(Class<?> clazz) {
+		return this.hierarchies.computeIfAbsent(clazz, key -> {
+			List<Class<?>> hierarchy = new ArrayList<>();
+
+			Class<?> superClass = key;
+			while (superClass != null) {
+				hierarchy.add(superClass);
+
+				superClass = superClass.getSuperclass();
+			}
+
+			return hierarchy;
+		});
+	}
+
+	private long getMessageId(GenericEvent event) {
+		if (event instanceof GenericMessageEvent) {
+			return ((GenericMessageEvent) event).getMessageIdLong();
+		} else if (event instanceof ButtonClickEvent) {
+			return ((ButtonClickEvent) event).getMessageIdLong();
+		}
+
+		return 0L;
+	}
+
+	public void checkWaiters(GenericEvent event) {
+		if (this.waiters.isEmpty() && this.messageWaiters.isEmpty() && this.uniqueWaiters.isEmpty()) {
+			return;
+		}
+
+		Map<Long, Waiter<?>> users = null;
 		if (event instanceof MessageReceivedEvent) {
-			MessageReceivedEvent messageEvent = (MessageReceivedEvent) event;
-			
-			Map<Long, Waiter<?>> users = this.uniqueWaiters.get(messageEvent.getChannel().getIdLong());
+			users = this.uniqueWaiters.get(((MessageReceivedEvent) event).getChannel().getIdLong());
+		}
+
+		long messageId = this.getMessageId(event);
+		List<Waiter<?>> messageWaiters = messageId == 0L ? null : this.messageWaiters.get(messageId);
+
+		for (Class<?> clazz : this.getHierarchy(event.getClass())) {
 			if (users != null) {
-				Waiter<?> waiter = users.get(messageEvent.getAuthor().getIdLong());
+				Waiter<?> waiter = users.get(((MessageReceivedEvent) event).getAuthor().getIdLong());
 				if (waiter != null && waiter.getEvent() == clazz) {
 					this.checkWaiter(waiter, event);
 				}
 			}
-		}
-		
-		for (Waiter<?> waiter : new ArrayList<>(this.waiters)) {
-			if (waiter.getEvent() != clazz) {
-				continue;
+
+			if (messageWaiters != null) {
+				for (Waiter<?> waiter : messageWaiters) {
+					if (waiter.getEvent() == clazz) {
+						this.checkWaiter(waiter, event);
+					}
+				}
 			}
 
-			this.checkWaiter(waiter, event);
+			List<Waiter<?>> waiters = this.waiters.get(clazz);
+			if (waiters != null) {
+				for (Waiter<?> waiter : waiters) {
+					this.checkWaiter(waiter, event);
+				}
+			}
 		}
 	}
-	
+
 }